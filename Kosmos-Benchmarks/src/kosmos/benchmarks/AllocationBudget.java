@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks;
+
+import kosmos.profiling.*;
+
+/**
+ * Checks that a benchmark stays within a number of bytes allocated per invocation, each measurement iteration is a allocation tick.
+ * It must be created, started and ended on the benchmark thread, so it belongs in a thread scoped state.
+ */
+public class AllocationBudget {
+	private final AllocationTracker tracker;
+	private final Class<?> owner;
+	private final long bytesPerInvocation;
+	private long invocations;
+
+	/**
+	 * Creates a new budget for the calling thread.
+	 *
+	 * @param owner The benchmark class, the allocations are reported under its name.
+	 * @param bytesPerInvocation The bytes a single invocation can allocate.
+	 */
+	public AllocationBudget(Class<?> owner, long bytesPerInvocation) {
+		this.tracker = new AllocationTracker();
+		this.owner = owner;
+		this.bytesPerInvocation = bytesPerInvocation;
+		this.invocations = 0;
+	}
+
+	/**
+	 * Starts measuring a iteration.
+	 */
+	public void begin() {
+		invocations = 0;
+		tracker.reset();
+		tracker.begin(owner);
+	}
+
+	/**
+	 * Counts a invocation of the benchmark.
+	 */
+	public void invoked() {
+		invocations++;
+	}
+
+	/**
+	 * Stops measuring a iteration and checks it against the budget.
+	 *
+	 * @throws IllegalStateException If the iteration allocated more than its invocations are allowed, this fails the benchmark run.
+	 */
+	public void end() {
+		tracker.end(owner);
+		tracker.setBudget(owner, bytesPerInvocation * Math.max(1, invocations));
+		tracker.tick();
+		tracker.assertWithinBudget();
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks;
+
+import flounder.maths.vectors.*;
+import kosmos.world.*;
+import kosmos.world.chunks.meshing.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Fixed seed worlds and tile models shared by the benchmarks, nothing here needs a running framework.
+ */
+public class BenchmarkWorlds {
+	// The seed every benchmark world is generated from.
+	public static final int SEED = 42069;
+
+	// The hexagon models in the same order as the chunk model map.
+	private static final String[] HEXAGON_FILES = new String[]{"hexagon_u.obj", "hexagon_l.obj", "hexagon_0.obj", "hexagon_1.obj", "hexagon_2.obj", "hexagon_3.obj", "hexagon_4.obj", "hexagon_5.obj"};
+
+	private BenchmarkWorlds() {
+	}
+
+	/**
+	 * Creates a world with the same parameters as a new singleplayer world and a fixed seed.
+	 *
+	 * @return The new world.
+	 */
+	public static WorldDefinition createWorld() {
+		return new WorldDefinition("benchmark", SEED, 1536, 400.0f, 40.0f, 40.0f, 0.8f, 1.0f, 0.4f, 600.0f, 0.7f, new HashMap<>(), new HashMap<>());
+	}
+
+	/**
+	 * Gets the centre chunk position and the six chunk positions around it.
+	 *
+	 * @return The chunk positions.
+	 */
+	public static Vector3f[] chunkPositions() {
+		return new Vector3f[]{
+				new Vector3f(0.0f, 0.0f, 0.0f),
+				new Vector3f(24.681724f, 0.0f, 15.75f),
+				new Vector3f(-1.299038f, 0.0f, 29.25f),
+				new Vector3f(-25.980762f, 0.0f, 13.5f),
+				new Vector3f(-24.681724f, 0.0f, -15.75f),
+				new Vector3f(1.299038f, 0.0f, -29.25f),
+				new Vector3f(25.980762f, 0.0f, -13.5f)
+		};
+	}
+
+	/**
+	 * Loads the hexagon tile models from the terrain resources.
+	 *
+	 * @return The tile models.
+	 */
+	public static MeshAssembly.TileModel[] loadHexagons() {
+		MeshAssembly.TileModel[] result = new MeshAssembly.TileModel[HEXAGON_FILES.length];
+
+		for (int i = 0; i < HEXAGON_FILES.length; i++) {
+			result[i] = loadObj("res/terrains/models/" + HEXAGON_FILES[i]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * A minimal triangulated OBJ reader, tangents are left as zero as the mesh assembly only copies them.
+	 *
+	 * @param resource The class path resource to read.
+	 *
+	 * @return The tile model.
+	 */
+	private static MeshAssembly.TileModel loadObj(String resource) {
+		List<float[]> positions = new ArrayList<>();
+		List<float[]> uvs = new ArrayList<>();
+		List<float[]> normals = new ArrayList<>();
+		Map<String, Integer> corners = new LinkedHashMap<>();
+		List<Integer> indices = new ArrayList<>();
+
+		InputStream stream = BenchmarkWorlds.class.getClassLoader().getResourceAsStream(resource);
+
+		if (stream == null) {
+			throw new IllegalStateException("Could not find benchmark resource: " + resource);
+		}
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				String[] d = line.trim().split("\\s+");
+
+				if (d[0].equals("v")) {
+					positions.add(new float[]{Float.parseFloat(d[1]), Float.parseFloat(d[2]), Float.parseFloat(d[3])});
+				} else if (d[0].equals("vt")) {
+					uvs.add(new float[]{Float.parseFloat(d[1]), 1.0f - Float.parseFloat(d[2])});
+				} else if (d[0].equals("vn")) {
+					normals.add(new float[]{Float.parseFloat(d[1]), Float.parseFloat(d[2]), Float.parseFloat(d[3])});
+				} else if (d[0].equals("f")) {
+					for (int i = 1; i <= 3; i++) {
+						Integer index = corners.get(d[i]);
+
+						if (index == null) {
+							index = corners.size();
+							corners.put(d[i], index);
+						}
+
+						indices.add(index);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not read benchmark resource: " + resource, e);
+		}
+
+		float[] resultVertices = new float[corners.size() * 3];
+		float[] resultTextures = new float[corners.size() * 2];
+		float[] resultNormals = new float[corners.size() * 3];
+		float[] resultTangents = new float[corners.size() * 3];
+		int[] resultIndices = new int[indices.size()];
+
+		for (Map.Entry<String, Integer> corner : corners.entrySet()) {
+			String[] c = corner.getKey().split("/");
+			int i = corner.getValue();
+			System.arraycopy(positions.get(Integer.parseInt(c[0]) - 1), 0, resultVertices, i * 3, 3);
+			System.arraycopy(uvs.get(Integer.parseInt(c[1]) - 1), 0, resultTextures, i * 2, 2);
+			System.arraycopy(normals.get(Integer.parseInt(c[2]) - 1), 0, resultNormals, i * 3, 3);
+		}
+
+		for (int i = 0; i < resultIndices.length; i++) {
+			resultIndices[i] = indices.get(i);
+		}
+
+		return new MeshAssembly.TileModel(resultVertices, resultTextures, resultNormals, resultTangents, resultIndices);
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks;
+
+import flounder.maths.vectors.*;
+import kosmos.world.*;
+import kosmos.world.chunks.*;
+import kosmos.world.chunks.meshing.*;
+import kosmos.world.decorations.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Benchmarks chunk tile generation and the mesh assembly of the generated tiles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ChunkBenchmark {
+	@Param({"0", "1", "2", "3", "4", "5", "6"})
+	public int chunk;
+
+	private WorldDefinition world;
+	private Vector3f position;
+	private BitSet removed;
+	private MeshAssembly.TileModel[] hexagons;
+	private Map<Vector3f, Boolean[]> tiles;
+
+	@Setup
+	public void setup() {
+		this.world = BenchmarkWorlds.createWorld();
+		this.position = BenchmarkWorlds.chunkPositions()[chunk];
+		this.removed = new BitSet();
+		this.hexagons = BenchmarkWorlds.loadHexagons();
+		this.tiles = Chunk.generate(world, position, removed, new ChunkDecorations(null));
+	}
+
+	@Benchmark
+	public Map<Vector3f, Boolean[]> generate() {
+		return Chunk.generate(world, position, removed, new ChunkDecorations(null));
+	}
+
+	@Benchmark
+	public MeshAssembly assemble() {
+		return MeshAssembly.assemble(world, position, tiles, hexagons);
+	}
+}
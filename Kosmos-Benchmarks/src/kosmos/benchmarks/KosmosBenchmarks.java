@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks;
+
+import org.openjdk.jmh.results.format.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Runs the Kosmos benchmarks headless, a regex of benchmarks to run can be passed as the first argument.
+ */
+public class KosmosBenchmarks {
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(args.length > 0 ? args[0] : KosmosBenchmarks.class.getPackage().getName() + ".*")
+				.jvmArgsAppend("-Djava.awt.headless=true")
+				.resultFormat(ResultFormatType.CSV)
+				.result("bench_output.csv")
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks;
+
+import flounder.maths.vectors.*;
+import kosmos.network.packets.*;
+import kosmos.world.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+/**
+ * Benchmarks encoding and decoding every packet type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PacketBenchmark {
+	private PacketChat chat;
+	private PacketConnect connect;
+	private PacketDisconnect disconnect;
+	private PacketEntityRemove entityRemove;
+	private PacketLoad load;
+	private PacketMove move;
+	private PacketWorld world;
+	private PacketMove moveReused;
+
+	private byte[] chatData;
+	private byte[] connectData;
+	private byte[] disconnectData;
+	private byte[] entityRemoveData;
+	private byte[] loadData;
+	private byte[] moveData;
+	private byte[] worldData;
+
+	@Setup
+	public void setup() {
+		WorldDefinition definition = BenchmarkWorlds.createWorld();
+		Vector3f chunkPosition = new Vector3f(24.681724f, 0.0f, 15.75f);
+
+		this.chat = new PacketChat("benchmark", "The quick brown fox jumps over the lazy dog");
+		this.connect = new PacketConnect("benchmark");
+		this.disconnect = new PacketDisconnect("benchmark");
+		this.entityRemove = new PacketEntityRemove("benchmark", chunkPosition, 84);
+		this.load = new PacketLoad("benchmark", new Vector3f(12.5f, 7.071f, -3.25f), chunkPosition.x, chunkPosition.z);
+		this.move = new PacketMove("benchmark", new Vector3f(12.5f, 7.071f, -3.25f), new Vector3f(0.0f, 135.0f, 0.0f), chunkPosition.x, chunkPosition.z);
+		this.world = new PacketWorld(definition);
+		this.moveReused = new PacketMove();
+
+		this.chatData = chat.getData();
+		this.connectData = connect.getData();
+		this.disconnectData = disconnect.getData();
+		this.entityRemoveData = entityRemove.getData();
+		this.loadData = load.getData();
+		this.moveData = move.getData();
+		this.worldData = world.getData();
+	}
+
+	@Benchmark
+	public byte[] encodeChat() {
+		return chat.getData();
+	}
+
+	@Benchmark
+	public PacketChat decodeChat() {
+		return new PacketChat(chatData);
+	}
+
+	@Benchmark
+	public byte[] encodeConnect() {
+		return connect.getData();
+	}
+
+	@Benchmark
+	public PacketConnect decodeConnect() {
+		return new PacketConnect(connectData);
+	}
+
+	@Benchmark
+	public byte[] encodeDisconnect() {
+		return disconnect.getData();
+	}
+
+	@Benchmark
+	public PacketDisconnect decodeDisconnect() {
+		return new PacketDisconnect(disconnectData);
+	}
+
+	@Benchmark
+	public byte[] encodeEntityRemove() {
+		return entityRemove.getData();
+	}
+
+	@Benchmark
+	public PacketEntityRemove decodeEntityRemove() {
+		return new PacketEntityRemove(entityRemoveData);
+	}
+
+	@Benchmark
+	public byte[] encodeLoad() {
+		return load.getData();
+	}
+
+	@Benchmark
+	public PacketLoad decodeLoad() {
+		return new PacketLoad(loadData);
+	}
+
+	@Benchmark
+	public byte[] encodeMove() {
+		return move.getData();
+	}
+
+	@Benchmark
+	public PacketMove decodeMove() {
+		return new PacketMove(moveData);
+	}
+
+	@Benchmark
+	public PacketMove decodeMoveReused() {
+		moveReused.read(moveData, moveData.length);
+		return moveReused;
+	}
+
+	@Benchmark
+	public byte[] encodeWorld() {
+		return world.getData();
+	}
+
+	@Benchmark
+	public PacketWorld decodeWorld() {
+		return new PacketWorld(worldData);
+	}
+}
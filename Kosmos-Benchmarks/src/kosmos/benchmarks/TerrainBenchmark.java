@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks;
+
+import kosmos.world.*;
+import kosmos.world.biomes.*;
+import kosmos.world.chunks.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+import java.util.concurrent.*;
+
+/**
+ * Benchmarks the terrain noise lookups every tile and decoration depends on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@OperationsPerInvocation(TerrainBenchmark.SAMPLES)
+public class TerrainBenchmark {
+	public static final int SAMPLES = 1024;
+
+	// The noise lookups allocate nothing, a object per sample would exceed this.
+	public static final long BYTES_PER_SAMPLE = 8;
+
+	private WorldDefinition world;
+	private float[] positionsX;
+	private float[] positionsZ;
+	private AllocationBudget budget;
+
+	@Setup
+	public void setup() {
+		this.world = BenchmarkWorlds.createWorld();
+		this.budget = new AllocationBudget(TerrainBenchmark.class, SAMPLES * BYTES_PER_SAMPLE);
+		this.positionsX = new float[SAMPLES];
+		this.positionsZ = new float[SAMPLES];
+
+		// A fixed grid across the island so the samples cover every biome.
+		int side = (int) Math.sqrt(SAMPLES);
+
+		for (int i = 0; i < SAMPLES; i++) {
+			positionsX[i] = ((i % side) - (side / 2.0f)) * (world.getWorldSize() / (float) side);
+			positionsZ[i] = ((i / side) - (side / 2.0f)) * (world.getWorldSize() / (float) side);
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void beginIteration() {
+		budget.begin();
+	}
+
+	@TearDown(Level.Iteration)
+	public void endIteration() {
+		budget.end();
+	}
+
+	@Benchmark
+	public void heightMap(Blackhole blackhole) {
+		budget.invoked();
+
+		for (int i = 0; i < SAMPLES; i++) {
+			blackhole.consume(KosmosChunks.getHeightMap(world, positionsX[i], positionsZ[i]));
+		}
+	}
+
+	@Benchmark
+	public void worldHeight(Blackhole blackhole) {
+		budget.invoked();
+
+		for (int i = 0; i < SAMPLES; i++) {
+			blackhole.consume(KosmosChunks.getWorldHeight(world, positionsX[i], positionsZ[i]));
+		}
+	}
+
+	@Benchmark
+	public void biomeMap(Blackhole blackhole) {
+		budget.invoked();
+
+		for (int i = 0; i < SAMPLES; i++) {
+			IBiome.Biomes biome = KosmosChunks.getBiomeMap(world, positionsX[i], positionsZ[i]);
+			blackhole.consume(biome);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks;
+
+import flounder.maths.vectors.*;
+import kosmos.network.*;
+import kosmos.network.packets.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.concurrent.*;
+
+/**
+ * Benchmarks relaying moves through a loopback network with simulated conditions, driven by a manual clock so every run is the same.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TransportBenchmark {
+	// The simulated time that passes between each relayed move.
+	private static final long TICK_NANOS = 1000000L;
+
+	@Param({"0", "50"})
+	public float delay;
+
+	@Param({"0", "0.05"})
+	public float drop;
+
+	private LoopbackNetwork network;
+	private LoopbackTransport server;
+	private LoopbackTransport client;
+	private long time;
+	private byte[] move;
+
+	@Setup
+	public void setup() throws IOException {
+		this.network = new LoopbackNetwork();
+		this.network.setSeed(BenchmarkWorlds.SEED);
+		this.network.setClock(() -> time);
+		this.network.setConditions(delay, delay * 0.2f, 0.01f, drop);
+
+		this.server = network.createTransport();
+		this.server.open(KosmosNetwork.DEFAULT_PORT);
+		this.client = network.createTransport();
+		this.client.open(0);
+
+		this.time = 0;
+		this.move = new PacketMove("benchmark", new Vector3f(12.5f, 7.071f, -3.25f), new Vector3f(0.0f, 135.0f, 0.0f), 0.0f, 0.0f).getData();
+	}
+
+	@TearDown
+	public void tearDown() {
+		server.close();
+		client.close();
+	}
+
+	@Benchmark
+	public void relayMove(Blackhole blackhole) {
+		InetAddress address = InetAddress.getLoopbackAddress();
+		time += TICK_NANOS;
+
+		// Client to server, then the server relays what it has received back.
+		client.send(move, move.length, address, server.getPort());
+		server.poll((data, length, from, port) -> server.send(data, length, address, client.getPort()));
+		client.poll((data, length, from, port) -> blackhole.consume(PacketCodec.decode(data, length)));
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks;
+
+import kosmos.world.water.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Benchmarks a frame of wave heights for bobbing entities, evaluated per entity against the batched wave sampler.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@OperationsPerInvocation(WaveBenchmark.SAMPLES)
+public class WaveBenchmark {
+	public static final int SAMPLES = 4096;
+
+	// Wave heights allocate nothing, a object per sample would exceed this.
+	public static final long BYTES_PER_SAMPLE = 8;
+
+	private float[] positionsX;
+	private float[] positionsZ;
+	private WaveSampler sampler;
+	private int[] handles;
+	private float waveTime;
+	private AllocationBudget budget;
+
+	@Setup
+	public void setup() {
+		this.positionsX = new float[SAMPLES];
+		this.positionsZ = new float[SAMPLES];
+		this.sampler = new WaveSampler(SAMPLES);
+		this.handles = new int[SAMPLES];
+		this.waveTime = 0.0f;
+
+		// Scattered over the ocean around the island, like floating decorations.
+		Random random = new Random(2017);
+
+		for (int i = 0; i < SAMPLES; i++) {
+			positionsX[i] = (random.nextFloat() - 0.5f) * 2048.0f;
+			positionsZ[i] = (random.nextFloat() - 0.5f) * 2048.0f;
+			handles[i] = sampler.add(positionsX[i], positionsZ[i]);
+		}
+
+		this.budget = new AllocationBudget(WaveBenchmark.class, SAMPLES * BYTES_PER_SAMPLE);
+	}
+
+	@Setup(Level.Iteration)
+	public void beginIteration() {
+		budget.begin();
+	}
+
+	@TearDown(Level.Iteration)
+	public void endIteration() {
+		budget.end();
+	}
+
+	@Benchmark
+	public void perEntity(Blackhole blackhole) {
+		budget.invoked();
+		waveTime += 0.01f;
+
+		for (int i = 0; i < SAMPLES; i++) {
+			blackhole.consume(Water.getWaveOffset(positionsX[i], positionsZ[i], waveTime));
+		}
+	}
+
+	@Benchmark
+	public void sampler(Blackhole blackhole) {
+		budget.invoked();
+		waveTime += 0.01f;
+		sampler.update(0.0f, waveTime);
+
+		for (int i = 0; i < SAMPLES; i++) {
+			blackhole.consume(sampler.getHeight(handles[i]));
+		}
+	}
+}
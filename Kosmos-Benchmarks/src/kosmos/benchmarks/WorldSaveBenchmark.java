@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks;
+
+import flounder.entities.*;
+import flounder.helpers.*;
+import flounder.maths.vectors.*;
+import kosmos.world.*;
+import kosmos.world.chunks.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Benchmarks writing and reading a save file with players and modified chunks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class WorldSaveBenchmark {
+	@Param({"16", "256"})
+	public int chunks;
+
+	private WorldDefinition world;
+	private File saveFile;
+	private File loadFile;
+
+	@Setup
+	public void setup() throws IOException {
+		Map<String, Pair<Vector3f, Vector3f>> players = new HashMap<>();
+		Map<String, Pair<BitSet, List<Entity>>> chunkData = new HashMap<>();
+		Random random = new Random(BenchmarkWorlds.SEED);
+
+		for (int i = 0; i < 8; i++) {
+			players.put("player" + i, new Pair<>(new Vector3f(random.nextFloat() * 100.0f, random.nextFloat() * 10.0f, random.nextFloat() * 100.0f), new Vector3f()));
+		}
+
+		for (int i = 0; i < chunks; i++) {
+			BitSet removed = new BitSet();
+
+			for (int j = 0; j < 12; j++) {
+				removed.set(random.nextInt(KosmosChunks.CHUNK_TILE_COUNT));
+			}
+
+			chunkData.put(WorldDefinition.vectorToString(new Vector3f(i * 25.980762f, 0.0f, i * -13.5f)), new Pair<>(removed, new ArrayList<>()));
+		}
+
+		this.world = new WorldDefinition("benchmark", BenchmarkWorlds.SEED, 1536, 400.0f, 40.0f, 40.0f, 0.8f, 1.0f, 0.4f, 600.0f, 0.7f, players, chunkData);
+		this.saveFile = File.createTempFile("kosmos-save", ".save");
+		this.loadFile = File.createTempFile("kosmos-load", ".save");
+		this.saveFile.deleteOnExit();
+		this.loadFile.deleteOnExit();
+		this.world.save(loadFile);
+	}
+
+	@Benchmark
+	public File save() throws IOException {
+		world.save(saveFile);
+		return saveFile;
+	}
+
+	@Benchmark
+	public WorldDefinition load() {
+		return WorldDefinition.load(loadFile);
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks.bots;
+
+import flounder.maths.vectors.*;
+import kosmos.network.*;
+import kosmos.network.packets.*;
+import kosmos.world.chunks.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A simulated client that speaks the real packet set over its own socket and walks randomly around the spawn.
+ */
+public class Bot {
+	// The username prefix of every bot, followed by the bot index.
+	public static final String USERNAME_PREFIX = "bot";
+
+	// The number of move send times remembered for matching relayed moves.
+	private static final int SENT_RING = 4096;
+
+	// The largest sequence a float yaw can carry exactly.
+	private static final int SEQUENCE_LIMIT = 1 << 24;
+
+	// The walk speed in units per second and how far a bot can wander from spawn.
+	private static final float WALK_SPEED = 5.0f;
+	private static final float WALK_RADIUS = 60.0f;
+
+	// The bytes every move packet starts with, used to find relayed moves without decoding every datagram.
+	private static final byte[] MOVE_PREFIX = findPrefix(new PacketMove("prefixprobe", new Vector3f(), new Vector3f(), 0.0f, 0.0f).getData(), "prefixprobe");
+
+	private final BotSwarm swarm;
+	private final int index;
+	private final String username;
+	private final Random random;
+	private final DatagramSocket socket;
+	private final InetAddress address;
+	private final int port;
+
+	private final Vector3f position;
+	private final Vector3f rotation;
+	private float heading;
+	private int sequence;
+	private final AtomicLongArray sentTimes;
+
+	private final LatencyHistogram latency;
+	private final AtomicLong packetsSent;
+	private final AtomicLong bytesSent;
+	private final AtomicLong packetsReceived;
+	private final AtomicLong bytesReceived;
+
+	private Thread receiver;
+	private volatile boolean running;
+
+	/**
+	 * Creates a new bot bound to a random local port.
+	 *
+	 * @param swarm The swarm this bot is part of.
+	 * @param index The bots index in the swarm.
+	 * @param address The server address.
+	 * @param port The server port.
+	 * @param seed The seed for this bots walk.
+	 *
+	 * @throws SocketException If the socket could not be opened.
+	 */
+	public Bot(BotSwarm swarm, int index, InetAddress address, int port, long seed) throws SocketException {
+		this.swarm = swarm;
+		this.index = index;
+		this.username = USERNAME_PREFIX + index;
+		this.random = new Random(seed);
+		this.socket = new DatagramSocket();
+		this.socket.setSoTimeout(250);
+		this.address = address;
+		this.port = port;
+
+		this.position = new Vector3f();
+		this.rotation = new Vector3f();
+		this.heading = random.nextFloat() * 360.0f;
+		this.sequence = 0;
+		this.sentTimes = new AtomicLongArray(SENT_RING);
+
+		this.latency = new LatencyHistogram();
+		this.packetsSent = new AtomicLong();
+		this.bytesSent = new AtomicLong();
+		this.packetsReceived = new AtomicLong();
+		this.bytesReceived = new AtomicLong();
+	}
+
+	/**
+	 * Starts the receive thread and sends the connect packet.
+	 */
+	public void connect() {
+		this.running = true;
+		this.receiver = new Thread(this::receive, "Kosmos-" + username);
+		this.receiver.setDaemon(true);
+		this.receiver.start();
+
+		send(new PacketConnect(username).getData());
+	}
+
+	/**
+	 * Walks the bot and sends a move, the yaw carries the move sequence so relayed moves can be matched to their send time.
+	 *
+	 * @param delta The time since the last move, in seconds.
+	 */
+	public void move(float delta) {
+		// Wanders in a slowly turning direction, turning back towards spawn when too far out.
+		heading += (random.nextFloat() - 0.5f) * 90.0f * delta;
+
+		if (position.x * position.x + position.z * position.z > WALK_RADIUS * WALK_RADIUS) {
+			heading = (float) Math.toDegrees(Math.atan2(-position.x, -position.z));
+		}
+
+		position.x += (float) Math.sin(Math.toRadians(heading)) * WALK_SPEED * delta;
+		position.z += (float) Math.cos(Math.toRadians(heading)) * WALK_SPEED * delta;
+
+		sequence = (sequence + 1) % SEQUENCE_LIMIT;
+		rotation.y = sequence;
+		sentTimes.set(sequence % SENT_RING, System.nanoTime());
+
+		send(new PacketMove(username, position, rotation, 0.0f, 0.0f).getData());
+	}
+
+	/**
+	 * Sends a chat message.
+	 */
+	public void chat() {
+		send(new PacketChat(username, "Load test message " + sequence).getData());
+	}
+
+	/**
+	 * Removes a random decoration tile from the spawn chunk.
+	 */
+	public void removeEntity() {
+		send(new PacketEntityRemove(username, new Vector3f(), random.nextInt(KosmosChunks.CHUNK_TILE_COUNT)).getData());
+	}
+
+	/**
+	 * Sends the disconnect packet and closes the socket once the receiver has stopped.
+	 */
+	public void disconnect() {
+		send(new PacketDisconnect(username).getData());
+		running = false;
+
+		try {
+			receiver.join(1000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		socket.close();
+	}
+
+	private void send(byte[] data) {
+		try {
+			socket.send(new DatagramPacket(data, data.length, address, port));
+			packetsSent.incrementAndGet();
+			bytesSent.addAndGet(data.length);
+		} catch (IOException e) {
+			if (running) {
+				System.err.println(username + " failed to send: " + e.getMessage());
+			}
+		}
+	}
+
+	private void receive() {
+		byte[] buffer = new byte[2048];
+		DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+
+		while (running) {
+			try {
+				packet.setLength(buffer.length);
+				socket.receive(packet);
+			} catch (SocketTimeoutException e) {
+				continue;
+			} catch (IOException e) {
+				if (running) {
+					System.err.println(username + " failed to receive: " + e.getMessage());
+				}
+
+				continue;
+			}
+
+			long received = System.nanoTime();
+			packetsReceived.incrementAndGet();
+			bytesReceived.addAndGet(packet.getLength());
+
+			// Acks reliable frames one by one so the server does not keep resending them.
+			if (packet.getLength() > 0 && buffer[0] == ReliableChannel.FRAME_RELIABLE) {
+				send(ReliableChannel.createAck(buffer));
+				continue;
+			}
+
+			if (startsWith(buffer, packet.getLength(), MOVE_PREFIX)) {
+				recordMove(Arrays.copyOf(buffer, packet.getLength()), received);
+			}
+		}
+	}
+
+	private void recordMove(byte[] data, long received) {
+		PacketMove move = new PacketMove(data);
+
+		if (!move.getUsername().startsWith(USERNAME_PREFIX)) {
+			return;
+		}
+
+		Bot sender = swarm.getBot(Integer.parseInt(move.getUsername().substring(USERNAME_PREFIX.length())));
+
+		if (sender != null) {
+			long sent = sender.sentTimes.get(((int) move.getW()) % SENT_RING);
+
+			if (sent != 0) {
+				latency.record(received - sent);
+			}
+		}
+	}
+
+	private static boolean startsWith(byte[] data, int length, byte[] prefix) {
+		if (length < prefix.length) {
+			return false;
+		}
+
+		for (int i = 0; i < prefix.length; i++) {
+			if (data[i] != prefix[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static byte[] findPrefix(byte[] data, String marker) {
+		int end = new String(data).indexOf(marker);
+		return Arrays.copyOf(data, Math.max(end, 0));
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	/**
+	 * Gets the relay latency samples, only safe to read once the bot has disconnected.
+	 *
+	 * @return The latency histogram.
+	 */
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	public long getPacketsSent() {
+		return packetsSent.get();
+	}
+
+	public long getBytesSent() {
+		return bytesSent.get();
+	}
+
+	public long getPacketsReceived() {
+		return packetsReceived.get();
+	}
+
+	public long getBytesReceived() {
+		return bytesReceived.get();
+	}
+}
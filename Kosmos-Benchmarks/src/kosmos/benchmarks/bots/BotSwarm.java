@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks.bots;
+
+import kosmos.network.*;
+
+import java.net.*;
+import java.util.*;
+
+/**
+ * A headless load generator that runs many simulated clients in one process against a running Kosmos server.
+ * Latency is measured from a bot sending a move to another bot receiving the servers relay of it, this includes the servers tick and queueing.
+ * <p>
+ * Arguments: [host] [port] [bots] [seconds] [moves per second] [chats per second] [removes per second], run against a throwaway world as removes are saved.
+ */
+public class BotSwarm {
+	private final Bot[] bots;
+	private final float moveRate;
+	private final float chatRate;
+	private final float removeRate;
+
+	/**
+	 * Creates a new bot swarm.
+	 *
+	 * @param address The server address.
+	 * @param port The server port.
+	 * @param count The number of bots.
+	 * @param moveRate The moves each bot sends per second.
+	 * @param chatRate The chance per second of each bot sending a chat message.
+	 * @param removeRate The chance per second of each bot removing a entity.
+	 *
+	 * @throws SocketException If a bot socket could not be opened.
+	 */
+	public BotSwarm(InetAddress address, int port, int count, float moveRate, float chatRate, float removeRate) throws SocketException {
+		this.bots = new Bot[count];
+		this.moveRate = moveRate;
+		this.chatRate = chatRate;
+		this.removeRate = removeRate;
+
+		for (int i = 0; i < count; i++) {
+			bots[i] = new Bot(this, i, address, port, 31L * i + 7L);
+		}
+	}
+
+	/**
+	 * Connects all bots, drives them for a duration then disconnects them.
+	 *
+	 * @param seconds How long to drive the bots for after connecting.
+	 *
+	 * @throws InterruptedException If the driving thread was interrupted.
+	 */
+	public void run(float seconds) throws InterruptedException {
+		Random random = new Random(1L);
+
+		// Connects the bots in a short ramp so the server is not flooded with world data at once.
+		for (Bot bot : bots) {
+			bot.connect();
+			Thread.sleep(10);
+		}
+
+		long tickNanos = (long) (1000000000.0 / moveRate);
+		long start = System.nanoTime();
+		long end = start + (long) (seconds * 1000000000.0);
+		long next = start;
+
+		while (System.nanoTime() < end) {
+			float delta = 1.0f / moveRate;
+
+			for (Bot bot : bots) {
+				bot.move(delta);
+
+				if (random.nextFloat() < chatRate * delta) {
+					bot.chat();
+				}
+
+				if (random.nextFloat() < removeRate * delta) {
+					bot.removeEntity();
+				}
+			}
+
+			next += tickNanos;
+			long sleep = next - System.nanoTime();
+
+			if (sleep > 0) {
+				Thread.sleep(sleep / 1000000L, (int) (sleep % 1000000L));
+			}
+		}
+
+		// Waits for moves still in flight before disconnecting.
+		Thread.sleep(500);
+
+		for (Bot bot : bots) {
+			bot.disconnect();
+		}
+	}
+
+	/**
+	 * Prints the per client rates and the relay latency percentiles.
+	 *
+	 * @param seconds The time the bots were driven for.
+	 */
+	public void report(float seconds) {
+		LatencyHistogram latency = new LatencyHistogram();
+		long packetsSent = 0;
+		long bytesSent = 0;
+		long packetsReceived = 0;
+		long bytesReceived = 0;
+
+		System.out.println(String.format("%-8s %10s %12s %10s %12s %10s", "Client", "Sent p/s", "Sent B/s", "Recv p/s", "Recv B/s", "p50 ms"));
+
+		for (Bot bot : bots) {
+			latency.merge(bot.getLatency());
+			packetsSent += bot.getPacketsSent();
+			bytesSent += bot.getBytesSent();
+			packetsReceived += bot.getPacketsReceived();
+			bytesReceived += bot.getBytesReceived();
+
+			System.out.println(String.format("%-8s %10.1f %12.1f %10.1f %12.1f %10.2f", bot.getUsername(),
+					bot.getPacketsSent() / seconds, bot.getBytesSent() / seconds,
+					bot.getPacketsReceived() / seconds, bot.getBytesReceived() / seconds,
+					bot.getLatency().getPercentile(50.0)
+			));
+		}
+
+		System.out.println();
+		System.out.println(String.format("Total: sent %.1f p/s %.1f B/s, received %.1f p/s %.1f B/s", packetsSent / seconds, bytesSent / seconds, packetsReceived / seconds, bytesReceived / seconds));
+		System.out.println(String.format("Per client: sent %.1f p/s %.1f B/s, received %.1f p/s %.1f B/s", packetsSent / seconds / bots.length, bytesSent / seconds / bots.length, packetsReceived / seconds / bots.length, bytesReceived / seconds / bots.length));
+		System.out.println(String.format("Relay latency (%d samples): p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms", latency.getCount(),
+				latency.getPercentile(50.0), latency.getPercentile(90.0), latency.getPercentile(99.0), latency.getPercentile(99.9), latency.getMax()
+		));
+	}
+
+	/**
+	 * Gets a bot by its index.
+	 *
+	 * @param index The bot index.
+	 *
+	 * @return The bot, or null if there is no bot with that index.
+	 */
+	public Bot getBot(int index) {
+		return index >= 0 && index < bots.length ? bots[index] : null;
+	}
+
+	public static void main(String[] args) throws Exception {
+		InetAddress address = InetAddress.getByName(args.length > 0 ? args[0] : "localhost");
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : KosmosNetwork.DEFAULT_PORT;
+		int count = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+		float seconds = args.length > 3 ? Float.parseFloat(args[3]) : 60.0f;
+		float moveRate = args.length > 4 ? Float.parseFloat(args[4]) : 20.0f;
+		float chatRate = args.length > 5 ? Float.parseFloat(args[5]) : 0.1f;
+		float removeRate = args.length > 6 ? Float.parseFloat(args[6]) : 0.05f;
+
+		System.out.println("Running " + count + " bots against " + address.getHostAddress() + ":" + port + " for " + seconds + " seconds.");
+
+		BotSwarm swarm = new BotSwarm(address, port, count, moveRate, chatRate, removeRate);
+		swarm.run(seconds);
+		swarm.report(seconds);
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.benchmarks.bots;
+
+/**
+ * A fixed resolution latency histogram, each instance is written by a single thread and merged once the swarm stops.
+ */
+public class LatencyHistogram {
+	// The width of a bucket in microseconds.
+	public static final int BUCKET_MICROS = 100;
+
+	// The number of buckets, latencies past the last bucket are clamped into it.
+	public static final int BUCKET_COUNT = 50000;
+
+	private final long[] buckets;
+	private long count;
+	private long max;
+
+	public LatencyHistogram() {
+		this.buckets = new long[BUCKET_COUNT];
+		this.count = 0;
+		this.max = 0;
+	}
+
+	/**
+	 * Records a latency sample.
+	 *
+	 * @param nanos The latency in nanoseconds.
+	 */
+	public void record(long nanos) {
+		long micros = Math.max(0, nanos / 1000L);
+		buckets[(int) Math.min(micros / BUCKET_MICROS, BUCKET_COUNT - 1)]++;
+		count++;
+		max = Math.max(max, micros);
+	}
+
+	/**
+	 * Adds all samples from another histogram into this one.
+	 *
+	 * @param other The histogram to merge.
+	 */
+	public void merge(LatencyHistogram other) {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			buckets[i] += other.buckets[i];
+		}
+
+		count += other.count;
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Gets the latency at a percentile.
+	 *
+	 * @param percentile The percentile, between 0 and 100.
+	 *
+	 * @return The latency in milliseconds, the upper edge of the matching bucket.
+	 */
+	public double getPercentile(double percentile) {
+		if (count == 0) {
+			return 0.0;
+		}
+
+		long target = (long) Math.ceil((percentile / 100.0) * count);
+		long seen = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets[i];
+
+			if (seen >= target) {
+				return Math.min((i + 1) * BUCKET_MICROS, max) / 1000.0;
+			}
+		}
+
+		return max / 1000.0;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the largest sample recorded.
+	 *
+	 * @return The max latency in milliseconds.
+	 */
+	public double getMax() {
+		return max / 1000.0;
+	}
+}
@@ -0,0 +1,38 @@
+#version 130
+
+//---------CONSTANT------------
+const float SWAY_AMOUNT = 0.08;
+
+//---------IN------------
+layout(location = 0) in vec3 in_position;
+layout(location = 1) in vec2 in_textureCoords;
+layout(location = 2) in vec3 in_normal;
+layout(location = 4) in vec4 in_instance;
+
+//---------UNIFORM------------
+layout(binding = 1) uniform sampler2D swayMap;
+uniform mat4 projectionMatrix;
+uniform mat4 viewMatrix;
+uniform vec4 clipPlane;
+uniform float swayTime;
+
+//---------OUT------------
+out vec2 pass_textureCoords;
+out vec3 pass_surfaceNormal;
+
+//---------MAIN------------
+void main(void) {
+	float yaw = radians(in_instance.w);
+	mat3 rotation = mat3(cos(yaw), 0.0, -sin(yaw), 0.0, 1.0, 0.0, sin(yaw), 0.0, cos(yaw));
+
+	float swayPower = textureLod(swayMap, in_textureCoords, 0.0).r;
+	vec3 swayOffset = SWAY_AMOUNT * swayPower * vec3(sin(swayTime + in_instance.x), 0.0, cos((0.8 * swayTime) + in_instance.z));
+
+	vec4 worldPosition = vec4((rotation * in_position) + swayOffset + in_instance.xyz, 1.0);
+
+	gl_ClipDistance[0] = dot(worldPosition, clipPlane);
+	gl_Position = projectionMatrix * viewMatrix * worldPosition;
+
+	pass_textureCoords = in_textureCoords;
+	pass_surfaceNormal = normalize(rotation * in_normal);
+}
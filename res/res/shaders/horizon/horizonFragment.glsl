@@ -0,0 +1,22 @@
+#version 130
+
+//---------IN------------
+in vec2 pass_textureCoords;
+in vec3 pass_surfaceNormal;
+
+//---------UNIFORM------------
+layout(binding = 0) uniform sampler2D diffuseMap;
+
+//---------OUT------------
+layout(location = 0) out vec4 out_albedo;
+layout(location = 1) out vec4 out_normals;
+layout(location = 2) out vec4 out_extras;
+
+//---------MAIN------------
+void main(void) {
+	vec4 diffuseColour = texture(diffuseMap, pass_textureCoords);
+
+	out_albedo = vec4(diffuseColour.rgb, 1.0);
+	out_normals = vec4((pass_surfaceNormal + 1.0) / 2.0, 1.0);
+	out_extras = vec4(1.0, 0.0, 0.0, 1.0);
+}
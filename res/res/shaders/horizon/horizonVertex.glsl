@@ -0,0 +1,26 @@
+#version 130
+
+//---------IN------------
+layout(location = 0) in vec3 in_position;
+layout(location = 1) in vec2 in_textureCoords;
+layout(location = 2) in vec3 in_normal;
+
+//---------UNIFORM------------
+uniform mat4 projectionMatrix;
+uniform mat4 viewMatrix;
+uniform vec4 clipPlane;
+
+//---------OUT------------
+out vec2 pass_textureCoords;
+out vec3 pass_surfaceNormal;
+
+//---------MAIN------------
+void main(void) {
+	vec4 worldPosition = vec4(in_position, 1.0);
+
+	gl_ClipDistance[0] = dot(worldPosition, clipPlane);
+	gl_Position = projectionMatrix * viewMatrix * worldPosition;
+
+	pass_textureCoords = in_textureCoords;
+	pass_surfaceNormal = normalize(in_normal);
+}
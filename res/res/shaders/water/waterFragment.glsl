@@ -3,6 +3,7 @@
 //---------IN------------
 in vec3 pass_surfaceNormal;
 in vec4 pass_clipSpace;
+in vec3 pass_worldPosition;
 
 //---------UNIFORM------------
 layout(binding = 0) uniform sampler2D reflectionMap;
@@ -13,6 +14,10 @@ uniform float reflectivity;
 
 uniform bool ignoreReflections;
 
+uniform vec3 coverCentre;
+uniform float coverRadius;
+uniform bool coverInside;
+
 //---------OUT------------
 layout(location = 0) out vec4 out_albedo;
 layout(location = 1) out vec4 out_normals;
@@ -28,6 +33,13 @@ vec2 getReflectionTexCoords(vec2 normalizedDeviceCoords){
 
 //---------MAIN------------
 void main(void) {
+	// The chunk water is kept inside the cover radius and the ocean rings outside of it, so they never overlap.
+	vec2 fromCentre = pass_worldPosition.xz - coverCentre.xz;
+
+	if (coverRadius >= 0.0 && (dot(fromCentre, fromCentre) < coverRadius * coverRadius) != coverInside) {
+		discard;
+	}
+
     if (!ignoreReflections) {
         vec2 normalizedDeviceCoords = (pass_clipSpace.xy / pass_clipSpace.w) / 2.0 + 0.5;
         vec2 reflectionTextureCoords = getReflectionTexCoords(normalizedDeviceCoords);
@@ -22,20 +22,23 @@ uniform float waterHeight;
 //---------OUT------------
 out vec3 pass_surfaceNormal;
 out vec4 pass_clipSpace;
+out vec3 pass_worldPosition;
 
 //---------DECODE------------
-vec4 decode(float n){
-	float delta = mod(n, 3.0);
-	float z2 = delta - 1.0;
-	n = (n - delta) / 3.0;
-	delta = mod(n, 3.0);
-	float x2 = delta - 1.0;
-	n = (n - delta) / 3.0;
-	delta = mod(n, 3.0);
-	float z1 = delta - 1.0;
-	n = (n - delta) / 3.0;
-	float x1 = n - 1.0;
-	return vec4(x1, z1, x2, z2);
+vec4 decode(float n, out float level, out float stitch){
+	n = floor(n + 0.5);
+	float code = mod(n, 225.0);
+	float flags = (n - code) / 225.0;
+	level = mod(flags, 16.0);
+	stitch = (flags - level) / 16.0;
+	n = code;
+	float second = mod(n, 15.0);
+	float first = (n - second) / 15.0;
+	float z2 = mod(second, 5.0);
+	float x2 = (second - z2) / 5.0;
+	float z1 = mod(first, 5.0);
+	float x1 = (first - z1) / 5.0;
+	return vec4(x1 - 1.0, z1 - 2.0, x2 - 1.0, z2 - 2.0);
 }
 
 //---------HEIGHT OFFSET------------
@@ -48,15 +51,32 @@ float generateHeight(float x, float z){
 	return waterHeight + result;
 }
 
+//---------STITCH------------
+float stitchHeight(vec4 vertex, vec2 edge){
+	// Matches the straight edge of the larger cells next to this vertex.
+	return 0.5 * (generateHeight(vertex.x - edge.x, vertex.z - edge.y) + generateHeight(vertex.x + edge.x, vertex.z + edge.y));
+}
+
 //---------MAIN------------
 void main(void) {
-	vec4 offsets = decode(in_position.z) * squareSize;
+	// Offsets are in half the tile spacing on x, and a quarter of the hexagon side length on z, doubled for each level.
+	vec2 unit = vec2(0.5 * squareSize, 0.5 * squareSize / sqrt(3.0));
+	float level;
+	float stitch;
+	vec4 offsets = decode(in_position.z, level, stitch) * vec4(unit, unit) * exp2(level);
+
+	vec4 thisVertex = modelMatrix * vec4(in_position.x + waterOffset.x, waterOffset.y, in_position.y + waterOffset.z, 1.0);
+	vec4 otherVertex1 = modelMatrix * vec4(in_position.x + waterOffset.x + offsets.z, waterOffset.y, in_position.y + waterOffset.z + offsets.w, 1.0);
+	vec4 otherVertex2 = modelMatrix * vec4(in_position.x + waterOffset.x + offsets.x, waterOffset.y, in_position.y + waterOffset.z + offsets.y, 1.0);
 
-	vec4 thisVertex = modelMatrix * vec4(in_position.x + waterOffset.x, 0.0, in_position.y + waterOffset.z, 1.0);
-	vec4 otherVertex1 = modelMatrix * vec4(in_position.x + waterOffset.x + offsets.z, 0.0, in_position.y + waterOffset.z + offsets.w, 1.0);
-	vec4 otherVertex2 = modelMatrix * vec4(in_position.x + waterOffset.x + offsets.x, 0.0, in_position.y + waterOffset.z + offsets.y, 1.0);
+	if (stitch == 1.0) {
+		thisVertex.y += stitchHeight(thisVertex, vec2(unit.x * exp2(level), 0.0));
+	} else if (stitch == 2.0) {
+		thisVertex.y += stitchHeight(thisVertex, vec2(0.0, 2.0 * unit.y * exp2(level)));
+	} else {
+		thisVertex.y += generateHeight(thisVertex.x, thisVertex.z);
+	}
 
-	thisVertex.y += generateHeight(thisVertex.x, thisVertex.z);
 	otherVertex1.y += generateHeight(otherVertex1.x, otherVertex1.z);
 	otherVertex2.y += generateHeight(otherVertex2.x, otherVertex2.z);
 
@@ -71,4 +91,5 @@ void main(void) {
 
 	pass_surfaceNormal = normalize(normal);
     pass_clipSpace = projectionMatrix * viewMatrix * worldPosition;
+	pass_worldPosition = worldPosition.xyz;
 }
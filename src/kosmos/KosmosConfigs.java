@@ -12,13 +12,15 @@ package kosmos;
 import flounder.devices.*;
 import flounder.framework.*;
 import flounder.guis.*;
-import flounder.networking.*;
 import flounder.parsing.config.*;
 import flounder.resources.*;
 import flounder.shadows.*;
 import flounder.textures.*;
+import kosmos.network.*;
 import kosmos.post.*;
+import kosmos.profiling.*;
 import kosmos.world.chunks.*;
+import kosmos.world.horizon.*;
 import kosmos.world.water.*;
 
 import static flounder.platform.Constants.*;
@@ -55,6 +57,16 @@ public class KosmosConfigs {
 	public static final ConfigData SHADOWMAP_UNLIMITED = CONFIG_MAIN.getData(ConfigSection.GRAPHICS, "shadowmapUnlimited", true, () -> FlounderShadows.get().isRenderUnlimited());
 
 	public static final ConfigData CHUNK_DISTANCE = CONFIG_MAIN.getData(ConfigSection.GENERAL, "chunkDistance", 4, () -> KosmosChunks.get().getChunkDistance());
+	public static final ConfigData HORIZON_DISTANCE = CONFIG_MAIN.getData(ConfigSection.GENERAL, "horizonDistance", 12, () -> KosmosHorizon.get().getHorizonDistance());
+	public static final ConfigData PROFILING_ENABLED = CONFIG_MAIN.getData(ConfigSection.GENERAL, "profilingEnabled", false, () -> KosmosProfiling.get().isEnabled());
+
+	public static final ConfigData NETWORK_TRANSPORT = CONFIG_MAIN.getData(ConfigSection.GENERAL, "networkTransport", "nio", () -> KosmosNetwork.get().getTransportType().name().toLowerCase());
+	public static final ConfigData NETWORK_RELAY = CONFIG_MAIN.getData(ConfigSection.GENERAL, "networkRelay", ""); // A relay node as host:port, empty to get broadcasts from the server.
+	public static final ConfigData NETWORK_DECODE_THREADS = CONFIG_MAIN.getData(ConfigSection.GENERAL, "networkDecodeThreads", -1); // Below zero picks from the core count, zero decodes on the update thread.
+	public static final ConfigData NETWORK_LOOPBACK_DELAY = CONFIG_MAIN.getData(ConfigSection.GENERAL, "networkLoopbackDelay", 0.0f); // Milliseconds, only used by the loopback transport.
+	public static final ConfigData NETWORK_LOOPBACK_JITTER = CONFIG_MAIN.getData(ConfigSection.GENERAL, "networkLoopbackJitter", 0.0f);
+	public static final ConfigData NETWORK_LOOPBACK_REORDER = CONFIG_MAIN.getData(ConfigSection.GENERAL, "networkLoopbackReorder", 0.0f);
+	public static final ConfigData NETWORK_LOOPBACK_DROP = CONFIG_MAIN.getData(ConfigSection.GENERAL, "networkLoopbackDrop", 0.0f);
 
 	public static final ConfigData POST_EFFECTS_ENABLED = CONFIG_MAIN.getData(ConfigSection.POST, "effectsEnabled", true, () -> KosmosPost.get().isEffectsEnabled());
 	public static final ConfigData POST_BLOOM_ENABLED = CONFIG_MAIN.getData(ConfigSection.POST, "bloomEnabled", true, () -> KosmosPost.get().isBloomEnabled());
@@ -74,11 +86,11 @@ public class KosmosConfigs {
 
 	public static final ConfigData GUI_SCALE = CONFIG_MAIN.getData(ConfigSection.CONTROLS, "guiScale", 1.0f, () -> FlounderGuis.get().getGuiScale());
 
-	public static final ConfigData CLIENT_USERNAME = CONFIG_MAIN.getData(ConfigSection.CLIENT, "username", "USERNAME" + ((int) (Math.random() * 10000)), () -> FlounderNetwork.get().getUsername());
+	public static final ConfigData CLIENT_USERNAME = CONFIG_MAIN.getData(ConfigSection.CLIENT, "username", "USERNAME" + ((int) (Math.random() * 10000)), () -> KosmosNetwork.get().getUsername());
 
 	// Server0 configs.
 	private static final Config CONFIG_SERVER0 = new Config(new MyFile(Framework.getRoamingFolder("kosmos"), "servers", "server0.conf"));
-	public static final ConfigData SERVER_PORT = CONFIG_SERVER0.getData(ConfigSection.SEVER, "serverPort", FlounderNetwork.DEFAULT_PORT); // Reference set in client interface.
+	public static final ConfigData SERVER_PORT = CONFIG_SERVER0.getData(ConfigSection.SEVER, "serverPort", KosmosNetwork.DEFAULT_PORT); // Reference set in client interface.
 	public static final ConfigData SERVER_IP = CONFIG_SERVER0.getData(ConfigSection.SEVER, "serverIP", "localhost"); // Reference set in client interface.
 
 	/**
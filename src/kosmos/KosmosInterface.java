@@ -16,7 +16,6 @@ import flounder.guis.*;
 import flounder.helpers.*;
 import flounder.inputs.*;
 import flounder.maths.*;
-import flounder.networking.*;
 import flounder.particles.*;
 import flounder.resources.*;
 import flounder.shadows.*;
@@ -24,6 +23,7 @@ import flounder.skybox.*;
 import flounder.sounds.*;
 import flounder.standards.*;
 import flounder.steam.*;
+import kosmos.network.*;
 import kosmos.network.packets.*;
 import kosmos.post.*;
 import kosmos.world.*;
@@ -34,7 +34,7 @@ import static flounder.platform.Constants.*;
 
 public class KosmosInterface extends Standard {
 	public KosmosInterface() {
-		super(FlounderEvents.class, FlounderNetwork.class, FlounderSteam.class, FlounderShadows.class, FlounderParticles.class, FlounderSkybox.class, KosmosPost.class, KosmosWorld.class);
+		super(FlounderEvents.class, KosmosNetwork.class, FlounderSteam.class, FlounderShadows.class, FlounderParticles.class, FlounderSkybox.class, KosmosPost.class, KosmosWorld.class);
 	}
 
 	@Override
@@ -51,7 +51,7 @@ public class KosmosInterface extends Standard {
 
 			@Override
 			public boolean eventTriggered() {
-				return seedRandom.wasDown() && FlounderNetwork.get().getSocketClient() == null;
+				return seedRandom.wasDown() && KosmosNetwork.get().getClient() == null;
 			}
 
 			@Override
@@ -116,9 +116,9 @@ public class KosmosInterface extends Standard {
 
 			@Override
 			public void onEvent() {
-				if (FlounderNetwork.get().getSocketClient() != null) {
-					new PacketDisconnect(FlounderNetwork.get().getUsername()).writeData(FlounderNetwork.get().getSocketClient());
-					FlounderNetwork.get().closeClient();
+				if (KosmosNetwork.get().getClient() != null) {
+					new PacketDisconnect(KosmosNetwork.get().getUsername()).writeData(KosmosNetwork.get().getClient());
+					KosmosNetwork.get().closeClient();
 					KosmosWorld.get().deleteWorld(false);
 				} else {
 					KosmosWorld.get().deleteWorld(true);
@@ -145,9 +145,9 @@ public class KosmosInterface extends Standard {
 
 	@Override
 	public void dispose() {
-		if (FlounderNetwork.get().getSocketClient() != null) {
-			new PacketDisconnect(FlounderNetwork.get().getUsername()).writeData(FlounderNetwork.get().getSocketClient());
-			FlounderNetwork.get().closeClient();
+		if (KosmosNetwork.get().getClient() != null) {
+			new PacketDisconnect(KosmosNetwork.get().getUsername()).writeData(KosmosNetwork.get().getClient());
+			KosmosNetwork.get().closeClient();
 		}
 
 		KosmosConfigs.saveAllConfigs();
@@ -27,6 +27,8 @@ import flounder.shadows.*;
 import flounder.skybox.*;
 import kosmos.post.*;
 import kosmos.world.*;
+import kosmos.world.decorations.*;
+import kosmos.world.horizon.*;
 import kosmos.world.water.*;
 
 import static flounder.platform.Constants.*;
@@ -37,6 +39,8 @@ public class KosmosRenderer extends RendererMaster {
 	private ShadowRenderer shadowRenderer;
 	private SkyboxRenderer skyboxRenderer;
 	private EntitiesRenderer entitiesRenderer;
+	private DecorationRenderer decorationRenderer;
+	private HorizonRenderer horizonRenderer;
 	private ParticleRenderer particleRenderer;
 	private WaterRenderer waterRenderer;
 	private BoundingRenderer boundingRenderer;
@@ -64,6 +68,8 @@ public class KosmosRenderer extends RendererMaster {
 		this.shadowRenderer = new ShadowRenderer();
 		this.skyboxRenderer = new SkyboxRenderer();
 		this.entitiesRenderer = new EntitiesRenderer();
+		this.decorationRenderer = new DecorationRenderer();
+		this.horizonRenderer = new HorizonRenderer();
 		this.particleRenderer = new ParticleRenderer();
 		this.waterRenderer = new WaterRenderer();
 		this.boundingRenderer = new BoundingRenderer();
@@ -152,6 +158,8 @@ public class KosmosRenderer extends RendererMaster {
 
 		skyboxRenderer.render(clipPlane, camera);
 		entitiesRenderer.render(clipPlane, camera);
+		decorationRenderer.render(clipPlane, camera);
+		horizonRenderer.render(clipPlane, camera);
 
 		if (!waterPass) {
 			waterRenderer.render(clipPlane, camera);
@@ -248,6 +256,8 @@ public class KosmosRenderer extends RendererMaster {
 		shadowRenderer.dispose();
 		skyboxRenderer.dispose();
 		entitiesRenderer.dispose();
+		decorationRenderer.dispose();
+		horizonRenderer.dispose();
 		particleRenderer.dispose();
 		waterRenderer.dispose();
 		boundingRenderer.dispose();
@@ -21,7 +21,6 @@ import flounder.maths.*;
 import flounder.maths.Timer;
 import flounder.maths.matrices.*;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
 import flounder.parsing.config.*;
 import flounder.physics.*;
 import flounder.renderer.*;
@@ -29,6 +28,7 @@ import flounder.resources.*;
 import flounder.standards.*;
 import flounder.textures.*;
 import flounder.visual.*;
+import kosmos.network.*;
 import kosmos.network.packets.*;
 import kosmos.world.*;
 import sun.reflect.generics.reflectiveObjects.*;
@@ -39,7 +39,11 @@ import java.awt.event.*;
 import java.util.*;
 
 public class KosmosServer extends Framework {
+	// Optional arguments: [port] [coordinator host:port], the port overrides the host config so region servers can share a machine.
+	private static String[] arguments = new String[0];
+
 	public static void main(String[] args) {
+		arguments = args;
 		new KosmosServer().run();
 		System.exit(0);
 	}
@@ -66,7 +70,7 @@ public class KosmosServer extends Framework {
 	public static class ServerConfigs {
 		// Host server configs.
 		private static final Config CONFIG_HOST = new Config(new MyFile(Framework.getRoamingFolder("kosmos"), "configs", "host.conf"));
-		public static final ConfigData HOST_PORT = CONFIG_HOST.getData(ConfigSection.SEVER, "hostPort", FlounderNetwork.DEFAULT_PORT, () -> FlounderNetwork.get().getPort()); // Reference set in server interface.
+		public static final ConfigData HOST_PORT = CONFIG_HOST.getData(ConfigSection.SEVER, "hostPort", KosmosNetwork.DEFAULT_PORT, () -> KosmosNetwork.get().getPort()); // Reference set in server interface.
 		public static final ConfigData HOST_SEED = CONFIG_HOST.getData(ConfigSection.WORLD, "hostSeed", (int) Maths.randomInRange(1.0, 1000000.0)); // Reference set in server interface.
 
 		/**
@@ -81,13 +85,15 @@ public class KosmosServer extends Framework {
 		private static JFrame frame;
 		private static JPanel mainPanel;
 		private static JPanel renderPanel;
+		private static JLabel metricsLabel;
 
 		public static int serverPort;
 
 		private Timer timerWorld;
+		private Timer timerMetrics;
 
 		public ServerInterface() {
-			super(FlounderDisplayJPanel.class, FlounderNetwork.class, KosmosWorld.class);
+			super(FlounderDisplayJPanel.class, KosmosNetwork.class, KosmosWorld.class);
 		}
 
 		@Override
@@ -138,7 +144,7 @@ public class KosmosServer extends Framework {
 			buttonRandomSeed.addActionListener(e -> {
 				WorldDefinition d = KosmosWorld.get().getWorld();
 				KosmosWorld.get().setWorld(new WorldDefinition(d.getName(), (int) Maths.randomInRange(1.0, 1000000.0), d.getWorldSize(), d.getWorldNoiseSpread(), d.getWorldNoiseFrequency(), d.getWorldNoiseHeight(), d.getWorldIslandInside(), d.getWorldIslandOutside(), d.getWorldIslandParameter(), d.getDayNightCycle(), d.getDayNightRatio(), d.getPlayers(), d.getChunkData()));
-				new PacketWorld(Framework.get().getTimeSec(), KosmosWorld.get().getWorld()).writeData(FlounderNetwork.get().getSocketServer());
+				new PacketWorld(KosmosWorld.get().getWorld()).writeData(KosmosNetwork.get().getServer());
 			});
 			mainPanel.add(buttonRandomSeed);
 
@@ -154,11 +160,14 @@ public class KosmosServer extends Framework {
 
 			JButton buttonShutdown = new JButton("Shutdown");
 			buttonShutdown.addActionListener(e -> {
-				new PacketDisconnect("server").writeData(FlounderNetwork.get().getSocketServer());
+				new PacketDisconnect("server").writeData(KosmosNetwork.get().getServer());
 				Framework.get().requestClose(false);
 			});
 			mainPanel.add(buttonShutdown);
 
+			metricsLabel = new JLabel("Clients: 0");
+			mainPanel.add(metricsLabel);
+
 			frame.add(mainPanel, BorderLayout.SOUTH);
 
 			renderPanel = FlounderDisplayJPanel.get().createPanel();
@@ -172,6 +181,7 @@ public class KosmosServer extends Framework {
 			//ServerInterface.serverSeed = ServerConfigs.HOST_SEED.setReference(() -> serverSeed).getInteger();
 
 			this.timerWorld = new Timer(10.0f);
+			this.timerMetrics = new Timer(1.0f);
 
 			try {
 				Thread.sleep(1000);
@@ -179,17 +189,53 @@ public class KosmosServer extends Framework {
 				FlounderLogger.get().log(e);
 			}
 
-			FlounderNetwork.get().startServer(serverPort);
+			// A port argument is not saved to the host config.
+			KosmosNetwork.get().startServer(arguments.length > 0 ? Integer.parseInt(arguments[0]) : serverPort);
+
+			if (arguments.length > 1) {
+				KosmosNetwork.get().joinRegions(arguments[1]);
+			}
 			//	KosmosWorld.get().getWorld().getNoise().setSeed(ServerConfigs.HOST_SEED.setReference(() -> KosmosWorld.get().getWorld().getNoise().getSeed()).getInteger());
 		}
 
 		@Override
 		public void update() {
-			// Remind the clients the time, acts as a "are your there" ping as well.
+			// Remind the clients of the world, the clock is synced by their pings.
 			if (timerWorld.isPassedTime()) {
-				new PacketWorld(Framework.get().getTimeSec(), KosmosWorld.get().getWorld()).writeData(FlounderNetwork.get().getSocketServer());
+				new PacketWorld(KosmosWorld.get().getWorld()).writeData(KosmosNetwork.get().getServer());
 				timerWorld.resetStartTime();
 			}
+
+			if (timerMetrics.isPassedTime()) {
+				updateMetrics();
+				timerMetrics.resetStartTime();
+			}
+		}
+
+		private void updateMetrics() {
+			if (KosmosNetwork.get().getServer() == null) {
+				return;
+			}
+
+			int clients = KosmosNetwork.get().getServer().getConnected().size();
+			float roundTripTotal = 0.0f;
+			float roundTripMax = 0.0f;
+			float jitterTotal = 0.0f;
+
+			for (ClientInfo client : KosmosNetwork.get().getServer().getConnected()) {
+				roundTripTotal += client.getRoundTrip();
+				roundTripMax = Math.max(roundTripMax, client.getRoundTrip());
+				jitterTotal += client.getJitter();
+			}
+
+			int count = Math.max(clients, 1);
+			DecodePool decodePool = KosmosNetwork.get().getServer().getDecodePool();
+			FloodGuard floodGuard = KosmosNetwork.get().getServer().getFloodGuard();
+			metricsLabel.setText("Clients: " + clients + ", Relays: " + KosmosNetwork.get().getServer().getRelays().size() +
+					", RTT: " + Maths.roundToPlace(roundTripTotal * 1000.0f / count, 1) + "ms avg, " + Maths.roundToPlace(roundTripMax * 1000.0f, 1) + "ms max" +
+					", Jitter: " + Maths.roundToPlace(jitterTotal * 1000.0f / count, 1) + "ms avg" +
+					", Dropped: " + floodGuard.getDroppedFlood() + " flood, " + floodGuard.getDroppedOversize() + " oversize, " + floodGuard.getDroppedMalformed() + " malformed" +
+					(decodePool != null ? ", Decoding: " + decodePool.getQueued() + " on " + decodePool.getThreads() + " threads" : ""));
 		}
 
 		@Override
@@ -199,9 +245,9 @@ public class KosmosServer extends Framework {
 
 		@Override
 		public void dispose() {
-			if (FlounderNetwork.get().getSocketServer() != null) {
-				new PacketDisconnect("server").writeData(FlounderNetwork.get().getSocketServer());
-				FlounderNetwork.get().closeServer();
+			if (KosmosNetwork.get().getServer() != null) {
+				new PacketDisconnect("server").writeData(KosmosNetwork.get().getServer());
+				KosmosNetwork.get().closeServer();
 			}
 
 			ServerConfigs.saveAllConfigs();
@@ -20,6 +20,7 @@ import flounder.maths.matrices.*;
 import flounder.maths.vectors.*;
 import flounder.physics.*;
 import kosmos.*;
+import kosmos.profiling.*;
 
 public class KosmosCamera extends Camera {
 	// Defines basic view frustum sizes.
@@ -142,6 +143,7 @@ public class KosmosCamera extends Camera {
 
 	@Override
 	public void update(Player player) {
+		KosmosProfiling.get().begin(KosmosCamera.class);
 		float delta = Math.min(1.0f / 60.0f, Framework.get().getDelta());
 
 		calculateHorizontalAngle();
@@ -168,6 +170,7 @@ public class KosmosCamera extends Camera {
 		updateProjectionMatrix();
 
 		firstPerson = Maths.deadband(0.1f, targetZoom) == 0.0f;
+		KosmosProfiling.get().end(KosmosCamera.class);
 	}
 
 	private void calculateHorizontalAngle() {
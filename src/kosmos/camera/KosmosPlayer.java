@@ -19,12 +19,13 @@ import flounder.logger.*;
 import flounder.maths.*;
 import flounder.maths.Timer;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
 import flounder.physics.*;
 import kosmos.*;
 import kosmos.entities.components.*;
 import kosmos.entities.instances.*;
+import kosmos.network.*;
 import kosmos.network.packets.*;
+import kosmos.profiling.*;
 import kosmos.world.*;
 import kosmos.world.chunks.*;
 
@@ -41,6 +42,7 @@ public class KosmosPlayer extends Player {
 	public static final float BOOST_MUL = 2.0f;
 	public static final float JUMP_POWER = 8.0f;
 	public static final float FLY_SPEED = 8.0f;
+	public static final float PICK_DISTANCE = 3.0f;
 
 	private Vector3f position;
 	private Vector3f rotation;
@@ -75,10 +77,10 @@ public class KosmosPlayer extends Player {
 		KosmosPlayer.username = KosmosConfigs.CLIENT_USERNAME.setReference(() -> username).getString();
 
 		FlounderEvents.get().addEvent(new EventStandard() {
-			private final int RECURSION_COUNT = 256;
 			private final float RAY_RANGE = 70.0f;
 
 			private MouseButton buttonPlace = new MouseButton(GLFW_MOUSE_BUTTON_LEFT);
+			private TerrainRaycast raycast = new TerrainRaycast();
 
 			@Override
 			public boolean eventTriggered() {
@@ -89,88 +91,35 @@ public class KosmosPlayer extends Player {
 			public void onEvent() {
 				Ray cameraRay = FlounderCamera.get().getCamera().getViewRay();
 
-				if (intersectionInRange(cameraRay, 0.0f, RAY_RANGE)) {
-					Vector3f terrainPosition = binarySearch(cameraRay, 0, 0, RAY_RANGE);
-
-					if (terrainPosition.getY() >= 0.0f) {
-						Vector3f test = new Vector3f(terrainPosition.x, 0.0f, terrainPosition.z);
-						Chunk inChunk = null;
-
-						for (Entity entity : FlounderEntities.get().getEntities().getAll(null)) {
-							if (entity != null && entity instanceof Chunk) {
-								Chunk chunk = (Chunk) entity;
-
-								if (chunk.getSphere().contains(test)) {
-									inChunk = chunk;
-								}
-							}
-						}
-
-						if (inChunk == null) {
-							FlounderLogger.get().error("Could not find chunk for terrain position: " + terrainPosition);
-							return;
-						}
-
-						Vector2f tilePosition = KosmosChunks.convertWorldToTile(inChunk, terrainPosition, null);
-						tilePosition.x = Math.round(tilePosition.x);
-						tilePosition.y = Math.round(tilePosition.y);
-						Vector3f roundedPosition = KosmosChunks.convertTileToWorld(inChunk, tilePosition.x, tilePosition.y, null);
-						roundedPosition.y = KosmosChunks.getWorldHeight(roundedPosition.x, roundedPosition.z);
-
-						Entity entity = new InstanceTable(FlounderEntities.get().getEntities(),
-								new Vector3f(
-										roundedPosition.x,
-										0.5f + roundedPosition.y * 0.5f,
-										roundedPosition.z
-								),
-								new Vector3f()
-						);
-						new ComponentChild(entity, inChunk);
-						new ComponentSelect(entity);
-					}
-				}
-			}
-
-			private Vector3f getPointOnRay(Ray cameraRay, float distance) {
-				Vector3f camPos = FlounderCamera.get().getCamera().getPosition();
-				Vector3f start = new Vector3f(camPos.x, camPos.y, camPos.z);
-				Vector3f scaledRay = new Vector3f(cameraRay.getCurrentRay().x * distance, cameraRay.getCurrentRay().y * distance, cameraRay.getCurrentRay().z * distance);
-				return Vector3f.add(start, scaledRay, null);
-			}
-
-			private Vector3f binarySearch(Ray cameraRay, int count, float start, float finish) {
-				float half = start + ((finish - start) / 2.0f);
-
-				if (count >= RECURSION_COUNT) {
-					return getPointOnRay(cameraRay, half);
+				if (!raycast.cast(FlounderCamera.get().getCamera().getPosition(), cameraRay.getCurrentRay(), RAY_RANGE)) {
+					return;
 				}
 
-				if (intersectionInRange(cameraRay, start, half)) {
-					return binarySearch(cameraRay, count + 1, start, half);
-				} else {
-					return binarySearch(cameraRay, count + 1, half, finish);
+				// Rays that go into the water hit the seabed, nothing is placed under water.
+				if (raycast.getHeight() < 0.0f) {
+					return;
 				}
-			}
 
-			private boolean intersectionInRange(Ray cameraRay, float start, float finish) {
-				Vector3f startPoint = getPointOnRay(cameraRay, start);
-				Vector3f endPoint = getPointOnRay(cameraRay, finish);
+				Chunk inChunk = raycast.getChunk();
 
-				if (!isUnderGround(startPoint) && isUnderGround(endPoint)) {
-					return true;
-				} else {
-					return false;
+				if (inChunk == null) {
+					FlounderLogger.get().error("Could not find chunk for terrain tile: " + raycast.getTileX() + ", " + raycast.getTileZ());
+					return;
 				}
-			}
 
-			private boolean isUnderGround(Vector3f testPoint) {
-				float height = KosmosChunks.getWorldHeight(testPoint.getX(), testPoint.getZ());
-
-				if (height < 0.0f || testPoint.y < height) {
-					return true;
-				} else {
-					return false;
-				}
+				Vector3f roundedPosition = raycast.getTilePosition(null);
+
+				Entity entity = new InstanceTable(KosmosChunks.get().getStructure(),
+						new Vector3f(
+								roundedPosition.x,
+								0.5f + roundedPosition.y * 0.5f,
+								roundedPosition.z
+						),
+						new Vector3f()
+				);
+				new ComponentChild(entity, inChunk);
+				new ComponentSelect(entity);
+				inChunk.getPickGrid().add(entity);
 			}
 		});
 	}
@@ -181,21 +130,34 @@ public class KosmosPlayer extends Player {
 			return;
 		}
 
+		KosmosProfiling.get().begin(KosmosPlayer.class);
+
 		if (!FlounderGuis.get().getGuiMaster().isGamePaused()) {
 			Ray cameraRay = FlounderCamera.get().getCamera().getViewRay();
 
 			if (KosmosWorld.get().getEntityPlayer() != null) {
-				for (Entity entity : FlounderEntities.get().getEntities().queryInFrustum(FlounderCamera.get().getCamera().getViewFrustum(), entityObjects)) {
+				// Only entities on the tiles around the player can be picked, so only those are tested against the ray.
+				entityObjects.clear();
+				KosmosChunks.get().getPickable(KosmosWorld.get().getEntityPlayer().getPosition(), PICK_DISTANCE, entityObjects);
+
+				for (Entity entity : entityObjects) {
 					if (entity.getCollider() != null && entity.getComponent(ComponentPlayer.class) == null && entity.getComponent(ComponentMultiplayer.class) == null && entity.getComponent(ComponentChunk.class) == null) {
-						IntersectData data = entity.getCollider().intersects(cameraRay);
 						float distance = Vector3f.getDistance(entity.getPosition(), KosmosWorld.get().getEntityPlayer().getPosition());
 
-						if (data.isIntersection() && distance < 3.0f) {
+						if (distance < PICK_DISTANCE && entity.getCollider().intersects(cameraRay).isIntersection()) {
 							if (buttonRemove.wasDown()) {
 								ComponentChild componentChild = ((ComponentChild) entity.getComponent(ComponentChild.class));
 
-								if (componentChild != null && FlounderNetwork.get().getSocketClient() != null) {
-									new PacketEntityRemove(FlounderNetwork.get().getUsername(), componentChild.getParent().getPosition(), entity.getPosition()).writeData(FlounderNetwork.get().getSocketClient());
+								if (componentChild != null && componentChild.getParent() instanceof Chunk) {
+									Chunk chunk = (Chunk) componentChild.getParent();
+									int tile = chunk.getDecorationTile(entity);
+
+									// Decorations are removed by tile for every player, placed entities only exist on this client.
+									if (tile == -1) {
+										chunk.entityRemove(entity);
+									} else if (KosmosNetwork.get().getClient() != null) {
+										new PacketEntityRemove(KosmosNetwork.get().getUsername(), chunk.getPosition(), tile).writeData(KosmosNetwork.get().getClient());
+									}
 								}
 
 								entity.forceRemove();
@@ -227,8 +189,8 @@ public class KosmosPlayer extends Player {
 			// Try to send data to the server if needed.
 			if (needSendData || dx != 0.0f || dy != 0.0f || dz != 0.0f || ry != 0.0f) {
 				// Sends this players data to the server.
-				if (FlounderNetwork.get().getUsername() != null && FlounderNetwork.get().getSocketClient() != null && KosmosChunks.get().getCurrent() != null) {
-					new PacketMove(FlounderNetwork.get().getUsername(), position, rotation, KosmosChunks.get().getCurrent().getPosition().x, KosmosChunks.get().getCurrent().getPosition().z).writeData(FlounderNetwork.get().getSocketClient());
+				if (KosmosNetwork.get().getUsername() != null && KosmosNetwork.get().getClient() != null && KosmosChunks.get().getCurrent() != null) {
+					new PacketMove(KosmosNetwork.get().getUsername(), position, rotation, KosmosChunks.get().getCurrent().getPosition().x, KosmosChunks.get().getCurrent().getPosition().z).writeData(KosmosNetwork.get().getClient());
 				}
 
 				needSendData = false;
@@ -239,6 +201,8 @@ public class KosmosPlayer extends Player {
 		// Sets the current player position to the current entity.
 		this.position.set(newPosition);
 		this.rotation.set(newRotation);
+
+		KosmosProfiling.get().end(KosmosPlayer.class);
 	}
 
 	public boolean isNoclipEnabled() {
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.entities;
+
+import flounder.entities.*;
+import flounder.maths.vectors.*;
+
+/**
+ * Decides which entities update on a tick, entities near a centre update every tick and further entities less often.
+ * Each distance band has its own period, and entities in a band are spread over the ticks of its period by a stable phase so every tick does about the same work.
+ * Entities with pending work are woken and update every tick whatever their distance.
+ */
+public class EntityTickScheduler {
+	private final float[] distances;
+	private final int[] periods;
+	private final Vector3f centre;
+	private long tick;
+
+	private final int[] counts;
+	private final int[] updated;
+	private final long[] nanos;
+
+	/**
+	 * Creates a new tick scheduler.
+	 *
+	 * @param distances The outer distance of each band but the last, in increasing order.
+	 * @param periods The ticks between updates for each band, one more than the distances.
+	 */
+	public EntityTickScheduler(float[] distances, int[] periods) {
+		if (periods.length != distances.length + 1) {
+			throw new IllegalArgumentException("A tick scheduler needs one more period than distances.");
+		}
+
+		this.distances = distances;
+		this.periods = periods;
+		this.centre = new Vector3f();
+		this.tick = 0;
+
+		this.counts = new int[periods.length];
+		this.updated = new int[periods.length];
+		this.nanos = new long[periods.length];
+	}
+
+	/**
+	 * Starts a new tick, entities are banded by their distance from the centre.
+	 *
+	 * @param centre The centre to measure distances from, the y component is ignored.
+	 */
+	public void begin(Vector3f centre) {
+		this.centre.set(centre.x, 0.0f, centre.z);
+		this.tick++;
+
+		for (int i = 0; i < periods.length; i++) {
+			counts[i] = 0;
+			updated[i] = 0;
+			nanos[i] = 0;
+		}
+	}
+
+	/**
+	 * Updates a entity if it is due on this tick.
+	 *
+	 * @param entity The entity to update.
+	 * @param awake If the entity has pending work, awake entities update every tick.
+	 *
+	 * @return If the entity was updated.
+	 */
+	public boolean tick(Entity entity, boolean awake) {
+		int band = awake ? 0 : getBand(entity.getPosition());
+		int period = periods[band];
+		counts[band]++;
+
+		// The phase spreads the entities of a band over its period.
+		if (period > 1 && (tick + ((System.identityHashCode(entity) & 0x7fffffff) % period)) % period != 0) {
+			return false;
+		}
+
+		long start = System.nanoTime();
+		entity.update();
+		nanos[band] += System.nanoTime() - start;
+		updated[band]++;
+		return true;
+	}
+
+	/**
+	 * Gets the band a position falls in.
+	 *
+	 * @param position The position.
+	 *
+	 * @return The band index.
+	 */
+	public int getBand(Vector3f position) {
+		float dx = position.x - centre.x;
+		float dz = position.z - centre.z;
+		float distanceSquared = (dx * dx) + (dz * dz);
+
+		for (int i = 0; i < distances.length; i++) {
+			if (distanceSquared <= distances[i] * distances[i]) {
+				return i;
+			}
+		}
+
+		return distances.length;
+	}
+
+	public int getBands() {
+		return periods.length;
+	}
+
+	public int getPeriod(int band) {
+		return periods[band];
+	}
+
+	/**
+	 * Gets the number of entities seen in a band on the last tick.
+	 *
+	 * @param band The band index.
+	 *
+	 * @return The entities in the band.
+	 */
+	public int getCount(int band) {
+		return counts[band];
+	}
+
+	/**
+	 * Gets the number of entities updated in a band on the last tick.
+	 *
+	 * @param band The band index.
+	 *
+	 * @return The updated entities.
+	 */
+	public int getUpdated(int band) {
+		return updated[band];
+	}
+
+	/**
+	 * Gets the time spent updating a band on the last tick.
+	 *
+	 * @param band The band index.
+	 *
+	 * @return The time, in nanoseconds.
+	 */
+	public long getNanos(int band) {
+		return nanos[band];
+	}
+
+	/**
+	 * Gets the number of entities updated on the last tick.
+	 *
+	 * @return The updated entities.
+	 */
+	public int getUpdated() {
+		int total = 0;
+
+		for (int count : updated) {
+			total += count;
+		}
+
+		return total;
+	}
+
+	/**
+	 * Gets the number of entities seen on the last tick.
+	 *
+	 * @return The entities seen.
+	 */
+	public int getCount() {
+		int total = 0;
+
+		for (int count : counts) {
+			total += count;
+		}
+
+		return total;
+	}
+}
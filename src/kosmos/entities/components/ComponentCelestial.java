@@ -25,6 +25,7 @@ public class ComponentCelestial extends IComponentEntity implements IComponentEd
 	private Vector3f startRotation;
 
 	private LightType lightType;
+	private TransformCache transform;
 
 	/**
 	 * Creates a new ComponentCelestial.
@@ -45,6 +46,7 @@ public class ComponentCelestial extends IComponentEntity implements IComponentEd
 		super(entity);
 
 		this.lightType = lightType;
+		this.transform = new TransformCache();
 
 		if (entity != null) {
 			this.startPosition = new Vector3f(entity.getPosition());
@@ -65,7 +67,7 @@ public class ComponentCelestial extends IComponentEntity implements IComponentEd
 			Vector3f.add(getEntity().getPosition(), FlounderCamera.get().getCamera().getPosition(), getEntity().getPosition());
 		}
 
-		getEntity().setMoved();
+		transform.update(getEntity());
 
 		if (lightType != LightType.NONE) {
 			ComponentLight componentLight = (ComponentLight) getEntity().getComponent(ComponentLight.class);
@@ -18,6 +18,7 @@ public class ComponentMultiplayer extends IComponentEntity implements IComponent
 	private String username;
 
 	private float chunkX, chunkZ;
+	private TransformCache transform;
 
 	/**
 	 * Creates a new ComponentMultiplayer.
@@ -40,18 +41,19 @@ public class ComponentMultiplayer extends IComponentEntity implements IComponent
 		this.username = username;
 		this.chunkX = 0.0f;
 		this.chunkZ = 0.0f;
+		this.transform = new TransformCache();
 	}
 
 	@Override
 	public void update() {
-		getEntity().setMoved();
+		// Moves from the network are applied here once per update, however many arrived.
+		transform.update(getEntity());
 	}
 
 	public void move(float x, float y, float z, float w, float chunkX, float chunkZ) {
 		getEntity().getPosition().set(x, y, z);
 		// getEntity().getPosition().y += KosmosPlayer.PLAYER_OFFSET_Y;
 		getEntity().getRotation().set(0.0f, w, 0.0f);
-		getEntity().setMoved();
 		this.chunkX = chunkX;
 		this.chunkZ = chunkZ;
 	}
@@ -40,6 +40,7 @@ public class ComponentPlayer extends IComponentEntity implements IComponentRende
 
 	private Vector3f moveAmount;
 	private Vector3f rotateAmount;
+	private TransformCache transform;
 
 	/**
 	 * Creates a new ComponentPlayer.
@@ -68,6 +69,7 @@ public class ComponentPlayer extends IComponentEntity implements IComponentRende
 
 		this.moveAmount = new Vector3f();
 		this.rotateAmount = new Vector3f();
+		this.transform = new TransformCache();
 	}
 
 	@Override
@@ -125,7 +127,7 @@ public class ComponentPlayer extends IComponentEntity implements IComponentRende
 		float waterLevel = (KosmosWater.get().getWater() != null) ? KosmosWater.get().getWater().getPosition().y : 0.0f;
 
 		// Finds the chunk height at the next player xz pos.
-		float chunkHeight = KosmosChunks.roundedHeight(KosmosChunks.get().getCurrent(), getEntity().getPosition()) * 0.5f;
+		float chunkHeight = KosmosChunks.get().getGroundHeight(getEntity().getPosition().x, getEntity().getPosition().z) * 0.5f;
 
 		// Does collision with the highest world object.
 		float worldHeight = Math.max(waterLevel - (float) Math.sqrt(2.0), chunkHeight) + KosmosPlayer.PLAYER_OFFSET_Y;
@@ -147,12 +149,10 @@ public class ComponentPlayer extends IComponentEntity implements IComponentRende
 		} else {
 			Vector3f.add(getEntity().getPosition(), moveAmount.set(dx, dy, dz), getEntity().getPosition());
 			Vector3f.add(getEntity().getRotation(), rotateAmount.set(0.0f, ry, 0.0f), getEntity().getRotation());
-
-			if (moveAmount.lengthSquared() != 0.0f || rotateAmount.lengthSquared() != 0.0f) {
-				getEntity().setMoved();
-			}
 		}
 
+		transform.update(getEntity());
+
 		// If there has been no change then the player has probably landed.
 		if (getEntity().getPosition().y - lastY == 0.0f) {
 			currentUpwardSpeed = 0.0f;
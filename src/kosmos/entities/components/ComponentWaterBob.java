@@ -17,6 +17,8 @@ import javax.swing.*;
 
 public class ComponentWaterBob extends IComponentEntity implements IComponentEditor {
 	private float startY;
+	private TransformCache transform;
+	private int sample;
 
 	/**
 	 * Creates a new ComponentSway.
@@ -31,6 +33,9 @@ public class ComponentWaterBob extends IComponentEntity implements IComponentEdi
 		} else {
 			this.startY = 0.0f;
 		}
+
+		this.transform = new TransformCache();
+		this.sample = -1;
 	}
 
 	@Override
@@ -39,9 +44,22 @@ public class ComponentWaterBob extends IComponentEntity implements IComponentEdi
 			return;
 		}
 
-		float waterHeight = KosmosWater.get().getWater().getHeight(getEntity().getPosition().x, getEntity().getPosition().z);
-		getEntity().getPosition().y = startY + waterHeight;
-		getEntity().setMoved();
+		WaveSampler sampler = KosmosWater.get().getSampler();
+		float x = getEntity().getPosition().x;
+		float z = getEntity().getPosition().z;
+
+		// The height is sampled with every other bobbing entity, until the next sample it is evaluated here.
+		if (sample == -1) {
+			sample = sampler.add(x, z);
+			getEntity().getPosition().y = startY + KosmosWater.get().getWater().getHeight(x, z);
+		} else if (sampler.getPositionX(sample) != x || sampler.getPositionZ(sample) != z) {
+			sampler.move(sample, x, z);
+			getEntity().getPosition().y = startY + KosmosWater.get().getWater().getHeight(x, z);
+		} else {
+			getEntity().getPosition().y = startY + sampler.getHeight(sample);
+		}
+
+		transform.update(getEntity());
 	}
 
 	@Override
@@ -62,5 +80,9 @@ public class ComponentWaterBob extends IComponentEntity implements IComponentEdi
 
 	@Override
 	public void dispose() {
+		if (sample != -1 && KosmosWater.get() != null) {
+			KosmosWater.get().getSampler().remove(sample);
+			sample = -1;
+		}
 	}
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.entities.components;
+
+import flounder.entities.*;
+import flounder.maths.vectors.*;
+import kosmos.world.chunks.*;
+
+/**
+ * The last transform a component left its entity in, so the entity is only marked as moved when a value really changed.
+ */
+class TransformCache {
+	private final Vector3f position;
+	private final Vector3f rotation;
+	private boolean stored;
+
+	/**
+	 * Creates a new empty transform cache, the first check always marks the entity as moved.
+	 */
+	TransformCache() {
+		this.position = new Vector3f();
+		this.rotation = new Vector3f();
+		this.stored = false;
+	}
+
+	/**
+	 * Marks the entity as moved if its transform changed since the last check, and queues it to be re-indexed by its chunk structure.
+	 *
+	 * @param entity The entity to check.
+	 *
+	 * @return If the entity moved.
+	 */
+	boolean update(Entity entity) {
+		if (stored && position.equals(entity.getPosition()) && rotation.equals(entity.getRotation())) {
+			return false;
+		}
+
+		position.set(entity.getPosition());
+		rotation.set(entity.getRotation());
+		stored = true;
+
+		entity.setMoved();
+
+		if (KosmosChunks.get() != null) {
+			KosmosChunks.get().getStructure().markMoved(entity);
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import java.nio.*;
+import java.util.*;
+
+/**
+ * A pool of direct byte buffers, each large enough for any datagram.
+ */
+public class BufferPool {
+	private final int bufferSize;
+	private final int maxPooled;
+	private final Deque<ByteBuffer> pooled;
+	private int created;
+
+	/**
+	 * Creates a new buffer pool.
+	 *
+	 * @param bufferSize The size of each buffer in bytes.
+	 * @param maxPooled The max number of free buffers kept.
+	 */
+	public BufferPool(int bufferSize, int maxPooled) {
+		this.bufferSize = bufferSize;
+		this.maxPooled = maxPooled;
+		this.pooled = new ArrayDeque<>();
+		this.created = 0;
+	}
+
+	/**
+	 * Takes a cleared buffer from the pool, creating one if the pool is empty.
+	 *
+	 * @return The buffer.
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = pooled.pollFirst();
+
+		if (buffer == null) {
+			buffer = ByteBuffer.allocateDirect(bufferSize);
+			created++;
+		}
+
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Returns a buffer to the pool.
+	 *
+	 * @param buffer The buffer.
+	 */
+	public void release(ByteBuffer buffer) {
+		if (pooled.size() < maxPooled) {
+			pooled.addFirst(buffer);
+		}
+	}
+
+	/**
+	 * Gets the number of buffers this pool has ever allocated.
+	 *
+	 * @return The buffers created.
+	 */
+	public int getCreated() {
+		return created;
+	}
+}
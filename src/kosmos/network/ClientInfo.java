@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import java.net.*;
+
+/**
+ * A client connected to the server.
+ */
+public class ClientInfo {
+	private final String username;
+	private final InetAddress ipAddress;
+	private final int port;
+	private final InetSocketAddress socketAddress;
+	private int sessionId;
+	private int index;
+	private ReliableChannel channel;
+	private boolean handingOff;
+	private InetSocketAddress relay;
+	private float roundTrip;
+	private float jitter;
+
+	/**
+	 * Creates a new client info.
+	 *
+	 * @param username The clients username.
+	 * @param ipAddress The clients address.
+	 * @param port The clients port.
+	 */
+	public ClientInfo(String username, InetAddress ipAddress, int port) {
+		this.username = username;
+		this.ipAddress = ipAddress;
+		this.port = port;
+		this.socketAddress = new InetSocketAddress(ipAddress, port);
+		this.sessionId = -1;
+		this.index = -1;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public InetAddress getIpAddress() {
+		return ipAddress;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public InetSocketAddress getSocketAddress() {
+		return socketAddress;
+	}
+
+	/**
+	 * Gets the session id given by the servers session table.
+	 *
+	 * @return The session id, or -1 if the client has not been added.
+	 */
+	public int getSessionId() {
+		return sessionId;
+	}
+
+	int getIndex() {
+		return index;
+	}
+
+	void setSession(int sessionId, int index) {
+		this.sessionId = sessionId;
+		this.index = index;
+	}
+
+	ReliableChannel getChannel() {
+		return channel;
+	}
+
+	void setChannel(ReliableChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Gets if the client has been told to move to another region server.
+	 *
+	 * @return If the client is being handed off.
+	 */
+	public boolean isHandingOff() {
+		return handingOff;
+	}
+
+	public void setHandingOff(boolean handingOff) {
+		this.handingOff = handingOff;
+	}
+
+	/**
+	 * Gets the relay node sending broadcasts to this client.
+	 *
+	 * @return The relay address, or null if the server sends broadcasts directly.
+	 */
+	public InetSocketAddress getRelay() {
+		return relay;
+	}
+
+	void setRelay(InetSocketAddress relay) {
+		this.relay = relay;
+	}
+
+	/**
+	 * Gets the round trip time last reported by the client.
+	 *
+	 * @return The round trip time, in seconds.
+	 */
+	public float getRoundTrip() {
+		return roundTrip;
+	}
+
+	public void setRoundTrip(float roundTrip) {
+		this.roundTrip = roundTrip;
+	}
+
+	/**
+	 * Gets the round trip jitter last reported by the client.
+	 *
+	 * @return The jitter, in seconds.
+	 */
+	public float getJitter() {
+		return jitter;
+	}
+
+	public void setJitter(float jitter) {
+		this.jitter = jitter;
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+/**
+ * Estimates the round trip time to the server and the offset between the local and server clocks from ping samples.
+ * Like NTP the offset is taken from the lowest round trip sample in a recent window, as it had the least queueing, and the clock is slewed towards it instead of jumping.
+ */
+public class ClockSync {
+	// The number of recent samples the best offset is picked from.
+	private static final int WINDOW = 8;
+
+	// The smoothing applied to the round trip and jitter.
+	private static final float SMOOTHING = 0.125f;
+
+	// Offset errors larger than this are corrected at once, smaller ones are slewed.
+	private static final float SNAP_ERROR = 1.0f;
+
+	// The max seconds the clock is slewed per second.
+	private static final float SLEW_RATE = 0.05f;
+
+	private final float[] sampleRoundTrips;
+	private final float[] sampleOffsets;
+	private int samples;
+
+	private float roundTrip;
+	private float jitter;
+	private float targetOffset;
+	private float offset;
+	private boolean synced;
+
+	public ClockSync() {
+		this.sampleRoundTrips = new float[WINDOW];
+		this.sampleOffsets = new float[WINDOW];
+		this.samples = 0;
+
+		this.roundTrip = 0.0f;
+		this.jitter = 0.0f;
+		this.targetOffset = 0.0f;
+		this.offset = 0.0f;
+		this.synced = false;
+	}
+
+	/**
+	 * Adds a ping sample.
+	 *
+	 * @param sent The local time the ping was sent, in seconds.
+	 * @param serverTime The server time when it replied, in seconds.
+	 * @param received The local time the reply was received, in seconds.
+	 */
+	public void addSample(float sent, float serverTime, float received) {
+		float sampleRoundTrip = Math.max(received - sent, 0.0f);
+		float sampleOffset = serverTime + (sampleRoundTrip / 2.0f) - received;
+
+		if (samples == 0) {
+			roundTrip = sampleRoundTrip;
+		} else {
+			// Jitter is the smoothed change in round trip, as in RTP.
+			jitter += (Math.abs(sampleRoundTrip - roundTrip) - jitter) * SMOOTHING;
+			roundTrip += (sampleRoundTrip - roundTrip) * SMOOTHING;
+		}
+
+		sampleRoundTrips[samples % WINDOW] = sampleRoundTrip;
+		sampleOffsets[samples % WINDOW] = sampleOffset;
+		samples++;
+
+		int best = 0;
+
+		for (int i = 1; i < Math.min(samples, WINDOW); i++) {
+			if (sampleRoundTrips[i] < sampleRoundTrips[best]) {
+				best = i;
+			}
+		}
+
+		targetOffset = sampleOffsets[best];
+	}
+
+	/**
+	 * Moves the clock offset towards the estimated offset.
+	 *
+	 * @param delta The time since the last update, in seconds.
+	 *
+	 * @return The clock offset to use, in seconds.
+	 */
+	public float update(float delta) {
+		if (samples == 0) {
+			return offset;
+		}
+
+		float error = targetOffset - offset;
+
+		if (!synced || Math.abs(error) > SNAP_ERROR) {
+			offset = targetOffset;
+			synced = true;
+		} else {
+			float step = SLEW_RATE * delta;
+			offset += Math.max(-step, Math.min(step, error));
+		}
+
+		return offset;
+	}
+
+	/**
+	 * Gets if any ping sample has been received.
+	 *
+	 * @return If there are samples.
+	 */
+	public boolean hasSamples() {
+		return samples > 0;
+	}
+
+	/**
+	 * Gets the smoothed round trip time.
+	 *
+	 * @return The round trip time, in seconds.
+	 */
+	public float getRoundTrip() {
+		return roundTrip;
+	}
+
+	/**
+	 * Gets the smoothed round trip jitter.
+	 *
+	 * @return The jitter, in seconds.
+	 */
+	public float getJitter() {
+		return jitter;
+	}
+
+	/**
+	 * Gets the current clock offset, local time plus this is server time.
+	 *
+	 * @return The offset, in seconds.
+	 */
+	public float getOffset() {
+		return offset;
+	}
+}
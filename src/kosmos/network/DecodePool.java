@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Decodes received packets on worker threads, while the packets are applied on the update thread.
+ * Each client has a queue in the order its packets arrived, only the decoded front of a queue is applied so a client never sees its packets reordered.
+ */
+public class DecodePool {
+	private final ExecutorService workers;
+	private final Map<InetSocketAddress, Deque<Pending>> queues;
+	private final int threads;
+	private int queued;
+
+	/**
+	 * Creates a new decode pool.
+	 *
+	 * @param threads The number of worker threads.
+	 */
+	public DecodePool(int threads) {
+		AtomicInteger created = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "Kosmos-Decode-" + created.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.queues = new HashMap<>();
+		this.threads = threads;
+		this.queued = 0;
+	}
+
+	/**
+	 * Queues received data to be decoded, the data is copied so the transport can reuse its buffer.
+	 *
+	 * @param data The received data.
+	 * @param length The number of bytes received.
+	 * @param address The address the data came from.
+	 * @param port The port the data came from.
+	 */
+	public void submit(byte[] data, int length, InetAddress address, int port) {
+		InetSocketAddress key = new InetSocketAddress(address, port);
+		Deque<Pending> queue = queues.get(key);
+
+		if (queue == null) {
+			queue = new ArrayDeque<>();
+			queues.put(key, queue);
+		}
+
+		byte[] copy = Arrays.copyOf(data, length);
+		Pending pending = new Pending(address, port, workers.submit(() -> PacketCodec.decode(copy, copy.length)));
+		queue.addLast(pending);
+		queued++;
+	}
+
+	/**
+	 * Applies every decoded packet at the front of each clients queue, packets still decoding wait for the next update.
+	 *
+	 * @param applier The applier to pass each packet to, the packet is null if the data was invalid.
+	 */
+	public void apply(Applier applier) {
+		Iterator<Deque<Pending>> iterator = queues.values().iterator();
+
+		while (iterator.hasNext()) {
+			Deque<Pending> queue = iterator.next();
+
+			while (!queue.isEmpty() && queue.peekFirst().packet.isDone()) {
+				Pending pending = queue.pollFirst();
+				queued--;
+				applier.apply(pending.get(), pending.address, pending.port);
+			}
+
+			if (queue.isEmpty()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of packets waiting to be decoded or applied.
+	 *
+	 * @return The queued packets.
+	 */
+	public int getQueued() {
+		return queued;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Stops the workers and drops anything still queued.
+	 */
+	public void close() {
+		workers.shutdownNow();
+		queues.clear();
+		queued = 0;
+	}
+
+	/**
+	 * Applies a decoded packet on the update thread.
+	 */
+	public interface Applier {
+		/**
+		 * Applies a decoded packet.
+		 *
+		 * @param packet The packet, or null if the data could not be decoded.
+		 * @param address The address the packet came from.
+		 * @param port The port the packet came from.
+		 */
+		void apply(Packet packet, InetAddress address, int port);
+	}
+
+	private static class Pending {
+		private final InetAddress address;
+		private final int port;
+		private final Future<Packet> packet;
+
+		private Pending(InetAddress address, int port, Future<Packet> packet) {
+			this.address = address;
+			this.port = port;
+			this.packet = packet;
+		}
+
+		private Packet get() {
+			try {
+				return packet.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			} catch (ExecutionException e) {
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import kosmos.network.packets.*;
+
+import java.net.*;
+import java.util.*;
+
+/**
+ * Drops traffic from a sender before it is parsed, so one client can not flood the server tick.
+ * Oversized and malformed datagrams are rejected outright, then every sender has a token bucket for all its datagrams and one per packet type.
+ * Senders are tracked by address as a client sends packets before it has connected.
+ */
+public class FloodGuard {
+	// The largest datagram a client should ever send, chat messages are the longest packets.
+	public static final int MAX_DATAGRAM = 1024;
+
+	// The limit on all datagrams from a sender, acks to the servers reliable packets count towards this.
+	private static final float DATAGRAM_RATE = 200.0f;
+	private static final float DATAGRAM_BURST = 400.0f;
+
+	// How long a sender can be silent before its buckets are forgotten, in nanoseconds.
+	private static final long IDLE_TIMEOUT = 10000000000L;
+	private static final long SWEEP_INTERVAL = 1000000000L;
+
+	private final float[] rates;
+	private final float[] bursts;
+	private final Map<InetSocketAddress, Sender> senders;
+	private long lastSweep;
+
+	private long droppedOversize;
+	private long droppedMalformed;
+	private long droppedFlood;
+	private final long[] droppedTypes;
+
+	/**
+	 * Creates a new flood guard with the default limits.
+	 */
+	public FloodGuard() {
+		this.rates = new float[PacketCodec.getTypeCount() + 1];
+		this.bursts = new float[PacketCodec.getTypeCount() + 1];
+		this.senders = new HashMap<>();
+		this.lastSweep = System.nanoTime();
+		this.droppedTypes = new long[PacketCodec.getTypeCount() + 1];
+
+		// Players send moves at 10 per second, faster when their position is forced.
+		setLimit(PacketMove.class, 30.0f, 30.0f);
+		setLimit(PacketChat.class, 2.0f, 8.0f);
+		setLimit(PacketEntityRemove.class, 10.0f, 20.0f);
+		setLimit(PacketConnect.class, 0.5f, 3.0f);
+		setLimit(PacketDisconnect.class, 0.5f, 3.0f);
+		setLimit(PacketPing.class, 2.0f, 4.0f);
+		setLimit(PacketHandoff.class, 1.0f, 4.0f);
+		setLimit(PacketRelaySubscribe.class, 2.0f, 4.0f);
+		setLimit(PacketRelayJoin.class, 2.0f, 4.0f);
+
+		// Packets only the server sends are never accepted from a client.
+		setLimit(PacketLoad.class, 0.0f, 0.0f);
+		setLimit(PacketWorld.class, 0.0f, 0.0f);
+		setLimit(PacketPong.class, 0.0f, 0.0f);
+		setLimit(PacketRegionJoin.class, 0.0f, 0.0f);
+		setLimit(PacketRegionMap.class, 0.0f, 0.0f);
+		setLimit(PacketRelayData.class, 0.0f, 0.0f);
+		setLimit(PacketRelayMembers.class, 0.0f, 0.0f);
+	}
+
+	/**
+	 * Sets the limit for a packet type, changes only apply to senders seen after the change.
+	 *
+	 * @param type The packet type.
+	 * @param rate The packets allowed per second.
+	 * @param burst The packets allowed at once.
+	 */
+	public void setLimit(Class<? extends Packet> type, float rate, float burst) {
+		byte id = PacketCodec.getId(type);
+		rates[id] = rate;
+		bursts[id] = burst;
+	}
+
+	/**
+	 * Checks a received datagram before it is unframed.
+	 *
+	 * @param data The received data.
+	 * @param length The number of bytes received.
+	 * @param address The address the data came from.
+	 * @param port The port the data came from.
+	 *
+	 * @return If the datagram should be handled.
+	 */
+	public boolean allowDatagram(byte[] data, int length, InetAddress address, int port) {
+		if (length > MAX_DATAGRAM) {
+			droppedOversize++;
+			return false;
+		}
+
+		if (length < 1 || !(PacketCodec.isKnown(data[0]) || data[0] == ReliableChannel.FRAME_RELIABLE || data[0] == ReliableChannel.FRAME_ACK)) {
+			droppedMalformed++;
+			return false;
+		}
+
+		long now = System.nanoTime();
+
+		if (!getSender(address, port, now).datagrams.take(now)) {
+			droppedFlood++;
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks a unframed packet before it is decoded.
+	 *
+	 * @param data The packet data.
+	 * @param length The number of bytes of data.
+	 * @param address The address the packet came from.
+	 * @param port The port the packet came from.
+	 *
+	 * @return If the packet should be decoded.
+	 */
+	public boolean allowPacket(byte[] data, int length, InetAddress address, int port) {
+		return allowPacket(data, 0, length, address, port);
+	}
+
+	/**
+	 * Checks packet data inside a larger array before it is decoded, reliable frames are checked before they are acked.
+	 *
+	 * @param data The array holding the packet data.
+	 * @param offset The offset of the packet data.
+	 * @param length The number of bytes of packet data.
+	 * @param address The address the packet came from.
+	 * @param port The port the packet came from.
+	 *
+	 * @return If the packet should be accepted.
+	 */
+	public boolean allowPacket(byte[] data, int offset, int length, InetAddress address, int port) {
+		if (length < 1 || !PacketCodec.isKnown(data[offset])) {
+			droppedMalformed++;
+			return false;
+		}
+
+		long now = System.nanoTime();
+		TokenBucket[] types = getSender(address, port, now).types;
+		int id = data[offset];
+
+		if (types[id] == null) {
+			types[id] = new TokenBucket(rates[id], bursts[id], now);
+		}
+
+		if (!types[id].take(now)) {
+			droppedTypes[id]++;
+			droppedFlood++;
+			return false;
+		}
+
+		return true;
+	}
+
+	private Sender getSender(InetAddress address, int port, long now) {
+		InetSocketAddress key = new InetSocketAddress(address, port);
+		Sender sender = senders.get(key);
+
+		if (sender == null) {
+			sender = new Sender(now, rates.length);
+			senders.put(key, sender);
+		}
+
+		sender.lastSeen = now;
+		return sender;
+	}
+
+	/**
+	 * Forgets senders that have gone silent.
+	 */
+	public void update() {
+		long now = System.nanoTime();
+
+		if (now - lastSweep < SWEEP_INTERVAL) {
+			return;
+		}
+
+		lastSweep = now;
+		senders.values().removeIf(sender -> now - sender.lastSeen > IDLE_TIMEOUT);
+	}
+
+	/**
+	 * Forgets a sender, used when a client disconnects.
+	 *
+	 * @param address The sender address.
+	 * @param port The sender port.
+	 */
+	public void remove(InetAddress address, int port) {
+		senders.remove(new InetSocketAddress(address, port));
+	}
+
+	public long getDroppedOversize() {
+		return droppedOversize;
+	}
+
+	public long getDroppedMalformed() {
+		return droppedMalformed;
+	}
+
+	public long getDroppedFlood() {
+		return droppedFlood;
+	}
+
+	/**
+	 * Gets the number of packets of a type dropped by the rate limit.
+	 *
+	 * @param type The packet type.
+	 *
+	 * @return The dropped packets.
+	 */
+	public long getDropped(Class<? extends Packet> type) {
+		return droppedTypes[PacketCodec.getId(type)];
+	}
+
+	/**
+	 * Gets the total traffic dropped for any reason.
+	 *
+	 * @return The dropped datagrams and packets.
+	 */
+	public long getDropped() {
+		return droppedOversize + droppedMalformed + droppedFlood;
+	}
+
+	private static class Sender {
+		private final TokenBucket datagrams;
+		private final TokenBucket[] types;
+		private long lastSeen;
+
+		private Sender(long now, int typeCount) {
+			this.datagrams = new TokenBucket(DATAGRAM_RATE, DATAGRAM_BURST, now);
+			this.types = new TokenBucket[typeCount];
+			this.lastSeen = now;
+		}
+	}
+}
@@ -0,0 +1,16 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+/**
+ * A packet that changes shared state, it is sent over the reliable ordered channel instead of as a plain datagram.
+ */
+public interface IReliablePacket {
+}
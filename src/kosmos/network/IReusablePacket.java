@@ -0,0 +1,23 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+/**
+ * A packet that can be decoded in place into a existing instance, the instance is only valid while it is being handled.
+ */
+public interface IReusablePacket {
+	/**
+	 * Reads this packet from received data, replacing its fields.
+	 *
+	 * @param data The received data, which may be reused once the packet has been handled.
+	 * @param length The number of bytes received.
+	 */
+	void read(byte[] data, int length);
+}
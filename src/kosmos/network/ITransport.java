@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import java.io.*;
+import java.net.*;
+
+/**
+ * A datagram transport a client or server sends and receives packet data over.
+ */
+public interface ITransport {
+	/**
+	 * Opens the transport.
+	 *
+	 * @param port The port to bind, or 0 for any free port.
+	 *
+	 * @throws IOException If the transport could not be opened.
+	 */
+	void open(int port) throws IOException;
+
+	/**
+	 * Sends data, delivery is not guaranteed.
+	 *
+	 * @param data The data to send.
+	 * @param length The number of bytes of data to send.
+	 * @param address The address to send to.
+	 * @param port The port to send to.
+	 */
+	void send(byte[] data, int length, InetAddress address, int port);
+
+	/**
+	 * Passes all received datagrams to a receiver, this is called from the update thread.
+	 *
+	 * @param receiver The receiver to pass datagrams to.
+	 */
+	void poll(Receiver receiver);
+
+	/**
+	 * Gets the port this transport is bound to.
+	 *
+	 * @return The bound port.
+	 */
+	int getPort();
+
+	/**
+	 * Closes the transport.
+	 */
+	void close();
+
+	/**
+	 * Receives datagrams from a transport.
+	 */
+	interface Receiver {
+		/**
+		 * Receives a datagram, the data array may be reused once this returns.
+		 *
+		 * @param data The datagram data.
+		 * @param length The number of bytes in the datagram.
+		 * @param address The address the datagram was sent from.
+		 * @param port The port the datagram was sent from.
+		 */
+		void receive(byte[] data, int length, InetAddress address, int port);
+	}
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import flounder.framework.*;
+import flounder.logger.*;
+import flounder.maths.*;
+import kosmos.*;
+import kosmos.network.packets.*;
+import kosmos.network.regions.*;
+import kosmos.profiling.*;
+
+import java.io.*;
+import java.net.*;
+
+/**
+ * A module that runs the Kosmos client and server, the transport they use is picked from the configs when started.
+ */
+public class KosmosNetwork extends Module {
+	public static final int DEFAULT_PORT = 2266;
+
+	// How often clients ping the server, in seconds.
+	private static final float PING_INTERVAL = 1.0f;
+
+	private TransportType transportType;
+	private LoopbackNetwork loopback;
+
+	private NetworkServer server;
+	private NetworkClient client;
+	private String username;
+	private int port;
+	private Timer timerPing;
+	private InetSocketAddress pendingHandoff;
+
+	public KosmosNetwork() {
+		super(KosmosProfiling.class);
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		this.transportType = TransportType.fromName(KosmosConfigs.NETWORK_TRANSPORT.getString());
+		this.loopback = new LoopbackNetwork();
+		this.loopback.setConditions(
+				KosmosConfigs.NETWORK_LOOPBACK_DELAY.getFloat(),
+				KosmosConfigs.NETWORK_LOOPBACK_JITTER.getFloat(),
+				KosmosConfigs.NETWORK_LOOPBACK_REORDER.getFloat(),
+				KosmosConfigs.NETWORK_LOOPBACK_DROP.getFloat()
+		);
+
+		this.server = null;
+		this.client = null;
+		this.username = null;
+		this.port = DEFAULT_PORT;
+		this.timerPing = new Timer(PING_INTERVAL);
+		this.pendingHandoff = null;
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+		KosmosProfiling.get().begin(KosmosNetwork.class);
+
+		if (server != null) {
+			server.update();
+		}
+
+		if (client != null) {
+			client.update();
+			updateHandoff();
+		}
+
+		if (client != null) {
+			updateClock();
+		}
+
+		KosmosProfiling.get().end(KosmosNetwork.class);
+	}
+
+	private void updateHandoff() {
+		// The client is swapped after its update, as the handoff was received while polling it.
+		if (pendingHandoff != null) {
+			String host = pendingHandoff.getHostString();
+			int port = pendingHandoff.getPort();
+			pendingHandoff = null;
+
+			FlounderLogger.get().log("Handing off to region server " + host + ":" + port);
+			startClient(username, host, port, "");
+
+			if (client != null) {
+				new PacketHandoff(username, host, port).writeData(client);
+			}
+		}
+	}
+
+	private void updateClock() {
+		// The ping carries the local time without the offset, so it is not changed by the clock being slewed.
+		if (timerPing.isPassedTime()) {
+			float localTime = Framework.get().getTimeSec() - Framework.get().getTimeOffset();
+			new PacketPing(username, localTime, client.getClockSync().getRoundTrip(), client.getClockSync().getJitter()).writeData(client);
+
+			// Keeps the relay sending broadcasts, and tells the server it no longer has to, the server only matches numeric addresses.
+			if (client.getRelay() != null) {
+				new PacketRelayJoin(username, client.getRelay().getAddress().getHostAddress(), client.getRelay().getPort()).writeData(client);
+			}
+			timerPing.resetStartTime();
+		}
+
+		if (client.getClockSync().hasSamples()) {
+			Framework.get().setTimeOffset(client.getClockSync().update(Framework.get().getDelta()));
+		}
+	}
+
+	private int getDecodeThreads() {
+		int threads = KosmosConfigs.NETWORK_DECODE_THREADS.getInteger();
+
+		// Leaves a core for the update thread and one for the transport.
+		if (threads < 0) {
+			threads = Math.max(Runtime.getRuntime().availableProcessors() - 2, 1);
+		}
+
+		return threads;
+	}
+
+	private ITransport createTransport() {
+		switch (transportType) {
+			case UDP:
+				return new UdpTransport();
+			case LOOPBACK:
+				return loopback.createTransport();
+			default:
+				return new NioTransport();
+		}
+	}
+
+	/**
+	 * Starts a server, closing any running server.
+	 *
+	 * @param port The port to host on.
+	 */
+	public void startServer(int port) {
+		closeServer();
+
+		try {
+			this.server = new NetworkServer(createTransport(), port, getDecodeThreads());
+			this.port = server.getPort();
+			FlounderLogger.get().log("Started " + transportType + " server on port " + server.getPort());
+		} catch (IOException e) {
+			FlounderLogger.get().error("Could not start a server on port " + port);
+			FlounderLogger.get().exception(e);
+		}
+	}
+
+	/**
+	 * Starts a client, closing any running client.
+	 *
+	 * @param username The username to connect with.
+	 * @param ipAddress The server address.
+	 * @param port The server port.
+	 */
+	public void startClient(String username, String ipAddress, int port) {
+		startClient(username, ipAddress, port, KosmosConfigs.NETWORK_RELAY.getString());
+	}
+
+	/**
+	 * Starts a client, closing any running client.
+	 *
+	 * @param username The username to connect with.
+	 * @param ipAddress The server address.
+	 * @param port The server port.
+	 * @param relay The relay node to receive broadcasts from as host:port, or empty to receive them from the server.
+	 */
+	public void startClient(String username, String ipAddress, int port, String relay) {
+		closeClient();
+
+		try {
+			this.client = new NetworkClient(createTransport(), username, ipAddress, port);
+			this.username = username;
+
+			if (!relay.isEmpty()) {
+				int split = relay.lastIndexOf(':');
+				client.setRelay(relay.substring(0, split), Integer.parseInt(relay.substring(split + 1)));
+			}
+		} catch (IOException e) {
+			FlounderLogger.get().error("Could not start a client to " + ipAddress + ":" + port);
+			FlounderLogger.get().exception(e);
+		}
+	}
+
+	/**
+	 * Moves the client to another region server once the current client update has finished, the loaded world is kept.
+	 *
+	 * @param host The region server address.
+	 * @param port The region server port.
+	 */
+	public void handoff(String host, int port) {
+		this.pendingHandoff = InetSocketAddress.createUnresolved(host, port);
+	}
+
+	/**
+	 * Makes the running server a region server, sharing the world with the other servers known to a coordinator.
+	 *
+	 * @param coordinator The coordinator address, as host:port.
+	 */
+	public void joinRegions(String coordinator) {
+		if (server == null) {
+			return;
+		}
+
+		int split = coordinator.lastIndexOf(':');
+		InetSocketAddress address = new InetSocketAddress(coordinator.substring(0, split), Integer.parseInt(coordinator.substring(split + 1)));
+		server.setRegionNode(new RegionNode(server, address));
+		FlounderLogger.get().log("Joining the regions of coordinator " + coordinator);
+	}
+
+	/**
+	 * Closes the running server.
+	 */
+	public void closeServer() {
+		if (server != null) {
+			server.close();
+			server = null;
+		}
+	}
+
+	/**
+	 * Closes the running client.
+	 */
+	public void closeClient() {
+		pendingHandoff = null;
+
+		if (client != null) {
+			client.close();
+			client = null;
+		}
+	}
+
+	public TransportType getTransportType() {
+		return transportType;
+	}
+
+	/**
+	 * Sets the transport used by servers and clients started after this call.
+	 *
+	 * @param transportType The transport type.
+	 */
+	public void setTransportType(TransportType transportType) {
+		this.transportType = transportType;
+	}
+
+	/**
+	 * Gets the in memory network loopback transports bind to.
+	 *
+	 * @return The loopback network.
+	 */
+	public LoopbackNetwork getLoopback() {
+		return loopback;
+	}
+
+	public NetworkServer getServer() {
+		return server;
+	}
+
+	public NetworkClient getClient() {
+		return client;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	/**
+	 * Gets the port the last server was started on.
+	 *
+	 * @return The server port.
+	 */
+	public int getPort() {
+		return port;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		closeClient();
+		closeServer();
+	}
+
+	@Module.Instance
+	public static KosmosNetwork get() {
+		return (KosmosNetwork) Framework.get().getInstance(KosmosNetwork.class);
+	}
+}
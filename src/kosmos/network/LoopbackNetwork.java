@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * A in memory network that loopback transports bind to, it can add delay, jitter, reordering and loss to every datagram.
+ * With a fixed seed and a manual clock every run delivers the same datagrams in the same order.
+ */
+public class LoopbackNetwork {
+	// The first port given to transports that bind to any port.
+	private static final int EPHEMERAL_START = 49152;
+
+	private final Map<Integer, LoopbackTransport> bound;
+	private int nextPort;
+
+	private LongSupplier clock;
+	private Random random;
+
+	private long delay;
+	private long jitter;
+	private float reorder;
+	private float drop;
+
+	private long sent;
+	private long dropped;
+
+	/**
+	 * Creates a new loopback network with no added latency or loss.
+	 */
+	public LoopbackNetwork() {
+		this.bound = new HashMap<>();
+		this.nextPort = EPHEMERAL_START;
+
+		this.clock = System::nanoTime;
+		this.random = new Random(0L);
+
+		this.delay = 0;
+		this.jitter = 0;
+		this.reorder = 0.0f;
+		this.drop = 0.0f;
+	}
+
+	/**
+	 * Sets the conditions applied to every datagram.
+	 *
+	 * @param delay The one way delay, in milliseconds.
+	 * @param jitter The max random change to the delay either way, in milliseconds.
+	 * @param reorder The chance a datagram is held back so later datagrams overtake it.
+	 * @param drop The chance a datagram is lost.
+	 */
+	public synchronized void setConditions(float delay, float jitter, float reorder, float drop) {
+		this.delay = (long) (delay * 1000000.0);
+		this.jitter = (long) (jitter * 1000000.0);
+		this.reorder = reorder;
+		this.drop = drop;
+	}
+
+	/**
+	 * Sets the seed used for jitter, reordering and loss.
+	 *
+	 * @param seed The seed.
+	 */
+	public synchronized void setSeed(long seed) {
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Sets the clock delivery times are measured against, a manual clock makes delivery deterministic.
+	 *
+	 * @param clock The clock, in nanoseconds.
+	 */
+	public synchronized void setClock(LongSupplier clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Creates a new unbound transport on this network.
+	 *
+	 * @return The new transport.
+	 */
+	public LoopbackTransport createTransport() {
+		return new LoopbackTransport(this);
+	}
+
+	protected synchronized int bind(LoopbackTransport transport, int port) {
+		if (port == 0) {
+			while (bound.containsKey(nextPort)) {
+				nextPort++;
+			}
+
+			port = nextPort++;
+		} else if (bound.containsKey(port)) {
+			throw new IllegalStateException("Loopback port " + port + " is already bound!");
+		}
+
+		bound.put(port, transport);
+		return port;
+	}
+
+	protected synchronized void unbind(int port) {
+		bound.remove(port);
+	}
+
+	protected synchronized void send(int fromPort, byte[] data, int length, int toPort) {
+		sent++;
+		LoopbackTransport target = bound.get(toPort);
+
+		// Like UDP, datagrams to nothing or that are lost just disappear.
+		if (target == null || random.nextFloat() < drop) {
+			dropped++;
+			return;
+		}
+
+		long latency = delay;
+
+		if (jitter > 0) {
+			latency += (long) ((random.nextDouble() * 2.0 - 1.0) * jitter);
+		}
+
+		if (random.nextFloat() < reorder) {
+			latency += delay + jitter;
+		}
+
+		target.deliver(Arrays.copyOf(data, length), fromPort, clock.getAsLong() + Math.max(latency, 0));
+	}
+
+	protected long getTime() {
+		return clock.getAsLong();
+	}
+
+	/**
+	 * Gets the number of datagrams sent over this network.
+	 *
+	 * @return The datagrams sent.
+	 */
+	public synchronized long getSent() {
+		return sent;
+	}
+
+	/**
+	 * Gets the number of datagrams lost or sent to a unbound port.
+	 *
+	 * @return The datagrams dropped.
+	 */
+	public synchronized long getDropped() {
+		return dropped;
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+/**
+ * A transport bound to a port on a loopback network, datagrams are delivered once their simulated latency has passed.
+ */
+public class LoopbackTransport implements ITransport {
+	private final LoopbackNetwork network;
+	private final PriorityQueue<Pending> pending;
+	private long order;
+	private int port;
+
+	protected LoopbackTransport(LoopbackNetwork network) {
+		this.network = network;
+		this.pending = new PriorityQueue<>();
+		this.order = 0;
+		this.port = -1;
+	}
+
+	@Override
+	public void open(int port) throws IOException {
+		try {
+			this.port = network.bind(this, port);
+		} catch (IllegalStateException e) {
+			throw new BindException(e.getMessage());
+		}
+	}
+
+	@Override
+	public void send(byte[] data, int length, InetAddress address, int port) {
+		network.send(this.port, data, length, port);
+	}
+
+	protected synchronized void deliver(byte[] data, int fromPort, long time) {
+		pending.add(new Pending(data, fromPort, time, order++));
+	}
+
+	@Override
+	public void poll(Receiver receiver) {
+		long now = network.getTime();
+		Pending next;
+
+		while ((next = take(now)) != null) {
+			receiver.receive(next.data, next.data.length, InetAddress.getLoopbackAddress(), next.port);
+		}
+	}
+
+	private synchronized Pending take(long now) {
+		Pending next = pending.peek();
+
+		if (next == null || next.time > now) {
+			return null;
+		}
+
+		return pending.poll();
+	}
+
+	@Override
+	public int getPort() {
+		return port;
+	}
+
+	@Override
+	public void close() {
+		if (port != -1) {
+			network.unbind(port);
+			port = -1;
+		}
+
+		synchronized (this) {
+			pending.clear();
+		}
+	}
+
+	/**
+	 * A datagram waiting for its delivery time, ties are delivered in send order.
+	 */
+	private static class Pending implements Comparable<Pending> {
+		private final byte[] data;
+		private final int port;
+		private final long time;
+		private final long order;
+
+		private Pending(byte[] data, int port, long time, long order) {
+			this.data = data;
+			this.port = port;
+			this.time = time;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(Pending other) {
+			int compare = Long.compare(time, other.time);
+			return compare != 0 ? compare : Long.compare(order, other.order);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import flounder.logger.*;
+
+import java.io.*;
+import java.net.*;
+
+/**
+ * A client connected to a server, packets from the server are handled on the update thread.
+ */
+public class NetworkClient {
+	private final ITransport transport;
+	private final ITransport.Receiver receiver;
+	private final ITransport.Receiver handler;
+	private final PacketCodec.Decoder decoder;
+	private final ReliableChannel channel;
+	private final ClockSync clockSync;
+	private final String username;
+	private final String ipAddress;
+	private final InetAddress serverAddress;
+	private final int serverPort;
+	private InetSocketAddress relay;
+	private ReliableChannel relayChannel;
+
+	/**
+	 * Creates and opens a new client.
+	 *
+	 * @param transport The transport to send and receive over.
+	 * @param username The clients username.
+	 * @param ipAddress The server address.
+	 * @param serverPort The server port.
+	 *
+	 * @throws IOException If the address is unknown or the transport could not be opened.
+	 */
+	public NetworkClient(ITransport transport, String username, String ipAddress, int serverPort) throws IOException {
+		this.transport = transport;
+		this.receiver = this::receive;
+		this.handler = this::handle;
+		this.decoder = new PacketCodec.Decoder();
+		this.username = username;
+		this.ipAddress = ipAddress;
+		this.serverAddress = InetAddress.getByName(ipAddress);
+		this.serverPort = serverPort;
+		this.channel = new ReliableChannel(transport, serverAddress, serverPort);
+		this.clockSync = new ClockSync();
+
+		transport.open(0);
+	}
+
+	/**
+	 * Handles all received packets, then resends unacked reliable packets.
+	 */
+	public void update() {
+		transport.poll(receiver);
+		channel.update();
+
+		if (relayChannel != null) {
+			relayChannel.update();
+		}
+	}
+
+	private void receive(byte[] data, int length, InetAddress address, int port) {
+		// Broadcasts from a relay are a separate reliable stream to the servers own packets.
+		ReliableChannel source = relayChannel != null && port == relay.getPort() && address.equals(relay.getAddress()) ? relayChannel : channel;
+
+		if (length > 0 && data[0] == ReliableChannel.FRAME_RELIABLE) {
+			source.receive(data, length, handler);
+		} else if (length > 0 && data[0] == ReliableChannel.FRAME_ACK) {
+			source.receiveAck(data, length);
+		} else {
+			handle(data, length, address, port);
+		}
+	}
+
+	private void handle(byte[] data, int length, InetAddress address, int port) {
+		Packet packet = decoder.decode(data, length);
+
+		if (packet == null) {
+			FlounderLogger.get().error("[" + address.getHostAddress() + ":" + port + "] sent a invalid packet!");
+			return;
+		}
+
+		packet.clientHandlePacket(this, address, port);
+	}
+
+	/**
+	 * Sends data to the server.
+	 *
+	 * @param data The data to send.
+	 */
+	public void sendData(byte[] data) {
+		if (PacketCodec.isReliable(data)) {
+			channel.send(data, data.length);
+		} else {
+			transport.send(data, data.length, serverAddress, serverPort);
+		}
+	}
+
+	/**
+	 * Sends data to the relay node, if one is set.
+	 *
+	 * @param data The data to send.
+	 */
+	public void sendRelayData(byte[] data) {
+		if (relay != null) {
+			transport.send(data, data.length, relay.getAddress(), relay.getPort());
+		}
+	}
+
+	/**
+	 * Sets the relay node to receive broadcasts from.
+	 *
+	 * @param host The relay address.
+	 * @param port The relay port.
+	 *
+	 * @throws IOException If the relay address is unknown.
+	 */
+	public void setRelay(String host, int port) throws IOException {
+		this.relay = new InetSocketAddress(InetAddress.getByName(host), port);
+		this.relayChannel = new ReliableChannel(transport, relay.getAddress(), port);
+	}
+
+	/**
+	 * Gets the relay node broadcasts are received from.
+	 *
+	 * @return The relay address, or null if there is no relay.
+	 */
+	public InetSocketAddress getRelay() {
+		return relay;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public String getIpAddress() {
+		return ipAddress;
+	}
+
+	public int getServerPort() {
+		return serverPort;
+	}
+
+	public ReliableChannel getChannel() {
+		return channel;
+	}
+
+	public ClockSync getClockSync() {
+		return clockSync;
+	}
+
+	/**
+	 * Closes the client transport.
+	 */
+	public void close() {
+		transport.close();
+	}
+}
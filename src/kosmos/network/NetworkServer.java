@@ -0,0 +1,572 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import flounder.logger.*;
+import kosmos.network.packets.*;
+import kosmos.network.regions.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+/**
+ * A server that keeps track of its connected clients and handles their packets on the update thread, packets can be decoded on a pool of workers first.
+ */
+public class NetworkServer {
+	// How long a relay can go without subscribing before it is dropped, in nanoseconds.
+	private static final long RELAY_TIMEOUT = 5000000000L;
+
+	// How long a channel with no session, relay or peer is kept after its peer was last heard from, in nanoseconds.
+	private static final long CHANNEL_TIMEOUT = 10000000000L;
+	private static final long CHANNEL_SWEEP_INTERVAL = 1000000000L;
+
+	// The most channels kept for senders that have not connected, reliable frames from further new senders are dropped.
+	private static final int MAX_PENDING_CHANNELS = 256;
+
+	private final ITransport transport;
+	private final ITransport.Receiver receiver;
+	private final ITransport.Receiver handler;
+	private final ReliableChannel.Gate gate;
+	private final PacketCodec.Decoder decoder;
+	private final FloodGuard floodGuard;
+	private final DecodePool decodePool;
+	private final DecodePool.Applier applier;
+	private final SessionTable sessions;
+	private final Map<InetSocketAddress, ReliableChannel> channels;
+	private final Map<InetSocketAddress, Long> relays;
+	private RegionNode regionNode;
+	private long lastChannelSweep;
+	private int pendingChannels;
+
+	/**
+	 * Creates and opens a new server that decodes packets on the update thread.
+	 *
+	 * @param transport The transport to send and receive over.
+	 * @param port The port to bind to.
+	 *
+	 * @throws IOException If the transport could not be opened.
+	 */
+	public NetworkServer(ITransport transport, int port) throws IOException {
+		this(transport, port, 0);
+	}
+
+	/**
+	 * Creates and opens a new server.
+	 *
+	 * @param transport The transport to send and receive over.
+	 * @param port The port to bind to.
+	 * @param decodeThreads The number of decode workers, zero decodes on the update thread.
+	 *
+	 * @throws IOException If the transport could not be opened.
+	 */
+	public NetworkServer(ITransport transport, int port, int decodeThreads) throws IOException {
+		this.transport = transport;
+		this.receiver = this::receive;
+		this.handler = this::dispatch;
+		this.gate = this::allowFrame;
+		this.decoder = new PacketCodec.Decoder();
+		this.floodGuard = new FloodGuard();
+		this.decodePool = decodeThreads > 0 ? new DecodePool(decodeThreads) : null;
+		this.applier = this::apply;
+		this.sessions = new SessionTable();
+		this.channels = new HashMap<>();
+		this.relays = new HashMap<>();
+		this.lastChannelSweep = System.nanoTime();
+		this.pendingChannels = 0;
+
+		transport.open(port);
+	}
+
+	/**
+	 * Handles all received packets, then resends unacked reliable packets.
+	 */
+	public void update() {
+		transport.poll(receiver);
+
+		if (decodePool != null) {
+			decodePool.apply(applier);
+		}
+
+		for (ReliableChannel channel : channels.values()) {
+			channel.update();
+		}
+
+		floodGuard.update();
+		updateChannels();
+		updateRelays();
+
+		if (regionNode != null) {
+			regionNode.update();
+		}
+	}
+
+	private void receive(byte[] data, int length, InetAddress address, int port) {
+		if (!isTrusted(address, port) && !floodGuard.allowDatagram(data, length, address, port)) {
+			return;
+		}
+
+		if (data[0] == ReliableChannel.FRAME_RELIABLE) {
+			ReliableChannel channel = getReceiveChannel(address, port);
+
+			if (channel != null) {
+				channel.receive(data, length, gate, handler);
+			}
+		} else if (data[0] == ReliableChannel.FRAME_ACK) {
+			ReliableChannel channel = channels.get(new InetSocketAddress(address, port));
+
+			if (channel != null) {
+				channel.receiveAck(data, length);
+			}
+		} else {
+			handle(data, length, address, port);
+		}
+	}
+
+	private void handle(byte[] data, int length, InetAddress address, int port) {
+		if (!isTrusted(address, port) && !floodGuard.allowPacket(data, length, address, port)) {
+			return;
+		}
+
+		dispatch(data, length, address, port);
+	}
+
+	private boolean allowFrame(byte[] data, int offset, int length, InetAddress address, int port) {
+		// Reliable packets are limited before they are acked, so a packet over its limit is resent later instead of lost.
+		return isTrusted(address, port) || floodGuard.allowPacket(data, offset, length, address, port);
+	}
+
+	private void dispatch(byte[] data, int length, InetAddress address, int port) {
+		if (decodePool != null) {
+			decodePool.submit(data, length, address, port);
+		} else {
+			apply(decoder.decode(data, length), address, port);
+		}
+	}
+
+	private boolean isTrusted(InetAddress address, int port) {
+		return regionNode != null && regionNode.isTrusted(address, port);
+	}
+
+	private void apply(Packet packet, InetAddress address, int port) {
+		if (packet == null) {
+			FlounderLogger.get().error("[" + address.getHostAddress() + ":" + port + "] sent a invalid packet!");
+			return;
+		}
+
+		packet.serverHandlePacket(this, address, port);
+	}
+
+	/**
+	 * Sends data to a address.
+	 *
+	 * @param data The data to send.
+	 * @param address The address to send to.
+	 * @param port The port to send to.
+	 */
+	public void sendData(byte[] data, InetAddress address, int port) {
+		sendData(data, data.length, address, port);
+	}
+
+	/**
+	 * Sends the start of a array to a address.
+	 *
+	 * @param data The data to send.
+	 * @param length The number of bytes to send.
+	 * @param address The address to send to.
+	 * @param port The port to send to.
+	 */
+	public void sendData(byte[] data, int length, InetAddress address, int port) {
+		if (PacketCodec.isReliable(data)) {
+			getChannel(address, port).send(data, length);
+		} else {
+			transport.send(data, length, address, port);
+		}
+	}
+
+	private ReliableChannel getChannel(InetAddress address, int port) {
+		InetSocketAddress key = new InetSocketAddress(address, port);
+		ReliableChannel channel = channels.get(key);
+
+		if (channel == null) {
+			channel = new ReliableChannel(transport, address, port);
+			channels.put(key, channel);
+		}
+
+		return channel;
+	}
+
+	private ReliableChannel getReceiveChannel(InetAddress address, int port) {
+		InetSocketAddress key = new InetSocketAddress(address, port);
+		ReliableChannel channel = channels.get(key);
+
+		if (channel == null) {
+			// New senders only get a channel while there is room, the rest resend until there is.
+			if (pendingChannels >= MAX_PENDING_CHANNELS && !isTrusted(address, port)) {
+				return null;
+			}
+
+			channel = new ReliableChannel(transport, address, port);
+			channels.put(key, channel);
+			pendingChannels++;
+		}
+
+		return channel;
+	}
+
+	/**
+	 * Drops channels that have no session, relay or peer and whose peer has gone silent, and recounts the rest.
+	 */
+	private void updateChannels() {
+		long now = System.nanoTime();
+
+		if (now - lastChannelSweep < CHANNEL_SWEEP_INTERVAL) {
+			return;
+		}
+
+		lastChannelSweep = now;
+		int pending = 0;
+		Iterator<Map.Entry<InetSocketAddress, ReliableChannel>> iterator = channels.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+			Map.Entry<InetSocketAddress, ReliableChannel> entry = iterator.next();
+			InetSocketAddress key = entry.getKey();
+
+			if (sessions.get(key) != null || relays.containsKey(key) || isTrusted(key.getAddress(), key.getPort())) {
+				continue;
+			}
+
+			if (now - entry.getValue().getLastReceived() > CHANNEL_TIMEOUT) {
+				iterator.remove();
+			} else {
+				pending++;
+			}
+		}
+
+		pendingChannels = pending;
+	}
+
+	/**
+	 * Sends data to all clients but one.
+	 *
+	 * @param data The data to send.
+	 * @param username The username of the client to skip.
+	 */
+	public void sendDataToOtherClients(byte[] data, String username) {
+		sendDataToOtherClients(data, data.length, username);
+	}
+
+	/**
+	 * Sends the start of a array to all clients but one.
+	 *
+	 * @param data The data to send.
+	 * @param length The number of bytes to send.
+	 * @param username The username of the client to skip.
+	 */
+	public void sendDataToOtherClients(byte[] data, int length, String username) {
+		ClientInfo skip = sessions.get(username);
+		boolean reliable = PacketCodec.isReliable(data);
+		List<ClientInfo> connected = sessions.getConnected();
+
+		for (int i = 0; i < connected.size(); i++) {
+			ClientInfo client = connected.get(i);
+
+			if (client != skip && client.getRelay() == null) {
+				sendData(data, length, client, reliable);
+			}
+		}
+
+		sendDataToRelays(data, length, username, reliable);
+	}
+
+	/**
+	 * Sends data to all clients.
+	 *
+	 * @param data The data to send.
+	 */
+	public void sendDataToAllClients(byte[] data) {
+		boolean reliable = PacketCodec.isReliable(data);
+		List<ClientInfo> connected = sessions.getConnected();
+
+		for (int i = 0; i < connected.size(); i++) {
+			if (connected.get(i).getRelay() == null) {
+				sendData(data, data.length, connected.get(i), reliable);
+			}
+		}
+
+		sendDataToRelays(data, data.length, "", reliable);
+	}
+
+	private void sendDataToRelays(byte[] data, int length, String skip, boolean reliable) {
+		if (relays.isEmpty()) {
+			return;
+		}
+
+		// The relay fans the data out to its clients, resending reliable data itself.
+		byte[] wrapped = new PacketRelayData(skip, data, length).getData();
+
+		for (InetSocketAddress relay : relays.keySet()) {
+			if (reliable) {
+				getChannel(relay.getAddress(), relay.getPort()).send(wrapped, wrapped.length);
+			} else {
+				transport.send(wrapped, wrapped.length, relay.getAddress(), relay.getPort());
+			}
+		}
+	}
+
+	/**
+	 * Adds or refreshes a relay node, relays that stop subscribing are dropped after a few seconds.
+	 *
+	 * @param address The relay address.
+	 * @param port The relay port.
+	 */
+	public void addRelay(InetAddress address, int port) {
+		InetSocketAddress relay = new InetSocketAddress(address, port);
+		relays.put(relay, System.nanoTime());
+		sendRelayMembers(relay);
+	}
+
+	/**
+	 * Sets the relay node that sends broadcasts to a client, the server keeps sending them itself if the relay has not subscribed.
+	 *
+	 * @param client The client.
+	 * @param host The numeric relay address, names are never resolved.
+	 * @param port The relay port.
+	 */
+	public void setClientRelay(ClientInfo client, String host, int port) {
+		InetSocketAddress relay = null;
+
+		for (InetSocketAddress subscribed : relays.keySet()) {
+			if (subscribed.getPort() == port && subscribed.getAddress().getHostAddress().equals(host)) {
+				relay = subscribed;
+				break;
+			}
+		}
+
+		if (Objects.equals(relay, client.getRelay())) {
+			return;
+		}
+
+		InetSocketAddress old = client.getRelay();
+		client.setRelay(relay);
+
+		if (old != null) {
+			sendRelayMembers(old);
+		}
+
+		if (relay != null) {
+			sendRelayMembers(relay);
+		}
+	}
+
+	private void sendRelayMembers(InetSocketAddress relay) {
+		// The relay only sends broadcasts to the clients listed here, so a client never gets them from both.
+		List<String> usernames = new ArrayList<>();
+
+		for (ClientInfo client : sessions.getConnected()) {
+			if (relay.equals(client.getRelay())) {
+				usernames.add(client.getUsername());
+			}
+		}
+
+		byte[] data = new PacketRelayMembers(usernames).getData();
+		getChannel(relay.getAddress(), relay.getPort()).send(data, data.length);
+	}
+
+	private void updateRelays() {
+		if (relays.isEmpty()) {
+			return;
+		}
+
+		long now = System.nanoTime();
+		Iterator<Map.Entry<InetSocketAddress, Long>> iterator = relays.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+			Map.Entry<InetSocketAddress, Long> entry = iterator.next();
+
+			if (now - entry.getValue() > RELAY_TIMEOUT) {
+				FlounderLogger.get().log("Relay " + entry.getKey() + " timed out.");
+				iterator.remove();
+				channels.remove(entry.getKey());
+
+				// Clients of the relay go back to direct broadcasts.
+				for (ClientInfo client : sessions.getConnected()) {
+					if (entry.getKey().equals(client.getRelay())) {
+						client.setRelay(null);
+					}
+				}
+			}
+		}
+	}
+
+	public Set<InetSocketAddress> getRelays() {
+		return relays.keySet();
+	}
+
+	private void sendData(byte[] data, int length, ClientInfo client, boolean reliable) {
+		// Connected clients keep their channel so fan out does not look it up for every client.
+		if (reliable) {
+			client.getChannel().send(data, length);
+		} else {
+			transport.send(data, length, client.getIpAddress(), client.getPort());
+		}
+	}
+
+	/**
+	 * Adds a client to the session table, replacing any client with the same username or address.
+	 *
+	 * @param client The client to add.
+	 */
+	public void addConnection(ClientInfo client) {
+		// A client reconnecting from the same address keeps its channel, the channel is delivering this connect and has not acked it yet.
+		removeConnection(sessions.get(client.getUsername()), client.getSocketAddress());
+		removeConnection(sessions.get(client.getSocketAddress()), client.getSocketAddress());
+		client.setChannel(getChannel(client.getIpAddress(), client.getPort()));
+		sessions.add(client);
+	}
+
+	/**
+	 * Removes a client from the session table.
+	 *
+	 * @param username The username of the client to remove.
+	 */
+	public void removeConnection(String username) {
+		removeConnection(sessions.get(username));
+	}
+
+	private void removeConnection(ClientInfo client) {
+		removeConnection(client, null);
+	}
+
+	private void removeConnection(ClientInfo client, InetSocketAddress keep) {
+		if (client != null) {
+			sessions.remove(client);
+
+			// The relay stops first, a client reconnecting gets broadcasts from the server until it joins again.
+			if (client.getRelay() != null && relays.containsKey(client.getRelay())) {
+				sendRelayMembers(client.getRelay());
+			}
+
+			if (!client.getSocketAddress().equals(keep)) {
+				channels.remove(client.getSocketAddress());
+				floodGuard.remove(client.getIpAddress(), client.getPort());
+			}
+		}
+	}
+
+	/**
+	 * Gets a connected client by username.
+	 *
+	 * @param username The username.
+	 *
+	 * @return The client, or null if the username is not connected.
+	 */
+	public ClientInfo getPlayerMP(String username) {
+		return sessions.get(username);
+	}
+
+	/**
+	 * Gets the connected client at a address.
+	 *
+	 * @param address The client address.
+	 * @param port The client port.
+	 *
+	 * @return The client, or null if no client is connected from the address.
+	 */
+	public ClientInfo getPlayerMP(InetAddress address, int port) {
+		return sessions.get(new InetSocketAddress(address, port));
+	}
+
+	/**
+	 * Gets if a packet claiming to be from a username came from that users session, or was forwarded by a peer region server.
+	 *
+	 * @param username The username the packet claims.
+	 * @param address The address the packet came from.
+	 * @param port The port the packet came from.
+	 *
+	 * @return If the username is connected from the address.
+	 */
+	public boolean isSender(String username, InetAddress address, int port) {
+		if (regionNode != null && regionNode.isPeer(address, port)) {
+			return true;
+		}
+
+		ClientInfo client = getPlayerMP(address, port);
+		return client != null && client.getUsername().equals(username);
+	}
+
+	/**
+	 * Gets a connected client by session id.
+	 *
+	 * @param session The session id.
+	 *
+	 * @return The client, or null if the session is not in use.
+	 */
+	public ClientInfo getPlayerMP(int session) {
+		return sessions.get(session);
+	}
+
+	/**
+	 * Gets the connected clients.
+	 *
+	 * @return A read only list of the connected clients.
+	 */
+	public List<ClientInfo> getConnected() {
+		return sessions.getConnected();
+	}
+
+	public Collection<ReliableChannel> getChannels() {
+		return channels.values();
+	}
+
+	public int getPort() {
+		return transport.getPort();
+	}
+
+	public FloodGuard getFloodGuard() {
+		return floodGuard;
+	}
+
+	/**
+	 * Gets the region node.
+	 *
+	 * @return The region node, or null if this server owns the whole world.
+	 */
+	public RegionNode getRegionNode() {
+		return regionNode;
+	}
+
+	public void setRegionNode(RegionNode regionNode) {
+		this.regionNode = regionNode;
+	}
+
+	/**
+	 * Gets the decode pool.
+	 *
+	 * @return The decode pool, or null if packets are decoded on the update thread.
+	 */
+	public DecodePool getDecodePool() {
+		return decodePool;
+	}
+
+	/**
+	 * Closes the server transport.
+	 */
+	public void close() {
+		transport.close();
+
+		if (decodePool != null) {
+			decodePool.close();
+		}
+
+		sessions.clear();
+		channels.clear();
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import flounder.logger.*;
+
+import java.io.*;
+import java.net.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+
+/**
+ * A transport over a non-blocking datagram channel, polled from the update thread with pooled direct buffers.
+ * Received datagrams are copied into one reused array, so a busy server does not allocate per datagram.
+ */
+public class NioTransport implements ITransport {
+	// The largest datagram that can be sent or received.
+	private static final int MAX_DATAGRAM = 8192;
+
+	// The socket buffer sizes, large so a burst between two polls is not dropped.
+	private static final int SOCKET_BUFFER = 1 << 20;
+
+	// The number of send addresses cached, must be a power of two.
+	private static final int ADDRESS_CACHE = 256;
+
+	private DatagramChannel channel;
+	private Selector selector;
+	private SelectionKey key;
+
+	private final BufferPool pool;
+	private final ByteBuffer receiveBuffer;
+	private final byte[] receiveData;
+	private final Deque<PendingSend> pending;
+	private final InetSocketAddress[] addresses;
+
+	public NioTransport() {
+		this.pool = new BufferPool(MAX_DATAGRAM, 64);
+		this.receiveBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+		this.receiveData = new byte[MAX_DATAGRAM];
+		this.pending = new ArrayDeque<>();
+		this.addresses = new InetSocketAddress[ADDRESS_CACHE];
+	}
+
+	@Override
+	public void open(int port) throws IOException {
+		this.channel = DatagramChannel.open();
+		this.channel.configureBlocking(false);
+		this.channel.setOption(StandardSocketOptions.SO_RCVBUF, SOCKET_BUFFER);
+		this.channel.setOption(StandardSocketOptions.SO_SNDBUF, SOCKET_BUFFER);
+		this.channel.bind(new InetSocketAddress(port));
+		this.selector = Selector.open();
+		this.key = channel.register(selector, SelectionKey.OP_READ);
+	}
+
+	@Override
+	public void send(byte[] data, int length, InetAddress address, int port) {
+		ByteBuffer buffer = pool.acquire();
+		buffer.put(data, 0, length);
+		buffer.flip();
+		InetSocketAddress target = getAddress(address, port);
+
+		// Datagrams queue behind any that the socket could not take yet, so order is kept.
+		if (pending.isEmpty() && trySend(buffer, target)) {
+			pool.release(buffer);
+		} else {
+			pending.addLast(new PendingSend(buffer, target));
+			key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+		}
+	}
+
+	@Override
+	public void poll(Receiver receiver) {
+		try {
+			selector.selectNow();
+		} catch (IOException e) {
+			FlounderLogger.get().exception(e);
+			return;
+		}
+
+		if (key.isValid() && key.isWritable()) {
+			flush();
+		}
+
+		while (true) {
+			receiveBuffer.clear();
+			SocketAddress from;
+
+			try {
+				from = channel.receive(receiveBuffer);
+			} catch (IOException e) {
+				FlounderLogger.get().exception(e);
+				break;
+			}
+
+			if (from == null) {
+				break;
+			}
+
+			receiveBuffer.flip();
+			int length = receiveBuffer.remaining();
+			receiveBuffer.get(receiveData, 0, length);
+			receiver.receive(receiveData, length, ((InetSocketAddress) from).getAddress(), ((InetSocketAddress) from).getPort());
+		}
+
+		selector.selectedKeys().clear();
+	}
+
+	private void flush() {
+		while (!pending.isEmpty()) {
+			PendingSend next = pending.peekFirst();
+
+			if (!trySend(next.buffer, next.address)) {
+				return;
+			}
+
+			pending.pollFirst();
+			pool.release(next.buffer);
+		}
+
+		key.interestOps(SelectionKey.OP_READ);
+	}
+
+	private boolean trySend(ByteBuffer buffer, InetSocketAddress address) {
+		try {
+			return channel.send(buffer, address) > 0;
+		} catch (IOException e) {
+			// The datagram is lost, like any other UDP loss.
+			FlounderLogger.get().exception(e);
+			return true;
+		}
+	}
+
+	private InetSocketAddress getAddress(InetAddress address, int port) {
+		int slot = (address.hashCode() * 31 + port) & (ADDRESS_CACHE - 1);
+		InetSocketAddress cached = addresses[slot];
+
+		if (cached == null || cached.getPort() != port || !cached.getAddress().equals(address)) {
+			cached = new InetSocketAddress(address, port);
+			addresses[slot] = cached;
+		}
+
+		return cached;
+	}
+
+	@Override
+	public int getPort() {
+		return channel == null ? -1 : channel.socket().getLocalPort();
+	}
+
+	@Override
+	public void close() {
+		try {
+			if (selector != null) {
+				selector.close();
+			}
+
+			if (channel != null) {
+				channel.close();
+			}
+		} catch (IOException e) {
+			FlounderLogger.get().exception(e);
+		}
+
+		pending.clear();
+	}
+
+	/**
+	 * Gets the buffer pool used for sends.
+	 *
+	 * @return The buffer pool.
+	 */
+	public BufferPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * A datagram waiting for room in the socket send buffer.
+	 */
+	private static class PendingSend {
+		private final ByteBuffer buffer;
+		private final InetSocketAddress address;
+
+		private PendingSend(ByteBuffer buffer, InetSocketAddress address) {
+			this.buffer = buffer;
+			this.address = address;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import java.net.*;
+
+/**
+ * A packet that can be sent between a client and server, the first byte of the data is the packets codec id.
+ */
+public abstract class Packet {
+	/**
+	 * Sends this packet from a client to the server.
+	 *
+	 * @param client The client to send from.
+	 */
+	public abstract void writeData(NetworkClient client);
+
+	/**
+	 * Sends this packet from the server to its clients.
+	 *
+	 * @param server The server to send from.
+	 */
+	public abstract void writeData(NetworkServer server);
+
+	/**
+	 * Handles this packet when received by a client.
+	 *
+	 * @param client The client that received the packet.
+	 * @param address The address the packet was sent from.
+	 * @param port The port the packet was sent from.
+	 */
+	public abstract void clientHandlePacket(NetworkClient client, InetAddress address, int port);
+
+	/**
+	 * Handles this packet when received by the server.
+	 *
+	 * @param server The server that received the packet.
+	 * @param address The address the packet was sent from.
+	 * @param port The port the packet was sent from.
+	 */
+	public abstract void serverHandlePacket(NetworkServer server, InetAddress address, int port);
+
+	/**
+	 * Gets the data to send for this packet.
+	 *
+	 * @return The packet data.
+	 */
+	public abstract byte[] getData();
+
+	/**
+	 * Gets the prefix all of this packets data has to start with.
+	 *
+	 * @return The data prefix.
+	 */
+	public String getDataPrefix() {
+		return String.valueOf((char) PacketCodec.getId(getClass()));
+	}
+
+	/**
+	 * Reads the data after the prefix.
+	 *
+	 * @param data The packet data.
+	 *
+	 * @return The data as a string.
+	 */
+	public String readData(byte[] data) {
+		return new String(data, 1, data.length - 1).trim();
+	}
+}
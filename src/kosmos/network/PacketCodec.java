@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import kosmos.network.packets.*;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Maps packet classes to the id byte that starts their data, and decodes received data back into packets.
+ */
+public class PacketCodec {
+	// Every packet that can be sent, the index plus one is the packets id.
+	private static final List<Class<? extends Packet>> TYPES = Arrays.asList(
+			PacketChat.class,
+			PacketConnect.class,
+			PacketDisconnect.class,
+			PacketEntityRemove.class,
+			PacketLoad.class,
+			PacketMove.class,
+			PacketWorld.class,
+			PacketPing.class,
+			PacketPong.class,
+			PacketRegionJoin.class,
+			PacketRegionMap.class,
+			PacketHandoff.class,
+			PacketRelaySubscribe.class,
+			PacketRelayJoin.class,
+			PacketRelayData.class,
+			PacketRelayMembers.class
+	);
+
+	private static final Map<Class<? extends Packet>, Byte> IDS = new HashMap<>();
+	private static final Constructor<?>[] CONSTRUCTORS = new Constructor<?>[TYPES.size() + 1];
+	private static final boolean[] RELIABLE = new boolean[TYPES.size() + 1];
+
+	static {
+		for (int i = 0; i < TYPES.size(); i++) {
+			IDS.put(TYPES.get(i), (byte) (i + 1));
+			RELIABLE[i + 1] = IReliablePacket.class.isAssignableFrom(TYPES.get(i));
+
+			try {
+				CONSTRUCTORS[i + 1] = TYPES.get(i).getConstructor(byte[].class);
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException(TYPES.get(i).getSimpleName() + " has no data constructor!", e);
+			}
+		}
+	}
+
+	private PacketCodec() {
+	}
+
+	/**
+	 * Gets the id of a packet class.
+	 *
+	 * @param type The packet class.
+	 *
+	 * @return The packet id.
+	 */
+	public static byte getId(Class<? extends Packet> type) {
+		Byte id = IDS.get(type);
+
+		if (id == null) {
+			throw new IllegalArgumentException(type.getSimpleName() + " is not a registered packet!");
+		}
+
+		return id;
+	}
+
+	/**
+	 * Gets the number of registered packet types.
+	 *
+	 * @return The packet type count, ids run from one to this.
+	 */
+	public static int getTypeCount() {
+		return TYPES.size();
+	}
+
+	/**
+	 * Gets if a id belongs to a registered packet.
+	 *
+	 * @param id The packet id.
+	 *
+	 * @return If the id is known.
+	 */
+	public static boolean isKnown(byte id) {
+		return id > 0 && id <= TYPES.size();
+	}
+
+	/**
+	 * Gets if packet data should be sent over the reliable channel.
+	 *
+	 * @param data The packet data.
+	 *
+	 * @return If the packet is reliable.
+	 */
+	public static boolean isReliable(byte[] data) {
+		return data.length > 0 && data[0] > 0 && data[0] < RELIABLE.length && RELIABLE[data[0]];
+	}
+
+	/**
+	 * Decodes received data into a packet.
+	 *
+	 * @param data The received data.
+	 * @param length The number of bytes received.
+	 *
+	 * @return The decoded packet, or null if the data is not a valid packet.
+	 */
+	public static Packet decode(byte[] data, int length) {
+		if (length < 1 || data[0] < 1 || data[0] >= CONSTRUCTORS.length) {
+			return null;
+		}
+
+		try {
+			return (Packet) CONSTRUCTORS[data[0]].newInstance((Object) Arrays.copyOf(data, length));
+		} catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Decodes packets for a single client or server, reusable packets are read into one instance each instead of being created.
+	 */
+	public static class Decoder {
+		private final Packet[] reusable;
+
+		public Decoder() {
+			this.reusable = new Packet[CONSTRUCTORS.length];
+
+			for (int i = 0; i < TYPES.size(); i++) {
+				if (IReusablePacket.class.isAssignableFrom(TYPES.get(i))) {
+					try {
+						reusable[i + 1] = TYPES.get(i).getConstructor().newInstance();
+					} catch (ReflectiveOperationException e) {
+						throw new IllegalStateException(TYPES.get(i).getSimpleName() + " has no empty constructor!", e);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Decodes received data into a packet.
+		 *
+		 * @param data The received data.
+		 * @param length The number of bytes received.
+		 *
+		 * @return The decoded packet, or null if the data is not a valid packet.
+		 */
+		public Packet decode(byte[] data, int length) {
+			if (length < 1 || data[0] < 1 || data[0] >= reusable.length || reusable[data[0]] == null) {
+				return PacketCodec.decode(data, length);
+			}
+
+			try {
+				((IReusablePacket) reusable[data[0]]).read(data, length);
+			} catch (RuntimeException e) {
+				return null;
+			}
+
+			return reusable[data[0]];
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+/**
+ * Reads comma separated packet fields straight from received bytes, so hot packets can be decoded without building strings.
+ */
+public class PacketParser {
+	// Exact powers of ten a double can hold.
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private PacketParser() {
+	}
+
+	/**
+	 * Finds the end of the field starting at a index.
+	 *
+	 * @param data The packet data.
+	 * @param start The index the field starts at.
+	 * @param length The number of bytes of data.
+	 *
+	 * @return The index of the next comma, or the length if this is the last field.
+	 */
+	public static int fieldEnd(byte[] data, int start, int length) {
+		for (int i = start; i < length; i++) {
+			if (data[i] == ',') {
+				return i;
+			}
+		}
+
+		return length;
+	}
+
+	/**
+	 * Checks if a field matches some bytes.
+	 *
+	 * @param data The packet data.
+	 * @param start The index the field starts at.
+	 * @param end The index the field ends at.
+	 * @param other The bytes to compare with.
+	 *
+	 * @return If the field is equal to the bytes.
+	 */
+	public static boolean fieldEquals(byte[] data, int start, int end, byte[] other) {
+		if (other == null || end - start != other.length) {
+			return false;
+		}
+
+		for (int i = 0; i < other.length; i++) {
+			if (data[start + i] != other[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Parses a float written by {@link Float#toString(float)}, anything unusual falls back to {@link Float#parseFloat(String)}.
+	 *
+	 * @param data The packet data.
+	 * @param start The index the field starts at.
+	 * @param end The index the field ends at.
+	 *
+	 * @return The parsed float.
+	 */
+	public static float parseFloat(byte[] data, int start, int end) {
+		int i = start;
+		boolean negative = false;
+
+		if (i < end && (data[i] == '-' || data[i] == '+')) {
+			negative = data[i] == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean any = false;
+
+		// Integer part, digits past what a long holds only shift the exponent.
+		for (; i < end && data[i] >= '0' && data[i] <= '9'; i++, any = true) {
+			if (digits < 18) {
+				mantissa = mantissa * 10 + (data[i] - '0');
+				digits += mantissa == 0 ? 0 : 1;
+			} else {
+				exponent++;
+			}
+		}
+
+		// Fraction part.
+		if (i < end && data[i] == '.') {
+			for (i++; i < end && data[i] >= '0' && data[i] <= '9'; i++, any = true) {
+				if (digits < 18) {
+					mantissa = mantissa * 10 + (data[i] - '0');
+					digits += mantissa == 0 ? 0 : 1;
+					exponent--;
+				}
+			}
+		}
+
+		// Scientific notation, as used for very small or large floats.
+		if (any && i < end && (data[i] == 'E' || data[i] == 'e')) {
+			i++;
+			boolean exponentNegative = false;
+
+			if (i < end && (data[i] == '-' || data[i] == '+')) {
+				exponentNegative = data[i] == '-';
+				i++;
+			}
+
+			int value = 0;
+			boolean exponentAny = false;
+
+			for (; i < end && data[i] >= '0' && data[i] <= '9'; i++, exponentAny = true) {
+				value = Math.min(value * 10 + (data[i] - '0'), 1000);
+			}
+
+			if (!exponentAny) {
+				return fallback(data, start, end);
+			}
+
+			exponent += exponentNegative ? -value : value;
+		}
+
+		if (!any || i != end) {
+			return fallback(data, start, end);
+		}
+
+		double result = mantissa;
+
+		if (exponent > 0) {
+			result *= exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[exponent] : Math.pow(10.0, exponent);
+		} else if (exponent < 0) {
+			result /= -exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[-exponent] : Math.pow(10.0, -exponent);
+		}
+
+		return (float) (negative ? -result : result);
+	}
+
+	private static float fallback(byte[] data, int start, int end) {
+		return Float.parseFloat(new String(data, start, end - start).trim());
+	}
+}
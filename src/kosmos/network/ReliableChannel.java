@@ -0,0 +1,412 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import java.net.*;
+import java.security.*;
+import java.util.*;
+
+/**
+ * A reliable ordered channel to one peer, layered over a unreliable transport.
+ * Frames carry a sequence number, the peer acks everything it has delivered plus the newest sequence with a bitfield of the 32 before it, and anything not acked in time is resent.
+ * Each channel has a random epoch so a peer that restarts is seen as a new stream instead of old duplicates.
+ * Frames also carry the peer epoch the sender follows, so a side only starts its own stream again when the peer has lost it.
+ */
+public class ReliableChannel {
+	// The first byte of a reliable frame and of a ack, outside the range of packet ids.
+	public static final byte FRAME_RELIABLE = 126;
+	public static final byte FRAME_ACK = 127;
+
+	// The header is the frame byte, the epoch, the followed peer epoch and the sequence.
+	private static final int HEADER = 13;
+	private static final int ACK_LENGTH = 17;
+
+	// The max frames in flight and buffered out of order.
+	private static final int WINDOW = 512;
+
+	// The bounds on the resend timeout, in nanoseconds.
+	private static final long MIN_RESEND = 100000000L;
+	private static final long MAX_RESEND = 1000000000L;
+
+	// The source of epochs, shared by every channel.
+	private static final Random EPOCHS = new SecureRandom();
+
+	private final ITransport transport;
+	private final InetAddress address;
+	private final int port;
+	private int epoch;
+
+	private final byte[][] sentFrames;
+	private final long[] sentTimes;
+	private final long[] firstSentTimes;
+	private final boolean[] resentFrames;
+	private final Deque<byte[]> backlog;
+	private int oldestUnacked;
+	private int nextSequence;
+	private double roundTrip;
+
+	private int remoteEpoch;
+	private int previousRemoteEpoch;
+	private final byte[][] receivedFrames;
+	private int nextDeliver;
+	private int latestReceived;
+	private int ackBits;
+	private boolean ackPending;
+	private final byte[] ackFrame;
+
+	private long resent;
+	private long lastReceived;
+
+	/**
+	 * Creates a new reliable channel.
+	 *
+	 * @param transport The transport to send frames over.
+	 * @param address The peer address.
+	 * @param port The peer port.
+	 */
+	public ReliableChannel(ITransport transport, InetAddress address, int port) {
+		this.transport = transport;
+		this.address = address;
+		this.port = port;
+
+		this.sentFrames = new byte[WINDOW][];
+		this.sentTimes = new long[WINDOW];
+		this.firstSentTimes = new long[WINDOW];
+		this.resentFrames = new boolean[WINDOW];
+		this.backlog = new ArrayDeque<>();
+		this.roundTrip = MIN_RESEND;
+		resetSend();
+
+		this.remoteEpoch = 0;
+		this.previousRemoteEpoch = 0;
+		this.receivedFrames = new byte[WINDOW][];
+		this.ackFrame = new byte[ACK_LENGTH];
+		resetReceive();
+
+		this.resent = 0;
+		this.lastReceived = System.nanoTime();
+	}
+
+	/**
+	 * Sends data reliably, it will be delivered once and in order.
+	 *
+	 * @param data The packet data.
+	 * @param length The number of bytes of data.
+	 */
+	public void send(byte[] data, int length) {
+		byte[] frame = new byte[HEADER + length];
+		frame[0] = FRAME_RELIABLE;
+		writeInt(frame, 1, epoch);
+		System.arraycopy(data, 0, frame, HEADER, length);
+
+		// Frames wait in the backlog while the window is full.
+		if (nextSequence - oldestUnacked >= WINDOW || !backlog.isEmpty()) {
+			backlog.addLast(frame);
+		} else {
+			sendFrame(frame, System.nanoTime());
+		}
+	}
+
+	private void sendFrame(byte[] frame, long now) {
+		int sequence = nextSequence++;
+		int slot = sequence % WINDOW;
+		writeInt(frame, 5, remoteEpoch);
+		writeInt(frame, 9, sequence);
+
+		sentFrames[slot] = frame;
+		sentTimes[slot] = now;
+		firstSentTimes[slot] = now;
+		resentFrames[slot] = false;
+		transport.send(frame, frame.length, address, port);
+	}
+
+	/**
+	 * Receives a reliable frame, delivering it and any frames it unblocks in order.
+	 *
+	 * @param data The frame data.
+	 * @param length The number of bytes in the frame.
+	 * @param receiver The receiver to pass the packet data to.
+	 */
+	public void receive(byte[] data, int length, ITransport.Receiver receiver) {
+		receive(data, length, null, receiver);
+	}
+
+	/**
+	 * Receives a reliable frame, delivering it and any frames it unblocks in order.
+	 *
+	 * @param data The frame data.
+	 * @param length The number of bytes in the frame.
+	 * @param gate The gate new frames must pass before they are accepted, or null to accept every frame.
+	 * @param receiver The receiver to pass the packet data to.
+	 */
+	public void receive(byte[] data, int length, Gate gate, ITransport.Receiver receiver) {
+		if (length < HEADER) {
+			return;
+		}
+
+		int frameEpoch = readInt(data, 1);
+		int followed = readInt(data, 5);
+		int sequence = readInt(data, 9);
+
+		// Frames from a epoch that has been replaced are late duplicates.
+		if (frameEpoch == 0 || frameEpoch == previousRemoteEpoch) {
+			return;
+		}
+
+		// A new epoch means the peer restarted, so its sequences start again.
+		if (frameEpoch != remoteEpoch) {
+			// A new stream is only joined at its first frame, the peer resends the rest until then.
+			if (sequence != 0) {
+				return;
+			}
+
+			// A known peer that does not follow this sides epoch has lost what was sent to it, so this side starts again too.
+			if (remoteEpoch != 0 && followed != epoch) {
+				resetSend();
+			}
+
+			previousRemoteEpoch = remoteEpoch;
+			remoteEpoch = frameEpoch;
+			resetReceive();
+		}
+
+		lastReceived = System.nanoTime();
+
+		ackPending = true;
+
+		if (sequence < nextDeliver || sequence >= nextDeliver + WINDOW) {
+			return;
+		}
+
+		int slot = sequence % WINDOW;
+
+		// A refused frame is left out of the acks, so the peer resends it later.
+		if (receivedFrames[slot] == null && gate != null && !gate.accept(data, HEADER, length - HEADER, address, port)) {
+			return;
+		}
+
+		// Records the sequence in the ack state.
+		if (sequence > latestReceived) {
+			int shift = sequence - latestReceived;
+			ackBits = shift >= 32 ? 0 : ackBits << shift;
+
+			if (latestReceived >= 0 && shift <= 32) {
+				ackBits |= 1 << (shift - 1);
+			}
+
+			latestReceived = sequence;
+		} else if (sequence < latestReceived && latestReceived - sequence <= 32) {
+			ackBits |= 1 << (latestReceived - sequence - 1);
+		}
+
+		if (receivedFrames[slot] == null) {
+			receivedFrames[slot] = Arrays.copyOfRange(data, HEADER, length);
+		}
+
+		while (receivedFrames[nextDeliver % WINDOW] != null) {
+			byte[] packet = receivedFrames[nextDeliver % WINDOW];
+			receivedFrames[nextDeliver % WINDOW] = null;
+			nextDeliver++;
+			receiver.receive(packet, packet.length, address, port);
+		}
+	}
+
+	/**
+	 * Receives a ack from the peer.
+	 *
+	 * @param data The ack data.
+	 * @param length The number of bytes in the ack.
+	 */
+	public void receiveAck(byte[] data, int length) {
+		if (length < ACK_LENGTH || readInt(data, 1) != epoch) {
+			return;
+		}
+
+		lastReceived = System.nanoTime();
+
+		int delivered = readInt(data, 5);
+		int latest = readInt(data, 9);
+		int bits = readInt(data, 13);
+		long now = System.nanoTime();
+
+		for (int sequence = oldestUnacked; sequence < Math.min(delivered, nextSequence); sequence++) {
+			acknowledge(sequence, now);
+		}
+
+		acknowledge(latest, now);
+
+		for (int i = 0; i < 32; i++) {
+			if ((bits & (1 << i)) != 0) {
+				acknowledge(latest - 1 - i, now);
+			}
+		}
+
+		// Slides the window past acked frames and fills it from the backlog.
+		while (oldestUnacked < nextSequence && sentFrames[oldestUnacked % WINDOW] == null) {
+			oldestUnacked++;
+		}
+
+		while (!backlog.isEmpty() && nextSequence - oldestUnacked < WINDOW) {
+			sendFrame(backlog.pollFirst(), now);
+		}
+	}
+
+	private void acknowledge(int sequence, long now) {
+		if (sequence < oldestUnacked || sequence >= nextSequence || sentFrames[sequence % WINDOW] == null) {
+			return;
+		}
+
+		int slot = sequence % WINDOW;
+
+		// Only frames sent once give a clean round trip sample.
+		if (!resentFrames[slot]) {
+			roundTrip += ((now - firstSentTimes[slot]) - roundTrip) * 0.125;
+		}
+
+		sentFrames[slot] = null;
+	}
+
+	/**
+	 * Resends frames that have not been acked in time and sends any pending ack.
+	 */
+	public void update() {
+		long now = System.nanoTime();
+		long timeout = Math.min(Math.max((long) (roundTrip * 2.0), MIN_RESEND), MAX_RESEND);
+
+		for (int sequence = oldestUnacked; sequence < nextSequence; sequence++) {
+			int slot = sequence % WINDOW;
+
+			if (sentFrames[slot] != null && now - sentTimes[slot] >= timeout) {
+				sentTimes[slot] = now;
+				resentFrames[slot] = true;
+				resent++;
+				writeInt(sentFrames[slot], 5, remoteEpoch);
+				transport.send(sentFrames[slot], sentFrames[slot].length, address, port);
+			}
+		}
+
+		if (ackPending) {
+			ackFrame[0] = FRAME_ACK;
+			writeInt(ackFrame, 1, remoteEpoch);
+			writeInt(ackFrame, 5, nextDeliver);
+			writeInt(ackFrame, 9, latestReceived);
+			writeInt(ackFrame, 13, ackBits);
+			transport.send(ackFrame, ACK_LENGTH, address, port);
+			ackPending = false;
+		}
+	}
+
+	private void resetSend() {
+		Arrays.fill(sentFrames, null);
+		backlog.clear();
+
+		// A epoch of zero stands for a peer that is not known yet.
+		do {
+			this.epoch = EPOCHS.nextInt();
+		} while (epoch == 0);
+
+		this.oldestUnacked = 0;
+		this.nextSequence = 0;
+	}
+
+	private void resetReceive() {
+		Arrays.fill(receivedFrames, null);
+		this.nextDeliver = 0;
+		this.latestReceived = -1;
+		this.ackBits = 0;
+		this.ackPending = false;
+	}
+
+	/**
+	 * Creates a ack for a single received frame, for simple peers that do not keep a channel.
+	 *
+	 * @param frame The received reliable frame.
+	 *
+	 * @return The ack to send back.
+	 */
+	public static byte[] createAck(byte[] frame) {
+		byte[] ack = new byte[ACK_LENGTH];
+		ack[0] = FRAME_ACK;
+		System.arraycopy(frame, 1, ack, 1, 4);
+		System.arraycopy(frame, 9, ack, 9, 4);
+		return ack;
+	}
+
+	private static void writeInt(byte[] data, int offset, int value) {
+		data[offset] = (byte) (value >>> 24);
+		data[offset + 1] = (byte) (value >>> 16);
+		data[offset + 2] = (byte) (value >>> 8);
+		data[offset + 3] = (byte) value;
+	}
+
+	private static int readInt(byte[] data, int offset) {
+		return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16) | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+	}
+
+	/**
+	 * Gets the number of frames sent but not yet acked, including the backlog.
+	 *
+	 * @return The frames in flight.
+	 */
+	public int getInFlight() {
+		int count = backlog.size();
+
+		for (int sequence = oldestUnacked; sequence < nextSequence; sequence++) {
+			count += sentFrames[sequence % WINDOW] != null ? 1 : 0;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Gets the smoothed round trip time measured from acks.
+	 *
+	 * @return The round trip time, in milliseconds.
+	 */
+	public double getRoundTrip() {
+		return roundTrip / 1000000.0;
+	}
+
+	/**
+	 * Gets the number of frames that have been resent.
+	 *
+	 * @return The resent frames.
+	 */
+	public long getResent() {
+		return resent;
+	}
+
+	/**
+	 * Gets when a frame or ack was last received from the peer.
+	 *
+	 * @return The time, from {@link System#nanoTime()}.
+	 */
+	public long getLastReceived() {
+		return lastReceived;
+	}
+
+	/**
+	 * Decides if a newly received frame is accepted before it is acked.
+	 */
+	public interface Gate {
+		/**
+		 * Checks the packet data of a new frame.
+		 *
+		 * @param data The frame data.
+		 * @param offset The offset of the packet data in the frame.
+		 * @param length The number of bytes of packet data.
+		 * @param address The address the frame came from.
+		 * @param port The port the frame came from.
+		 *
+		 * @return If the frame is accepted, refused frames are resent by the peer.
+		 */
+		boolean accept(byte[] data, int offset, int length, InetAddress address, int port);
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import java.net.*;
+import java.util.*;
+
+/**
+ * The servers connected clients, found in constant time by address, username or session id.
+ * Session ids are small and reused once a client leaves, so they can index arrays.
+ */
+public class SessionTable {
+	private final Map<InetSocketAddress, ClientInfo> byAddress;
+	private final Map<String, ClientInfo> byUsername;
+	private final List<ClientInfo> bySession;
+	private final Deque<Integer> freeSessions;
+	private final List<ClientInfo> connected;
+	private final List<ClientInfo> connectedView;
+
+	/**
+	 * Creates a new empty session table.
+	 */
+	public SessionTable() {
+		this.byAddress = new HashMap<>();
+		this.byUsername = new HashMap<>();
+		this.bySession = new ArrayList<>();
+		this.freeSessions = new ArrayDeque<>();
+		this.connected = new ArrayList<>();
+		this.connectedView = Collections.unmodifiableList(connected);
+	}
+
+	/**
+	 * Adds a client and gives it a session id, any client with the same username or address is removed first.
+	 *
+	 * @param client The client to add.
+	 */
+	public void add(ClientInfo client) {
+		remove(byUsername.get(client.getUsername()));
+		remove(byAddress.get(client.getSocketAddress()));
+
+		int session = freeSessions.isEmpty() ? bySession.size() : freeSessions.pollFirst();
+
+		if (session == bySession.size()) {
+			bySession.add(client);
+		} else {
+			bySession.set(session, client);
+		}
+
+		client.setSession(session, connected.size());
+		connected.add(client);
+		byAddress.put(client.getSocketAddress(), client);
+		byUsername.put(client.getUsername(), client);
+	}
+
+	/**
+	 * Removes a client, freeing its session id.
+	 *
+	 * @param client The client to remove, can be null.
+	 */
+	public void remove(ClientInfo client) {
+		if (client == null || bySession.size() <= client.getSessionId() || bySession.get(client.getSessionId()) != client) {
+			return;
+		}
+
+		// Swaps the last client into the removed clients place.
+		ClientInfo last = connected.remove(connected.size() - 1);
+
+		if (last != client) {
+			connected.set(client.getIndex(), last);
+			last.setSession(last.getSessionId(), client.getIndex());
+		}
+
+		bySession.set(client.getSessionId(), null);
+		freeSessions.addLast(client.getSessionId());
+		byAddress.remove(client.getSocketAddress());
+		byUsername.remove(client.getUsername());
+	}
+
+	/**
+	 * Gets a client by address.
+	 *
+	 * @param address The client address.
+	 *
+	 * @return The client, or null if no client is connected from the address.
+	 */
+	public ClientInfo get(InetSocketAddress address) {
+		return byAddress.get(address);
+	}
+
+	/**
+	 * Gets a client by username.
+	 *
+	 * @param username The username.
+	 *
+	 * @return The client, or null if the username is not connected.
+	 */
+	public ClientInfo get(String username) {
+		return byUsername.get(username);
+	}
+
+	/**
+	 * Gets a client by session id.
+	 *
+	 * @param session The session id.
+	 *
+	 * @return The client, or null if the session is not in use.
+	 */
+	public ClientInfo get(int session) {
+		return session >= 0 && session < bySession.size() ? bySession.get(session) : null;
+	}
+
+	/**
+	 * Gets the connected clients, in no particular order.
+	 *
+	 * @return A read only view of the connected clients.
+	 */
+	public List<ClientInfo> getConnected() {
+		return connectedView;
+	}
+
+	/**
+	 * Removes every client.
+	 */
+	public void clear() {
+		byAddress.clear();
+		byUsername.clear();
+		bySession.clear();
+		freeSessions.clear();
+		connected.clear();
+	}
+}
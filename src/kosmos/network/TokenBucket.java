@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+/**
+ * A token bucket that refills at a fixed rate up to a burst size, each allowed action takes one token.
+ */
+public class TokenBucket {
+	private final float rate;
+	private final float burst;
+	private float tokens;
+	private long lastRefill;
+
+	/**
+	 * Creates a new full token bucket.
+	 *
+	 * @param rate The tokens added per second.
+	 * @param burst The most tokens the bucket can hold.
+	 * @param now The current time, in nanoseconds.
+	 */
+	public TokenBucket(float rate, float burst, long now) {
+		this.rate = rate;
+		this.burst = burst;
+		this.tokens = burst;
+		this.lastRefill = now;
+	}
+
+	/**
+	 * Refills the bucket and tries to take a token.
+	 *
+	 * @param now The current time, in nanoseconds.
+	 *
+	 * @return If a token was taken.
+	 */
+	public boolean take(long now) {
+		tokens = Math.min(burst, tokens + (now - lastRefill) * rate / 1000000000.0f);
+		lastRefill = now;
+
+		if (tokens < 1.0f) {
+			return false;
+		}
+
+		tokens -= 1.0f;
+		return true;
+	}
+
+	public float getRate() {
+		return rate;
+	}
+
+	public float getBurst() {
+		return burst;
+	}
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+/**
+ * The transports a client or server can be started with.
+ */
+public enum TransportType {
+	UDP, NIO, LOOPBACK;
+
+	/**
+	 * Finds a transport type by name, ignoring case.
+	 *
+	 * @param name The name.
+	 *
+	 * @return The transport type, or NIO if the name is not known.
+	 */
+	public static TransportType fromName(String name) {
+		for (TransportType type : values()) {
+			if (type.name().equalsIgnoreCase(name)) {
+				return type;
+			}
+		}
+
+		return NIO;
+	}
+}
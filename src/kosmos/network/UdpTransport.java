@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network;
+
+import flounder.logger.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A transport over a real UDP socket, datagrams are received on a background thread and queued until polled.
+ */
+public class UdpTransport implements ITransport {
+	// The largest datagram that can be received.
+	private static final int MAX_DATAGRAM = 8192;
+
+	private DatagramSocket socket;
+	private Thread receiveThread;
+	private Queue<DatagramPacket> received;
+
+	public UdpTransport() {
+		this.received = new ConcurrentLinkedQueue<>();
+	}
+
+	@Override
+	public void open(int port) throws IOException {
+		this.socket = new DatagramSocket(port);
+		this.receiveThread = new Thread(this::receive, "Kosmos-UDP-" + socket.getLocalPort());
+		this.receiveThread.setDaemon(true);
+		this.receiveThread.start();
+	}
+
+	private void receive() {
+		while (!socket.isClosed()) {
+			byte[] data = new byte[MAX_DATAGRAM];
+			DatagramPacket packet = new DatagramPacket(data, data.length);
+
+			try {
+				socket.receive(packet);
+				received.add(packet);
+			} catch (IOException e) {
+				if (!socket.isClosed()) {
+					FlounderLogger.get().exception(e);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void send(byte[] data, int length, InetAddress address, int port) {
+		try {
+			socket.send(new DatagramPacket(data, length, address, port));
+		} catch (IOException e) {
+			FlounderLogger.get().exception(e);
+		}
+	}
+
+	@Override
+	public void poll(Receiver receiver) {
+		DatagramPacket packet;
+
+		while ((packet = received.poll()) != null) {
+			receiver.receive(packet.getData(), packet.getLength(), packet.getAddress(), packet.getPort());
+		}
+	}
+
+	@Override
+	public int getPort() {
+		return socket == null ? -1 : socket.getLocalPort();
+	}
+
+	@Override
+	public void close() {
+		if (socket != null) {
+			socket.close();
+		}
+
+		received.clear();
+	}
+}
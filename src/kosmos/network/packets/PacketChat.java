@@ -11,12 +11,12 @@ package kosmos.network.packets;
 
 import flounder.logger.*;
 import flounder.maths.*;
-import flounder.networking.*;
+import kosmos.network.*;
 import kosmos.uis.*;
 
 import java.net.*;
 
-public class PacketChat extends Packet {
+public class PacketChat extends Packet implements IReliablePacket {
 	private String username;
 	private String chatMessage;
 
@@ -32,26 +32,36 @@ public class PacketChat extends Packet {
 	}
 
 	@Override
-	public void writeData(Client client) {
+	public void writeData(NetworkClient client) {
 		client.sendData(getData());
 	}
 
 	@Override
-	public void writeData(Server server) {
-		server.sentDataToOtherClient(getData(), username);
+	public void writeData(NetworkServer server) {
+		server.sendDataToOtherClients(getData(), username);
 	}
 
 	@Override
-	public void clientHandlePacket(Client client, InetAddress address, int port) {
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
 		String message = username + " has said: " + chatMessage;
 		FlounderLogger.get().log(message);
 		OverlayChat.addText(message, new Colour(1.0f, 1.0f, 1.0f));
 	}
 
 	@Override
-	public void serverHandlePacket(Server server, InetAddress address, int port) {
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		// Drops packets sent on behalf of another player.
+		if (!server.isSender(username, address, port)) {
+			return;
+		}
+
 		FlounderLogger.get().log("[" + address.getHostAddress() + ":" + port + "] " + username + " has said: " + chatMessage);
 		this.writeData(server);
+
+		// Every region needs world edits, chat and quits.
+		if (server.getRegionNode() != null) {
+			server.getRegionNode().forward(getData(), address, port);
+		}
 	}
 
 	@Override
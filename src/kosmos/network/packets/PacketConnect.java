@@ -9,21 +9,21 @@
 
 package kosmos.network.packets;
 
-import flounder.framework.*;
 import flounder.helpers.*;
 import flounder.logger.*;
 import flounder.maths.*;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
+import kosmos.network.*;
 import kosmos.uis.*;
 import kosmos.world.*;
 
 import java.net.*;
+import java.util.*;
 
 /**
  * A packet that is used when a client connects.
  */
-public class PacketConnect extends Packet {
+public class PacketConnect extends Packet implements IReliablePacket {
 	private String username;
 
 	/**
@@ -45,17 +45,17 @@ public class PacketConnect extends Packet {
 	}
 
 	@Override
-	public void writeData(Client client) {
+	public void writeData(NetworkClient client) {
 		client.sendData(getData());
 	}
 
 	@Override
-	public void writeData(Server server) {
-		server.sentDataToOtherClient(getData(), username);
+	public void writeData(NetworkServer server) {
+		server.sendDataToOtherClients(getData(), username);
 	}
 
 	@Override
-	public void clientHandlePacket(Client client, InetAddress address, int port) {
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
 		FlounderLogger.get().log("[" + address.getHostAddress() + ":" + port + "] " + username + " has joined the game.");
 		OverlayChat.addText(username + " has joined the game.", new Colour(0.1f, 0.7f, 0.1f));
 
@@ -67,7 +67,7 @@ public class PacketConnect extends Packet {
 	}
 
 	@Override
-	public void serverHandlePacket(Server server, InetAddress address, int port) {
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
 		FlounderLogger.get().log("[" + address.getHostAddress() + ":" + port + "] " + username + " has connected.");
 
 		// Adds the client to the connection list.
@@ -75,14 +75,14 @@ public class PacketConnect extends Packet {
 		server.addConnection(player);
 
 		// Send data to the new client about the connected players.
-		for (ClientInfo c : FlounderNetwork.get().getSocketServer().getConnected()) {
-			if (!address.equals(c.getIpAddress()) && port != c.getPort()) {
-				FlounderNetwork.get().getSocketServer().sendData(new PacketConnect(c.getUsername()).getData(), address, port);
+		for (ClientInfo c : server.getConnected()) {
+			if (c != player) {
+				server.sendData(new PacketConnect(c.getUsername()).getData(), address, port);
 			}
 		}
 
 		// Sends current world data to the new client.
-		server.sendData(new PacketWorld(Framework.get().getTimeSec(), KosmosWorld.get().getWorld()).getData(), address, port);
+		server.sendData(new PacketWorld(KosmosWorld.get().getWorld()).getData(), address, port);
 		Pair<Vector3f, Vector3f> worldData = KosmosWorld.get().getWorld().getPlayers().get(username);
 		if (worldData == null) {
 			new PacketLoad(username, new Vector3f(), 0.0f, 0.0f).writeData(server);
@@ -95,10 +95,11 @@ public class PacketConnect extends Packet {
 			String[] d = chunk.split(",");
 			Vector3f position = new Vector3f(Float.parseFloat(d[0].trim()), Float.parseFloat(d[1].trim()), Float.parseFloat(d[2].trim()));
 
-			for (Vector3f removed : KosmosWorld.get().getWorld().getChunkData().get(chunk).getFirst()) {
-				ClientInfo ci = FlounderNetwork.get().getSocketServer().getPlayerMP(username);
-				byte[] data = new PacketEntityRemove("server", position, removed).getData();
-				FlounderNetwork.get().getSocketServer().sendData(data, ci.getIpAddress(), ci.getPort());
+			BitSet removed = KosmosWorld.get().getWorld().getChunkData().get(chunk).getFirst();
+
+			for (int tile = removed.nextSetBit(0); tile >= 0; tile = removed.nextSetBit(tile + 1)) {
+				byte[] data = new PacketEntityRemove("server", position, tile).getData();
+				server.sendData(data, address, port);
 			}
 		}
 
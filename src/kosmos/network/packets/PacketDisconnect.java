@@ -12,8 +12,8 @@ package kosmos.network.packets;
 import flounder.guis.*;
 import flounder.logger.*;
 import flounder.maths.*;
-import flounder.networking.*;
 import kosmos.*;
+import kosmos.network.*;
 import kosmos.uis.*;
 import kosmos.world.*;
 
@@ -22,7 +22,7 @@ import java.net.*;
 /**
  * A packet that is used when a client / server disconnects.
  */
-public class PacketDisconnect extends Packet {
+public class PacketDisconnect extends Packet implements IReliablePacket {
 	private String username;
 
 	/**
@@ -44,24 +44,24 @@ public class PacketDisconnect extends Packet {
 	}
 
 	@Override
-	public void writeData(Client client) {
+	public void writeData(NetworkClient client) {
 		client.sendData(getData());
 	}
 
 	@Override
-	public void writeData(Server server) {
-		server.sentDataToOtherClient(getData(), username);
+	public void writeData(NetworkServer server) {
+		server.sendDataToOtherClients(getData(), username);
 	}
 
 	@Override
-	public void clientHandlePacket(Client client, InetAddress address, int port) {
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
 		if (username.equals("server")) {
 			FlounderLogger.get().log("The server is closing!");
 			OverlayChat.addText("The server is closing!", new Colour(0.7f, 0.1f, 0.1f));
 
-			if (FlounderNetwork.get().getSocketClient() != null) {
-				new PacketDisconnect(FlounderNetwork.get().getUsername()).writeData(FlounderNetwork.get().getSocketClient());
-				FlounderNetwork.get().closeClient();
+			if (KosmosNetwork.get().getClient() != null) {
+				new PacketDisconnect(KosmosNetwork.get().getUsername()).writeData(KosmosNetwork.get().getClient());
+				KosmosNetwork.get().closeClient();
 			}
 
 			// Deletes the clients world.
@@ -80,10 +80,20 @@ public class PacketDisconnect extends Packet {
 	}
 
 	@Override
-	public void serverHandlePacket(Server server, InetAddress address, int port) {
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		// Drops packets sent on behalf of another player.
+		if (!server.isSender(username, address, port)) {
+			return;
+		}
+
 		FlounderLogger.get().log("[" + address.getHostAddress() + ":" + port + "] " + username + " has disconnected.");
 		server.removeConnection(username);
 		this.writeData(server);
+
+		// Every region needs world edits, chat and quits.
+		if (server.getRegionNode() != null) {
+			server.getRegionNode().forward(getData(), address, port);
+		}
 	}
 
 	@Override
@@ -9,83 +9,88 @@
 
 package kosmos.network.packets;
 
-import flounder.entities.*;
 import flounder.helpers.*;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
+import kosmos.network.*;
 import kosmos.world.*;
 import kosmos.world.chunks.*;
 
 import java.net.*;
 import java.util.*;
 
-public class PacketEntityRemove extends Packet {
+public class PacketEntityRemove extends Packet implements IReliablePacket {
 	private String username;
 	private Vector3f chunkPosition;
-	private Vector3f entityPosition;
+	private int tile;
 
 	public PacketEntityRemove(byte[] data) {
 		String[] d = readData(data).split(",");
 		this.username = d[0].trim();
 		this.chunkPosition = new Vector3f(Float.parseFloat(d[1].trim()), Float.parseFloat(d[2].trim()), Float.parseFloat(d[3].trim()));
-		this.entityPosition = new Vector3f(Float.parseFloat(d[4].trim()), Float.parseFloat(d[5].trim()), Float.parseFloat(d[6].trim()));
+		this.tile = Integer.parseInt(d[4].trim());
 	}
 
-	public PacketEntityRemove(String username, Vector3f chunkPosition, Vector3f entityPosition) {
+	public PacketEntityRemove(String username, Vector3f chunkPosition, int tile) {
 		this.username = username;
 		this.chunkPosition = chunkPosition;
-		this.entityPosition = entityPosition;
+		this.tile = tile;
 	}
 
 	@Override
-	public void writeData(Client client) {
+	public void writeData(NetworkClient client) {
 		client.sendData(getData());
 	}
 
 	@Override
-	public void writeData(Server server) {
-		server.sentDataToOtherClient(getData(), username);
+	public void writeData(NetworkServer server) {
+		server.sendDataToOtherClients(getData(), username);
 	}
 
 	@Override
-	public void clientHandlePacket(Client client, InetAddress address, int port) {
-		// Goes though all chunks looking for a match.
-		for (Entity entity : FlounderEntities.get().getEntities().getAll(null)) {
-			if (entity != null && entity instanceof Chunk) {
-				Chunk chunk = (Chunk) entity;
-
-				if (chunk.getPosition().equals(chunkPosition)) {
-					chunk.entityRemove(entityPosition);
-					return;
-				}
-			}
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
+		// Finds the chunk if it is loaded.
+		Chunk chunk = KosmosChunks.get().getStructure().getChunk(chunkPosition);
+
+		if (chunk != null && chunk.getPosition().equals(chunkPosition)) {
+			chunk.entityRemove(tile);
+			return;
 		}
 
 		String chunkKey = WorldDefinition.vectorToString(chunkPosition);
 
 		if (!KosmosWorld.get().getWorld().getChunkData().containsKey(chunkKey)) {
-			KosmosWorld.get().getWorld().getChunkData().put(chunkKey, new Pair<>(new ArrayList<>(), new ArrayList<>()));
+			KosmosWorld.get().getWorld().getChunkData().put(chunkKey, new Pair<>(new BitSet(), new ArrayList<>()));
 		}
 
-		KosmosWorld.get().getWorld().getChunkData().get(chunkKey).getFirst().add(entityPosition);
+		KosmosWorld.get().getWorld().getChunkData().get(chunkKey).getFirst().set(tile);
 	}
 
 	@Override
-	public void serverHandlePacket(Server server, InetAddress address, int port) {
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		// Drops packets sent on behalf of another player.
+		if (!server.isSender(username, address, port)) {
+			return;
+		}
+
 		String chunkKey = WorldDefinition.vectorToString(chunkPosition);
 
 		if (!KosmosWorld.get().getWorld().getChunkData().containsKey(chunkKey)) {
-			KosmosWorld.get().getWorld().getChunkData().put(chunkKey, new Pair<>(new ArrayList<>(), new ArrayList<>()));
+			KosmosWorld.get().getWorld().getChunkData().put(chunkKey, new Pair<>(new BitSet(), new ArrayList<>()));
 		}
 
-		KosmosWorld.get().getWorld().getChunkData().get(chunkKey).getFirst().add(entityPosition);
+		KosmosWorld.get().getWorld().getChunkData().get(chunkKey).getFirst().set(tile);
 
 		this.writeData(server);
+
+		// Every region needs world edits, chat and quits.
+		if (server.getRegionNode() != null) {
+			server.getRegionNode().forward(getData(), address, port);
+		}
 	}
 
 	@Override
 	public byte[] getData() {
-		return (getDataPrefix() + username + "," + chunkPosition.x + "," + chunkPosition.y + "," + chunkPosition.z + "," + entityPosition.x + "," + entityPosition.y + "," + entityPosition.z).getBytes();
+		return (getDataPrefix() + username + "," + chunkPosition.x + "," + chunkPosition.y + "," + chunkPosition.z + "," + tile).getBytes();
 	}
 
 	public String getUsername() {
@@ -96,7 +101,7 @@ public class PacketEntityRemove extends Packet {
 		return chunkPosition;
 	}
 
-	public Vector3f getEntityPosition() {
-		return entityPosition;
+	public int getTile() {
+		return tile;
 	}
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.packets;
+
+import kosmos.network.*;
+import kosmos.world.*;
+
+import java.net.*;
+
+/**
+ * Moves a player between region servers.
+ * A server sends it to a player that walked into another servers region, the player then sends it to the new server instead of connecting, and the new server passes it to its peers so the old server drops the player.
+ * A server also sends it for another player that left its view, which the client removes without a message.
+ */
+public class PacketHandoff extends Packet implements IReliablePacket {
+	private String username;
+	private String host;
+	private int port;
+
+	public PacketHandoff(byte[] data) {
+		String[] d = readData(data).split(",");
+		this.username = d[0].trim();
+		this.host = d.length > 1 ? d[1].trim() : "";
+		this.port = d.length > 2 ? Integer.parseInt(d[2].trim()) : 0;
+	}
+
+	public PacketHandoff(String username, String host, int port) {
+		this.username = username;
+		this.host = host;
+		this.port = port;
+	}
+
+	@Override
+	public void writeData(NetworkClient client) {
+		client.sendData(getData());
+	}
+
+	@Override
+	public void writeData(NetworkServer server) {
+		// Sent to single clients and peers by the region node.
+	}
+
+	@Override
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
+		if (username.equals(KosmosNetwork.get().getUsername())) {
+			KosmosNetwork.get().handoff(host, this.port);
+		} else {
+			KosmosWorld.get().removePlayer(username);
+		}
+	}
+
+	@Override
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		if (server.getRegionNode() != null) {
+			server.getRegionNode().handoff(this, address, port);
+		}
+	}
+
+	@Override
+	public byte[] getData() {
+		return (getDataPrefix() + username + "," + host + "," + port).getBytes();
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public int getPort() {
+		return port;
+	}
+}
@@ -10,12 +10,12 @@
 package kosmos.network.packets;
 
 import flounder.maths.vectors.*;
-import flounder.networking.*;
+import kosmos.network.*;
 import kosmos.world.*;
 
 import java.net.*;
 
-public class PacketLoad extends Packet {
+public class PacketLoad extends Packet implements IReliablePacket {
 	private String username;
 	private float x;
 	private float y;
@@ -43,23 +43,23 @@ public class PacketLoad extends Packet {
 	}
 
 	@Override
-	public void writeData(Client client) {
+	public void writeData(NetworkClient client) {
 		client.sendData(getData());
 	}
 
 	@Override
-	public void writeData(Server server) {
-		ClientInfo ci = FlounderNetwork.get().getSocketServer().getPlayerMP(username);
+	public void writeData(NetworkServer server) {
+		ClientInfo ci = server.getPlayerMP(username);
 		server.sendData(getData(), ci.getIpAddress(), ci.getPort());
 	}
 
 	@Override
-	public void clientHandlePacket(Client client, InetAddress address, int port) {
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
 		KosmosWorld.get().generateWorld(null, new Vector3f(x, y, z), new Vector3f(chunkX, 0.0f, chunkZ));
 	}
 
 	@Override
-	public void serverHandlePacket(Server server, InetAddress address, int port) {
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
 		// Fully client sided packet.
 	}
 
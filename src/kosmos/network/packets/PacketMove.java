@@ -11,12 +11,13 @@ package kosmos.network.packets;
 
 import flounder.helpers.*;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
+import kosmos.network.*;
 import kosmos.world.*;
 
 import java.net.*;
+import java.util.*;
 
-public class PacketMove extends Packet {
+public class PacketMove extends Packet implements IReusablePacket {
 	private String username;
 	private float x;
 	private float y;
@@ -25,6 +26,16 @@ public class PacketMove extends Packet {
 	private float chunkX;
 	private float chunkZ;
 
+	private byte[] usernameBytes;
+	private byte[] source;
+	private int sourceLength;
+
+	/**
+	 * Creates a empty move packet to be read into.
+	 */
+	public PacketMove() {
+	}
+
 	public PacketMove(byte[] data) {
 		String[] d = readData(data).split(",");
 		this.username = d[0].trim();
@@ -34,6 +45,8 @@ public class PacketMove extends Packet {
 		this.w = Float.parseFloat(d[4].trim());
 		this.chunkX = Float.parseFloat(d[5].trim());
 		this.chunkZ = Float.parseFloat(d[6].trim());
+		this.source = data;
+		this.sourceLength = data.length;
 	}
 
 	public PacketMove(String username, Vector3f position, Vector3f rotation, float chunkX, float chunkZ) {
@@ -47,23 +60,67 @@ public class PacketMove extends Packet {
 	}
 
 	@Override
-	public void writeData(Client client) {
+	public void read(byte[] data, int length) {
+		int start = 1;
+		int end = PacketParser.fieldEnd(data, start, length);
+
+		// The username is only rebuilt when a different player moved.
+		if (!PacketParser.fieldEquals(data, start, end, usernameBytes)) {
+			this.usernameBytes = Arrays.copyOfRange(data, start, end);
+			this.username = new String(usernameBytes).trim();
+		}
+
+		start = end + 1;
+		end = PacketParser.fieldEnd(data, start, length);
+		this.x = PacketParser.parseFloat(data, start, end);
+		start = end + 1;
+		end = PacketParser.fieldEnd(data, start, length);
+		this.y = PacketParser.parseFloat(data, start, end);
+		start = end + 1;
+		end = PacketParser.fieldEnd(data, start, length);
+		this.z = PacketParser.parseFloat(data, start, end);
+		start = end + 1;
+		end = PacketParser.fieldEnd(data, start, length);
+		this.w = PacketParser.parseFloat(data, start, end);
+		start = end + 1;
+		end = PacketParser.fieldEnd(data, start, length);
+		this.chunkX = PacketParser.parseFloat(data, start, end);
+		start = end + 1;
+		end = PacketParser.fieldEnd(data, start, length);
+		this.chunkZ = PacketParser.parseFloat(data, start, end);
+
+		this.source = data;
+		this.sourceLength = length;
+	}
+
+	@Override
+	public void writeData(NetworkClient client) {
 		client.sendData(getData());
 	}
 
 	@Override
-	public void writeData(Server server) {
-		server.sentDataToOtherClient(getData(), username);
+	public void writeData(NetworkServer server) {
+		// A received move is relayed as the bytes it arrived as.
+		if (source != null) {
+			server.sendDataToOtherClients(source, sourceLength, username);
+		} else {
+			server.sendDataToOtherClients(getData(), username);
+		}
 	}
 
 	@Override
-	public void clientHandlePacket(Client client, InetAddress address, int port) {
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
 		//	FlounderLogger.log("[" + client + "]: moved to: " + x + "," + y + "," + z + " : " + w + ", chunk[" + chunkX + "," + chunkZ + "]");
 		KosmosWorld.get().updatePlayer(username, x, y, z, w, chunkX, chunkZ);
 	}
 
 	@Override
-	public void serverHandlePacket(Server server, InetAddress address, int port) {
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		// Drops packets sent on behalf of another player.
+		if (!server.isSender(username, address, port)) {
+			return;
+		}
+
 		//	FlounderLogger.log("[" + username + "]: moved to: " + x + "," + y + "," + z + " : " + w + "," + seed + ", chunk[" + chunkX + "," + chunkZ + "]");
 		if (!KosmosWorld.get().getWorld().getPlayers().containsKey(username)) {
 			KosmosWorld.get().getWorld().getPlayers().put(username, new Pair<>(new Vector3f(), new Vector3f()));
@@ -72,6 +129,11 @@ public class PacketMove extends Packet {
 		KosmosWorld.get().getWorld().getPlayers().get(username).getFirst().set(x, y, z);
 		KosmosWorld.get().getWorld().getPlayers().get(username).getSecond().set(chunkX, 0.0f, chunkZ);
 		this.writeData(server);
+
+		if (server.getRegionNode() != null) {
+			byte[] data = source != null ? source : getData();
+			server.getRegionNode().move(username, x, z, chunkX, chunkZ, data, source != null ? sourceLength : data.length, address, port);
+		}
 	}
 
 	@Override
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.packets;
+
+import flounder.framework.*;
+import kosmos.network.*;
+
+import java.net.*;
+
+/**
+ * Sent by clients every second to measure the round trip time, it also carries the clients last measurement for the server metrics.
+ */
+public class PacketPing extends Packet {
+	private String username;
+	private float clientTime;
+	private float roundTrip;
+	private float jitter;
+
+	public PacketPing(byte[] data) {
+		String[] d = readData(data).split(",");
+		this.username = d[0].trim();
+		this.clientTime = Float.parseFloat(d[1].trim());
+		this.roundTrip = Float.parseFloat(d[2].trim());
+		this.jitter = Float.parseFloat(d[3].trim());
+	}
+
+	public PacketPing(String username, float clientTime, float roundTrip, float jitter) {
+		this.username = username;
+		this.clientTime = clientTime;
+		this.roundTrip = roundTrip;
+		this.jitter = jitter;
+	}
+
+	@Override
+	public void writeData(NetworkClient client) {
+		client.sendData(getData());
+	}
+
+	@Override
+	public void writeData(NetworkServer server) {
+		// Fully client sent packet.
+	}
+
+	@Override
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
+		// Fully server sided packet.
+	}
+
+	@Override
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		ClientInfo client = server.getPlayerMP(address, port);
+
+		if (client != null) {
+			client.setRoundTrip(roundTrip);
+			client.setJitter(jitter);
+		}
+
+		server.sendData(new PacketPong(clientTime, Framework.get().getTimeSec()).getData(), address, port);
+	}
+
+	@Override
+	public byte[] getData() {
+		return (getDataPrefix() + username + "," + clientTime + "," + roundTrip + "," + jitter).getBytes();
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public float getClientTime() {
+		return clientTime;
+	}
+
+	public float getRoundTrip() {
+		return roundTrip;
+	}
+
+	public float getJitter() {
+		return jitter;
+	}
+}
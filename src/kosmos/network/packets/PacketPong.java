@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.packets;
+
+import flounder.framework.*;
+import kosmos.network.*;
+
+import java.net.*;
+
+/**
+ * The servers reply to a ping, it echoes the clients send time with the server time.
+ */
+public class PacketPong extends Packet {
+	private float clientTime;
+	private float serverTime;
+
+	public PacketPong(byte[] data) {
+		String[] d = readData(data).split(",");
+		this.clientTime = Float.parseFloat(d[0].trim());
+		this.serverTime = Float.parseFloat(d[1].trim());
+	}
+
+	public PacketPong(float clientTime, float serverTime) {
+		this.clientTime = clientTime;
+		this.serverTime = serverTime;
+	}
+
+	@Override
+	public void writeData(NetworkClient client) {
+		// Fully server sent packet.
+	}
+
+	@Override
+	public void writeData(NetworkServer server) {
+		// Sent directly to the client that pinged.
+	}
+
+	@Override
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
+		float localTime = Framework.get().getTimeSec() - Framework.get().getTimeOffset();
+		client.getClockSync().addSample(clientTime, serverTime, localTime);
+	}
+
+	@Override
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		// Fully client sided packet.
+	}
+
+	@Override
+	public byte[] getData() {
+		return (getDataPrefix() + clientTime + "," + serverTime).getBytes();
+	}
+
+	public float getClientTime() {
+		return clientTime;
+	}
+
+	public float getServerTime() {
+		return serverTime;
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.packets;
+
+import kosmos.network.*;
+
+import java.net.*;
+
+/**
+ * Sent by region servers to the coordinator every second, the coordinator replies with the region map.
+ */
+public class PacketRegionJoin extends Packet {
+	public PacketRegionJoin(byte[] data) {
+	}
+
+	public PacketRegionJoin() {
+	}
+
+	@Override
+	public void writeData(NetworkClient client) {
+		// Fully server sent packet.
+	}
+
+	@Override
+	public void writeData(NetworkServer server) {
+		// Sent to the coordinator by the region node.
+	}
+
+	@Override
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
+		// Handled by the coordinator.
+	}
+
+	@Override
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		// Handled by the coordinator.
+	}
+
+	@Override
+	public byte[] getData() {
+		return getDataPrefix().getBytes();
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.packets;
+
+import kosmos.network.*;
+import kosmos.network.regions.*;
+
+import java.net.*;
+import java.util.*;
+
+/**
+ * Sent by the coordinator to each region server, it lists every region server and which one the receiver is.
+ */
+public class PacketRegionMap extends Packet {
+	private float regionSize;
+	private int self;
+	private List<InetSocketAddress> servers;
+
+	public PacketRegionMap(byte[] data) {
+		String[] d = readData(data).split(",");
+		this.regionSize = Float.parseFloat(d[0].trim());
+		this.self = Integer.parseInt(d[1].trim());
+		this.servers = new ArrayList<>();
+
+		for (int i = 2; i < d.length; i++) {
+			String server = d[i].trim();
+			int split = server.lastIndexOf(':');
+			servers.add(new InetSocketAddress(server.substring(0, split), Integer.parseInt(server.substring(split + 1))));
+		}
+	}
+
+	public PacketRegionMap(float regionSize, int self, List<InetSocketAddress> servers) {
+		this.regionSize = regionSize;
+		this.self = self;
+		this.servers = servers;
+	}
+
+	@Override
+	public void writeData(NetworkClient client) {
+		// Fully coordinator sent packet.
+	}
+
+	@Override
+	public void writeData(NetworkServer server) {
+		// Fully coordinator sent packet.
+	}
+
+	@Override
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
+		// Fully server sided packet.
+	}
+
+	@Override
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		if (server.getRegionNode() != null && server.getRegionNode().isCoordinator(address, port)) {
+			server.getRegionNode().setMap(new RegionMap(regionSize, servers, self));
+		}
+	}
+
+	@Override
+	public byte[] getData() {
+		StringBuilder result = new StringBuilder(getDataPrefix()).append(regionSize).append(",").append(self);
+
+		for (InetSocketAddress server : servers) {
+			result.append(",").append(server.getAddress().getHostAddress()).append(":").append(server.getPort());
+		}
+
+		return result.toString().getBytes();
+	}
+}
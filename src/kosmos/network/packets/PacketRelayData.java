@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.packets;
+
+import kosmos.network.*;
+
+import java.net.*;
+import java.util.*;
+
+/**
+ * A broadcast sent by the server to a relay node, wrapping the packet data with the username of the client it should skip.
+ */
+public class PacketRelayData extends Packet {
+	// Splits the skipped username from the wrapped data, usernames never contain it.
+	private static final byte SEPARATOR = '\n';
+
+	private String skip;
+	private byte[] inner;
+
+	public PacketRelayData(byte[] data) {
+		int split = 1;
+
+		while (split < data.length && data[split] != SEPARATOR) {
+			split++;
+		}
+
+		this.skip = new String(data, 1, split - 1);
+		this.inner = Arrays.copyOfRange(data, Math.min(split + 1, data.length), data.length);
+	}
+
+	public PacketRelayData(String skip, byte[] inner, int length) {
+		this.skip = skip;
+		this.inner = Arrays.copyOf(inner, length);
+	}
+
+	@Override
+	public void writeData(NetworkClient client) {
+		// Fully server sent packet.
+	}
+
+	@Override
+	public void writeData(NetworkServer server) {
+		// Sent to each relay by the server fan out.
+	}
+
+	@Override
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
+		// Handled by the relay node.
+	}
+
+	@Override
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		// Handled by the relay node.
+	}
+
+	@Override
+	public byte[] getData() {
+		byte[] prefix = (getDataPrefix() + skip).getBytes();
+		byte[] result = new byte[prefix.length + 1 + inner.length];
+		System.arraycopy(prefix, 0, result, 0, prefix.length);
+		result[prefix.length] = SEPARATOR;
+		System.arraycopy(inner, 0, result, prefix.length + 1, inner.length);
+		return result;
+	}
+
+	/**
+	 * Gets the username of the client the relay should not send the data to.
+	 *
+	 * @return The skipped username, empty if every client gets the data.
+	 */
+	public String getSkip() {
+		return skip;
+	}
+
+	/**
+	 * Gets the wrapped packet data.
+	 *
+	 * @return The packet data.
+	 */
+	public byte[] getInner() {
+		return inner;
+	}
+}
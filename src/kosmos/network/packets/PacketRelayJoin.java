@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.packets;
+
+import kosmos.network.*;
+
+import java.net.*;
+
+/**
+ * Sent every second by a client using a relay, to the relay so it keeps sending broadcasts and to the server so it stops sending them itself.
+ */
+public class PacketRelayJoin extends Packet {
+	private String username;
+	private String host;
+	private int port;
+
+	public PacketRelayJoin(byte[] data) {
+		String[] d = readData(data).split(",");
+		this.username = d[0].trim();
+		this.host = d[1].trim();
+		this.port = Integer.parseInt(d[2].trim());
+	}
+
+	public PacketRelayJoin(String username, String host, int port) {
+		this.username = username;
+		this.host = host;
+		this.port = port;
+	}
+
+	@Override
+	public void writeData(NetworkClient client) {
+		client.sendData(getData());
+		client.sendRelayData(getData());
+	}
+
+	@Override
+	public void writeData(NetworkServer server) {
+		// Fully client sent packet.
+	}
+
+	@Override
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
+		// Fully server sided packet.
+	}
+
+	@Override
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		if (!server.isSender(username, address, port)) {
+			return;
+		}
+
+		ClientInfo client = server.getPlayerMP(address, port);
+
+		if (client != null) {
+			server.setClientRelay(client, host, this.port);
+		}
+	}
+
+	@Override
+	public byte[] getData() {
+		return (getDataPrefix() + username + "," + host + "," + port).getBytes();
+	}
+
+	public String getUsername() {
+		return username;
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.packets;
+
+import kosmos.network.*;
+
+import java.net.*;
+import java.util.*;
+
+/**
+ * Sent reliably by the server to a relay node, listing the clients the server no longer sends broadcasts to because the relay does.
+ */
+public class PacketRelayMembers extends Packet {
+	private List<String> usernames;
+
+	public PacketRelayMembers(byte[] data) {
+		this.usernames = new ArrayList<>();
+
+		for (String username : readData(data).split(",")) {
+			if (!username.trim().isEmpty()) {
+				usernames.add(username.trim());
+			}
+		}
+	}
+
+	public PacketRelayMembers(List<String> usernames) {
+		this.usernames = usernames;
+	}
+
+	@Override
+	public void writeData(NetworkClient client) {
+		// Fully server sent packet.
+	}
+
+	@Override
+	public void writeData(NetworkServer server) {
+		// Sent to each relay when its clients change.
+	}
+
+	@Override
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
+		// Handled by the relay node.
+	}
+
+	@Override
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		// Fully server sent packet.
+	}
+
+	@Override
+	public byte[] getData() {
+		return (getDataPrefix() + String.join(",", usernames)).getBytes();
+	}
+
+	/**
+	 * Gets the clients the relay sends broadcasts to.
+	 *
+	 * @return The usernames.
+	 */
+	public List<String> getUsernames() {
+		return usernames;
+	}
+}
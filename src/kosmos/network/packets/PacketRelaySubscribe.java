@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.packets;
+
+import kosmos.network.*;
+
+import java.net.*;
+
+/**
+ * Sent by relay nodes to the server every second, the server then sends each broadcast to the relay once instead of to every relayed client.
+ */
+public class PacketRelaySubscribe extends Packet {
+	public PacketRelaySubscribe(byte[] data) {
+	}
+
+	public PacketRelaySubscribe() {
+	}
+
+	@Override
+	public void writeData(NetworkClient client) {
+		// Sent to the server by the relay node.
+	}
+
+	@Override
+	public void writeData(NetworkServer server) {
+		// Fully relay sent packet.
+	}
+
+	@Override
+	public void clientHandlePacket(NetworkClient client, InetAddress address, int port) {
+		// Fully server sided packet.
+	}
+
+	@Override
+	public void serverHandlePacket(NetworkServer server, InetAddress address, int port) {
+		server.addRelay(address, port);
+	}
+
+	@Override
+	public byte[] getData() {
+		return getDataPrefix().getBytes();
+	}
+}
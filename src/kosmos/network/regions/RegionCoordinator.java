@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.regions;
+
+import kosmos.network.*;
+import kosmos.network.packets.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+/**
+ * A small process that keeps the list of live region servers and sends it back to each server as its heartbeat arrives.
+ * It holds no world state, the servers pick region owners from the list themselves.
+ * <p>
+ * Arguments: [port] [region size], region servers are then started with [port] [coordinator host:port].
+ */
+public class RegionCoordinator {
+	public static final int DEFAULT_PORT = 2265;
+	public static final float DEFAULT_REGION_SIZE = 240.0f;
+
+	// How long a server can miss heartbeats before it is dropped, in nanoseconds.
+	private static final long SERVER_TIMEOUT = 5000000000L;
+
+	private final ITransport transport;
+	private final float regionSize;
+	private final Map<InetSocketAddress, Long> servers;
+
+	/**
+	 * Creates and opens a new coordinator.
+	 *
+	 * @param port The port to bind to.
+	 * @param regionSize The width of a region, in world units.
+	 *
+	 * @throws IOException If the transport could not be opened.
+	 */
+	public RegionCoordinator(int port, float regionSize) throws IOException {
+		this.transport = new NioTransport();
+		this.regionSize = regionSize;
+		this.servers = new LinkedHashMap<>();
+
+		transport.open(port);
+	}
+
+	/**
+	 * Handles heartbeats and drops servers that stopped sending them.
+	 */
+	public void update() {
+		transport.poll(this::receive);
+
+		long now = System.nanoTime();
+
+		if (servers.values().removeIf(lastSeen -> now - lastSeen > SERVER_TIMEOUT)) {
+			System.out.println("A region server timed out, " + servers.size() + " servers remain.");
+		}
+	}
+
+	private void receive(byte[] data, int length, InetAddress address, int port) {
+		if (!(PacketCodec.decode(data, length) instanceof PacketRegionJoin)) {
+			return;
+		}
+
+		// Servers keep their place in the list while they stay alive, so region owners only move when the list changes.
+		InetSocketAddress server = new InetSocketAddress(address, port);
+
+		if (servers.put(server, System.nanoTime()) == null) {
+			System.out.println("Region server " + address.getHostAddress() + ":" + port + " joined, " + servers.size() + " servers.");
+		}
+
+		List<InetSocketAddress> list = new ArrayList<>(servers.keySet());
+		byte[] reply = new PacketRegionMap(regionSize, list.indexOf(server), list).getData();
+		transport.send(reply, reply.length, address, port);
+	}
+
+	public void close() {
+		transport.close();
+	}
+
+	public static void main(String[] args) throws Exception {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		float regionSize = args.length > 1 ? Float.parseFloat(args[1]) : DEFAULT_REGION_SIZE;
+
+		RegionCoordinator coordinator = new RegionCoordinator(port, regionSize);
+		System.out.println("Region coordinator listening on port " + port + " with " + regionSize + " unit regions.");
+
+		while (!Thread.currentThread().isInterrupted()) {
+			coordinator.update();
+			Thread.sleep(10);
+		}
+
+		coordinator.close();
+	}
+}
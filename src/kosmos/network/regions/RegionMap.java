@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.regions;
+
+import java.net.*;
+import java.util.*;
+
+/**
+ * Splits the world into square regions and gives each region a owning server.
+ * Owners are picked by hashing the region, so every server with the same server list agrees without asking the coordinator.
+ */
+public class RegionMap {
+	private final float regionSize;
+	private final List<InetSocketAddress> servers;
+	private final Set<InetSocketAddress> peers;
+	private final int self;
+
+	/**
+	 * Creates a new region map.
+	 *
+	 * @param regionSize The width of a region, in world units.
+	 * @param servers The region servers, in the order the coordinator lists them.
+	 * @param self The index of the server holding this map, or -1 if it is not a region server.
+	 */
+	public RegionMap(float regionSize, List<InetSocketAddress> servers, int self) {
+		this.regionSize = regionSize;
+		this.servers = servers;
+		this.peers = new HashSet<>(servers);
+		this.self = self;
+
+		if (self != -1) {
+			peers.remove(servers.get(self));
+		}
+	}
+
+	/**
+	 * Gets the index of the server owning a world position.
+	 *
+	 * @param x The world x position.
+	 * @param z The world z position.
+	 *
+	 * @return The owning server index, or -1 if there are no servers.
+	 */
+	public int getOwner(float x, float z) {
+		if (servers.isEmpty()) {
+			return -1;
+		}
+
+		int regionX = (int) Math.floor(x / regionSize);
+		int regionZ = (int) Math.floor(z / regionSize);
+		return Math.floorMod((regionX * 73856093) ^ (regionZ * 19349663), servers.size());
+	}
+
+	/**
+	 * Adds the owners of every region within a distance of a world position.
+	 *
+	 * @param x The world x position.
+	 * @param z The world z position.
+	 * @param distance The distance to look, should be less than the region size.
+	 * @param destination The set to add owner indices to.
+	 */
+	public void getOwners(float x, float z, float distance, Set<Integer> destination) {
+		destination.add(getOwner(x, z));
+		destination.add(getOwner(x - distance, z - distance));
+		destination.add(getOwner(x + distance, z - distance));
+		destination.add(getOwner(x - distance, z + distance));
+		destination.add(getOwner(x + distance, z + distance));
+	}
+
+	/**
+	 * Gets if a address is one of the region servers other than this one.
+	 *
+	 * @param address The address.
+	 *
+	 * @return If the address is a peer server.
+	 */
+	public boolean isPeer(InetSocketAddress address) {
+		return peers.contains(address);
+	}
+
+	public float getRegionSize() {
+		return regionSize;
+	}
+
+	public List<InetSocketAddress> getServers() {
+		return servers;
+	}
+
+	public InetSocketAddress getServer(int index) {
+		return servers.get(index);
+	}
+
+	public int getSelf() {
+		return self;
+	}
+}
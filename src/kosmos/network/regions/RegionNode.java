@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.regions;
+
+import kosmos.network.*;
+import kosmos.network.packets.*;
+
+import java.net.*;
+import java.util.*;
+
+/**
+ * Makes a server one of several region servers, each owning part of the world.
+ * Moves near a region border are forwarded to the servers that can see them, world edits and chat go to every peer, and players that walk into another region are handed off to its owner.
+ */
+public class RegionNode {
+	// How far from a player other regions can see it, in world units.
+	public static final float VIEW_DISTANCE = 60.0f;
+
+	// How often the coordinator is told this server is alive, in nanoseconds.
+	private static final long HEARTBEAT_INTERVAL = 1000000000L;
+
+	// How long a player seen only through peers can go without moving before clients are told it left view.
+	private static final long REMOTE_TIMEOUT = 3000000000L;
+
+	private final NetworkServer server;
+	private final InetSocketAddress coordinator;
+	private final Map<String, Long> remotePlayers;
+	private final Set<Integer> owners;
+	private RegionMap map;
+	private long lastHeartbeat;
+
+	/**
+	 * Creates a new region node and starts telling the coordinator about the server.
+	 *
+	 * @param server The server to split the world with.
+	 * @param coordinator The coordinator address.
+	 */
+	public RegionNode(NetworkServer server, InetSocketAddress coordinator) {
+		this.server = server;
+		this.coordinator = coordinator;
+		this.remotePlayers = new HashMap<>();
+		this.owners = new HashSet<>();
+		this.map = null;
+		this.lastHeartbeat = 0;
+	}
+
+	/**
+	 * Sends the coordinator heartbeat and removes players that left view.
+	 */
+	public void update() {
+		long now = System.nanoTime();
+
+		if (now - lastHeartbeat > HEARTBEAT_INTERVAL) {
+			server.sendData(new PacketRegionJoin().getData(), coordinator.getAddress(), coordinator.getPort());
+			lastHeartbeat = now;
+		}
+
+		Iterator<Map.Entry<String, Long>> iterator = remotePlayers.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+			Map.Entry<String, Long> entry = iterator.next();
+
+			if (now - entry.getValue() > REMOTE_TIMEOUT) {
+				if (server.getPlayerMP(entry.getKey()) == null) {
+					server.sendDataToAllClients(new PacketHandoff(entry.getKey(), "", 0).getData());
+				}
+
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Forwards a move to the servers that can see it and hands the player off if its chunk is in another region.
+	 *
+	 * @param username The player that moved.
+	 * @param x The players world x position.
+	 * @param z The players world z position.
+	 * @param chunkX The players chunk x position.
+	 * @param chunkZ The players chunk z position.
+	 * @param data The move packet data.
+	 * @param length The number of bytes of data.
+	 * @param address The address the move came from.
+	 * @param port The port the move came from.
+	 */
+	public void move(String username, float x, float z, float chunkX, float chunkZ, byte[] data, int length, InetAddress address, int port) {
+		if (map == null) {
+			return;
+		}
+
+		// Moves from peers are only relayed to this servers clients.
+		if (isPeer(address, port)) {
+			remotePlayers.put(username, System.nanoTime());
+			return;
+		}
+
+		ClientInfo client = server.getPlayerMP(address, port);
+
+		if (client == null) {
+			return;
+		}
+
+		owners.clear();
+		map.getOwners(x, z, VIEW_DISTANCE, owners);
+
+		for (int owner : owners) {
+			if (owner != map.getSelf()) {
+				InetSocketAddress peer = map.getServer(owner);
+				server.sendData(data, length, peer.getAddress(), peer.getPort());
+			}
+		}
+
+		int owner = map.getOwner(chunkX, chunkZ);
+
+		if (owner != -1 && owner != map.getSelf() && !client.isHandingOff()) {
+			InetSocketAddress target = map.getServer(owner);
+			client.setHandingOff(true);
+			server.sendData(new PacketHandoff(username, target.getAddress().getHostAddress(), target.getPort()).getData(), address, port);
+		}
+	}
+
+	/**
+	 * Forwards packets every region needs, such as world edits and chat, to all peers.
+	 *
+	 * @param data The packet data.
+	 * @param address The address the packet came from.
+	 * @param port The port the packet came from.
+	 */
+	public void forward(byte[] data, InetAddress address, int port) {
+		if (map == null || isPeer(address, port)) {
+			return;
+		}
+
+		for (int i = 0; i < map.getServers().size(); i++) {
+			if (i != map.getSelf()) {
+				InetSocketAddress peer = map.getServer(i);
+				server.sendData(data, peer.getAddress(), peer.getPort());
+			}
+		}
+	}
+
+	/**
+	 * Handles a handoff, from a player arriving at this server or from a peer the player arrived at.
+	 *
+	 * @param packet The handoff packet.
+	 * @param address The address the packet came from.
+	 * @param port The port the packet came from.
+	 */
+	public void handoff(PacketHandoff packet, InetAddress address, int port) {
+		if (isPeer(address, port)) {
+			// The player left for the peer, its clients keep seeing it while the peer forwards its moves.
+			if (server.getPlayerMP(packet.getUsername()) != null) {
+				server.removeConnection(packet.getUsername());
+				remotePlayers.put(packet.getUsername(), System.nanoTime());
+			}
+
+			return;
+		}
+
+		server.addConnection(new ClientInfo(packet.getUsername(), address, port));
+		remotePlayers.remove(packet.getUsername());
+		forward(packet.getData(), address, port);
+	}
+
+	/**
+	 * Gets if a address is the coordinator.
+	 *
+	 * @param address The address.
+	 * @param port The port.
+	 *
+	 * @return If the address is the coordinator.
+	 */
+	public boolean isCoordinator(InetAddress address, int port) {
+		return coordinator.getPort() == port && coordinator.getAddress().equals(address);
+	}
+
+	/**
+	 * Gets if a address is another region server.
+	 *
+	 * @param address The address.
+	 * @param port The port.
+	 *
+	 * @return If the address is a peer.
+	 */
+	public boolean isPeer(InetAddress address, int port) {
+		return map != null && map.isPeer(new InetSocketAddress(address, port));
+	}
+
+	/**
+	 * Gets if traffic from a address can skip the flood limits, as it comes from the coordinator or a peer.
+	 *
+	 * @param address The address.
+	 * @param port The port.
+	 *
+	 * @return If the address is trusted.
+	 */
+	public boolean isTrusted(InetAddress address, int port) {
+		return isCoordinator(address, port) || isPeer(address, port);
+	}
+
+	public RegionMap getMap() {
+		return map;
+	}
+
+	/**
+	 * Sets the region map, pending handoffs are retried as their target may have changed.
+	 *
+	 * @param map The new region map.
+	 */
+	public void setMap(RegionMap map) {
+		if (this.map == null || !this.map.getServers().equals(map.getServers())) {
+			for (ClientInfo client : server.getConnected()) {
+				client.setHandingOff(false);
+			}
+		}
+
+		this.map = map;
+	}
+
+	public InetSocketAddress getCoordinator() {
+		return coordinator;
+	}
+}
@@ -0,0 +1,13 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+/**
+ * Contains the coordinator and region map used to split a world over several server processes.
+ */
+package kosmos.network.regions;
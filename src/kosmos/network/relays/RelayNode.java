@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.network.relays;
+
+import kosmos.network.*;
+import kosmos.network.packets.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+/**
+ * A process that subscribes to a server once and sends its broadcasts on to many clients, so the servers fan out cost does not grow with them.
+ * Moves are only sent to clients close enough to see them, and reliable broadcasts are resent by the relay instead of the server.
+ * Clients still send their own packets to the server, and get packets meant only for them from it.
+ * Broadcasts are only sent to the clients the server lists as members, the server sends them to every other client itself.
+ * <p>
+ * Arguments: [port] [server host:port], clients then set their relay config to this relays address.
+ */
+public class RelayNode {
+	public static final int DEFAULT_PORT = 2267;
+
+	// How far apart two players can be and still be sent each others moves, in world units.
+	public static final float INTEREST_DISTANCE = 120.0f;
+
+	// How often the server is told the relay is alive, and how long a client can be silent before it is dropped, in nanoseconds.
+	private static final long SUBSCRIBE_INTERVAL = 1000000000L;
+	private static final long MEMBER_TIMEOUT = 10000000000L;
+
+	private final ITransport transport;
+	private final InetSocketAddress server;
+	private final ReliableChannel upstream;
+	private final ITransport.Receiver receiver;
+	private final ITransport.Receiver fromServer;
+	private final Map<InetSocketAddress, Member> members;
+	private final Map<String, Member> membersByName;
+	private final Set<String> confirmed;
+	private final byte relayDataId;
+	private final byte relayMembersId;
+	private final byte moveId;
+	private final PacketMove move;
+	private long lastSubscribe;
+
+	private long received;
+	private long sent;
+	private long filtered;
+
+	/**
+	 * Creates and opens a new relay node.
+	 *
+	 * @param port The port clients send to.
+	 * @param server The server to subscribe to.
+	 *
+	 * @throws IOException If the transport could not be opened.
+	 */
+	public RelayNode(int port, InetSocketAddress server) throws IOException {
+		this.transport = new NioTransport();
+		this.server = server;
+		this.upstream = new ReliableChannel(transport, server.getAddress(), server.getPort());
+		this.receiver = this::receive;
+		this.fromServer = this::receiveServer;
+		this.members = new HashMap<>();
+		this.membersByName = new HashMap<>();
+		this.confirmed = new HashSet<>();
+		this.relayDataId = PacketCodec.getId(PacketRelayData.class);
+		this.relayMembersId = PacketCodec.getId(PacketRelayMembers.class);
+		this.moveId = PacketCodec.getId(PacketMove.class);
+		this.move = new PacketMove();
+		this.lastSubscribe = 0;
+
+		transport.open(port);
+	}
+
+	/**
+	 * Handles received data, resends unacked broadcasts and subscribes to the server.
+	 */
+	public void update() {
+		transport.poll(receiver);
+		upstream.update();
+
+		long now = System.nanoTime();
+		Iterator<Member> iterator = members.values().iterator();
+
+		while (iterator.hasNext()) {
+			Member member = iterator.next();
+
+			if (now - member.lastSeen > MEMBER_TIMEOUT) {
+				iterator.remove();
+				membersByName.remove(member.username);
+				System.out.println(member.username + " left the relay, " + members.size() + " clients.");
+			} else {
+				member.channel.update();
+			}
+		}
+
+		if (now - lastSubscribe > SUBSCRIBE_INTERVAL) {
+			byte[] subscribe = new PacketRelaySubscribe().getData();
+			transport.send(subscribe, subscribe.length, server.getAddress(), server.getPort());
+			lastSubscribe = now;
+		}
+	}
+
+	private void receive(byte[] data, int length, InetAddress address, int port) {
+		if (length < 1) {
+			return;
+		}
+
+		if (port == server.getPort() && address.equals(server.getAddress())) {
+			if (data[0] == ReliableChannel.FRAME_RELIABLE) {
+				upstream.receive(data, length, fromServer);
+			} else if (data[0] != ReliableChannel.FRAME_ACK) {
+				receiveServer(data, length, address, port);
+			}
+
+			return;
+		}
+
+		InetSocketAddress key = new InetSocketAddress(address, port);
+		Member member = members.get(key);
+
+		if (member != null && data[0] == ReliableChannel.FRAME_ACK) {
+			member.channel.receiveAck(data, length);
+			member.lastSeen = System.nanoTime();
+		} else if (data[0] == PacketCodec.getId(PacketRelayJoin.class)) {
+			Packet packet = PacketCodec.decode(data, length);
+
+			if (packet instanceof PacketRelayJoin) {
+				join(((PacketRelayJoin) packet).getUsername(), key);
+			}
+		}
+	}
+
+	private void join(String username, InetSocketAddress address) {
+		Member member = members.get(address);
+
+		if (member == null) {
+			// A username that rejoins from a new address replaces its old member.
+			Member old = membersByName.remove(username);
+
+			if (old != null) {
+				members.remove(old.address);
+			}
+
+			member = new Member(username, address, new ReliableChannel(transport, address.getAddress(), address.getPort()));
+			members.put(address, member);
+			membersByName.put(username, member);
+			System.out.println(username + " joined the relay, " + members.size() + " clients.");
+		}
+
+		member.lastSeen = System.nanoTime();
+	}
+
+	private void receiveServer(byte[] data, int length, InetAddress address, int port) {
+		if (data[0] == relayMembersId) {
+			Packet packet = PacketCodec.decode(data, length);
+
+			if (packet instanceof PacketRelayMembers) {
+				confirmed.clear();
+				confirmed.addAll(((PacketRelayMembers) packet).getUsernames());
+			}
+		} else if (data[0] == relayDataId) {
+			fanout(data, length);
+		}
+	}
+
+	private void fanout(byte[] data, int length) {
+		PacketRelayData relayed = new PacketRelayData(Arrays.copyOf(data, length));
+		byte[] inner = relayed.getInner();
+
+		if (inner.length < 1) {
+			return;
+		}
+
+		received++;
+		boolean reliable = PacketCodec.isReliable(inner);
+		boolean isMove = inner[0] == moveId;
+
+		if (isMove) {
+			try {
+				move.read(inner, inner.length);
+			} catch (RuntimeException e) {
+				return;
+			}
+
+			Member mover = membersByName.get(move.getUsername());
+
+			if (mover != null) {
+				mover.x = move.getX();
+				mover.z = move.getZ();
+				mover.positioned = true;
+			}
+		}
+
+		for (Member member : members.values()) {
+			if (member.username.equals(relayed.getSkip()) || !confirmed.contains(member.username)) {
+				continue;
+			}
+
+			if (isMove && member.positioned) {
+				float dx = member.x - move.getX();
+				float dz = member.z - move.getZ();
+
+				if (dx * dx + dz * dz > INTEREST_DISTANCE * INTEREST_DISTANCE) {
+					filtered++;
+					continue;
+				}
+			}
+
+			if (reliable) {
+				member.channel.send(inner, inner.length);
+			} else {
+				transport.send(inner, inner.length, member.address.getAddress(), member.address.getPort());
+			}
+
+			sent++;
+		}
+	}
+
+	public int getMemberCount() {
+		return members.size();
+	}
+
+	public long getReceived() {
+		return received;
+	}
+
+	public long getSent() {
+		return sent;
+	}
+
+	public long getFiltered() {
+		return filtered;
+	}
+
+	public void close() {
+		transport.close();
+	}
+
+	public static void main(String[] args) throws Exception {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		String server = args.length > 1 ? args[1] : "localhost:" + KosmosNetwork.DEFAULT_PORT;
+		int split = server.lastIndexOf(':');
+
+		RelayNode relay = new RelayNode(port, new InetSocketAddress(server.substring(0, split), Integer.parseInt(server.substring(split + 1))));
+		System.out.println("Relay listening on port " + port + " for server " + server + ".");
+
+		long lastReport = System.nanoTime();
+
+		while (!Thread.currentThread().isInterrupted()) {
+			relay.update();
+			Thread.sleep(5);
+
+			if (System.nanoTime() - lastReport > 10000000000L) {
+				System.out.println("Clients: " + relay.getMemberCount() + ", broadcasts received: " + relay.getReceived() + ", sent: " + relay.getSent() + ", filtered by interest: " + relay.getFiltered());
+				lastReport = System.nanoTime();
+			}
+		}
+
+		relay.close();
+	}
+
+	private static class Member {
+		private final String username;
+		private final InetSocketAddress address;
+		private final ReliableChannel channel;
+		private long lastSeen;
+		private boolean positioned;
+		private float x;
+		private float z;
+
+		private Member(String username, InetSocketAddress address, ReliableChannel channel) {
+			this.username = username;
+			this.address = address;
+			this.channel = channel;
+		}
+	}
+}
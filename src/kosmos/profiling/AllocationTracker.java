@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.profiling;
+
+import java.lang.management.*;
+import java.util.*;
+
+/**
+ * Measures the bytes allocated by the thread that created it, split into sections and ticks, and checks them against budgets.
+ * This needs no running framework, so benchmarks can use it directly.
+ */
+public class AllocationTracker {
+	// The smoothing applied to the per tick averages.
+	private static final double SMOOTHING = 0.05;
+
+	private final com.sun.management.ThreadMXBean threadBean;
+	private final long threadId;
+	private final long overhead;
+
+	private Map<Class<?>, Section> sections;
+	private List<Section> sectionsList;
+	private Section tick;
+
+	/**
+	 * Creates a new tracker for the calling thread.
+	 *
+	 * @throws UnsupportedOperationException If the JVM cannot count the bytes allocated by a thread.
+	 */
+	public AllocationTracker() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+		if (!(bean instanceof com.sun.management.ThreadMXBean) || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+			throw new UnsupportedOperationException("Allocation tracking is not supported by this JVM!");
+		}
+
+		this.threadBean = (com.sun.management.ThreadMXBean) bean;
+		this.threadBean.setThreadAllocatedMemoryEnabled(true);
+		this.threadId = Thread.currentThread().getId();
+
+		// Measures the cost of a empty section so it is not counted against the sections.
+		long first = allocatedBytes();
+		this.overhead = allocatedBytes() - first;
+
+		this.sections = new HashMap<>();
+		this.sectionsList = new ArrayList<>();
+		this.tick = new Section("Tick");
+	}
+
+	/**
+	 * Ends the current tick, the sections measured since the last tick become the last tick.
+	 */
+	public void tick() {
+		if (!isTrackedThread()) {
+			return;
+		}
+
+		// The whole tick is measured between two calls.
+		long allocated = allocatedBytes();
+
+		if (tick.start != -1) {
+			tick.current = allocated - tick.start;
+		}
+
+		tick.start = allocated;
+		tick.roll();
+
+		for (Section section : sectionsList) {
+			section.roll();
+		}
+	}
+
+	/**
+	 * Starts measuring a section.
+	 *
+	 * @param owner The class that owns the section.
+	 */
+	public void begin(Class<?> owner) {
+		if (!isTrackedThread()) {
+			return;
+		}
+
+		getSection(owner).start = allocatedBytes();
+	}
+
+	/**
+	 * Stops measuring a section, the bytes allocated since {@link #begin(Class)} are added to this ticks total.
+	 *
+	 * @param owner The class that owns the section.
+	 */
+	public void end(Class<?> owner) {
+		if (!isTrackedThread()) {
+			return;
+		}
+
+		Section section = getSection(owner);
+
+		if (section.start != -1) {
+			section.current += Math.max(0, allocatedBytes() - section.start - overhead);
+			section.start = -1;
+		}
+	}
+
+	/**
+	 * Sets the max bytes a section can allocate in a single tick.
+	 *
+	 * @param owner The class that owns the section, null sets the budget for the whole tick.
+	 * @param bytes The budget in bytes, or -1 for no budget.
+	 */
+	public void setBudget(Class<?> owner, long bytes) {
+		if (owner == null) {
+			tick.budget = bytes;
+		} else {
+			getSection(owner).budget = bytes;
+		}
+	}
+
+	/**
+	 * Checks the last tick against all budgets.
+	 *
+	 * @throws IllegalStateException If any section allocated more than its budget.
+	 */
+	public void assertWithinBudget() {
+		StringBuilder failed = null;
+
+		for (Section section : getSections()) {
+			if (section.budget != -1 && section.last > section.budget) {
+				if (failed == null) {
+					failed = new StringBuilder("Allocation budget exceeded:");
+				}
+
+				failed.append(" ").append(section.name).append(" allocated ").append(section.last).append("/").append(section.budget).append(" bytes;");
+			}
+		}
+
+		if (failed != null) {
+			throw new IllegalStateException(failed.toString());
+		}
+	}
+
+	/**
+	 * Drops what has been measured but keeps the sections and their budgets, the tick starts again on the next {@link #tick()}.
+	 */
+	public void reset() {
+		tick.start = -1;
+		tick.current = 0;
+
+		for (Section section : sectionsList) {
+			section.start = -1;
+			section.current = 0;
+		}
+	}
+
+	/**
+	 * Forgets every section and its budget, the tick starts again on the next {@link #tick()}.
+	 */
+	public void clear() {
+		sections.clear();
+		sectionsList.clear();
+		tick.start = -1;
+	}
+
+	private Section getSection(Class<?> owner) {
+		Section section = sections.get(owner);
+
+		if (section == null) {
+			section = new Section(owner.getSimpleName());
+			sections.put(owner, section);
+			sectionsList.add(section);
+		}
+
+		return section;
+	}
+
+	private boolean isTrackedThread() {
+		return Thread.currentThread().getId() == threadId;
+	}
+
+	private long allocatedBytes() {
+		return threadBean.getThreadAllocatedBytes(threadId);
+	}
+
+	/**
+	 * Gets the whole tick section.
+	 *
+	 * @return The tick section.
+	 */
+	public Section getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gets the tick and all measured sections.
+	 *
+	 * @return The sections.
+	 */
+	public List<Section> getSections() {
+		List<Section> result = new ArrayList<>(sectionsList.size() + 1);
+		result.add(tick);
+		result.addAll(sectionsList);
+		return result;
+	}
+
+	/**
+	 * Gets the section that allocated the most last tick.
+	 *
+	 * @return The largest section, or null if nothing has been measured.
+	 */
+	public Section getLargest() {
+		Section largest = null;
+
+		for (Section section : sectionsList) {
+			if (largest == null || section.average > largest.average) {
+				largest = section;
+			}
+		}
+
+		return largest;
+	}
+
+	/**
+	 * The allocations of a measured section.
+	 */
+	public static class Section {
+		private final String name;
+		private long start;
+		private long current;
+		private long last;
+		private double average;
+		private long budget;
+
+		private Section(String name) {
+			this.name = name;
+			this.start = -1;
+			this.current = 0;
+			this.last = 0;
+			this.average = 0.0;
+			this.budget = -1;
+		}
+
+		private void roll() {
+			last = current;
+			average += (last - average) * SMOOTHING;
+			current = 0;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Gets the bytes allocated last tick.
+		 *
+		 * @return The bytes allocated.
+		 */
+		public long getLast() {
+			return last;
+		}
+
+		/**
+		 * Gets the smoothed bytes allocated per tick.
+		 *
+		 * @return The average bytes allocated.
+		 */
+		public double getAverage() {
+			return average;
+		}
+
+		public long getBudget() {
+			return budget;
+		}
+	}
+}
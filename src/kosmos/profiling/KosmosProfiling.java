@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.profiling;
+
+import flounder.framework.*;
+import flounder.logger.*;
+import kosmos.*;
+
+import java.util.*;
+
+/**
+ * A opt-in module that measures the bytes allocated on the update thread by each Kosmos module and extension per tick.
+ * Sections are measured with {@link #begin(Class)} and {@link #end(Class)}, the tick boundary is this modules update.
+ */
+public class KosmosProfiling extends Module {
+	private AllocationTracker tracker;
+	private boolean enabled;
+
+	private boolean failOnBudget;
+
+	public KosmosProfiling() {
+		super();
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		// The tracker counts for the thread it is created on, this is the update thread.
+		try {
+			this.tracker = new AllocationTracker();
+		} catch (UnsupportedOperationException e) {
+			FlounderLogger.get().error(e.getMessage());
+			this.tracker = null;
+		}
+
+		this.enabled = false;
+		this.failOnBudget = false;
+
+		setEnabled(KosmosConfigs.PROFILING_ENABLED.getBoolean());
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+		if (!enabled) {
+			return;
+		}
+
+		tracker.tick();
+
+		if (failOnBudget) {
+			tracker.assertWithinBudget();
+		}
+	}
+
+	/**
+	 * Starts measuring a section on the update thread.
+	 *
+	 * @param owner The module or extension class that owns the section.
+	 */
+	public void begin(Class<?> owner) {
+		if (enabled) {
+			tracker.begin(owner);
+		}
+	}
+
+	/**
+	 * Stops measuring a section, the bytes allocated since {@link #begin(Class)} are added to this ticks total.
+	 *
+	 * @param owner The module or extension class that owns the section.
+	 */
+	public void end(Class<?> owner) {
+		if (enabled) {
+			tracker.end(owner);
+		}
+	}
+
+	/**
+	 * Sets the max bytes a section can allocate in a single tick.
+	 *
+	 * @param owner The module or extension class, null sets the budget for the whole tick.
+	 * @param bytes The budget in bytes, or -1 for no budget.
+	 */
+	public void setBudget(Class<?> owner, long bytes) {
+		if (tracker != null) {
+			tracker.setBudget(owner, bytes);
+		}
+	}
+
+	/**
+	 * Checks the last tick against all budgets.
+	 *
+	 * @throws IllegalStateException If any section allocated more than its budget.
+	 */
+	public void assertWithinBudget() {
+		if (tracker != null) {
+			tracker.assertWithinBudget();
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		if (enabled && tracker == null) {
+			FlounderLogger.get().error("Allocation profiling is not supported by this JVM!");
+			return;
+		}
+
+		if (enabled && !this.enabled) {
+			// The first tick after enabling starts from here.
+			tracker.reset();
+		}
+
+		this.enabled = enabled;
+	}
+
+	public boolean isFailOnBudget() {
+		return failOnBudget;
+	}
+
+	public void setFailOnBudget(boolean failOnBudget) {
+		this.failOnBudget = failOnBudget;
+	}
+
+	/**
+	 * Gets the whole tick section.
+	 *
+	 * @return The tick section, or null if allocations can not be measured.
+	 */
+	public AllocationTracker.Section getTick() {
+		return tracker == null ? null : tracker.getTick();
+	}
+
+	/**
+	 * Gets the tick and all measured sections.
+	 *
+	 * @return The sections.
+	 */
+	public List<AllocationTracker.Section> getSections() {
+		return tracker == null ? new ArrayList<>() : tracker.getSections();
+	}
+
+	/**
+	 * Gets the section that allocated the most last tick.
+	 *
+	 * @return The largest section, or null if nothing has been measured.
+	 */
+	public AllocationTracker.Section getLargest() {
+		return tracker == null ? null : tracker.getLargest();
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		if (tracker != null) {
+			tracker.clear();
+		}
+	}
+
+	@Module.Instance
+	public static KosmosProfiling get() {
+		return (KosmosProfiling) Framework.get().getInstance(KosmosProfiling.class);
+	}
+}
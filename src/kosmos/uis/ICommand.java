@@ -15,9 +15,9 @@ import flounder.framework.*;
 import flounder.logger.*;
 import flounder.maths.*;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
 import kosmos.camera.*;
 import kosmos.entities.components.*;
+import kosmos.network.*;
 import kosmos.world.*;
 import kosmos.world.chunks.*;
 
@@ -66,7 +66,7 @@ public interface ICommand {
 					OverlayChat.addText(log, new Colour(0.81f, 0.81f, 0.81f));
 				}
 
-				if (FlounderNetwork.get().getSocketClient() == null) {
+				if (KosmosNetwork.get().getClient() == null) {
 					String log = "    You are in single player! No other players connected.";
 					OverlayChat.addText(log, new Colour(0.81f, 0.81f, 0.81f));
 				}
@@ -106,7 +106,7 @@ public interface ICommand {
 
 				KosmosWorld.get().getEntityPlayer().getPosition().set(other.getPosition());
 				KosmosChunks.get().clear(true);
-				KosmosChunks.get().setCurrent(new Chunk(FlounderEntities.get().getEntities(), new Vector3f(chunkX, 0.0f, chunkZ)));
+				KosmosChunks.get().setCurrent(new Chunk(KosmosChunks.get().getStructure(), new Vector3f(chunkX, 0.0f, chunkZ)));
 			}
 		}),
 		TIME(new ICommand() {
@@ -125,7 +125,7 @@ public interface ICommand {
 				// Removes /time from the string.
 				String string = fullCommand.substring(5, fullCommand.length()).trim();
 
-				if (FlounderNetwork.get().getSocketClient() != null || string.isEmpty()) {
+				if (KosmosNetwork.get().getClient() != null || string.isEmpty()) {
 					String log = "Could not change the time offset of the framework.";
 					FlounderLogger.get().log(log);
 					OverlayChat.addText(log, new Colour(0.8f, 0.1f, 0.0f));
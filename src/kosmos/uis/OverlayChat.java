@@ -15,12 +15,12 @@ import flounder.guis.*;
 import flounder.logger.*;
 import flounder.maths.*;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
 import flounder.resources.*;
 import flounder.tasks.*;
 import flounder.textures.*;
 import flounder.visual.*;
 import kosmos.*;
+import kosmos.network.*;
 import kosmos.network.packets.*;
 
 import java.util.*;
@@ -102,8 +102,8 @@ public class OverlayChat extends ScreenObject {
 				FlounderLogger.get().log("[Chat]: " + s);
 				addText(s, new Colour(1.0f, 1.0f, 1.0f));
 
-				if (FlounderNetwork.get().getSocketClient() != null && s.charAt(0) != '/') {
-					new PacketChat(FlounderNetwork.get().getUsername(), s).writeData(FlounderNetwork.get().getSocketClient());
+				if (KosmosNetwork.get().getClient() != null && s.charAt(0) != '/') {
+					new PacketChat(KosmosNetwork.get().getUsername(), s).writeData(KosmosNetwork.get().getClient());
 				}
 
 				currentInput.setText(START_STRING);
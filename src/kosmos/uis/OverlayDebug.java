@@ -17,6 +17,9 @@ import flounder.guis.*;
 import flounder.maths.*;
 import flounder.maths.vectors.*;
 import flounder.visual.*;
+import kosmos.entities.*;
+import kosmos.network.*;
+import kosmos.profiling.*;
 import kosmos.world.*;
 import kosmos.world.biomes.*;
 import kosmos.world.chunks.*;
@@ -29,6 +32,9 @@ public class OverlayDebug extends ScreenObject {
 	private TextObject seedText;
 	private TextObject moistureText;
 	private TextObject biomeText;
+	private TextObject networkText;
+	private TextObject movedText;
+	private TextObject allocationText;
 	private boolean updateText;
 
 	public OverlayDebug(ScreenObject parent) {
@@ -42,6 +48,9 @@ public class OverlayDebug extends ScreenObject {
 		this.seedText = createStatus("SEED: 0", 0.13f);
 		this.moistureText = createStatus("MOISTURE: 1", 0.16f);
 		this.biomeText = createStatus("BIOME: NULL", 0.19f);
+		this.networkText = createStatus("", 0.22f);
+		this.movedText = createStatus("MOVED: 0/tick", 0.25f);
+		this.allocationText = createStatus("", 0.28f);
 
 		FlounderEvents.get().addEvent(new EventTime(0.333f, true) {
 			@Override
@@ -83,6 +92,26 @@ public class OverlayDebug extends ScreenObject {
 				biomeText.setText("BIOME: NULL");
 			}
 
+			if (KosmosNetwork.get() != null && KosmosNetwork.get().getClient() != null) {
+				ClockSync clockSync = KosmosNetwork.get().getClient().getClockSync();
+				networkText.setText("PING: " + Maths.roundToPlace(clockSync.getRoundTrip() * 1000.0f, 1) + "ms (JITTER " + Maths.roundToPlace(clockSync.getJitter() * 1000.0f, 1) + "ms, OFFSET " + Maths.roundToPlace(clockSync.getOffset(), 3) + "s)");
+			} else {
+				networkText.setText("");
+			}
+
+			if (KosmosChunks.get() != null) {
+				EntityTickScheduler scheduler = KosmosChunks.get().getScheduler();
+				movedText.setText("MOVED: " + KosmosChunks.get().getStructure().getMovedCount() + "/tick, CHUNKS UPDATED: " + scheduler.getUpdated() + "/" + scheduler.getCount());
+			}
+
+			if (KosmosProfiling.get() != null && KosmosProfiling.get().isEnabled()) {
+				AllocationTracker.Section largest = KosmosProfiling.get().getLargest();
+				allocationText.setText("ALLOCATION: " + Maths.roundToPlace((float) KosmosProfiling.get().getTick().getAverage() / 1024.0f, 1) + "KB/tick" +
+						(largest == null ? "" : " (" + largest.getName() + " " + Maths.roundToPlace((float) largest.getAverage() / 1024.0f, 1) + "KB)"));
+			} else {
+				allocationText.setText("");
+			}
+
 			updateText = false;
 		}
 	}
@@ -90,4 +119,4 @@ public class OverlayDebug extends ScreenObject {
 	@Override
 	public void deleteObject() {
 	}
-}
\ No newline at end of file
+}
@@ -13,10 +13,10 @@ import flounder.fonts.*;
 import flounder.guis.*;
 import flounder.maths.*;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
 import flounder.visual.*;
 import kosmos.*;
 import kosmos.camera.*;
+import kosmos.network.*;
 import kosmos.network.packets.*;
 import kosmos.uis.*;
 
@@ -53,15 +53,15 @@ public class ScreenMultiplayer extends ScreenObject {
 		buttonLoad.addLeftListener(() -> {
 			slider.setNewSecondaryScreen(screenLoading);
 			screenLoading.load(() -> {
-				String address = KosmosConfigs.SERVER_IP.setReference(() -> FlounderNetwork.get().getSocketClient() == null ? null : FlounderNetwork.get().getSocketClient().getIpAddress()).getString();
-				int port = KosmosConfigs.SERVER_PORT.setReference(() -> FlounderNetwork.get().getSocketClient() == null ? null : FlounderNetwork.get().getSocketClient().getServerPort()).getInteger();
+				String address = KosmosConfigs.SERVER_IP.setReference(() -> KosmosNetwork.get().getClient() == null ? null : KosmosNetwork.get().getClient().getIpAddress()).getString();
+				int port = KosmosConfigs.SERVER_PORT.setReference(() -> KosmosNetwork.get().getClient() == null ? null : KosmosNetwork.get().getClient().getServerPort()).getInteger();
 
 				KosmosConfigs.saveAllConfigs();
 
 				// Connects to the server.
-				FlounderNetwork.get().startClient(KosmosPlayer.getUsername(), address, port);
+				KosmosNetwork.get().startClient(KosmosPlayer.getUsername(), address, port);
 				PacketConnect loginPacket = new PacketConnect(KosmosPlayer.getUsername());
-				loginPacket.writeData(FlounderNetwork.get().getSocketClient());
+				loginPacket.writeData(KosmosNetwork.get().getClient());
 
 				selectedSave = "null";
 				textTitle.setText("null");
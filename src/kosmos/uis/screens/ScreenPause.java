@@ -15,9 +15,9 @@ import flounder.guis.*;
 import flounder.logger.*;
 import flounder.maths.*;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
 import flounder.visual.*;
 import kosmos.*;
+import kosmos.network.*;
 import kosmos.network.packets.*;
 import kosmos.uis.*;
 import kosmos.world.*;
@@ -73,9 +73,9 @@ public class ScreenPause extends ScreenObject {
 
 			FlounderLogger.get().log("Leaving world!");
 
-			if (FlounderNetwork.get().getSocketClient() != null) {
-				new PacketDisconnect(FlounderNetwork.get().getUsername()).writeData(FlounderNetwork.get().getSocketClient());
-				FlounderNetwork.get().closeClient();
+			if (KosmosNetwork.get().getClient() != null) {
+				new PacketDisconnect(KosmosNetwork.get().getUsername()).writeData(KosmosNetwork.get().getClient());
+				KosmosNetwork.get().closeClient();
 				KosmosWorld.get().deleteWorld(false);
 			} else {
 				KosmosWorld.get().deleteWorld(true);
@@ -17,7 +17,6 @@ import flounder.guis.*;
 import flounder.logger.*;
 import flounder.maths.*;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
 import flounder.resources.*;
 import flounder.shadows.*;
 import flounder.skybox.*;
@@ -28,7 +27,10 @@ import kosmos.*;
 import kosmos.camera.*;
 import kosmos.entities.components.*;
 import kosmos.entities.instances.*;
+import kosmos.network.*;
+import kosmos.profiling.*;
 import kosmos.world.chunks.*;
+import kosmos.world.horizon.*;
 import kosmos.world.water.*;
 
 import java.util.*;
@@ -61,6 +63,7 @@ public class KosmosWorld extends Module {
 	private WorldDefinition worldDefinition;
 
 	private Map<String, Entity> players;
+	private Map<String, Float> removedPlayers;
 
 	private Entity entityPlayer;
 	private Entity entitySun;
@@ -70,7 +73,7 @@ public class KosmosWorld extends Module {
 	private float dayFactor;
 
 	public KosmosWorld() {
-		super(FlounderEntities.class, KosmosChunks.class, KosmosWater.class);
+		super(FlounderEntities.class, KosmosChunks.class, KosmosWater.class, KosmosHorizon.class);
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
@@ -78,10 +81,11 @@ public class KosmosWorld extends Module {
 		this.worldDefinition = null;
 
 		this.players = new HashMap<>();
+		this.removedPlayers = new HashMap<>();
 
 		this.entityPlayer = null;
-		this.entitySun = new InstanceSun(FlounderEntities.get().getEntities(), new Vector3f(-250.0f, -250.0f, -250.0f), new Vector3f(0.0f, 0.0f, 0.0f));
-		this.entityMoon = new InstanceMoon(FlounderEntities.get().getEntities(), new Vector3f(200.0f, 250.0f, 220.0f), new Vector3f(0.0f, 0.0f, 0.0f));
+		this.entitySun = new InstanceSun(KosmosChunks.get().getStructure(), new Vector3f(-250.0f, -250.0f, -250.0f), new Vector3f(0.0f, 0.0f, 0.0f));
+		this.entityMoon = new InstanceMoon(KosmosChunks.get().getStructure(), new Vector3f(200.0f, 250.0f, 220.0f), new Vector3f(0.0f, 0.0f, 0.0f));
 
 		this.dayDriver = new LinearDriver(0.0f, 100.0f, 100.0f);
 		this.dayFactor = 0.0f;
@@ -117,12 +121,12 @@ public class KosmosWorld extends Module {
 				setWorld(world);
 			}
 
-			if (FlounderNetwork.get().getSocketServer() == null) {
+			if (KosmosNetwork.get().getServer() == null) {
 				// Creates the player.
-				entityPlayer = new InstancePlayer(FlounderEntities.get().getEntities(), positionPlayer, new Vector3f());
+				entityPlayer = new InstancePlayer(KosmosChunks.get().getStructure(), positionPlayer, new Vector3f());
 
 				// Creates the current chunk.
-				KosmosChunks.get().setCurrent(new Chunk(FlounderEntities.get().getEntities(), positionChunk));
+				KosmosChunks.get().setCurrent(new Chunk(KosmosChunks.get().getStructure(), positionChunk));
 			}
 
 			// Creates the water.
@@ -161,6 +165,8 @@ public class KosmosWorld extends Module {
 
 	@Handler.Function(Handler.FLAG_UPDATE_PRE)
 	public void update() {
+		KosmosProfiling.get().begin(KosmosWorld.class);
+
 		// Update the sky colours and sun position.
 		if (FlounderSkybox.get() != null && FlounderShadows.get() != null) {
 			dayFactor = dayDriver.update(Framework.get().getDelta()) / 100.0f;
@@ -168,7 +174,8 @@ public class KosmosWorld extends Module {
 			Vector3f.rotate(LIGHT_DIRECTION, FlounderSkybox.get().getRotation().set(dayFactor * 360.0f, 0.0f, 0.0f), FlounderShadows.get().getLightPosition()).normalize();
 			Colour.interpolate(SKY_COLOUR_SUNRISE, SKY_COLOUR_NIGHT, getSunriseFactor(), FlounderSkybox.get().getFog().getFogColour());
 			Colour.interpolate(FlounderSkybox.get().getFog().getFogColour(), SKY_COLOUR_DAY, getShadowFactor(), FlounderSkybox.get().getFog().getFogColour());
-			FlounderSkybox.get().getFog().setFogDensity(0.006f + ((16 - KosmosChunks.get().getChunkDistance()) * 0.001f) + ((1.0f - getShadowFactor()) * 0.006f));
+			// The fog follows what can be seen, the horizon reaches past the chunks.
+			FlounderSkybox.get().getFog().setFogDensity(0.006f + ((16 - Math.min(16, KosmosHorizon.get().getViewDistance())) * 0.001f) + ((1.0f - getShadowFactor()) * 0.006f));
 			FlounderSkybox.get().getFog().setFogGradient(2.80f - ((1.0f - getShadowFactor()) * 0.4f));
 			FlounderSkybox.get().setBlendFactor(starIntensity());
 			FlounderShadows.get().setShadowBoxOffset((20.0f * (1.0f - getShadowFactor())) + 10.0f);
@@ -176,6 +183,8 @@ public class KosmosWorld extends Module {
 			FlounderShadows.get().setShadowTransition(0.0f);
 			FlounderShadows.get().setShadowFactor(getShadowFactor());
 		}
+
+		KosmosProfiling.get().end(KosmosWorld.class);
 	}
 
 	public WorldDefinition getWorld() {
@@ -219,15 +228,27 @@ public class KosmosWorld extends Module {
 	}
 
 	public void addPlayer(String username, Vector3f position, Vector3f rotation) {
-		FlounderTasks.get().addTask(() -> players.put(username, new InstanceMuliplayer(FlounderEntities.get().getEntities(), position, rotation, username)));
+		FlounderTasks.get().addTask(() -> {
+			if (!players.containsKey(username)) {
+				players.put(username, new InstanceMuliplayer(KosmosChunks.get().getStructure(), position, rotation, username));
+			}
+		});
 	}
 
 	public void updatePlayer(String username, float x, float y, float z, float w, float chunkX, float chunkZ) {
-		if (FlounderNetwork.get().getUsername().equals(username)) {
+		if (KosmosNetwork.get().getUsername().equals(username)) {
 			return;
 		}
 
+		// Players moving in from another region are added when first seen, moves that arrive just after a player left are ignored.
 		if (!this.players.containsKey(username)) {
+			Float removed = removedPlayers.get(username);
+
+			if (removed != null && Framework.get().getTimeSec() - removed < 2.0f) {
+				return;
+			}
+
+			addPlayer(username, new Vector3f(x, y, z), new Vector3f(0.0f, w, 0.0f));
 			return;
 		}
 
@@ -235,6 +256,8 @@ public class KosmosWorld extends Module {
 	}
 
 	public void removePlayer(String username) {
+		removedPlayers.put(username, Framework.get().getTimeSec());
+
 		if (this.players.containsKey(username)) {
 			Entity otherPlayer = this.players.get(username);
 			otherPlayer.forceRemove();
@@ -249,6 +272,7 @@ public class KosmosWorld extends Module {
 		}
 
 		this.players.clear();
+		this.removedPlayers.clear();
 	}
 
 	public Entity getEntityPlayer() {
@@ -16,11 +16,11 @@ import flounder.helpers.*;
 import flounder.logger.*;
 import flounder.maths.*;
 import flounder.maths.vectors.*;
-import flounder.networking.*;
 import flounder.noise.*;
 import flounder.resources.*;
 import flounder.textures.*;
 import kosmos.*;
+import kosmos.network.*;
 import kosmos.world.chunks.*;
 
 import javax.imageio.*;
@@ -49,7 +49,7 @@ public class WorldDefinition {
 	private TextureObject textureMap;
 
 	private Map<String, Pair<Vector3f, Vector3f>> players;
-	private Map<String, Pair<List<Vector3f>, List<Entity>>> chunkData;
+	private Map<String, Pair<BitSet, List<Entity>>> chunkData;
 
 	/**
 	 * Creates a new world save definition.
@@ -69,7 +69,7 @@ public class WorldDefinition {
 	 * @param chunkData The data about all modified chunks in the save.
 	 */
 	public WorldDefinition(String name, int seed, int worldSize, float worldNoiseSpread, float worldNoiseFrequency, float worldNoiseHeight, float worldIslandInside, float worldIslandOutside, float worldIslandParameter, float dayNightCycle, float dayNightRatio,
-	                       Map<String, Pair<Vector3f, Vector3f>> players, Map<String, Pair<List<Vector3f>, List<Entity>>> chunkData) {
+	                       Map<String, Pair<Vector3f, Vector3f>> players, Map<String, Pair<BitSet, List<Entity>>> chunkData) {
 		this.name = name;
 		this.seed = seed;
 		this.worldSize = worldSize;
@@ -98,8 +98,17 @@ public class WorldDefinition {
 	 * @return The loaded world.
 	 */
 	public static WorldDefinition load(String name) {
-		File saveFile = new File(Framework.get().getRoamingFolder().getPath() + "/saves/" + name + ".save");
+		return load(new File(Framework.get().getRoamingFolder().getPath() + "/saves/" + name + ".save"));
+	}
 
+	/**
+	 * Loads a world from a save file, if it does not exist or is unreadable a null world will be returned.
+	 *
+	 * @param saveFile The save file to load.
+	 *
+	 * @return The loaded world.
+	 */
+	public static WorldDefinition load(File saveFile) {
 		if (!saveFile.exists()) {
 			return null;
 		}
@@ -122,7 +131,7 @@ public class WorldDefinition {
 			float readDayNightRatio = 0.0f;
 
 			Map<String, Pair<Vector3f, Vector3f>> readPlayers = new HashMap<>();
-			Map<String, Pair<List<Vector3f>, List<Entity>>> readChunkData = new HashMap<>();
+			Map<String, Pair<BitSet, List<Entity>>> readChunkData = new HashMap<>();
 
 			String section = "null";
 
@@ -176,11 +185,24 @@ public class WorldDefinition {
 						Vector3f position = new Vector3f(Float.parseFloat(p[0]), Float.parseFloat(p[1]), Float.parseFloat(p[2]));
 
 						String[] r = line.split("]")[1].split("\\[")[1].replace("[", "").replace("]", "").trim().split(",");
-						List<Vector3f> entitiesRemoved = new ArrayList<>();
-
-						for (int i = 0; i < r.length; i += 3) {
-							Vector3f v = new Vector3f(Float.parseFloat(r[i].trim()), Float.parseFloat(r[i + 1].trim()), Float.parseFloat(r[i + 2].trim()));
-							entitiesRemoved.add(v);
+						BitSet entitiesRemoved = new BitSet();
+
+						if (!r[0].trim().isEmpty()) {
+							if (r[0].contains(".")) {
+								// Older saves store removed entities as world positions, these are converted into tile indices.
+								for (int i = 0; i < r.length; i += 3) {
+									Vector3f v = new Vector3f(Float.parseFloat(r[i].trim()), Float.parseFloat(r[i + 1].trim()), Float.parseFloat(r[i + 2].trim()));
+									int tile = KosmosChunks.getTileIndex(position, v);
+
+									if (tile != -1) {
+										entitiesRemoved.set(tile);
+									}
+								}
+							} else {
+								for (String tile : r) {
+									entitiesRemoved.set(Integer.parseInt(tile.trim()));
+								}
+							}
 						}
 
 						//	String[] a = line.split("]")[2].split("\\[")[2].replace("[", "").replace("]", "").trim().split(",");
@@ -194,7 +216,7 @@ public class WorldDefinition {
 			}
 
 			if (readSeed == 0) {
-				FlounderLogger.get().log("Failed to load world: " + name);
+				FlounderLogger.get().log("Failed to load world: " + saveFile);
 				return null;
 			}
 
@@ -235,7 +257,7 @@ public class WorldDefinition {
 		}
 
 		// Create a output file name and location.
-		String clientServer = FlounderNetwork.get().getSocketServer() != null ? "server" : "client";
+		String clientServer = KosmosNetwork.get().getServer() != null ? "server" : "client";
 		File outputBiome = new File(directorySave.getPath() + "/" + seed + "-biome-" + clientServer + ".png");
 
 		// Does not create a texture if it already exists and has not been tampered.
@@ -416,22 +438,22 @@ public class WorldDefinition {
 		return players.get(username).getSecond();
 	}
 
-	public Map<String, Pair<List<Vector3f>, List<Entity>>> getChunkData() {
+	public Map<String, Pair<BitSet, List<Entity>>> getChunkData() {
 		return chunkData;
 	}
 
-	public List<Vector3f> getChunkRemoved(Vector3f position) {
-		Pair<List<Vector3f>, List<Entity>> found = chunkData.get(vectorToString(position));
+	public BitSet getChunkRemoved(Vector3f position) {
+		Pair<BitSet, List<Entity>> found = chunkData.get(vectorToString(position));
 
 		if (found != null) {
 			return found.getFirst();
 		}
 
-		return new ArrayList<>();
+		return new BitSet();
 	}
 
 	public List<Entity> getChunkAdded(Vector3f position) {
-		Pair<List<Vector3f>, List<Entity>> found = chunkData.get(vectorToString(position));
+		Pair<BitSet, List<Entity>> found = chunkData.get(vectorToString(position));
 
 		if (found != null) {
 			return found.getSecond();
@@ -444,7 +466,7 @@ public class WorldDefinition {
 	 * Saves the world into a world file by the name defined in the constructor.
 	 */
 	public void save() {
-		if (FlounderNetwork.get().getSocketClient() != null) {
+		if (KosmosNetwork.get().getClient() != null) {
 			FlounderLogger.get().log("Cannot save multiplayer world on a client!");
 			return;
 		}
@@ -454,97 +476,105 @@ public class WorldDefinition {
 		// Prepares changes in chunks for saving.
 		KosmosChunks.get().prepareSave();
 
-		try {
-			// The save file and the writers.
-			File saveFile = new File(Framework.get().getRoamingFolder().getPath() + "/saves/" + name + ".save");
-			saveFile.createNewFile();
-			FileWriter fileWriter = new FileWriter(saveFile);
-			FileWriterHelper fileWriterHelper = new FileWriterHelper(fileWriter);
-
-			// Date and save info.
-			String savedDate = Calendar.getInstance().get(Calendar.DAY_OF_MONTH) + "." + (Calendar.getInstance().get(Calendar.MONTH) + 1) + "." + Calendar.getInstance().get(Calendar.YEAR) + " - " + Calendar.getInstance().get(Calendar.HOUR_OF_DAY) + ":" + Calendar.getInstance().get(Calendar.MINUTE);
-			fileWriterHelper.addComment("Automatically generated save file.", "Date generated: " + savedDate);
-
-			// Versioning and seed.
-			fileWriterHelper.beginNewSegment("save");
-			{
-				fileWriterHelper.writeSegmentData("version = " + NewKosmos.VERSION + ";", true);
-				fileWriterHelper.writeSegmentData("name = " + name + ";", true);
-				fileWriterHelper.writeSegmentData("seed = " + seed + ";", true);
-				fileWriterHelper.writeSegmentData("worldSize = " + worldSize + ";", true);
-				fileWriterHelper.writeSegmentData("worldNoiseSpread = " + worldNoiseSpread + ";", true);
-				fileWriterHelper.writeSegmentData("worldNoiseFrequency = " + worldNoiseFrequency + ";", true);
-				fileWriterHelper.writeSegmentData("worldNoiseHeight = " + worldNoiseHeight + ";", true);
-				fileWriterHelper.writeSegmentData("worldIslandInside = " + worldIslandInside + ";", true);
-				fileWriterHelper.writeSegmentData("worldIslandOutside = " + worldIslandOutside + ";", true);
-				fileWriterHelper.writeSegmentData("worldIslandParameter = " + worldIslandParameter + ";", true);
-				fileWriterHelper.writeSegmentData("dayNightCycle = " + dayNightCycle + ";", true);
-				fileWriterHelper.writeSegmentData("dayNightRatio = " + dayNightRatio + ";", false);
-			}
-			fileWriterHelper.endSegment(false);
+		// Stores the local player, this is written to the save with the other players.
+		Entity thisPlayer = KosmosWorld.get().getEntityPlayer();
+		Chunk thisChunk = KosmosChunks.get().getCurrent();
 
-			// Player data.
-			fileWriterHelper.beginNewSegment("players");
-			{
-				Entity thisPlayer = KosmosWorld.get().getEntityPlayer();
-				Chunk thisChunk = KosmosChunks.get().getCurrent();
+		if (thisPlayer != null && thisChunk != null) {
+			players.put("this", new Pair<>(new Vector3f(thisPlayer.getPosition()), new Vector3f(thisChunk.getPosition().x, 0.0f, thisChunk.getPosition().z)));
+		}
 
-				if (thisPlayer != null && thisChunk != null) {
-					fileWriterHelper.writeSegmentData("this, " + thisPlayer.getPosition().x + ", " + thisPlayer.getPosition().y + ", " + thisPlayer.getPosition().z + ", ");
-					fileWriterHelper.writeSegmentData(thisChunk.getPosition().x + ", " + thisChunk.getPosition().z + ";", true);
-				}
+		try {
+			save(new File(Framework.get().getRoamingFolder().getPath() + "/saves/" + name + ".save"));
+		} catch (IOException e) {
+			FlounderLogger.get().exception(e);
+		}
+	}
 
-				for (String username : players.keySet()) {
-					if (!username.equals("this")) {
-						Pair<Vector3f, Vector3f> data = players.get(username);
-						fileWriterHelper.writeSegmentData(username + ", " + data.getFirst().x + ", " + data.getFirst().y + ", " + data.getFirst().z + ", ");
-						fileWriterHelper.writeSegmentData(data.getSecond().x + ", " + data.getSecond().z + ";", true);
-					}
-				}
+	/**
+	 * Saves the world data into a save file, this does not read any state from the running game.
+	 *
+	 * @param saveFile The file to save into.
+	 *
+	 * @throws IOException If the file could not be written.
+	 */
+	public void save(File saveFile) throws IOException {
+		// The save file and the writers.
+		saveFile.createNewFile();
+		FileWriter fileWriter = new FileWriter(saveFile);
+		FileWriterHelper fileWriterHelper = new FileWriterHelper(fileWriter);
+
+		// Date and save info.
+		String savedDate = Calendar.getInstance().get(Calendar.DAY_OF_MONTH) + "." + (Calendar.getInstance().get(Calendar.MONTH) + 1) + "." + Calendar.getInstance().get(Calendar.YEAR) + " - " + Calendar.getInstance().get(Calendar.HOUR_OF_DAY) + ":" + Calendar.getInstance().get(Calendar.MINUTE);
+		fileWriterHelper.addComment("Automatically generated save file.", "Date generated: " + savedDate);
+
+		// Versioning and seed.
+		fileWriterHelper.beginNewSegment("save");
+		{
+			fileWriterHelper.writeSegmentData("version = " + NewKosmos.VERSION + ";", true);
+			fileWriterHelper.writeSegmentData("name = " + name + ";", true);
+			fileWriterHelper.writeSegmentData("seed = " + seed + ";", true);
+			fileWriterHelper.writeSegmentData("worldSize = " + worldSize + ";", true);
+			fileWriterHelper.writeSegmentData("worldNoiseSpread = " + worldNoiseSpread + ";", true);
+			fileWriterHelper.writeSegmentData("worldNoiseFrequency = " + worldNoiseFrequency + ";", true);
+			fileWriterHelper.writeSegmentData("worldNoiseHeight = " + worldNoiseHeight + ";", true);
+			fileWriterHelper.writeSegmentData("worldIslandInside = " + worldIslandInside + ";", true);
+			fileWriterHelper.writeSegmentData("worldIslandOutside = " + worldIslandOutside + ";", true);
+			fileWriterHelper.writeSegmentData("worldIslandParameter = " + worldIslandParameter + ";", true);
+			fileWriterHelper.writeSegmentData("dayNightCycle = " + dayNightCycle + ";", true);
+			fileWriterHelper.writeSegmentData("dayNightRatio = " + dayNightRatio + ";", false);
+		}
+		fileWriterHelper.endSegment(false);
+
+		// Player data.
+		fileWriterHelper.beginNewSegment("players");
+		{
+			for (String username : players.keySet()) {
+				Pair<Vector3f, Vector3f> data = players.get(username);
+				fileWriterHelper.writeSegmentData(username + ", " + data.getFirst().x + ", " + data.getFirst().y + ", " + data.getFirst().z + ", ");
+				fileWriterHelper.writeSegmentData(data.getSecond().x + ", " + data.getSecond().z + ";", true);
 			}
-			fileWriterHelper.endSegment(false);
-
-			// Chunk data.
-			fileWriterHelper.beginNewSegment("chunks");
-			{
-				for (String position : chunkData.keySet()) {
-					List<Vector3f> entitiesRemoved = chunkData.get(position).getFirst();
-					List<Entity> entitiesAdded = chunkData.get(position).getSecond();
+		}
+		fileWriterHelper.endSegment(false);
 
-					if (!entitiesRemoved.isEmpty() || !entitiesAdded.isEmpty()) {
-						StringBuilder result = new StringBuilder("[" + position + "], [");
+		// Chunk data.
+		fileWriterHelper.beginNewSegment("chunks");
+		{
+			for (String position : chunkData.keySet()) {
+				BitSet entitiesRemoved = chunkData.get(position).getFirst();
+				List<Entity> entitiesAdded = chunkData.get(position).getSecond();
 
-						for (Vector3f r : entitiesRemoved) {
-							result.append(r.x).append(",").append(r.y).append(",").append(r.z).append(",");
-						}
+				if (!entitiesRemoved.isEmpty() || !entitiesAdded.isEmpty()) {
+					StringBuilder result = new StringBuilder("[" + position + "], [");
 
-						if (!entitiesRemoved.isEmpty()) {
-							result.deleteCharAt(result.length() - 1);
-						}
+					for (int r = entitiesRemoved.nextSetBit(0); r >= 0; r = entitiesRemoved.nextSetBit(r + 1)) {
+						result.append(r).append(",");
+					}
 
-						result.append("], [");
+					if (!entitiesRemoved.isEmpty()) {
+						result.deleteCharAt(result.length() - 1);
+					}
 
-						for (Entity a : entitiesAdded) {
-							result.append("\'").append(a.getClass().getName()).append("\', ").append(a.getPosition().x).append(",").append(a.getPosition().y).append(",").append(a.getPosition().z).append(",");
-							result.append(a.getRotation().x).append(",").append(a.getRotation().y).append(",").append(a.getRotation().z).append(",");
-						}
+					result.append("], [");
 
-						if (!entitiesAdded.isEmpty()) {
-							result.deleteCharAt(result.length() - 1);
-						}
+					for (Entity a : entitiesAdded) {
+						result.append("\'").append(a.getClass().getName()).append("\', ").append(a.getPosition().x).append(",").append(a.getPosition().y).append(",").append(a.getPosition().z).append(",");
+						result.append(a.getRotation().x).append(",").append(a.getRotation().y).append(",").append(a.getRotation().z).append(",");
+					}
 
-						result.append("];");
-						fileWriterHelper.writeSegmentData(result.toString(), true);
+					if (!entitiesAdded.isEmpty()) {
+						result.deleteCharAt(result.length() - 1);
 					}
+
+					result.append("];");
+					fileWriterHelper.writeSegmentData(result.toString(), true);
 				}
 			}
-			fileWriterHelper.endSegment(true);
-
-			// Closes the file for writing.
-			fileWriter.close();
-		} catch (IOException e) {
-			FlounderLogger.get().exception(e);
 		}
+		fileWriterHelper.endSegment(true);
+
+		// Closes the file for writing.
+		fileWriter.close();
 	}
 
 	public void dispose() {
@@ -12,12 +12,12 @@ package kosmos.world.biomes;
 import flounder.maths.*;
 import flounder.resources.*;
 import flounder.textures.*;
-import kosmos.entities.instances.*;
 import kosmos.world.chunks.*;
+import kosmos.world.decorations.*;
 
 public class BiomeOcean extends IBiome {
 	private static final EntitySpawn[] SPAWNS = new EntitySpawn[]{
-			new EntitySpawn(InstanceCattail::new, 1.0f, 0.375f),
+			new EntitySpawn(DecorationType.CATTAIL, 1.0f, 0.375f),
 	};
 	private static final TextureObject TEXTURE = TextureFactory.newBuilder().setFile(new MyFile(KosmosChunks.TERRAINS_FOLDER, "ocean.png")).clampEdges().create();
 	private static final Colour COLOUR = new Colour(0.0824f, 0.3960f, 0.7530f);
@@ -12,12 +12,12 @@ package kosmos.world.biomes;
 import flounder.maths.*;
 import flounder.resources.*;
 import flounder.textures.*;
-import kosmos.entities.instances.*;
 import kosmos.world.chunks.*;
+import kosmos.world.decorations.*;
 
 public class BiomeScorched extends IBiome {
 	private static final EntitySpawn[] SPAWNS = new EntitySpawn[]{
-			new EntitySpawn(InstanceGrassTuft1::new, 1.0f, 0.42f),
+			new EntitySpawn(DecorationType.GRASS_TUFT_1, 1.0f, 0.42f),
 	};
 	private static final TextureObject TEXTURE = TextureFactory.newBuilder().setFile(new MyFile(KosmosChunks.TERRAINS_FOLDER, "scorched.png")).clampEdges().create();
 	private static final Colour COLOUR = new Colour(0.6000f, 0.6000f, 0.6000f);
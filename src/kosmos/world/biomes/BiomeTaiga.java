@@ -12,14 +12,14 @@ package kosmos.world.biomes;
 import flounder.maths.*;
 import flounder.resources.*;
 import flounder.textures.*;
-import kosmos.entities.instances.*;
 import kosmos.world.chunks.*;
+import kosmos.world.decorations.*;
 
 public class BiomeTaiga extends IBiome {
 	private static final EntitySpawn[] SPAWNS = new EntitySpawn[]{
-			new EntitySpawn(InstanceTreeMaple::new, 1.0f, 0.53f),
-			new EntitySpawn(InstanceTreeYellow::new, 1.0f, 0.5f),
-			new EntitySpawn(InstanceTreeDeadSnow::new, 0.4f, 0.7f),
+			new EntitySpawn(DecorationType.TREE_MAPLE, 1.0f, 0.53f),
+			new EntitySpawn(DecorationType.TREE_YELLOW, 1.0f, 0.5f),
+			new EntitySpawn(DecorationType.TREE_DEAD_SNOW, 0.4f, 0.7f),
 	};
 	private static final TextureObject TEXTURE = TextureFactory.newBuilder().setFile(new MyFile(KosmosChunks.TERRAINS_FOLDER, "taiga.png")).clampEdges().create();
 	private static final Colour COLOUR = new Colour(0.8000f, 0.8314f, 0.7333f);
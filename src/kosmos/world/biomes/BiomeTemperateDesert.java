@@ -12,13 +12,13 @@ package kosmos.world.biomes;
 import flounder.maths.*;
 import flounder.resources.*;
 import flounder.textures.*;
-import kosmos.entities.instances.*;
 import kosmos.world.chunks.*;
+import kosmos.world.decorations.*;
 
 public class BiomeTemperateDesert extends IBiome {
 	private static final EntitySpawn[] SPAWNS = new EntitySpawn[]{
-			new EntitySpawn(InstanceCactus1::new, 1.0f, 0.4375f),
-			new EntitySpawn(InstanceCactus2::new, 1.0f, 0.4375f),
+			new EntitySpawn(DecorationType.CACTUS_1, 1.0f, 0.4375f),
+			new EntitySpawn(DecorationType.CACTUS_2, 1.0f, 0.4375f),
 	};
 	private static final TextureObject TEXTURE = TextureFactory.newBuilder().setFile(new MyFile(KosmosChunks.TERRAINS_FOLDER, "temperateDesert.png")).clampEdges().create();
 	private static final Colour COLOUR = new Colour(0.8941f, 0.9098f, 0.7922f);
@@ -12,14 +12,14 @@ package kosmos.world.biomes;
 import flounder.maths.*;
 import flounder.resources.*;
 import flounder.textures.*;
-import kosmos.entities.instances.*;
 import kosmos.world.chunks.*;
+import kosmos.world.decorations.*;
 
 public class BiomeTropicalSeasonalForest extends IBiome {
 	private static final EntitySpawn[] SPAWNS = new EntitySpawn[]{
-			new EntitySpawn(InstanceTallGrass::new, 1.0f, 0.25f),
-			new EntitySpawn(InstanceFlowerpatch1::new, 1.0f, 0.375f),
-			new EntitySpawn(InstanceBush::new, 1.0f, 0.625f),
+			new EntitySpawn(DecorationType.TALL_GRASS, 1.0f, 0.25f),
+			new EntitySpawn(DecorationType.FLOWERPATCH_1, 1.0f, 0.375f),
+			new EntitySpawn(DecorationType.BUSH, 1.0f, 0.625f),
 	};
 	private static final TextureObject TEXTURE = TextureFactory.newBuilder().setFile(new MyFile(KosmosChunks.TERRAINS_FOLDER, "tropicalSeasonalForest.png")).clampEdges().create();
 	private static final Colour COLOUR = new Colour(0.6627f, 0.8000f, 0.6431f);
@@ -12,14 +12,15 @@ package kosmos.world.biomes;
 import flounder.entities.*;
 import flounder.maths.vectors.*;
 import flounder.space.*;
+import kosmos.world.decorations.*;
 
 public class EntitySpawn {
-	protected final EntityCreate create;
+	protected final DecorationType type;
 	protected final float spawnChance;
 	protected final float heightOffset;
 
-	public EntitySpawn(EntityCreate create, float spawnChance, float heightOffset) {
-		this.create = create;
+	public EntitySpawn(DecorationType type, float spawnChance, float heightOffset) {
+		this.type = type;
 		this.spawnChance = spawnChance;
 		this.heightOffset = heightOffset;
 	}
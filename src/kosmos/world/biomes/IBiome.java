@@ -9,13 +9,10 @@
 
 package kosmos.world.biomes;
 
-import flounder.entities.*;
-import flounder.entities.components.*;
 import flounder.maths.*;
 import flounder.maths.vectors.*;
 import flounder.textures.*;
-import kosmos.world.*;
-import kosmos.world.chunks.*;
+import kosmos.world.decorations.*;
 
 /**
  * A interface used to define biome types.
@@ -72,33 +69,34 @@ public abstract class IBiome {
 
 	public abstract Colour getColour();
 
-	public Entity generateEntity(Chunk chunk, Vector3f worldPosition) {
-		if (worldPosition.y < 0.0f) {
-			return null;
-		}
-
-		if (Math.abs(KosmosWorld.get().getWorld().getNoise().noise(worldPosition.z * (float) Math.sin(worldPosition.x), worldPosition.x * (float) Math.sin(worldPosition.z))) <= 0.3f) {
-			return null;
+	/**
+	 * Generates a decoration instance for a tile, placement is a pure function of the seed and global tile coordinate.
+	 *
+	 * @param decorations The decorations to add the instance to.
+	 * @param seed The world seed.
+	 * @param tileX The global tile x coordinate.
+	 * @param tileZ The global tile z coordinate.
+	 * @param tile The tiles index in the chunk.
+	 * @param worldPosition The world position of the tile.
+	 */
+	public void generateDecoration(ChunkDecorations decorations, int seed, int tileX, int tileZ, int tile, Vector3f worldPosition) {
+		if (worldPosition.y < 0.0f || getEntitySpawns().length == 0) {
+			return;
 		}
 
-		float spawn = KosmosWorld.get().getWorld().getNoise().noise((worldPosition.z - worldPosition.x) * (float) Math.sin(worldPosition.x + worldPosition.z), 1.0f) * 23.0f * getEntitySpawns().length;
-		float rotation = KosmosWorld.get().getWorld().getNoise().noise(worldPosition.x - worldPosition.z, 1.0f) * 3600.0f;
-
-		if (getEntitySpawns().length > 0 && (int) spawn >= 0.0f && (int) spawn < getEntitySpawns().length) {
-			EntitySpawn entitySpawn = getEntitySpawns()[(int) spawn];
+		long hash = DecorationPlacement.hash(seed, tileX, tileZ);
 
-			if (entitySpawn != null && spawn - (int) spawn <= entitySpawn.spawnChance) {
-				Entity entity = entitySpawn.create.create(FlounderEntities.get().getEntities(), new Vector3f(worldPosition.x, entitySpawn.heightOffset + worldPosition.y * 0.5f, worldPosition.z), new Vector3f(0.0f, rotation, 0.0f));
+		if (!DecorationPlacement.isDecorated(hash)) {
+			return;
+		}
 
-				if (entity != null) {
-					new ComponentChild(entity, chunk, () -> chunk.entityRemove(entity));
-					new ComponentSelect(entity);
-				}
+		EntitySpawn entitySpawn = getEntitySpawns()[DecorationPlacement.spawnIndex(hash, getEntitySpawns().length)];
 
-				return entity;
-			}
+		if (entitySpawn == null || DecorationPlacement.chance(hash) > entitySpawn.spawnChance) {
+			return;
 		}
 
-		return null;
+		float y = entitySpawn.heightOffset + worldPosition.y * 0.5f;
+		decorations.add(entitySpawn.type, tile, worldPosition.x, y, worldPosition.z, DecorationPlacement.rotation(hash));
 	}
 }
@@ -18,10 +18,13 @@ import flounder.maths.vectors.*;
 import flounder.physics.*;
 import flounder.physics.bounding.*;
 import flounder.space.*;
+import flounder.textures.*;
 import kosmos.entities.components.*;
 import kosmos.world.*;
 import kosmos.world.biomes.*;
 import kosmos.world.chunks.meshing.*;
+import kosmos.world.decorations.*;
+import kosmos.world.water.*;
 
 import java.util.*;
 
@@ -39,12 +42,18 @@ public class Chunk extends Entity {
 
 	private List<Chunk> childrenChunks;
 	private ChunkMesh chunkMesh;
+	private WaterMesh waterMesh;
+	private ChunkDecorations decorations;
+	private volatile ChunkDecorations decorationsGenerated;
+	private volatile float[] heights;
+	private PickGrid pickGrid;
 	private Sphere sphere;
 	private boolean loaded;
+	private TextureObject texture;
 
 	private int createDepth;
 
-	private List<Vector3f> entitiesRemoved;
+	private BitSet entitiesRemoved;
 	private List<Entity> entitiesAdded;
 
 	public Chunk(ISpatialStructure<Entity> structure, Vector3f position) {
@@ -52,6 +61,8 @@ public class Chunk extends Entity {
 
 		this.childrenChunks = new ArrayList<>();
 		this.chunkMesh = new ChunkMesh(this);
+		this.waterMesh = new WaterMesh();
+		this.decorations = new ChunkDecorations(this);
 		this.sphere = new Sphere(1.0f);
 		this.sphere.update(position, null, KosmosChunks.CHUNK_WORLD_SIZE, sphere);
 		this.loaded = false;
@@ -60,6 +71,8 @@ public class Chunk extends Entity {
 
 		this.entitiesRemoved = KosmosWorld.get().getWorld().getChunkRemoved(position);
 		this.entitiesAdded = KosmosWorld.get().getWorld().getChunkAdded(position);
+		this.pickGrid = new PickGrid(this);
+		entitiesAdded.forEach(pickGrid::add);
 
 		new ComponentModel(this, 1.0f, chunkMesh.getModel(), null, 0);
 		new ComponentSurface(this, 1.0f, 0.0f, false, false, true);
@@ -75,7 +88,18 @@ public class Chunk extends Entity {
 		ComponentModel componentModel = (ComponentModel) getComponent(ComponentModel.class);
 
 		if (componentModel != null) {
-			componentModel.setTexture(KosmosChunks.get().getTextureBiome());
+			texture = KosmosChunks.get().getTextureBiome();
+			componentModel.setTexture(texture);
+		}
+
+		// Swaps in decorations generated by the mesh builder, removing any that were removed while building.
+		if (decorationsGenerated != null) {
+			decorations = decorationsGenerated;
+			decorationsGenerated = null;
+
+			for (int i = entitiesRemoved.nextSetBit(0); i >= 0; i = entitiesRemoved.nextSetBit(i + 1)) {
+				decorations.remove(i);
+			}
 		}
 
 		// Creates the children for this chunk if signaled to.
@@ -87,20 +111,10 @@ public class Chunk extends Entity {
 					float x = this.getPosition().x + (float) ((Math.sqrt(3.0) / 2.0) * KosmosChunks.HEXAGON_SIDE_LENGTH * DELTA_CHUNK[i][0]);
 					float z = this.getPosition().z + (float) ((3.0 / 4.0) * KosmosChunks.HEXAGON_SIDE_LENGTH * DELTA_CHUNK[i][1]);
 					Vector3f p = new Vector3f(x, 0.0f, z);
-					Chunk duplicate = null;
-
-					for (Entity entity : FlounderEntities.get().getEntities().getAll(null)) {
-						if (entity != null && entity instanceof Chunk) {
-							Chunk chunk = (Chunk) entity;
-
-							if (p.equals(chunk.getPosition())) {
-								duplicate = chunk;
-							}
-						}
-					}
+					Chunk duplicate = KosmosChunks.get().getStructure().getChunk(p);
 
 					if (duplicate == null) {
-						childrenChunks.add(new Chunk(FlounderEntities.get().getEntities(), p));
+						childrenChunks.add(new Chunk(KosmosChunks.get().getStructure(), p));
 					} else {
 						childrenChunks.add(duplicate);
 					}
@@ -135,24 +149,75 @@ public class Chunk extends Entity {
 		}
 
 		// Removes children if they do not exist any more!
-		childrenChunks.removeIf((Chunk child) -> child == null || !FlounderEntities.get().getEntities().contains(child));
+		childrenChunks.removeIf((Chunk child) -> child == null || !KosmosChunks.get().getStructure().contains(child));
 		// Sets the create depth to the provided depth.
 		createDepth = depth;
 	}
 
 	/**
-	 * Generates a array of positions for tiles.
+	 * Generates a array of positions for tiles and the chunks decoration table, this is safe to call off the main thread.
+	 *
+	 * @param removed A snapshot of the removed tile indices, decorations on these tiles are never placed.
+	 *
+	 * @return The new array of tiles.
+	 */
+	public Map<Vector3f, Boolean[]> generate(BitSet removed) {
+		ChunkDecorations generated = new ChunkDecorations(this);
+
+		// The terrain never changes, so the heightfield is only filled by the first generate.
+		float[] generatedHeights = heights == null ? new float[KosmosChunks.CHUNK_TILE_COUNT] : null;
+		Map<Vector3f, Boolean[]> tiles = generate(KosmosWorld.get().getWorld(), getPosition(), removed, generated, generatedHeights);
+		decorationsGenerated = generated;
+
+		if (generatedHeights != null) {
+			heights = generatedHeights;
+		}
+
+		return tiles;
+	}
+
+	/**
+	 * Generates a array of positions for tiles and decorations for a chunk position, this only depends on the world passed in.
+	 *
+	 * @param world The world to generate from.
+	 * @param position The position of the chunk.
+	 * @param removed The removed tile indices, decorations on these tiles are never placed.
+	 * @param decorations The decorations to add to.
+	 *
+	 * @return The new array of tiles.
+	 */
+	public static Map<Vector3f, Boolean[]> generate(WorldDefinition world, Vector3f position, BitSet removed, ChunkDecorations decorations) {
+		return generate(world, position, removed, decorations, null);
+	}
+
+	/**
+	 * Generates a array of positions for tiles and decorations for a chunk position, also filling in the heightfield of the top tiles.
+	 *
+	 * @param world The world to generate from.
+	 * @param position The position of the chunk.
+	 * @param removed The removed tile indices, decorations on these tiles are never placed.
+	 * @param decorations The decorations to add to.
+	 * @param heights The heightfield to fill by tile index, tiles outside the chunk are left as NaN, can be null.
 	 *
 	 * @return The new array of tiles.
 	 */
-	public Map<Vector3f, Boolean[]> generate() {
+	public static Map<Vector3f, Boolean[]> generate(WorldDefinition world, Vector3f position, BitSet removed, ChunkDecorations decorations, float[] heights) {
 		Map<Vector3f, Boolean[]> tiles = new HashMap<>();
 
+		if (heights != null) {
+			Arrays.fill(heights, Float.NaN);
+		}
+
+		// Chunk centres lie on the global tile grid, so this offset is exact after rounding.
+		double tz = (4.0 * position.z) / (3.0 * KosmosChunks.HEXAGON_SIDE_LENGTH);
+		double tx = ((2.0 * position.x) / (Math.sqrt(3.0) * KosmosChunks.HEXAGON_SIDE_LENGTH)) - (tz / 2.0);
+		int[] tileOffset = new int[]{(int) Math.round(tx), (int) Math.round(tz)};
+
 		for (int i = 0; i < KosmosChunks.CHUNK_RADIUS; i++) {
 			int shapesOnEdge = i;
 			double x = 0.0;
 			double z = i;
-			generateTile(this, tiles, x, z, false, 0.0f, true);
+			generateTile(world, position, tileOffset, tiles, decorations, removed, heights, x, z, false, 0.0f, true);
 
 			for (int j = 0; j < 6; j++) {
 				if (j == 5) {
@@ -162,7 +227,7 @@ public class Chunk extends Entity {
 				for (int w = 0; w < shapesOnEdge; w++) {
 					x += DELTA_TILES[j][0];
 					z += DELTA_TILES[j][1];
-					generateTile(this, tiles, x, z, false, 0.0f, true);
+					generateTile(world, position, tileOffset, tiles, decorations, removed, heights, x, z, false, 0.0f, true);
 				}
 			}
 		}
@@ -170,10 +235,20 @@ public class Chunk extends Entity {
 		return tiles;
 	}
 
-	private static void generateTile(Chunk chunk, Map<Vector3f, Boolean[]> tiles, double x, double z, boolean floating, float yOffset, boolean spawnEntity) {
+	private static void generateTile(WorldDefinition world, Vector3f position, int[] tileOffset, Map<Vector3f, Boolean[]> tiles, ChunkDecorations decorations, BitSet removed, float[] heights, double x, double z, boolean floating, float yOffset, boolean spawnEntity) {
 		// Calculate the position and height.
-		Vector3f worldPosition = KosmosChunks.convertTileToWorld(chunk, x, z, null);
-		worldPosition.y = KosmosChunks.getWorldHeight(worldPosition.x, worldPosition.z) + yOffset;
+		Vector3f worldPosition = KosmosChunks.convertTileToWorld(position, x, z, null);
+		worldPosition.y = KosmosChunks.getWorldHeight(world, worldPosition.x, worldPosition.z) + yOffset;
+
+		// Caches the top tiles height for ground queries, including tiles below the world.
+		if (heights != null && yOffset == 0.0f) {
+			int index = KosmosChunks.getTileIndex((int) x, (int) z);
+
+			if (index != -1) {
+				heights[index] = worldPosition.y;
+			}
+		}
+
 		Vector3f chunkPosition = KosmosChunks.convertTileToChunk(x, z, null);
 		chunkPosition.y = worldPosition.y;
 
@@ -184,16 +259,16 @@ public class Chunk extends Entity {
 
 		// Samples the 6 tiles around this tile.
 		Vector3f samplePosition = new Vector3f();
-		float height0 = getTileHeight(chunk, x, z, DELTA_TILES[0], samplePosition);
-		float height1 = getTileHeight(chunk, x, z, DELTA_TILES[1], samplePosition);
-		float height2 = getTileHeight(chunk, x, z, DELTA_TILES[2], samplePosition);
-		float height3 = getTileHeight(chunk, x, z, DELTA_TILES[3], samplePosition);
-		float height4 = getTileHeight(chunk, x, z, DELTA_TILES[4], samplePosition);
-		float height5 = getTileHeight(chunk, x, z, DELTA_TILES[5], samplePosition);
+		float height0 = getTileHeight(world, position, x, z, DELTA_TILES[0], samplePosition);
+		float height1 = getTileHeight(world, position, x, z, DELTA_TILES[1], samplePosition);
+		float height2 = getTileHeight(world, position, x, z, DELTA_TILES[2], samplePosition);
+		float height3 = getTileHeight(world, position, x, z, DELTA_TILES[3], samplePosition);
+		float height4 = getTileHeight(world, position, x, z, DELTA_TILES[4], samplePosition);
+		float height5 = getTileHeight(world, position, x, z, DELTA_TILES[5], samplePosition);
 		float heightMin = Maths.minAbsValue(height0, height1, height2, height3, height4, height5);
 
 		// Sets and stores the model object states and tile position.
-		Boolean[] objects = new Boolean[KosmosChunks.get().getHexagons().length];
+		Boolean[] objects = new Boolean[KosmosChunks.HEXAGON_MODEL_COUNT];
 		objects[0] = yOffset == 0.0f;
 		objects[1] = floating;
 		objects[2] = height0 < chunkPosition.y;
@@ -206,27 +281,25 @@ public class Chunk extends Entity {
 
 		// Generates tiles below if there is a terrain drop, for cliff faces. This could be more efficient but is not.
 		if (chunkPosition.y - heightMin > Math.sqrt(2.0f) && chunkPosition.y - (float) Math.sqrt(2.0f) > heightMin) {
-			generateTile(chunk, tiles, x, z, false, yOffset - (float) Math.sqrt(2.0f), false);
+			generateTile(world, position, tileOffset, tiles, decorations, removed, null, x, z, false, yOffset - (float) Math.sqrt(2.0f), false);
 		}
 
-		// Spawns entities if this is the top tile, and if it was not removed.
-		if (spawnEntity) {
-			IBiome.Biomes biome = KosmosChunks.getBiomeMap(worldPosition.x, worldPosition.z);
-			Entity entity = biome.getBiome().generateEntity(chunk, worldPosition);
+		// Places decorations if this is the top tile and it was not removed.
+		int tile = KosmosChunks.getTileIndex((int) x, (int) z);
 
-			if (entity != null && chunk.entitiesRemoved.contains(entity.getPosition())) {
-				FlounderEntities.get().getEntities().remove(entity);
-			}
+		if (spawnEntity && tile != -1 && !removed.get(tile)) {
+			IBiome.Biomes biome = KosmosChunks.getBiomeMap(world, worldPosition.x, worldPosition.z);
+			biome.getBiome().generateDecoration(decorations, world.getSeed(), tileOffset[0] + (int) x, tileOffset[1] + (int) z, tile, worldPosition);
 		}
 	}
 
-	private static float getTileHeight(Chunk chunk, double x, double z, double[] delta, Vector3f sample) {
+	private static float getTileHeight(WorldDefinition world, Vector3f position, double x, double z, double[] delta, Vector3f sample) {
 		if (sample == null) {
 			sample = new Vector3f();
 		}
 
-		KosmosChunks.convertTileToWorld(chunk, x + delta[0], z + delta[1], sample);
-		return KosmosChunks.getWorldHeight(sample.x, sample.z);
+		KosmosChunks.convertTileToWorld(position, x + delta[0], z + delta[1], sample);
+		return KosmosChunks.getWorldHeight(world, sample.x, sample.z);
 	}
 
 	public List<Chunk> getChildrenChunks() {
@@ -237,10 +310,41 @@ public class Chunk extends Entity {
 		return chunkMesh;
 	}
 
+	/**
+	 * Gets the water over the tiles of this chunk that are below the waves.
+	 *
+	 * @return The water mesh, not loaded if no tile is under water.
+	 */
+	public WaterMesh getWaterMesh() {
+		return waterMesh;
+	}
+
+	public ChunkDecorations getDecorations() {
+		return decorations;
+	}
+
+	/**
+	 * Gets the height of the top tile at each tile index, used for ground queries.
+	 *
+	 * @return The heightfield, NaN for tiles outside the chunk, or null if the chunk has not been generated yet.
+	 */
+	public float[] getHeights() {
+		return heights;
+	}
+
 	public Sphere getSphere() {
 		return sphere;
 	}
 
+	/**
+	 * Gets if this chunk has work to do on its next update, chunks that are not awake can update less often.
+	 *
+	 * @return If the chunk is awake.
+	 */
+	public boolean isAwake() {
+		return !loaded || !chunkMesh.isSent() || createDepth != 0 || decorationsGenerated != null || texture != KosmosChunks.get().getTextureBiome();
+	}
+
 	public boolean isLoaded() {
 		return loaded; // chunkMesh.getModel() != null && chunkMesh.getModel().isLoaded()
 	}
@@ -249,10 +353,14 @@ public class Chunk extends Entity {
 		this.loaded = loaded;
 	}
 
-	public List<Vector3f> getEntitiesRemoved() {
+	public BitSet getEntitiesRemoved() {
 		return entitiesRemoved;
 	}
 
+	public boolean isEntityRemoved(int tile) {
+		return tile >= 0 && entitiesRemoved.get(tile);
+	}
+
 	public List<Entity> getEntitiesAdded() {
 		return entitiesAdded;
 	}
@@ -261,6 +369,10 @@ public class Chunk extends Entity {
 		entitiesAdded.add(entity);
 	}
 
+	public PickGrid getPickGrid() {
+		return pickGrid;
+	}
+
 	public void entityRemove(Entity entity) {
 		if (isRemoved()) {
 			return;
@@ -268,28 +380,45 @@ public class Chunk extends Entity {
 
 		FlounderLogger.get().log("Removing entity: " + entity);
 
-		if (entitiesAdded.contains(entity)) {
-			entitiesAdded.remove(entity);
+		// Only decorations are recorded by tile, placed entities share their tile with the decoration under them.
+		int tile = getDecorationTile(entity);
+
+		if (tile != -1) {
+			entitiesRemoved.set(tile);
 		} else {
-			entitiesRemoved.add(entity.getPosition());
+			entitiesAdded.remove(entity);
+			pickGrid.remove(entity);
 		}
 	}
 
-	public void entityRemove(Vector3f entity) {
-		if (isRemoved()) {
+	/**
+	 * Gets the tile of a promoted decoration entity.
+	 *
+	 * @param entity The entity to find.
+	 *
+	 * @return The chunk tile index, or -1 if the entity is not a decoration of this chunk.
+	 */
+	public int getDecorationTile(Entity entity) {
+		int tile = KosmosChunks.getTileIndex(getPosition(), entity.getPosition());
+		return tile != -1 && decorations.getPromoted(tile) == entity ? tile : -1;
+	}
+
+	public void entityRemove(int tile) {
+		if (isRemoved() || tile < 0 || tile >= KosmosChunks.CHUNK_TILE_COUNT) {
 			return;
 		}
 
-		FlounderLogger.get().log("Removing entity: " + entity);
-		entitiesRemoved.add(entity);
-		Entity entityWorld = null;
+		FlounderLogger.get().log("Removing entity on tile: " + tile);
+		entitiesRemoved.set(tile);
 
-		for (Entity e : FlounderEntities.get().getEntities().getAll(null)) {
-			if (e.getPosition().equals(entity) && e.getComponent(ComponentPlayer.class) == null && e.getComponent(ComponentMultiplayer.class) == null && e.getComponent(ComponentChunk.class) == null) {
-				entityWorld = e;
-			}
+		// Decorations that were never promoted only exist as instances.
+		if (decorations.remove(tile)) {
+			return;
 		}
 
+		// The promoted entity is taken first so its remove callback does not find it again.
+		Entity entityWorld = decorations.takePromoted(tile);
+
 		if (entityWorld != null) {
 			entityWorld.remove();
 		}
@@ -303,12 +432,12 @@ public class Chunk extends Entity {
 		String chunkKey = WorldDefinition.vectorToString(getPosition());
 
 		if (!KosmosWorld.get().getWorld().getChunkData().containsKey(chunkKey)) {
-			KosmosWorld.get().getWorld().getChunkData().put(chunkKey, new Pair<>(new ArrayList<>(), new ArrayList<>()));
+			KosmosWorld.get().getWorld().getChunkData().put(chunkKey, new Pair<>(new BitSet(), new ArrayList<>()));
 		}
 
-		Pair<List<Vector3f>, List<Entity>> data = KosmosWorld.get().getWorld().getChunkData().get(chunkKey);
+		Pair<BitSet, List<Entity>> data = KosmosWorld.get().getWorld().getChunkData().get(chunkKey);
 		data.getFirst().clear();
-		data.getFirst().addAll(entitiesRemoved);
+		data.getFirst().or(entitiesRemoved);
 		data.getSecond().clear();
 		data.getSecond().addAll(entitiesAdded);
 	}
@@ -320,6 +449,10 @@ public class Chunk extends Entity {
 
 	public void delete() {
 		chunkMesh.delete();
+		waterMesh.delete();
+		decorations.clear();
+		decorationsGenerated = null;
+		pickGrid.clear();
 		loaded = false;
 		forceRemove();
 		prepareSave();
@@ -0,0 +1,424 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.chunks;
+
+import flounder.entities.*;
+import flounder.entities.components.*;
+import flounder.maths.vectors.*;
+import flounder.physics.*;
+import flounder.physics.bounding.*;
+import flounder.space.*;
+
+import java.util.*;
+
+/**
+ * A spatial structure that buckets entities by the hexagon chunk they are over, on top of the engines entity structure.
+ * Entities are still added to the engines structure so they are updated and rendered, this structure only adds the chunk index used by Kosmos.
+ * Frustum, bounding and radius queries only visit buckets in range, and all entities a unloaded chunk owns are removed together.
+ */
+public class ChunkStructure implements ISpatialStructure<Entity> {
+	// The axial tile offsets between neighbouring chunk centres, every chunk centre is a sum of these.
+	private static final int[] CHUNK_A = new int[]{KosmosChunks.CHUNK_RADIUS - 1, KosmosChunks.CHUNK_RADIUS};
+	private static final int[] CHUNK_B = new int[]{-KosmosChunks.CHUNK_RADIUS, (2 * KosmosChunks.CHUNK_RADIUS) - 1};
+	private static final int CHUNK_DETERMINANT = (CHUNK_A[0] * CHUNK_B[1]) - (CHUNK_A[1] * CHUNK_B[0]);
+
+	// The distance from a chunk centre to its furthest tile corner.
+	private static final float BUCKET_RADIUS = (float) (((KosmosChunks.CHUNK_RADIUS - 1) * (Math.sqrt(3.0) / 2.0) * KosmosChunks.HEXAGON_SIDE_LENGTH) + KosmosChunks.HEXAGON_SIDE_LENGTH);
+
+	private final ISpatialStructure<Entity> delegate;
+	private final Map<Long, Bucket> buckets;
+	private final Map<Entity, Bucket> owners;
+	private final List<Chunk> chunks;
+	private final List<Chunk> chunksView;
+	private final Set<Entity> moved;
+	private int movedCount;
+
+	/**
+	 * Creates a new chunk structure.
+	 *
+	 * @param delegate The structure entities are also added to, this is usually the engines entity structure.
+	 */
+	public ChunkStructure(ISpatialStructure<Entity> delegate) {
+		this.delegate = delegate;
+		this.buckets = new HashMap<>();
+		this.owners = new HashMap<>();
+		this.chunks = new ArrayList<>();
+		this.chunksView = Collections.unmodifiableList(chunks);
+		this.moved = new LinkedHashSet<>();
+		this.movedCount = 0;
+	}
+
+	@Override
+	public void add(Entity object) {
+		delegate.add(object);
+		index(object);
+	}
+
+	@Override
+	public void remove(Entity object) {
+		delegate.remove(object);
+		unindex(object);
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+		buckets.clear();
+		owners.clear();
+		chunks.clear();
+		moved.clear();
+	}
+
+	@Override
+	public int getSize() {
+		return delegate.getSize();
+	}
+
+	@Override
+	public List<Entity> getAll(List<Entity> result) {
+		return delegate.getAll(result);
+	}
+
+	@Override
+	public List<Entity> queryInFrustum(Frustum range, List<Entity> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		for (Bucket bucket : buckets.values()) {
+			if (!bucket.entities.isEmpty() && bucket.getSphere().inFrustum(range)) {
+				for (Entity entity : bucket.entities) {
+					if (entity.getCollider() == null || entity.getCollider().inFrustum(range)) {
+						result.add(entity);
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public List<Entity> queryInBounding(Collider range, List<Entity> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		for (Bucket bucket : buckets.values()) {
+			if (!bucket.entities.isEmpty() && (range.intersects(bucket.getSphere()).isIntersection() || range.contains(bucket.getSphere()))) {
+				for (Entity entity : bucket.entities) {
+					Collider collider = entity.getCollider();
+
+					if (collider == null ? range.contains(entity.getPosition()) : range.intersects(collider).isIntersection() || range.contains(collider)) {
+						result.add(entity);
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Finds the entities with a position within a radius.
+	 *
+	 * @param position The position to search around.
+	 * @param radius The radius to search in.
+	 * @param result The list to add found entities to, can be null.
+	 *
+	 * @return The list of found entities.
+	 */
+	public List<Entity> queryInRadius(Vector3f position, float radius, List<Entity> result) {
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+
+		float radiusSquared = radius * radius;
+
+		for (Bucket bucket : buckets.values()) {
+			float bucketRange = radius + bucket.getSphere().getRadius();
+
+			if (bucket.entities.isEmpty() || Vector3f.getDistanceSquared(position, bucket.getSphere().getPosition()) > bucketRange * bucketRange) {
+				continue;
+			}
+
+			for (Entity entity : bucket.entities) {
+				if (Vector3f.getDistanceSquared(position, entity.getPosition()) <= radiusSquared) {
+					result.add(entity);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public boolean contains(ISpatialObject object) {
+		return delegate.contains(object);
+	}
+
+	@Override
+	public Iterator<Entity> iterator() {
+		return delegate.iterator();
+	}
+
+	/**
+	 * Queues a entity that moved to be re-indexed on the next update, a entity moved many times in a update is only re-indexed once.
+	 *
+	 * @param entity The entity that moved.
+	 */
+	public void markMoved(Entity entity) {
+		moved.add(entity);
+	}
+
+	/**
+	 * Moves the entities that moved since the last update into the bucket under their current position, called once per update.
+	 */
+	public void update() {
+		movedCount = 0;
+
+		for (Entity entity : moved) {
+			Bucket bucket = owners.get(entity);
+
+			if (bucket == null || entity instanceof Chunk) {
+				continue;
+			}
+
+			long key = getChunkKey(entity.getPosition().x, entity.getPosition().z);
+
+			if (key != bucket.key) {
+				bucket.entities.remove(entity);
+				removeIfEmpty(bucket);
+				bucket = getBucket(key);
+				bucket.entities.add(entity);
+				owners.put(entity, bucket);
+			}
+
+			bucket.include(entity.getPosition().y);
+			movedCount++;
+		}
+
+		moved.clear();
+	}
+
+	/**
+	 * Gets the number of entities re-indexed by the last update.
+	 *
+	 * @return The re-indexed entities.
+	 */
+	public int getMovedCount() {
+		return movedCount;
+	}
+
+	/**
+	 * Removes a chunk along with the entities that were promoted from its decorations.
+	 * Entities placed on the chunk are kept, as they are saved with the chunk and stay in the world.
+	 *
+	 * @param chunk The chunk to remove.
+	 */
+	public void removeChunk(Chunk chunk) {
+		// Found by position, as deleting the chunk may have already removed it from the bucket.
+		Bucket bucket = buckets.get(getChunkKey(chunk.getPosition().x, chunk.getPosition().z));
+		delegate.remove(chunk);
+		unindex(chunk);
+
+		if (bucket != null) {
+			Iterator<Entity> iterator = bucket.entities.iterator();
+
+			while (iterator.hasNext()) {
+				Entity entity = iterator.next();
+
+				if (isPromotedFrom(entity, chunk)) {
+					delegate.remove(entity);
+					owners.remove(entity);
+					iterator.remove();
+				}
+			}
+
+			removeIfEmpty(bucket);
+		}
+	}
+
+	private static boolean isPromotedFrom(Entity entity, Chunk chunk) {
+		ComponentChild child = (ComponentChild) entity.getComponent(ComponentChild.class);
+		return child != null && child.getParent() == chunk && !chunk.getEntitiesAdded().contains(entity);
+	}
+
+	private void index(Entity entity) {
+		Bucket bucket = getBucket(getChunkKey(entity.getPosition().x, entity.getPosition().z));
+		bucket.entities.add(entity);
+		bucket.include(entity.getPosition().y);
+		owners.put(entity, bucket);
+
+		if (entity instanceof Chunk) {
+			bucket.chunk = (Chunk) entity;
+			chunks.add((Chunk) entity);
+		}
+	}
+
+	private void unindex(Entity entity) {
+		moved.remove(entity);
+		Bucket bucket = owners.remove(entity);
+
+		if (bucket == null) {
+			return;
+		}
+
+		bucket.entities.remove(entity);
+
+		if (bucket.chunk == entity) {
+			bucket.chunk = null;
+			chunks.remove(entity);
+		}
+
+		removeIfEmpty(bucket);
+	}
+
+	private Bucket getBucket(long key) {
+		Bucket bucket = buckets.get(key);
+
+		if (bucket == null) {
+			bucket = new Bucket(key);
+			buckets.put(key, bucket);
+		}
+
+		return bucket;
+	}
+
+	private void removeIfEmpty(Bucket bucket) {
+		if (bucket.entities.isEmpty() && bucket.chunk == null) {
+			buckets.remove(bucket.key);
+		}
+	}
+
+	/**
+	 * Gets the chunk over a world position.
+	 *
+	 * @param position The world position, the y component is ignored.
+	 *
+	 * @return The chunk, or null if the chunk is not in the structure.
+	 */
+	public Chunk getChunk(Vector3f position) {
+		Bucket bucket = buckets.get(getChunkKey(position.x, position.z));
+		return bucket == null ? null : bucket.chunk;
+	}
+
+	/**
+	 * Gets the chunks in the structure.
+	 *
+	 * @return A read only view of the chunks.
+	 */
+	public List<Chunk> getChunks() {
+		return chunksView;
+	}
+
+	/**
+	 * Gets a key for the chunk over a world position, chunks are packed in a hexagon pattern with their centres on the tile grid.
+	 *
+	 * @param positionX The worlds X position.
+	 * @param positionZ The worlds Z position.
+	 *
+	 * @return The chunk key.
+	 */
+	public static long getChunkKey(float positionX, float positionZ) {
+		// Finds the tile in cube coordinates, so the tile is the hexagon the position is inside of.
+		double fz = (4.0 * positionZ) / (3.0 * KosmosChunks.HEXAGON_SIDE_LENGTH);
+		double fx = ((2.0 * positionX) / (Math.sqrt(3.0) * KosmosChunks.HEXAGON_SIDE_LENGTH)) - (fz / 2.0);
+		double fy = -fx - fz;
+		long rx = Math.round(fx);
+		long ry = Math.round(fy);
+		long rz = Math.round(fz);
+
+		if (Math.abs(rx - fx) > Math.abs(ry - fy) && Math.abs(rx - fx) > Math.abs(rz - fz)) {
+			rx = -ry - rz;
+		} else if (Math.abs(rz - fz) > Math.abs(ry - fy)) {
+			rz = -rx - ry;
+		}
+
+		// Solves for the chunk in the chunk grid, the tile belongs to one of the four chunks around that point.
+		double fi = ((CHUNK_B[1] * rx) - (CHUNK_B[0] * rz)) / (double) CHUNK_DETERMINANT;
+		double fj = ((CHUNK_A[0] * rz) - (CHUNK_A[1] * rx)) / (double) CHUNK_DETERMINANT;
+		int i = (int) Math.floor(fi);
+		int j = (int) Math.floor(fj);
+
+		for (int di = 0; di < 2; di++) {
+			for (int dj = 0; dj < 2; dj++) {
+				long lx = rx - ((CHUNK_A[0] * (i + di)) + (CHUNK_B[0] * (j + dj)));
+				long lz = rz - ((CHUNK_A[1] * (i + di)) + (CHUNK_B[1] * (j + dj)));
+
+				if (Math.max(Math.max(Math.abs(lx), Math.abs(lz)), Math.abs(lx + lz)) < KosmosChunks.CHUNK_RADIUS) {
+					return packKey(i + di, j + dj);
+				}
+			}
+		}
+
+		return packKey(i, j);
+	}
+
+	private static long packKey(int i, int j) {
+		return (((long) i) << 32) | (j & 0xffffffffL);
+	}
+
+	private static class Bucket {
+		private final long key;
+		private final List<Entity> entities;
+		private final Sphere sphere;
+		private final Vector3f centre;
+		private Chunk chunk;
+		private float minY;
+		private float maxY;
+		private boolean dirty;
+
+		private Bucket(long key) {
+			this.key = key;
+			this.entities = new ArrayList<>();
+			this.sphere = new Sphere(1.0f);
+			this.chunk = null;
+			this.minY = Float.POSITIVE_INFINITY;
+			this.maxY = Float.NEGATIVE_INFINITY;
+			this.dirty = true;
+
+			// The chunk centre, from the chunk grid position back into world space.
+			int i = (int) (key >> 32);
+			int j = (int) key;
+			double x = (CHUNK_A[0] * i) + (CHUNK_B[0] * j);
+			double z = (CHUNK_A[1] * i) + (CHUNK_B[1] * j);
+			this.centre = KosmosChunks.convertTileToWorld(new Vector3f(), x, z, null);
+		}
+
+		private void include(float y) {
+			if (y < minY) {
+				minY = y;
+				dirty = true;
+			}
+
+			if (y > maxY) {
+				maxY = y;
+				dirty = true;
+			}
+		}
+
+		/**
+		 * Gets a sphere around the chunk, tall enough to hold every entity seen in the bucket.
+		 *
+		 * @return The buckets sphere.
+		 */
+		private Sphere getSphere() {
+			if (dirty) {
+				float halfHeight = maxY < minY ? 0.0f : (maxY - minY) / 2.0f;
+				centre.y = maxY < minY ? 0.0f : minY + halfHeight;
+				sphere.update(centre, null, (float) Math.sqrt((BUCKET_RADIUS * BUCKET_RADIUS) + (halfHeight * halfHeight)), sphere);
+				dirty = false;
+			}
+
+			return sphere;
+		}
+	}
+}
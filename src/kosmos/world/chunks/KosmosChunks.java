@@ -17,15 +17,18 @@ import flounder.logger.*;
 import flounder.maths.*;
 import flounder.maths.vectors.*;
 import flounder.models.*;
-import flounder.networking.*;
 import flounder.physics.*;
 import flounder.physics.bounding.*;
 import flounder.resources.*;
 import flounder.tasks.*;
 import flounder.textures.*;
 import kosmos.*;
+import kosmos.entities.*;
+import kosmos.network.*;
+import kosmos.profiling.*;
 import kosmos.world.*;
 import kosmos.world.biomes.*;
+import kosmos.world.decorations.*;
 
 import javax.imageio.*;
 import java.awt.*;
@@ -45,18 +48,30 @@ public class KosmosChunks extends Module {
 	// The overall world radius footprint per chunk.
 	public static final float CHUNK_WORLD_SIZE = (float) Math.sqrt(3.0) * (CHUNK_RADIUS - 0.5f);
 
+	// The width of the axial tile grid bounding a chunk, tile indices are packed rows of this width.
+	public static final int CHUNK_TILE_WIDTH = (2 * CHUNK_RADIUS) - 1;
+
+	// The amount of tile indices in a chunk, not all are inside of the hexagon.
+	public static final int CHUNK_TILE_COUNT = CHUNK_TILE_WIDTH * CHUNK_TILE_WIDTH;
+
+	// The amount of hexagon models a tile can be built from.
+	public static final int HEXAGON_MODEL_COUNT = 8;
+
 	private Sphere chunkRange;
 	private ModelObject[] hexagons;
 
+	private Vector3f playerPos;
 	private Vector3f lastPlayerPos;
 	private Chunk currentChunk;
+	private ChunkStructure structure;
+	private EntityTickScheduler scheduler;
 
 	private int chunkDistance;
 
 	private TextureObject textureBiome;
 
 	public KosmosChunks() {
-		super(FlounderEvents.class, FlounderTasks.class, FlounderEntities.class, FlounderModels.class, FlounderTextures.class);
+		super(FlounderEvents.class, FlounderTasks.class, FlounderEntities.class, FlounderModels.class, FlounderTextures.class, KosmosProfiling.class);
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
@@ -73,8 +88,14 @@ public class KosmosChunks extends Module {
 				ModelFactory.newBuilder().setFile(new MyFile(MyFile.RES_FOLDER, "terrains", "models", "hexagon_5.obj")).create(), // 7
 		};
 
+		this.playerPos = new Vector3f();
 		this.lastPlayerPos = new Vector3f(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
 		this.currentChunk = null;
+		this.structure = new ChunkStructure(FlounderEntities.get().getEntities());
+
+		// Chunks next to the players chunk update every tick, each ring of chunks further out updates half as often.
+		float spacing = (float) (((2 * CHUNK_RADIUS) - 1) * (Math.sqrt(3.0) / 2.0) * HEXAGON_SIDE_LENGTH);
+		this.scheduler = new EntityTickScheduler(new float[]{1.5f * spacing, 2.5f * spacing, 3.5f * spacing}, new int[]{1, 2, 4, 8});
 
 		this.chunkDistance = KosmosConfigs.CHUNK_DISTANCE.getInteger();
 
@@ -176,12 +197,17 @@ public class KosmosChunks extends Module {
 
 	@Handler.Function(Handler.FLAG_UPDATE_PRE)
 	public void update() {
-		if (FlounderNetwork.get().getSocketServer() != null) {
+		// Moves entities that moved last update into the chunk buckets they are now over, servers move players too.
+		structure.update();
+
+		if (KosmosNetwork.get().getServer() != null) {
 			return;
 		}
 
+		KosmosProfiling.get().begin(KosmosChunks.class);
+
 		if (FlounderCamera.get().getPlayer() != null) {
-			Vector3f playerPos = new Vector3f(FlounderCamera.get().getPlayer().getPosition());
+			playerPos.set(FlounderCamera.get().getPlayer().getPosition());
 			playerPos.y = 0.0f;
 
 			Chunk playerChunk = null;
@@ -191,20 +217,26 @@ public class KosmosChunks extends Module {
 				chunkRange.update(playerPos, null, 1.0f, chunkRange);
 			}
 
-			// Goes though all chunks looking for changes.
-			for (Entity entity : FlounderEntities.get().getEntities().getAll(null)) {
-				if (entity != null && entity instanceof Chunk) {
-					Chunk chunk = (Chunk) entity;
+			scheduler.begin(playerPos);
 
-					// Checks if the player position is in this chunk.
-					if (chunk.isLoaded() && chunk.getSphere() != null && chunk.getSphere().contains(playerPos)) {
-						// This chunk is now the chunk with the player in it.
-						playerChunk = chunk;
-					}
+			// Goes though all chunks looking for changes, chunks created by a update are updated in the same pass.
+			for (int i = 0; i < structure.getChunks().size(); i++) {
+				Chunk chunk = structure.getChunks().get(i);
 
-					// Updates the chunk.
-					chunk.update();
+				// Checks if the player position is in this chunk.
+				if (chunk.isLoaded() && chunk.getSphere() != null && chunk.getSphere().contains(playerPos)) {
+					// This chunk is now the chunk with the player in it.
+					playerChunk = chunk;
 				}
+
+				// Promotes decorations near the player into entities so they can be picked and collided with.
+				if (chunk.isLoaded()) {
+					chunk.getDecorations().promoteNear(playerPos, ChunkDecorations.PROMOTE_RADIUS);
+					chunk.getDecorations().demoteFar(playerPos, ChunkDecorations.DEMOTE_RADIUS);
+				}
+
+				// Updates the chunk, far chunks with nothing to do update less often.
+				scheduler.tick(chunk, chunk.isAwake());
 			}
 
 			// This chunk is now the current chunk.
@@ -216,6 +248,8 @@ public class KosmosChunks extends Module {
 
 		// Renders the chunks range.
 		FlounderBounding.get().addShapeRender(chunkRange);
+
+		KosmosProfiling.get().end(KosmosChunks.class);
 	}
 
 	/**
@@ -258,13 +292,17 @@ public class KosmosChunks extends Module {
 	}
 
 	public static Vector3f convertTileToWorld(Chunk chunk, double x, double z, Vector3f destination) {
+		return convertTileToWorld(chunk.getPosition(), x, z, destination);
+	}
+
+	public static Vector3f convertTileToWorld(Vector3f chunkPosition, double x, double z, Vector3f destination) {
 		if (destination == null) {
 			destination = new Vector3f();
 		}
 
 		double wz = (3.0 / 4.0) * HEXAGON_SIDE_LENGTH * z;
 		double wx = (Math.sqrt(3.0) / 2.0) * HEXAGON_SIDE_LENGTH * ((z / 2.0) + x);
-		return destination.set((float) wx + chunk.getPosition().x, 0.0f, (float) wz + chunk.getPosition().z);
+		return destination.set((float) wx + chunkPosition.x, 0.0f, (float) wz + chunkPosition.z);
 	}
 
 	public static Vector2f convertWorldToTile(Chunk chunk, Vector3f worldPosition, Vector2f destination) {
@@ -277,6 +315,39 @@ public class KosmosChunks extends Module {
 		return destination.set((float) tx, (float) tz);
 	}
 
+	/**
+	 * Gets a stable index for a tile inside of a chunk.
+	 *
+	 * @param x The tiles x position in the chunk.
+	 * @param z The tiles z position in the chunk.
+	 *
+	 * @return The tile index, or -1 if the tile is outside of the chunk.
+	 */
+	public static int getTileIndex(int x, int z) {
+		int ix = x + CHUNK_RADIUS - 1;
+		int iz = z + CHUNK_RADIUS - 1;
+
+		if (ix < 0 || iz < 0 || ix >= CHUNK_TILE_WIDTH || iz >= CHUNK_TILE_WIDTH) {
+			return -1;
+		}
+
+		return (iz * CHUNK_TILE_WIDTH) + ix;
+	}
+
+	/**
+	 * Gets the stable index of the tile under a world position, relative to a chunks position.
+	 *
+	 * @param chunkPosition The position of the chunk.
+	 * @param worldPosition The world position.
+	 *
+	 * @return The tile index, or -1 if the position is outside of the chunk.
+	 */
+	public static int getTileIndex(Vector3f chunkPosition, Vector3f worldPosition) {
+		double tz = (4.0 * (worldPosition.z - chunkPosition.z)) / (3.0 * HEXAGON_SIDE_LENGTH);
+		double tx = ((2.0 * (worldPosition.x - chunkPosition.x)) / (Math.sqrt(3.0) * HEXAGON_SIDE_LENGTH)) - (tz / 2.0);
+		return getTileIndex((int) Math.round(tx), (int) Math.round(tz));
+	}
+
 	/**
 	 * Gets the island factor for a position in the world.
 	 *
@@ -286,16 +357,29 @@ public class KosmosChunks extends Module {
 	 * @return The island factor at that world position.
 	 */
 	public static float getIslandMap(float positionX, float positionZ) {
-		if (KosmosWorld.get().getWorld() == null) {
+		return getIslandMap(KosmosWorld.get().getWorld(), positionX, positionZ);
+	}
+
+	/**
+	 * Gets the island factor for a position in a world.
+	 *
+	 * @param world The world to sample.
+	 * @param positionX The worlds X position.
+	 * @param positionZ The worlds Z position.
+	 *
+	 * @return The island factor at that world position.
+	 */
+	public static float getIslandMap(WorldDefinition world, float positionX, float positionZ) {
+		if (world == null) {
 			return 0.0f;
 		}
 
 		float circular = (float) Math.sqrt(Math.pow(positionX, 2) + Math.pow(positionZ, 2)); // The current radius (circular map).
 		float rectangular = Math.max(Math.abs(positionX), Math.abs(positionZ)); // The current radius (rectangular map).
-		float reading = ((1.0f - KosmosWorld.get().getWorld().getWorldIslandParameter()) * circular) + (KosmosWorld.get().getWorld().getWorldIslandParameter() * rectangular);
+		float reading = ((1.0f - world.getWorldIslandParameter()) * circular) + (world.getWorldIslandParameter() * rectangular);
 
-		float radius1 = KosmosWorld.get().getWorld().getWorldIslandInside() * (KosmosWorld.get().getWorld().getWorldSize() / 2.0f); // The inside radius to the blur.
-		float radius2 = KosmosWorld.get().getWorld().getWorldIslandOutside() * (KosmosWorld.get().getWorld().getWorldSize() / 2.0f); // The outside radius to the blur.
+		float radius1 = world.getWorldIslandInside() * (world.getWorldSize() / 2.0f); // The inside radius to the blur.
+		float radius2 = world.getWorldIslandOutside() * (world.getWorldSize() / 2.0f); // The outside radius to the blur.
 
 		if (positionX == 0.0f && positionZ == 0.0f) { // The special case where the reading is undefined.
 			return 1.0f;
@@ -334,12 +418,25 @@ public class KosmosChunks extends Module {
 
 		// Returns the final height,
 		return height;*/
+		return getHeightMap(KosmosWorld.get().getWorld(), positionX, positionZ);
+	}
+
+	/**
+	 * Gets the terrain height for a position in a world.
+	 *
+	 * @param world The world to sample.
+	 * @param positionX The worlds X position.
+	 * @param positionZ The worlds Z position.
+	 *
+	 * @return The found height at that world position.
+	 */
+	public static float getHeightMap(WorldDefinition world, float positionX, float positionZ) {
 		// Gets the height from a perlin noise map and from the island factor.
-		float island = getIslandMap(positionX, positionZ);
-		float height = island * 1.70f * KosmosWorld.get().getWorld().getNoise().turbulence(
-				(positionX + KosmosWorld.get().getWorld().getWorldSize()) / KosmosWorld.get().getWorld().getWorldNoiseSpread(),
-				(positionZ + KosmosWorld.get().getWorld().getWorldSize()) / KosmosWorld.get().getWorld().getWorldNoiseSpread(),
-				KosmosWorld.get().getWorld().getWorldNoiseFrequency()
+		float island = getIslandMap(world, positionX, positionZ);
+		float height = island * 1.70f * world.getNoise().turbulence(
+				(positionX + world.getWorldSize()) / world.getWorldNoiseSpread(),
+				(positionZ + world.getWorldSize()) / world.getWorldNoiseSpread(),
+				world.getWorldNoiseFrequency()
 		);
 		height = Maths.clamp(height, 0.0f, 1.0f);
 
@@ -370,7 +467,20 @@ public class KosmosChunks extends Module {
 		// Returns the final height,
 		return (int) height * (float) Math.sqrt(2.0);*/
 
-		float height = getHeightMap(positionX, positionZ) * KosmosWorld.get().getWorld().getWorldNoiseHeight();
+		return getWorldHeight(KosmosWorld.get().getWorld(), positionX, positionZ);
+	}
+
+	/**
+	 * Gets the world terrain height for a position in a world.
+	 *
+	 * @param world The world to sample.
+	 * @param positionX The worlds X position.
+	 * @param positionZ The worlds Z position.
+	 *
+	 * @return The found height at that world position.
+	 */
+	public static float getWorldHeight(WorldDefinition world, float positionX, float positionZ) {
+		float height = getHeightMap(world, positionX, positionZ) * world.getWorldNoiseHeight();
 		height = (float) Math.sqrt(2.0) * (int) height;
 		height -= 5.6f;
 
@@ -392,11 +502,57 @@ public class KosmosChunks extends Module {
 	 * @return The found height at that world position.
 	 */
 	public static float roundedHeight(Chunk chunk, Vector3f worldPosition) {
-		Vector2f tilePosition = convertWorldToTile(chunk, worldPosition, null);
-		tilePosition.x = Math.round(tilePosition.x);
-		tilePosition.y = Math.round(tilePosition.y);
-		Vector3f roundedPosition = convertTileToWorld(chunk, tilePosition.x, tilePosition.y, null);
-		return getWorldHeight(roundedPosition.x, roundedPosition.z);
+		return getGroundHeight(chunk, worldPosition.x, worldPosition.z);
+	}
+
+	/**
+	 * Gets the height of the tile under a world position, read from the chunks cached heightfield when it has one.
+	 * The position is rounded to the centre of its tile like {@link #roundedHeight(Chunk, Vector3f)}, falling back to sampling the noise when the tile is not cached.
+	 *
+	 * @param chunk The chunk to read the heightfield from, can be null.
+	 * @param positionX The worlds X position.
+	 * @param positionZ The worlds Z position.
+	 *
+	 * @return The found height at that world position.
+	 */
+	public static float getGroundHeight(Chunk chunk, float positionX, float positionZ) {
+		float height = getCachedHeight(chunk, positionX, positionZ);
+
+		if (!Float.isNaN(height)) {
+			return height;
+		}
+
+		// Chunk centres are on the tile grid, so tiles can be rounded from the world origin without a chunk.
+		float chunkX = chunk == null ? 0.0f : chunk.getPosition().x;
+		float chunkZ = chunk == null ? 0.0f : chunk.getPosition().z;
+		double tz = (4.0 * (positionZ - chunkZ)) / (3.0 * HEXAGON_SIDE_LENGTH);
+		double tx = Math.round(((2.0 * (positionX - chunkX)) / (Math.sqrt(3.0) * HEXAGON_SIDE_LENGTH)) - (tz / 2.0));
+		tz = Math.round(tz);
+		double wz = (3.0 / 4.0) * HEXAGON_SIDE_LENGTH * tz;
+		double wx = (Math.sqrt(3.0) / 2.0) * HEXAGON_SIDE_LENGTH * ((tz / 2.0) + tx);
+		return getWorldHeight((float) wx + chunkX, (float) wz + chunkZ);
+	}
+
+	/**
+	 * Gets the cached height of the tile under a world position.
+	 *
+	 * @param chunk The chunk to read the heightfield from, can be null.
+	 * @param positionX The worlds X position.
+	 * @param positionZ The worlds Z position.
+	 *
+	 * @return The cached height, or NaN if the tile is not in the chunks heightfield.
+	 */
+	private static float getCachedHeight(Chunk chunk, float positionX, float positionZ) {
+		float[] heights = chunk == null ? null : chunk.getHeights();
+
+		if (heights == null) {
+			return Float.NaN;
+		}
+
+		double tz = (4.0 * (positionZ - chunk.getPosition().z)) / (3.0 * HEXAGON_SIDE_LENGTH);
+		double tx = ((2.0 * (positionX - chunk.getPosition().x)) / (Math.sqrt(3.0) * HEXAGON_SIDE_LENGTH)) - (tz / 2.0);
+		int index = getTileIndex((int) Math.round(tx), (int) Math.round(tz));
+		return index == -1 ? Float.NaN : heights[index];
 	}
 
 	/**
@@ -408,7 +564,20 @@ public class KosmosChunks extends Module {
 	 * @return The moisture at that world position.
 	 */
 	public static float getMoistureMap(float positionX, float positionZ) {
-		float height = getHeightMap(positionX, positionZ);
+		return getMoistureMap(KosmosWorld.get().getWorld(), positionX, positionZ);
+	}
+
+	/**
+	 * Gets the moisture for a position in a world.
+	 *
+	 * @param world The world to sample.
+	 * @param positionX The worlds X position.
+	 * @param positionZ The worlds Z position.
+	 *
+	 * @return The moisture at that world position.
+	 */
+	public static float getMoistureMap(WorldDefinition world, float positionX, float positionZ) {
+		float height = getHeightMap(world, positionX, positionZ);
 
 		// Calculate the moisture as a inverse of height with added noise.
 		float moisture = height;
@@ -417,7 +586,7 @@ public class KosmosChunks extends Module {
 		if (height <= 0.0f) {
 			moisture = 1.0f;
 		} else {
-			moisture += KosmosWorld.get().getWorld().getNoise().turbulence(positionX / 150.0f, positionZ / 150.0f, 16.0f);
+			moisture += world.getNoise().turbulence(positionX / 150.0f, positionZ / 150.0f, 16.0f);
 		}
 
 		moisture = Maths.clamp(moisture, 0.0f, 1.0f);
@@ -434,8 +603,21 @@ public class KosmosChunks extends Module {
 	 * @return The biome at that world position.
 	 */
 	public static IBiome.Biomes getBiomeMap(float positionX, float positionZ) {
-		float height = getHeightMap(positionX, positionZ);
-		float moisture = getMoistureMap(positionX, positionZ);
+		return getBiomeMap(KosmosWorld.get().getWorld(), positionX, positionZ);
+	}
+
+	/**
+	 * Gets the biome for a position in a world.
+	 *
+	 * @param world The world to sample.
+	 * @param positionX The worlds X position.
+	 * @param positionZ The worlds Z position.
+	 *
+	 * @return The biome at that world position.
+	 */
+	public static IBiome.Biomes getBiomeMap(WorldDefinition world, float positionX, float positionZ) {
+		float height = getHeightMap(world, positionX, positionZ);
+		float moisture = getMoistureMap(world, positionX, positionZ);
 
 		if (height <= 0.125f) {
 			// Ocean.
@@ -498,10 +680,79 @@ public class KosmosChunks extends Module {
 		return IBiome.Biomes.OCEAN;
 	}
 
+	/**
+	 * Gets the ground height under a world position, read from the current chunk or the chunks around it before sampling the noise.
+	 *
+	 * @param positionX The worlds X position.
+	 * @param positionZ The worlds Z position.
+	 *
+	 * @return The found height at that world position.
+	 */
+	public float getGroundHeight(float positionX, float positionZ) {
+		Chunk current = this.currentChunk;
+
+		if (current != null) {
+			float height = getCachedHeight(current, positionX, positionZ);
+
+			if (!Float.isNaN(height)) {
+				return height;
+			}
+
+			for (Chunk child : current.getChildrenChunks()) {
+				height = getCachedHeight(child, positionX, positionZ);
+
+				if (!Float.isNaN(height)) {
+					return height;
+				}
+			}
+		}
+
+		return getGroundHeight(current, positionX, positionZ);
+	}
+
+	/**
+	 * Finds the entities the player can pick within a radius of a position, from the pick grids of the current chunk and the chunks around it.
+	 *
+	 * @param position The position to search around.
+	 * @param radius The radius to search in.
+	 * @param destination The list to add found entities to.
+	 */
+	public void getPickable(Vector3f position, float radius, java.util.List<Entity> destination) {
+		Chunk current = this.currentChunk;
+
+		if (current == null) {
+			return;
+		}
+
+		current.getPickGrid().query(position, radius, destination);
+
+		for (Chunk child : current.getChildrenChunks()) {
+			child.getPickGrid().query(position, radius, destination);
+		}
+	}
+
 	public Chunk getCurrent() {
 		return this.currentChunk;
 	}
 
+	/**
+	 * Gets the structure Kosmos entities are added to, it buckets them by chunk on top of the engines entity structure.
+	 *
+	 * @return The chunk structure.
+	 */
+	public ChunkStructure getStructure() {
+		return this.structure;
+	}
+
+	/**
+	 * Gets the scheduler that decides which chunks update each tick.
+	 *
+	 * @return The chunk tick scheduler.
+	 */
+	public EntityTickScheduler getScheduler() {
+		return this.scheduler;
+	}
+
 	/**
 	 * Sets the current chunk that that player is contained in. This will generate surrounding chunks.
 	 *
@@ -510,19 +761,13 @@ public class KosmosChunks extends Module {
 	public void setCurrent(Chunk currentChunk) {
 		if (currentChunk != null && this.currentChunk != currentChunk) {
 			// Removes any old chunks that are out of range.
-			Iterator<Entity> it = FlounderEntities.get().getEntities().iterator();
-
-			while (it.hasNext()) {
-				Entity entity = it.next();
+			for (int i = structure.getChunks().size() - 1; i >= 0; i--) {
+				Chunk chunk = structure.getChunks().get(i);
 
-				if (entity != null && entity instanceof Chunk) {
-					Chunk chunk = (Chunk) entity;
-
-					if (chunk != currentChunk && chunk.isLoaded()) {
-						if (!chunk.getSphere().intersects(this.chunkRange).isIntersection() && !this.chunkRange.contains(chunk.getSphere())) {
-							chunk.delete();
-							it.remove();
-						}
+				if (chunk != currentChunk && chunk.isLoaded()) {
+					if (!chunk.getSphere().intersects(this.chunkRange).isIntersection() && !this.chunkRange.contains(chunk.getSphere())) {
+						chunk.delete();
+						structure.removeChunk(chunk);
 					}
 				}
 			}
@@ -536,17 +781,13 @@ public class KosmosChunks extends Module {
 	}
 
 	public void prepareSave() {
-		if (FlounderNetwork.get().getSocketServer() != null) {
+		if (KosmosNetwork.get().getServer() != null) {
 			return;
 		}
 
 		// Goes though all chunks looking for saving chunks.
-		for (Entity entity : FlounderEntities.get().getEntities().getAll(null)) {
-			if (entity != null && entity instanceof Chunk) {
-				Chunk chunk = (Chunk) entity;
-
-				chunk.prepareSave();
-			}
+		for (Chunk chunk : structure.getChunks()) {
+			chunk.prepareSave();
 		}
 	}
 
@@ -557,21 +798,15 @@ public class KosmosChunks extends Module {
 	 */
 	public void clear(boolean loadCurrent) {
 		// Removes any chunks in the entity list.
-		Iterator<Entity> it = FlounderEntities.get().getEntities().iterator();
-
-		while (it.hasNext()) {
-			Entity entity = it.next();
-
-			if (entity != null && entity instanceof Chunk) {
-				Chunk chunk = (Chunk) entity;
-				chunk.delete();
-				it.remove();
-			}
+		for (int i = structure.getChunks().size() - 1; i >= 0; i--) {
+			Chunk chunk = structure.getChunks().get(i);
+			chunk.delete();
+			structure.removeChunk(chunk);
 		}
 
 		// Sets up the new root chunk.
 		if (loadCurrent && currentChunk != null) {
-			setCurrent(new Chunk(FlounderEntities.get().getEntities(), currentChunk.getPosition()));
+			setCurrent(new Chunk(structure, currentChunk.getPosition()));
 		} else {
 			currentChunk = null;
 			lastPlayerPos.set(0.0f, 0.0f, 0.0f);
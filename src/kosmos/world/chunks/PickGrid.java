@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.chunks;
+
+import flounder.entities.*;
+import flounder.maths.vectors.*;
+
+import java.util.*;
+
+/**
+ * The entities placed on a chunk that the player can select or remove, bucketed by the tile they stand on.
+ * Picking only visits the few tiles around the player instead of every entity in view.
+ */
+public class PickGrid {
+	private final Chunk chunk;
+	private final Entity[][] cells;
+	private final int[] counts;
+	private int total;
+
+	/**
+	 * Creates a new empty pick grid.
+	 *
+	 * @param chunk The chunk the grid covers.
+	 */
+	public PickGrid(Chunk chunk) {
+		this.chunk = chunk;
+		this.cells = new Entity[KosmosChunks.CHUNK_TILE_COUNT][];
+		this.counts = new int[KosmosChunks.CHUNK_TILE_COUNT];
+		this.total = 0;
+	}
+
+	/**
+	 * Adds a entity to the tile under its position, entities outside of the chunk are ignored.
+	 *
+	 * @param entity The entity to add.
+	 */
+	public void add(Entity entity) {
+		int tile = KosmosChunks.getTileIndex(chunk.getPosition(), entity.getPosition());
+
+		if (tile == -1) {
+			return;
+		}
+
+		if (cells[tile] == null) {
+			cells[tile] = new Entity[2];
+		} else if (counts[tile] == cells[tile].length) {
+			cells[tile] = Arrays.copyOf(cells[tile], cells[tile].length * 2);
+		}
+
+		cells[tile][counts[tile]++] = entity;
+		total++;
+	}
+
+	/**
+	 * Removes a entity from the grid.
+	 *
+	 * @param entity The entity to remove.
+	 */
+	public void remove(Entity entity) {
+		int tile = KosmosChunks.getTileIndex(chunk.getPosition(), entity.getPosition());
+
+		if (tile == -1) {
+			return;
+		}
+
+		for (int i = 0; i < counts[tile]; i++) {
+			if (cells[tile][i] == entity) {
+				removeSlot(tile, i);
+				return;
+			}
+		}
+	}
+
+	private void removeSlot(int tile, int slot) {
+		// Moves the last entity on the tile into the removed slot.
+		int last = --counts[tile];
+		cells[tile][slot] = cells[tile][last];
+		cells[tile][last] = null;
+		total--;
+	}
+
+	/**
+	 * Finds the entities on tiles within a radius of a position, entities that have been removed are dropped from the grid as they are found.
+	 *
+	 * @param position The position to search around, the y component is ignored.
+	 * @param radius The radius to search in.
+	 * @param destination The list to add found entities to.
+	 */
+	public void query(Vector3f position, float radius, List<Entity> destination) {
+		if (total == 0) {
+			return;
+		}
+
+		double tz = (4.0 * (position.z - chunk.getPosition().z)) / (3.0 * KosmosChunks.HEXAGON_SIDE_LENGTH);
+		double tx = ((2.0 * (position.x - chunk.getPosition().x)) / (Math.sqrt(3.0) * KosmosChunks.HEXAGON_SIDE_LENGTH)) - (tz / 2.0);
+		int cx = (int) Math.round(tx);
+		int cz = (int) Math.round(tz);
+
+		// The tile range that covers the radius, plus one as the position is rounded to a tile.
+		int range = 1 + (int) Math.ceil(radius / ((Math.sqrt(3.0) / 2.0) * KosmosChunks.HEXAGON_SIDE_LENGTH));
+
+		for (int dx = -range; dx <= range; dx++) {
+			for (int dz = Math.max(-range, -dx - range); dz <= Math.min(range, -dx + range); dz++) {
+				int tile = KosmosChunks.getTileIndex(cx + dx, cz + dz);
+
+				if (tile == -1) {
+					continue;
+				}
+
+				for (int i = counts[tile] - 1; i >= 0; i--) {
+					if (cells[tile][i].isRemoved()) {
+						removeSlot(tile, i);
+					} else {
+						destination.add(cells[tile][i]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes every entity.
+	 */
+	public void clear() {
+		for (int i = 0; i < cells.length; i++) {
+			if (cells[i] != null) {
+				Arrays.fill(cells[i], null);
+			}
+		}
+
+		Arrays.fill(counts, 0);
+		total = 0;
+	}
+
+	public int getTotal() {
+		return total;
+	}
+}
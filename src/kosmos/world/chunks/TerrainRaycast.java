@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.chunks;
+
+import flounder.maths.vectors.*;
+
+/**
+ * Casts rays against the terrain by walking the hexagon tiles the ray passes over, in order, and testing each against its cached tile height.
+ * Each step finds which of the three pairs of hexagon edges the ray leaves through first, like a grid DDA but in axial tile coordinates.
+ * A raycast keeps its hit in fields so it can be reused without allocating.
+ */
+public class TerrainRaycast {
+	// The face of a tile hit from above, faces 0 to 5 are the sides facing the matching entry in DIRECTIONS.
+	public static final int FACE_TOP = 6;
+	public static final int FACE_NONE = -1;
+
+	// The axial offsets to the six neighbouring tiles, opposite directions are three apart.
+	public static final int[][] DIRECTIONS = new int[][]{{1, 0}, {0, 1}, {-1, 1}, {-1, 0}, {0, -1}, {1, -1}};
+
+	// The distance between neighbouring tile centres, tile edges are half of this from the centre.
+	private static final double TILE_SPACING = (Math.sqrt(3.0) / 2.0) * KosmosChunks.HEXAGON_SIDE_LENGTH;
+
+	// How far the top of a tile model is above half of its height.
+	private static final float TILE_TOP_OFFSET = (float) (Math.sqrt(2.0) * 0.25);
+
+	// A limit on tiles walked, should a ray get stuck on a tile edge.
+	private static final int MAX_STEPS = 4096;
+
+	private static final double[] NORMAL_X = new double[3];
+	private static final double[] NORMAL_Z = new double[3];
+
+	static {
+		// The world directions to the first three neighbours, as unit vectors.
+		for (int i = 0; i < 3; i++) {
+			NORMAL_X[i] = ((DIRECTIONS[i][1] / 2.0) + DIRECTIONS[i][0]) * (Math.sqrt(3.0) / 2.0) * KosmosChunks.HEXAGON_SIDE_LENGTH / TILE_SPACING;
+			NORMAL_Z[i] = DIRECTIONS[i][1] * (3.0 / 4.0) * KosmosChunks.HEXAGON_SIDE_LENGTH / TILE_SPACING;
+		}
+	}
+
+	private Chunk chunk;
+	private int tileX;
+	private int tileZ;
+	private float height;
+	private int face;
+	private float distance;
+	private int steps;
+
+	/**
+	 * Creates a new terrain raycast with no hit.
+	 */
+	public TerrainRaycast() {
+		this.face = FACE_NONE;
+	}
+
+	/**
+	 * Casts a ray against the terrain, the first tile hit is kept in this raycast.
+	 * Tiles are read from the chunks heightfields, searching outwards from the last chunk hit and the current chunk, tiles outside loaded chunks are sampled from the noise.
+	 *
+	 * @param origin The rays origin.
+	 * @param direction The rays direction, does not need to be normalized.
+	 * @param range The furthest distance along the ray to test.
+	 *
+	 * @return If a tile was hit.
+	 */
+	public boolean cast(Vector3f origin, Vector3f direction, float range) {
+		this.face = FACE_NONE;
+		this.steps = 0;
+
+		double length = Math.sqrt((direction.x * direction.x) + (direction.y * direction.y) + (direction.z * direction.z));
+
+		if (length == 0.0) {
+			return false;
+		}
+
+		double dx = direction.x / length;
+		double dy = direction.y / length;
+		double dz = direction.z / length;
+
+		// Finds the tile containing the origin, rounding in cube coordinates so the tile is the hexagon the origin is inside of.
+		double fz = (4.0 * origin.z) / (3.0 * KosmosChunks.HEXAGON_SIDE_LENGTH);
+		double fx = ((2.0 * origin.x) / (Math.sqrt(3.0) * KosmosChunks.HEXAGON_SIDE_LENGTH)) - (fz / 2.0);
+		double fy = -fx - fz;
+		long rx = Math.round(fx);
+		long ry = Math.round(fy);
+		long rz = Math.round(fz);
+
+		if (Math.abs(rx - fx) > Math.abs(ry - fy) && Math.abs(rx - fx) > Math.abs(rz - fz)) {
+			rx = -ry - rz;
+		} else if (Math.abs(rz - fz) > Math.abs(ry - fy)) {
+			rz = -rx - ry;
+		}
+
+		int x = (int) rx;
+		int z = (int) rz;
+		int entered = FACE_TOP;
+		double t = 0.0;
+
+		if (chunk == null) {
+			chunk = KosmosChunks.get().getCurrent();
+		}
+
+		while (steps++ < MAX_STEPS) {
+			double centreX = TILE_SPACING * ((z / 2.0) + x);
+			double centreZ = (3.0 / 4.0) * KosmosChunks.HEXAGON_SIDE_LENGTH * z;
+
+			// Finds the distance along the ray where it leaves this tile.
+			double exit = range;
+			int exitDirection = -1;
+
+			for (int i = 0; i < 3; i++) {
+				double speed = (dx * NORMAL_X[i]) + (dz * NORMAL_Z[i]);
+
+				if (Math.abs(speed) < 1.0e-9) {
+					continue;
+				}
+
+				double offset = ((origin.x - centreX) * NORMAL_X[i]) + ((origin.z - centreZ) * NORMAL_Z[i]);
+				double cross = (((speed > 0.0 ? 0.5 : -0.5) * TILE_SPACING) - offset) / speed;
+
+				if (cross < exit) {
+					exit = Math.max(cross, t);
+					exitDirection = speed > 0.0 ? i : i + 3;
+				}
+			}
+
+			float tileHeight = getTileHeight(x, z);
+			double surface = (tileHeight * 0.5) + TILE_TOP_OFFSET;
+			double enterY = origin.y + (dy * t);
+			double exitY = origin.y + (dy * exit);
+
+			if (enterY <= surface) {
+				// The ray is below this tile as it enters, so it hit the side it came through.
+				return hit(x, z, tileHeight, entered, (float) t);
+			} else if (exitY <= surface) {
+				return hit(x, z, tileHeight, FACE_TOP, (float) (t + ((enterY - surface) / (enterY - exitY)) * (exit - t)));
+			}
+
+			if (exitDirection == -1 || exit >= range) {
+				break;
+			}
+
+			x += DIRECTIONS[exitDirection][0];
+			z += DIRECTIONS[exitDirection][1];
+			entered = (exitDirection + 3) % 6;
+			t = exit;
+		}
+
+		return false;
+	}
+
+	private boolean hit(int x, int z, float tileHeight, int face, float distance) {
+		this.tileX = x;
+		this.tileZ = z;
+		this.height = tileHeight;
+		this.face = face;
+		this.distance = distance;
+		return true;
+	}
+
+	/**
+	 * Gets the height of a tile, updating the chunk to the one that contains the tile.
+	 *
+	 * @param x The tiles world axial x position.
+	 * @param z The tiles world axial z position.
+	 *
+	 * @return The tiles height.
+	 */
+	private float getTileHeight(int x, int z) {
+		chunk = findChunk(x, z);
+
+		if (chunk != null && chunk.getHeights() != null) {
+			int index = KosmosChunks.getTileIndex(x - getChunkTileX(chunk), z - getChunkTileZ(chunk));
+			float cached = index == -1 ? Float.NaN : chunk.getHeights()[index];
+
+			if (!Float.isNaN(cached)) {
+				return cached;
+			}
+		}
+
+		return KosmosChunks.getWorldHeight((float) (TILE_SPACING * ((z / 2.0) + x)), (float) ((3.0 / 4.0) * KosmosChunks.HEXAGON_SIDE_LENGTH * z));
+	}
+
+	private Chunk findChunk(int x, int z) {
+		if (chunk != null) {
+			if (contains(chunk, x, z)) {
+				return chunk;
+			}
+
+			// Rays leave a chunk into one of its neighbours.
+			for (Chunk child : chunk.getChildrenChunks()) {
+				if (contains(child, x, z)) {
+					return child;
+				}
+			}
+		}
+
+		Chunk current = KosmosChunks.get().getCurrent();
+
+		if (current != null) {
+			if (contains(current, x, z)) {
+				return current;
+			}
+
+			for (Chunk child : current.getChildrenChunks()) {
+				if (contains(child, x, z)) {
+					return child;
+				}
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean contains(Chunk chunk, int x, int z) {
+		int lx = x - getChunkTileX(chunk);
+		int lz = z - getChunkTileZ(chunk);
+		return Math.max(Math.max(Math.abs(lx), Math.abs(lz)), Math.abs(lx + lz)) < KosmosChunks.CHUNK_RADIUS;
+	}
+
+	private static int getChunkTileX(Chunk chunk) {
+		double tz = (4.0 * chunk.getPosition().z) / (3.0 * KosmosChunks.HEXAGON_SIDE_LENGTH);
+		return (int) Math.round(((2.0 * chunk.getPosition().x) / (Math.sqrt(3.0) * KosmosChunks.HEXAGON_SIDE_LENGTH)) - (tz / 2.0));
+	}
+
+	private static int getChunkTileZ(Chunk chunk) {
+		return (int) Math.round((4.0 * chunk.getPosition().z) / (3.0 * KosmosChunks.HEXAGON_SIDE_LENGTH));
+	}
+
+	/**
+	 * Gets if the last cast hit a tile.
+	 *
+	 * @return If a tile was hit.
+	 */
+	public boolean isHit() {
+		return face != FACE_NONE;
+	}
+
+	/**
+	 * Gets the chunk the hit tile is in.
+	 *
+	 * @return The chunk, or null if the tile is outside of the loaded chunks.
+	 */
+	public Chunk getChunk() {
+		return isHit() ? chunk : null;
+	}
+
+	/**
+	 * Gets the hit tiles x position inside of its chunk, as used by {@link KosmosChunks#getTileIndex(int, int)}.
+	 *
+	 * @return The tile x position.
+	 */
+	public int getChunkTileX() {
+		return chunk == null ? tileX : tileX - getChunkTileX(chunk);
+	}
+
+	/**
+	 * Gets the hit tiles z position inside of its chunk, as used by {@link KosmosChunks#getTileIndex(int, int)}.
+	 *
+	 * @return The tile z position.
+	 */
+	public int getChunkTileZ() {
+		return chunk == null ? tileZ : tileZ - getChunkTileZ(chunk);
+	}
+
+	/**
+	 * Gets the world position of the hit tiles centre.
+	 *
+	 * @param destination The vector to store the position in, can be null.
+	 *
+	 * @return The destination, with the tiles height as y.
+	 */
+	public Vector3f getTilePosition(Vector3f destination) {
+		if (destination == null) {
+			destination = new Vector3f();
+		}
+
+		return destination.set((float) (TILE_SPACING * ((tileZ / 2.0) + tileX)), height, (float) ((3.0 / 4.0) * KosmosChunks.HEXAGON_SIDE_LENGTH * tileZ));
+	}
+
+	public int getTileX() {
+		return tileX;
+	}
+
+	public int getTileZ() {
+		return tileZ;
+	}
+
+	public float getHeight() {
+		return height;
+	}
+
+	public int getFace() {
+		return face;
+	}
+
+	public float getDistance() {
+		return distance;
+	}
+
+	public int getSteps() {
+		return steps;
+	}
+}
@@ -13,6 +13,8 @@ import flounder.models.*;
 import flounder.processing.*;
 import kosmos.world.chunks.*;
 
+import java.util.*;
+
 public class ChunkMesh {
 	protected Chunk chunk;
 	protected ModelObject chunkModel;
@@ -37,7 +39,7 @@ public class ChunkMesh {
 
 		// If not built, build.
 		if (!sent && !built) {
-			FlounderProcessors.get().sendRequest(new MeshBuildRequest(this, chunk.generate()));
+			FlounderProcessors.get().sendRequest(new MeshBuildRequest(this, (BitSet) chunk.getEntitiesRemoved().clone()));
 			sent = true;
 			built = true;
 		}
@@ -47,6 +49,15 @@ public class ChunkMesh {
 		return chunkModel;
 	}
 
+	/**
+	 * Gets if the mesh build has been requested, the chunk is loaded once the request finishes.
+	 *
+	 * @return If the build was requested.
+	 */
+	public boolean isSent() {
+		return sent;
+	}
+
 	public void delete() {
 		if (chunkModel != null) {
 			chunkModel.delete();
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.chunks.meshing;
+
+import flounder.maths.*;
+import flounder.maths.vectors.*;
+import kosmos.world.*;
+import kosmos.world.biomes.*;
+import kosmos.world.chunks.*;
+
+import java.util.*;
+
+/**
+ * Assembles the tiles of a chunk into a single indexed mesh, this only works on plain arrays so it can run without OpenGL.
+ */
+public class MeshAssembly {
+	private float[] vertices;
+	private float[] textures;
+	private float[] normals;
+	private float[] tangents;
+	private int[] indices;
+
+	private float minX, minY, minZ;
+	private float maxX, maxY, maxZ;
+
+	private MeshAssembly() {
+	}
+
+	/**
+	 * Assembles a chunks tiles into a mesh.
+	 *
+	 * @param world The world the chunk is in.
+	 * @param chunkPosition The position of the chunk.
+	 * @param chunkData The chunk position and hexagon model map.
+	 * @param hexagons The hexagon tile models, in the same order as the model map.
+	 *
+	 * @return The assembled mesh, or null if there are no tiles.
+	 */
+	public static MeshAssembly assemble(WorldDefinition world, Vector3f chunkPosition, Map<Vector3f, Boolean[]> chunkData, TileModel[] hexagons) {
+		if (chunkData.isEmpty()) {
+			return null;
+		}
+
+		MeshAssembly result = new MeshAssembly();
+
+		// The array to store all chunk vertices into.
+		List<TileVertex> vertices = new ArrayList<>();
+
+		int side = (int) Math.ceil(Math.sqrt(IBiome.Biomes.values().length));
+
+		int indexOffset = 0;
+
+		// Loads all tiles into a tile mesh with all positional instances within the chunk.
+		for (Vector3f tile : chunkData.keySet()) {
+			Vector2f tilePosition = KosmosChunks.convertChunkToTile(tile, null);
+			Vector3f worldPosition = KosmosChunks.convertTileToWorld(chunkPosition, tilePosition.x, tilePosition.y, null);
+			IBiome.Biomes biome = KosmosChunks.getBiomeMap(world, worldPosition.x, worldPosition.z);
+			Boolean[] models = chunkData.get(tile);
+
+			for (int m = 0; m < models.length; m++) {
+				if (models[m]) {
+					TileModel model = hexagons[m];
+
+					float rotation = Math.abs(world.getNoise().noise(tile.x - tile.z + chunkPosition.lengthSquared(), 1.0f)) * 20.0f;
+					rotation = (float) Math.toRadians(Maths.normalizeAngle(((int) rotation) * 60.0f));
+
+					for (int i = 0; i < model.indices.length; i++) {
+						int index = model.indices[i];
+						float vertex0 = model.vertices[index * 3];
+						float vertex1 = model.vertices[index * 3 + 1];
+						float vertex2 = model.vertices[index * 3 + 2];
+
+						if (m == 0 || m == 1) {
+							float rx = (float) (vertex0 * Math.cos(rotation) - vertex2 * Math.sin(rotation));
+							float ry = (float) (vertex0 * Math.sin(rotation) + vertex2 * Math.cos(rotation));
+							vertex0 = rx;
+							vertex2 = ry;
+						}
+
+						vertex0 += (tile.x / 2.0f);
+						vertex1 += (tile.y / 2.0f);
+						vertex2 += (tile.z / 2.0f);
+
+						float texture0 = model.textures[index * 2];
+						float texture1 = model.textures[index * 2 + 1];
+
+						texture0 /= (float) side;
+						texture1 /= (float) side;
+						texture0 += ((float) (biome.getId() % side)) / ((float) side);
+						texture1 += ((float) (biome.getId() / side)) / ((float) side);
+
+						float normal0 = model.normals[index * 3];
+						float normal1 = model.normals[index * 3 + 1];
+						float normal2 = model.normals[index * 3 + 2];
+						float tangent0 = model.tangents[index * 3];
+						float tangent1 = model.tangents[index * 3 + 1];
+						float tangent2 = model.tangents[index * 3 + 2];
+
+						TileVertex vertex = new TileVertex(indexOffset, vertex0, vertex1, vertex2, texture0, texture1, normal0, normal1, normal2, tangent0, tangent1, tangent2, null);
+
+						for (TileVertex v : vertices) {
+							if (v.equals(vertex) && v.duplicate == null) {
+								vertex.duplicate = v;
+							}
+						}
+
+						vertices.add(vertex);
+
+						// Offset the running non duplicate index total.
+						if (vertex.duplicate == null) {
+							indexOffset++;
+						}
+
+						// Update the mesh bounds.
+						result.minX = (vertex0 < result.minX) ? vertex0 : result.minX;
+						result.minY = (vertex1 < result.minY) ? vertex1 : result.minY;
+						result.minZ = (vertex2 < result.minZ) ? vertex2 : result.minZ;
+						result.maxX = (vertex0 > result.maxX) ? vertex0 : result.maxX;
+						result.maxY = (vertex1 > result.maxY) ? vertex1 : result.maxY;
+						result.maxZ = (vertex2 > result.maxZ) ? vertex2 : result.maxZ;
+					}
+				}
+			}
+		}
+
+		// Gets the resulting data stuff from the other stuff.
+		result.vertices = new float[indexOffset * 3];
+		result.textures = new float[indexOffset * 2];
+		result.normals = new float[indexOffset * 3];
+		result.tangents = new float[indexOffset * 3];
+		result.indices = new int[vertices.size()];
+
+		for (int i = 0; i < vertices.size(); i++) {
+			TileVertex vertex = vertices.get(i);
+
+			if (vertex.duplicate == null) {
+				result.indices[i] = vertex.index;
+
+				result.vertices[vertex.index * 3] = vertex.vertex0;
+				result.vertices[vertex.index * 3 + 1] = vertex.vertex1;
+				result.vertices[vertex.index * 3 + 2] = vertex.vertex2;
+
+				result.textures[vertex.index * 2] = vertex.texture0;
+				result.textures[vertex.index * 2 + 1] = vertex.texture1;
+
+				result.normals[vertex.index * 3] = vertex.normal0;
+				result.normals[vertex.index * 3 + 1] = vertex.normal1;
+				result.normals[vertex.index * 3 + 2] = vertex.normal2;
+
+				result.tangents[vertex.index * 3] = vertex.tangent0;
+				result.tangents[vertex.index * 3 + 1] = vertex.tangent1;
+				result.tangents[vertex.index * 3 + 2] = vertex.tangent2;
+			} else {
+				result.indices[i] = vertex.duplicate.index;
+			}
+		}
+
+		return result;
+	}
+
+	public float[] getVertices() {
+		return vertices;
+	}
+
+	public float[] getTextures() {
+		return textures;
+	}
+
+	public float[] getNormals() {
+		return normals;
+	}
+
+	public float[] getTangents() {
+		return tangents;
+	}
+
+	public int[] getIndices() {
+		return indices;
+	}
+
+	public Vector3f getMin() {
+		return new Vector3f(minX, minY, minZ);
+	}
+
+	public Vector3f getMax() {
+		return new Vector3f(maxX, maxY, maxZ);
+	}
+
+	/**
+	 * The plain model data for one of the hexagon tile models.
+	 */
+	public static class TileModel {
+		private final float[] vertices;
+		private final float[] textures;
+		private final float[] normals;
+		private final float[] tangents;
+		private final int[] indices;
+
+		public TileModel(float[] vertices, float[] textures, float[] normals, float[] tangents, int[] indices) {
+			this.vertices = vertices;
+			this.textures = textures;
+			this.normals = normals;
+			this.tangents = tangents;
+			this.indices = indices;
+		}
+	}
+}
@@ -11,14 +11,13 @@ package kosmos.world.chunks.meshing;
 
 import flounder.entities.components.*;
 import flounder.logger.*;
-import flounder.maths.*;
 import flounder.maths.vectors.*;
 import flounder.models.*;
 import flounder.physics.*;
 import flounder.processing.resource.*;
 import kosmos.world.*;
-import kosmos.world.biomes.*;
 import kosmos.world.chunks.*;
+import kosmos.world.water.*;
 
 import java.util.*;
 
@@ -27,170 +26,82 @@ import java.util.*;
  */
 public class MeshBuildRequest implements RequestResource {
 	private ChunkMesh chunkMesh;
-	private Map<Vector3f, Boolean[]> chunkData;
+	private BitSet removed;
 
 	/**
-	 * Loads chunk mesh data.
+	 * Generates and loads chunk mesh data.
 	 *
 	 * @param chunkMesh The chunk mesh to load to.
-	 * @param chunkData The chunk position and hexagon model map.
+	 * @param removed A snapshot of the chunks removed tile indices.
 	 */
-	public MeshBuildRequest(ChunkMesh chunkMesh, Map<Vector3f, Boolean[]> chunkData) {
+	public MeshBuildRequest(ChunkMesh chunkMesh, BitSet removed) {
 		this.chunkMesh = chunkMesh;
-		this.chunkData = chunkData;
+		this.removed = removed;
 	}
 
 	@Override
 	public void executeRequestResource() {
+		// Generates the tiles and decoration table on the worker.
+		Map<Vector3f, Boolean[]> chunkData = chunkMesh.chunk.generate(removed);
+
+		// Builds the water over tiles below the waves, inland chunks get no water.
+		chunkMesh.chunk.getWaterMesh().load(WaterMesh.generate(chunkMesh.chunk.getPosition(), chunkMesh.chunk.getHeights(), Water.SEA_LEVEL));
+
 		// Removes the old chunk model.
 		if (chunkMesh.chunkModel != null) {
 			chunkMesh.chunkModel.delete();
 			chunkMesh.chunkModel = null;
 		}
 
-		// The array to store all chunk vertices into.
-		List<TileVertex> vertices = new ArrayList<>();
-
-		// Only create the model if there is stuff to build from.
-		if (!chunkData.isEmpty()) {
-			int side = (int) Math.ceil(Math.sqrt(IBiome.Biomes.values().length));
-
-			int indexOffset = 0;
-
-			// Loads all tiles into a tile mesh with all positional instances within the chunk.
-			for (Vector3f tile : chunkData.keySet()) {
-				Vector2f tilePosition = KosmosChunks.convertChunkToTile(tile, null);
-				Vector3f worldPosition = KosmosChunks.convertTileToWorld(chunkMesh.chunk, tilePosition.x, tilePosition.y, null);
-				IBiome.Biomes biome = KosmosChunks.getBiomeMap(worldPosition.x, worldPosition.z);
-				Boolean[] models = chunkData.get(tile);
-
-				for (int m = 0; m < models.length; m++) {
-					if (models[m]) {
-						ModelObject model = KosmosChunks.get().getHexagons()[m];
-
-						float rotation = Math.abs(KosmosWorld.get().getWorld().getNoise().noise(tile.x - tile.z + chunkMesh.chunk.getPosition().lengthSquared(), 1.0f)) * 20.0f;
-						rotation = (float) Math.toRadians(Maths.normalizeAngle(((int) rotation) * 60.0f));
-
-						for (int i = 0; i < model.getIndices().length; i++) {
-							int index = model.getIndices()[i];
-							float vertex0 = model.getVertices()[index * 3];
-							float vertex1 = model.getVertices()[index * 3 + 1];
-							float vertex2 = model.getVertices()[index * 3 + 2];
-
-							if (m == 0 || m == 1) {
-								float rx = (float) (vertex0 * Math.cos(rotation) - vertex2 * Math.sin(rotation));
-								float ry = (float) (vertex0 * Math.sin(rotation) + vertex2 * Math.cos(rotation));
-								vertex0 = rx;
-								vertex2 = ry;
-							}
-
-							vertex0 += (tile.x / 2.0f);
-							vertex1 += (tile.y / 2.0f);
-							vertex2 += (tile.z / 2.0f);
-
-							float texture0 = model.getTextures()[index * 2];
-							float texture1 = model.getTextures()[index * 2 + 1];
-
-							texture0 /= (float) side;
-							texture1 /= (float) side;
-							texture0 += ((float) (biome.getId() % side)) / ((float) side);
-							texture1 += ((float) (biome.getId() / side)) / ((float) side);
-
-							float normal0 = model.getNormals()[index * 3];
-							float normal1 = model.getNormals()[index * 3 + 1];
-							float normal2 = model.getNormals()[index * 3 + 2];
-							float tangent0 = model.getTangents()[index * 3];
-							float tangent1 = model.getTangents()[index * 3 + 1];
-							float tangent2 = model.getTangents()[index * 3 + 2];
-
-							TileVertex vertex = new TileVertex(indexOffset, vertex0, vertex1, vertex2, texture0, texture1, normal0, normal1, normal2, tangent0, tangent1, tangent2, null);
-
-							for (TileVertex v : vertices) {
-								if (v.equals(vertex) && v.duplicate == null) {
-									vertex.duplicate = v;
-								}
-							}
-
-							vertices.add(vertex);
-
-							// Offset the running non duplicate index total.
-							if (vertex.duplicate == null) {
-								indexOffset++;
-							}
-
-							// Update the mesh bounds.
-							chunkMesh.minX = (vertex0 < chunkMesh.minX) ? vertex0 : chunkMesh.minX;
-							chunkMesh.minY = (vertex1 < chunkMesh.minY) ? vertex1 : chunkMesh.minY;
-							chunkMesh.minZ = (vertex2 < chunkMesh.minZ) ? vertex2 : chunkMesh.minZ;
-							chunkMesh.maxX = (vertex0 > chunkMesh.maxX) ? vertex0 : chunkMesh.maxX;
-							chunkMesh.maxY = (vertex1 > chunkMesh.maxY) ? vertex1 : chunkMesh.maxY;
-							chunkMesh.maxZ = (vertex2 > chunkMesh.maxZ) ? vertex2 : chunkMesh.maxZ;
-						}
-					}
-				}
-			}
-
-			// A constant radius ensures every chunk holds the same volume.
-			chunkMesh.maxRadius = KosmosChunks.CHUNK_WORLD_SIZE; // Maths.maxValue(maxX, maxY, maxZ, Math.abs(minX), Math.abs(minY), Math.abs(minZ));
-
-			// Gets the resulting data stuff from the other stuff.
-			float[] resultVertices = new float[indexOffset * 3];
-			float[] resultTextures = new float[indexOffset * 2];
-			float[] resultNormals = new float[indexOffset * 3];
-			float[] resultTangents = new float[indexOffset * 3];
-			int[] resultIndices = new int[vertices.size()];
+		// Assembles the tiles into a mesh from the hexagon model arrays.
+		ModelObject[] hexagons = KosmosChunks.get().getHexagons();
+		MeshAssembly.TileModel[] tileModels = new MeshAssembly.TileModel[hexagons.length];
 
-			for (int i = 0; i < vertices.size(); i++) {
-				if (vertices.get(i).duplicate == null) {
-					resultIndices[i] = vertices.get(i).index;
-
-					resultVertices[vertices.get(i).index * 3] = vertices.get(i).vertex0;
-					resultVertices[vertices.get(i).index * 3 + 1] = vertices.get(i).vertex1;
-					resultVertices[vertices.get(i).index * 3 + 2] = vertices.get(i).vertex2;
+		for (int i = 0; i < hexagons.length; i++) {
+			tileModels[i] = new MeshAssembly.TileModel(hexagons[i].getVertices(), hexagons[i].getTextures(), hexagons[i].getNormals(), hexagons[i].getTangents(), hexagons[i].getIndices());
+		}
 
-					resultTextures[vertices.get(i).index * 2] = vertices.get(i).texture0;
-					resultTextures[vertices.get(i).index * 2 + 1] = vertices.get(i).texture1;
+		MeshAssembly assembly = MeshAssembly.assemble(KosmosWorld.get().getWorld(), chunkMesh.chunk.getPosition(), chunkData, tileModels);
 
-					resultNormals[vertices.get(i).index * 3] = vertices.get(i).normal0;
-					resultNormals[vertices.get(i).index * 3 + 1] = vertices.get(i).normal1;
-					resultNormals[vertices.get(i).index * 3 + 2] = vertices.get(i).normal2;
+		// A constant radius ensures every chunk holds the same volume.
+		chunkMesh.maxRadius = KosmosChunks.CHUNK_WORLD_SIZE;
 
-					resultTangents[vertices.get(i).index * 3] = vertices.get(i).tangent0;
-					resultTangents[vertices.get(i).index * 3 + 1] = vertices.get(i).tangent1;
-					resultTangents[vertices.get(i).index * 3 + 2] = vertices.get(i).tangent2;
-				} else {
-					resultIndices[i] = vertices.get(i).duplicate.index;
-				}
-			}
-
-			// Delete crap.
-			vertices.clear();
+		// Only create the model if there is stuff to build from.
+		if (assembly != null) {
+			Vector3f min = assembly.getMin();
+			Vector3f max = assembly.getMax();
+			chunkMesh.minX = min.x;
+			chunkMesh.minY = min.y;
+			chunkMesh.minZ = min.z;
+			chunkMesh.maxX = max.x;
+			chunkMesh.maxY = max.y;
+			chunkMesh.maxZ = max.z;
 
 			// Then all model data is used to create a manual model loader, a hull is not generated and materials are baked into the textures. he model is then loaded into a object and OpenGL.
 			chunkMesh.chunkModel = ModelFactory.newBuilder().setManual(new ModelLoadManual("chunk" + chunkMesh.chunk.getPosition().x + "u" + chunkMesh.chunk.getPosition().z) {
 				@Override
 				public float[] getVertices() {
-					return resultVertices;
+					return assembly.getVertices();
 				}
 
 				@Override
 				public float[] getTextures() {
-					return resultTextures;
+					return assembly.getTextures();
 				}
 
 				@Override
 				public float[] getNormals() {
-					return resultNormals;
+					return assembly.getNormals();
 				}
 
 				@Override
 				public float[] getTangents() {
-					return resultTangents;
+					return assembly.getTangents();
 				}
 
 				@Override
 				public int[] getIndices() {
-					return resultIndices;
+					return assembly.getIndices();
 				}
 
 				@Override
@@ -200,7 +111,7 @@ public class MeshBuildRequest implements RequestResource {
 
 				@Override
 				public AABB getAABB() {
-					return new AABB(new Vector3f(chunkMesh.minX, chunkMesh.minY, chunkMesh.minZ), new Vector3f(chunkMesh.maxX, chunkMesh.maxY + 50, chunkMesh.maxZ));
+					return new AABB(new Vector3f(min.x, min.y, min.z), new Vector3f(max.x, max.y + 50, max.z));
 				}
 			}).create();
 			chunkMesh.chunk.setLoaded(true);
@@ -208,9 +119,6 @@ public class MeshBuildRequest implements RequestResource {
 			// No model if no data can be loaded.
 			chunkMesh.chunkModel = null;
 			chunkMesh.chunk.setLoaded(true);
-
-			// Normal chunk size.
-			chunkMesh.maxRadius = KosmosChunks.CHUNK_WORLD_SIZE;
 		}
 
 		if (chunkMesh.chunkModel != null) {
@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.decorations;
+
+import flounder.entities.*;
+import flounder.entities.components.*;
+import flounder.maths.vectors.*;
+import kosmos.world.chunks.*;
+
+import java.util.*;
+
+/**
+ * Holds the decorations of a chunk as compact instance arrays grouped by type.
+ * Instances are rendered instanced and are only promoted to full entities when the player gets close enough to interact.
+ */
+public class ChunkDecorations {
+	// The amount of floats per instance: x, y, z, yaw.
+	public static final int INSTANCE_LENGTH = 4;
+
+	// The distance from the player where instances are promoted into entities, covers picking and collision.
+	public static final float PROMOTE_RADIUS = 4.0f;
+
+	// The distance from the player where untouched promoted entities go back to sleep as instances, larger than the promote radius so they do not flicker.
+	public static final float DEMOTE_RADIUS = 2.0f * PROMOTE_RADIUS;
+
+	private Chunk chunk;
+
+	private float[][] instances;
+	private int[][] tiles;
+	private int[] counts;
+	private int total;
+
+	// The type and slot of the instance on each chunk tile index, -1 when the tile has no instance.
+	private int[] tileTypes;
+	private int[] tileSlots;
+
+	// Decorations that have been promoted into entities, and their types, by tile index.
+	private Entity[] promoted;
+	private int[] promotedTypes;
+	private int promotedCount;
+
+	/**
+	 * Creates a new empty set of chunk decorations.
+	 *
+	 * @param chunk The chunk that owns the decorations.
+	 */
+	public ChunkDecorations(Chunk chunk) {
+		this.chunk = chunk;
+
+		this.instances = new float[DecorationType.VALUES.length][];
+		this.tiles = new int[DecorationType.VALUES.length][];
+		this.counts = new int[DecorationType.VALUES.length];
+		this.total = 0;
+
+		this.tileTypes = new int[KosmosChunks.CHUNK_TILE_COUNT];
+		this.tileSlots = new int[KosmosChunks.CHUNK_TILE_COUNT];
+		this.promoted = new Entity[KosmosChunks.CHUNK_TILE_COUNT];
+		this.promotedTypes = new int[KosmosChunks.CHUNK_TILE_COUNT];
+		this.promotedCount = 0;
+
+		for (int i = 0; i < instances.length; i++) {
+			instances[i] = new float[0];
+			tiles[i] = new int[0];
+		}
+
+		Arrays.fill(tileTypes, -1);
+	}
+
+	/**
+	 * Adds a decoration instance.
+	 *
+	 * @param type The decoration type.
+	 * @param tile The chunk tile index the instance is placed on.
+	 * @param x The world x position.
+	 * @param y The world y position.
+	 * @param z The world z position.
+	 * @param yaw The yaw rotation, in degrees.
+	 */
+	public void add(DecorationType type, int tile, float x, float y, float z, float yaw) {
+		int t = type.getId();
+		int offset = counts[t] * INSTANCE_LENGTH;
+
+		if (offset + INSTANCE_LENGTH > instances[t].length) {
+			instances[t] = Arrays.copyOf(instances[t], Math.max(8 * INSTANCE_LENGTH, instances[t].length * 2));
+			tiles[t] = Arrays.copyOf(tiles[t], instances[t].length / INSTANCE_LENGTH);
+		}
+
+		tiles[t][counts[t]] = tile;
+		tileTypes[tile] = t;
+		tileSlots[tile] = counts[t];
+
+		instances[t][offset] = x;
+		instances[t][offset + 1] = y;
+		instances[t][offset + 2] = z;
+		instances[t][offset + 3] = yaw;
+		counts[t]++;
+		total++;
+	}
+
+	/**
+	 * Removes the decoration instance on a tile, if there is one.
+	 *
+	 * @param tile The chunk tile index.
+	 *
+	 * @return If a instance was removed.
+	 */
+	public boolean remove(int tile) {
+		if (tile < 0 || tileTypes[tile] == -1) {
+			return false;
+		}
+
+		removeInstance(tileTypes[tile], tileSlots[tile]);
+		return true;
+	}
+
+	/**
+	 * Gets the entity a tiles decoration was promoted into.
+	 *
+	 * @param tile The chunk tile index.
+	 *
+	 * @return The promoted entity, or null if there is none.
+	 */
+	public Entity getPromoted(int tile) {
+		return tile < 0 ? null : promoted[tile];
+	}
+
+	/**
+	 * Takes the entity a tiles decoration was promoted into, the tile no longer tracks the entity after this.
+	 *
+	 * @param tile The chunk tile index.
+	 *
+	 * @return The promoted entity, or null if there is none.
+	 */
+	public Entity takePromoted(int tile) {
+		if (tile < 0) {
+			return null;
+		}
+
+		Entity entity = promoted[tile];
+
+		if (entity != null) {
+			promoted[tile] = null;
+			promotedCount--;
+		}
+
+		return entity;
+	}
+
+	/**
+	 * Promotes all instances within a radius of a position into full entities.
+	 *
+	 * @param position The position to promote around, the y component is ignored.
+	 * @param radius The radius to promote in.
+	 */
+	public void promoteNear(Vector3f position, float radius) {
+		if (total == 0) {
+			return;
+		}
+
+		// Skips chunks that can not contain any instances in range.
+		float cdx = position.x - chunk.getPosition().x;
+		float cdz = position.z - chunk.getPosition().z;
+		float chunkRange = KosmosChunks.CHUNK_WORLD_SIZE + radius;
+
+		if ((cdx * cdx) + (cdz * cdz) > chunkRange * chunkRange) {
+			return;
+		}
+
+		float radiusSquared = radius * radius;
+
+		for (int t = 0; t < instances.length; t++) {
+			// Iterates backwards as promoting swaps the last instance into the removed slot.
+			for (int i = counts[t] - 1; i >= 0; i--) {
+				int offset = i * INSTANCE_LENGTH;
+				float dx = instances[t][offset] - position.x;
+				float dz = instances[t][offset + 2] - position.z;
+
+				if ((dx * dx) + (dz * dz) <= radiusSquared) {
+					promote(t, i);
+				}
+			}
+		}
+	}
+
+	private Entity promote(int type, int index) {
+		int offset = index * INSTANCE_LENGTH;
+		Vector3f position = new Vector3f(instances[type][offset], instances[type][offset + 1], instances[type][offset + 2]);
+		Vector3f rotation = new Vector3f(0.0f, instances[type][offset + 3], 0.0f);
+		int tile = tiles[type][index];
+		removeInstance(type, index);
+
+		Entity entity = DecorationType.VALUES[type].create(KosmosChunks.get().getStructure(), position, rotation);
+
+		if (entity != null) {
+			new ComponentChild(entity, chunk, () -> {
+				// The entity is already being removed, so it is untracked before the chunk records the removal.
+				if (promoted[tile] != null) {
+					promoted[tile] = null;
+					promotedCount--;
+				}
+
+				chunk.getPickGrid().remove(entity);
+				chunk.entityRemove(tile);
+			});
+			new ComponentSelect(entity);
+			promoted[tile] = entity;
+			promotedTypes[tile] = type;
+			promotedCount++;
+			chunk.getPickGrid().add(entity);
+		}
+
+		return entity;
+	}
+
+	/**
+	 * Puts promoted entities outside of a radius back to sleep as instances, so they stop updating.
+	 *
+	 * @param position The position to demote around, the y component is ignored.
+	 * @param radius The radius to keep entities promoted in.
+	 */
+	public void demoteFar(Vector3f position, float radius) {
+		if (promotedCount == 0) {
+			return;
+		}
+
+		float radiusSquared = radius * radius;
+
+		for (int tile = 0; tile < promoted.length; tile++) {
+			Entity entity = promoted[tile];
+
+			if (entity == null) {
+				continue;
+			}
+
+			float dx = entity.getPosition().x - position.x;
+			float dz = entity.getPosition().z - position.z;
+
+			if ((dx * dx) + (dz * dz) <= radiusSquared) {
+				continue;
+			}
+
+			// Taken out of the structure directly, removing the entity would record the tile as removed.
+			promoted[tile] = null;
+			promotedCount--;
+			chunk.getPickGrid().remove(entity);
+			KosmosChunks.get().getStructure().remove(entity);
+			add(DecorationType.VALUES[promotedTypes[tile]], tile, entity.getPosition().x, entity.getPosition().y, entity.getPosition().z, entity.getRotation().y);
+		}
+	}
+
+	private void removeInstance(int type, int index) {
+		int last = counts[type] - 1;
+		tileTypes[tiles[type][index]] = -1;
+
+		// Moves the last instance into the removed slot.
+		if (index != last) {
+			System.arraycopy(instances[type], last * INSTANCE_LENGTH, instances[type], index * INSTANCE_LENGTH, INSTANCE_LENGTH);
+			tiles[type][index] = tiles[type][last];
+			tileSlots[tiles[type][index]] = index;
+		}
+
+		counts[type]--;
+		total--;
+	}
+
+	/**
+	 * Removes all instances.
+	 */
+	public void clear() {
+		Arrays.fill(counts, 0);
+		Arrays.fill(tileTypes, -1);
+		Arrays.fill(promoted, null);
+		promotedCount = 0;
+		total = 0;
+	}
+
+	/**
+	 * Gets the packed instance data for a type, only the first {@link #getCount(DecorationType)} instances are valid.
+	 *
+	 * @param type The decoration type.
+	 *
+	 * @return The packed instance data.
+	 */
+	public float[] getInstances(DecorationType type) {
+		return instances[type.getId()];
+	}
+
+	public int getCount(DecorationType type) {
+		return counts[type.getId()];
+	}
+
+	public int getTotal() {
+		return total;
+	}
+}
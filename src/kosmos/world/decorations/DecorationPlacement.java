@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.decorations;
+
+/**
+ * Deterministic decoration placement, every value is a pure function of the world seed and a global tile coordinate.
+ * The same tile always produces the same decoration on any thread, client or server.
+ */
+public class DecorationPlacement {
+	// The fraction of tiles that roll for a decoration at all.
+	public static final float DENSITY = 0.06f;
+
+	// Salts used to derive independent values from one tile hash.
+	private static final long SALT_GATE = 0x9E3779B97F4A7C15L;
+	private static final long SALT_SPAWN = 0xC2B2AE3D27D4EB4FL;
+	private static final long SALT_CHANCE = 0x165667B19E3779F9L;
+	private static final long SALT_ROTATION = 0xD6E8FEB86659FD93L;
+
+	private DecorationPlacement() {
+	}
+
+	/**
+	 * Hashes a seed and global tile coordinate into 64 well mixed bits.
+	 *
+	 * @param seed The world seed.
+	 * @param tileX The global tile x coordinate.
+	 * @param tileZ The global tile z coordinate.
+	 *
+	 * @return The tile hash.
+	 */
+	public static long hash(int seed, int tileX, int tileZ) {
+		long h = ((long) seed << 32) ^ (((long) tileX & 0xFFFFFFFFL) * 0x85EBCA6BL) ^ (((long) tileZ & 0xFFFFFFFFL) * 0xC2B2AE35L << 16);
+		return mix(h);
+	}
+
+	/**
+	 * Gets if a tile should roll for a decoration.
+	 *
+	 * @param hash The tile hash.
+	 *
+	 * @return If the tile is decorated.
+	 */
+	public static boolean isDecorated(long hash) {
+		return unit(hash, SALT_GATE) < DENSITY;
+	}
+
+	/**
+	 * Picks a spawn index for a tile.
+	 *
+	 * @param hash The tile hash.
+	 * @param spawns The number of spawns the biome has.
+	 *
+	 * @return The spawn index.
+	 */
+	public static int spawnIndex(long hash, int spawns) {
+		return Math.min((int) (unit(hash, SALT_SPAWN) * spawns), spawns - 1);
+	}
+
+	/**
+	 * Gets a uniform value used to test against a spawns chance.
+	 *
+	 * @param hash The tile hash.
+	 *
+	 * @return A value between 0 and 1.
+	 */
+	public static float chance(long hash) {
+		return unit(hash, SALT_CHANCE);
+	}
+
+	/**
+	 * Gets the yaw for a tiles decoration.
+	 *
+	 * @param hash The tile hash.
+	 *
+	 * @return The yaw, in degrees.
+	 */
+	public static float rotation(long hash) {
+		return unit(hash, SALT_ROTATION) * 360.0f;
+	}
+
+	private static float unit(long hash, long salt) {
+		return (mix(hash ^ salt) >>> 40) / (float) (1L << 24);
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.decorations;
+
+import flounder.camera.*;
+import flounder.devices.*;
+import flounder.framework.*;
+import flounder.loaders.*;
+import flounder.maths.vectors.*;
+import flounder.models.*;
+import flounder.renderer.*;
+import flounder.resources.*;
+import flounder.shaders.*;
+import kosmos.world.chunks.*;
+
+import java.nio.*;
+import java.util.*;
+
+import static flounder.platform.Constants.*;
+
+/**
+ * Renders chunk decorations with one instanced draw per decoration model.
+ */
+public class DecorationRenderer extends Renderer {
+	private static final MyFile VERTEX_SHADER = new MyFile(FlounderShaders.SHADERS_LOC, "decorations", "decorationVertex.glsl");
+	private static final MyFile FRAGMENT_SHADER = new MyFile(FlounderShaders.SHADERS_LOC, "decorations", "decorationFragment.glsl");
+
+	// The max instances uploaded in a single draw call.
+	private static final int MAX_INSTANCES = 4096;
+
+	// The vertex attribute the instance data is bound to.
+	private static final int INSTANCE_ATTRIBUTE = 4;
+
+	private ShaderObject shader;
+
+	private int[] vbos;
+	private float[] data;
+	private FloatBuffer buffer;
+
+	private List<Chunk> chunks;
+
+	public DecorationRenderer() {
+		this.shader = ShaderFactory.newBuilder().setName("decorations").addType(new ShaderType(GL_VERTEX_SHADER, VERTEX_SHADER)).addType(new ShaderType(GL_FRAGMENT_SHADER, FRAGMENT_SHADER)).create();
+
+		this.vbos = new int[DecorationType.VALUES.length];
+		this.data = new float[MAX_INSTANCES * ChunkDecorations.INSTANCE_LENGTH];
+		this.buffer = ByteBuffer.allocateDirect(data.length * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+
+		this.chunks = new ArrayList<>();
+	}
+
+	@Override
+	public void render(Vector4f clipPlane, Camera camera) {
+		if (!shader.isLoaded()) {
+			return;
+		}
+
+		// Finds all loaded chunks in view that have decorations.
+		chunks.clear();
+
+		for (Chunk chunk : KosmosChunks.get().getStructure().getChunks()) {
+			if (chunk.isLoaded() && chunk.getDecorations().getTotal() > 0 && chunk.getSphere().inFrustum(camera.getViewFrustum())) {
+				chunks.add(chunk);
+			}
+		}
+
+		if (chunks.isEmpty()) {
+			return;
+		}
+
+		prepareRendering(clipPlane, camera);
+
+		for (DecorationType type : DecorationType.VALUES) {
+			if (type.getModel() == null || !type.getModel().isLoaded() || type.getTexture() == null || !type.getTexture().isLoaded()) {
+				continue;
+			}
+
+			// Packs instances from all visible chunks, flushing when the batch is full.
+			int count = 0;
+
+			for (Chunk chunk : chunks) {
+				ChunkDecorations decorations = chunk.getDecorations();
+				float[] instances = decorations.getInstances(type);
+				int remaining = decorations.getCount(type);
+				int read = 0;
+
+				while (remaining > 0) {
+					int copy = Math.min(remaining, MAX_INSTANCES - count);
+					System.arraycopy(instances, read * ChunkDecorations.INSTANCE_LENGTH, data, count * ChunkDecorations.INSTANCE_LENGTH, copy * ChunkDecorations.INSTANCE_LENGTH);
+					count += copy;
+					read += copy;
+					remaining -= copy;
+
+					if (count == MAX_INSTANCES) {
+						renderInstances(type, count);
+						count = 0;
+					}
+				}
+			}
+
+			renderInstances(type, count);
+		}
+
+		endRendering();
+	}
+
+	private void prepareRendering(Vector4f clipPlane, Camera camera) {
+		shader.start();
+		shader.getUniformMat4("projectionMatrix").loadMat4(camera.getProjectionMatrix());
+		shader.getUniformMat4("viewMatrix").loadMat4(camera.getViewMatrix());
+		shader.getUniformVec4("clipPlane").loadVec4(clipPlane);
+		shader.getUniformFloat("swayTime").loadFloat(Framework.get().getTimeSec());
+
+		FlounderOpenGL.get().antialias(FlounderDisplay.get().isAntialiasing());
+		FlounderOpenGL.get().enableDepthTesting();
+		FlounderOpenGL.get().cullBackFaces(true);
+	}
+
+	private void renderInstances(DecorationType type, int count) {
+		if (count == 0) {
+			return;
+		}
+
+		ModelObject model = type.getModel();
+		int t = type.getId();
+
+		// The instance buffer is attached to the model VAO the first time the type is drawn.
+		if (vbos[t] == 0) {
+			vbos[t] = FlounderLoader.get().createEmptyVBO(data.length);
+			FlounderLoader.get().addInstancedAttribute(model.getVaoID(), vbos[t], INSTANCE_ATTRIBUTE, ChunkDecorations.INSTANCE_LENGTH, ChunkDecorations.INSTANCE_LENGTH, 0);
+		}
+
+		FlounderLoader.get().updateVBO(vbos[t], data, buffer);
+
+		FlounderOpenGL.get().bindVAO(model.getVaoID(), 0, 1, 2, INSTANCE_ATTRIBUTE);
+		FlounderOpenGL.get().bindTexture(type.getTexture(), 0);
+
+		if (type.getTextureSway() != null && type.getTextureSway().isLoaded()) {
+			FlounderOpenGL.get().bindTexture(type.getTextureSway(), 1);
+		}
+
+		FlounderOpenGL.get().renderElementsInstanced(GL_TRIANGLES, GL_UNSIGNED_INT, model.getVaoLength(), count);
+		FlounderOpenGL.get().unbindVAO(0, 1, 2, INSTANCE_ATTRIBUTE);
+	}
+
+	private void endRendering() {
+		shader.stop();
+	}
+
+	@Override
+	public void dispose() {
+		shader.delete();
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.decorations;
+
+import flounder.entities.*;
+import flounder.maths.vectors.*;
+import flounder.models.*;
+import flounder.resources.*;
+import flounder.space.*;
+import flounder.textures.*;
+import kosmos.entities.instances.*;
+import kosmos.world.biomes.*;
+
+/**
+ * The types of decorations that can be spawned by a biome, the type id is used to group instances by model.
+ */
+public enum DecorationType {
+	BUSH(InstanceBush::new, "bush"),
+	CACTUS_1(InstanceCactus1::new, "cactus1"),
+	CACTUS_2(InstanceCactus2::new, "cactus2"),
+	CATTAIL(InstanceCattail::new, "cattail"),
+	FLOWERPATCH_1(InstanceFlowerpatch1::new, "flowerpatch1"),
+	GRASS_TUFT_1(InstanceGrassTuft1::new, "grasstuft1"),
+	TALL_GRASS(InstanceTallGrass::new, "tallGrass"),
+	TREE_DEAD_SNOW(InstanceTreeDeadSnow::new, "treeDeadSnow"),
+	TREE_MAPLE(InstanceTreeMaple::new, "treeMaple"),
+	TREE_PALM(InstanceTreePalm::new, "treePalm"),
+	TREE_PINE(InstanceTreePine::new, "treePine"),
+	TREE_YELLOW(InstanceTreeYellow::new, "treeYellow");
+
+	public static final DecorationType[] VALUES = DecorationType.values();
+
+	private final EntitySpawn.EntityCreate create;
+	private final ModelObject model;
+	private final TextureObject texture;
+	private final TextureObject textureSway;
+
+	DecorationType(EntitySpawn.EntityCreate create, String folder) {
+		this.create = create;
+		this.model = ModelFactory.newBuilder().setFile(new MyFile(FlounderEntities.ENTITIES_FOLDER, folder, "model.obj")).create();
+		this.texture = TextureFactory.newBuilder().setFile(new MyFile(FlounderEntities.ENTITIES_FOLDER, folder, "diffuse.png")).setNumberOfRows(1).create();
+		this.textureSway = TextureFactory.newBuilder().setFile(new MyFile(FlounderEntities.ENTITIES_FOLDER, folder, "sway.png")).setNumberOfRows(1).create();
+	}
+
+	/**
+	 * Promotes a decoration instance into a full entity.
+	 *
+	 * @param structure The structure to add the entity to.
+	 * @param position The position of the entity.
+	 * @param rotation The rotation of the entity.
+	 *
+	 * @return The created entity.
+	 */
+	public Entity create(ISpatialStructure<Entity> structure, Vector3f position, Vector3f rotation) {
+		return create.create(structure, position, rotation);
+	}
+
+	public int getId() {
+		return ordinal();
+	}
+
+	public ModelObject getModel() {
+		return model;
+	}
+
+	public TextureObject getTexture() {
+		return texture;
+	}
+
+	public TextureObject getTextureSway() {
+		return textureSway;
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.horizon;
+
+import flounder.maths.vectors.*;
+import kosmos.world.*;
+import kosmos.world.biomes.*;
+import kosmos.world.chunks.*;
+
+/**
+ * Assembles a patch of the horizon from a coarse grid of terrain heights, this only works on plain arrays so it can run without OpenGL.
+ * Each cell is two flat triangles coloured by the biome at its centre, the low poly look of the tiles at a fraction of the vertices.
+ */
+public class HorizonAssembly {
+	// How far the top of a tile model is above half of its height.
+	private static final float TILE_TOP_OFFSET = (float) (Math.sqrt(2.0) * 0.25);
+
+	// How far the horizon is below the tiles, so where it reaches under loaded chunks the tiles draw over it.
+	public static final float SINK = 1.0f;
+
+	// The height used for terrain below the world, under the ocean rings.
+	public static final float SEA_FLOOR = -2.0f;
+
+	private float[] vertices;
+	private float[] textures;
+	private float[] normals;
+	private float[] tangents;
+	private int[] indices;
+
+	private float minY;
+	private float maxY;
+
+	private HorizonAssembly() {
+	}
+
+	/**
+	 * Assembles a square patch of the horizon.
+	 *
+	 * @param world The world to sample.
+	 * @param originX The world x position of the patches first corner.
+	 * @param originZ The world z position of the patches first corner.
+	 * @param cells The cells along each side of the patch.
+	 * @param cellSize The world size of a cell.
+	 * @param topU The texture u of a tiles top, inside a biomes part of the biome texture.
+	 * @param topV The texture v of a tiles top, inside a biomes part of the biome texture.
+	 *
+	 * @return The assembled patch.
+	 */
+	public static HorizonAssembly assemble(WorldDefinition world, float originX, float originZ, int cells, float cellSize, float topU, float topV) {
+		HorizonAssembly result = new HorizonAssembly();
+		result.minY = Float.POSITIVE_INFINITY;
+		result.maxY = Float.NEGATIVE_INFINITY;
+
+		// Samples the heights at the cell corners once, cells share them.
+		float[] heights = new float[(cells + 1) * (cells + 1)];
+
+		for (int j = 0; j <= cells; j++) {
+			for (int i = 0; i <= cells; i++) {
+				float height = getHeight(world, originX + (i * cellSize), originZ + (j * cellSize));
+				heights[(j * (cells + 1)) + i] = height;
+				result.minY = Math.min(result.minY, height);
+				result.maxY = Math.max(result.maxY, height);
+			}
+		}
+
+		int count = cells * cells * 6;
+		result.vertices = new float[count * 3];
+		result.textures = new float[count * 2];
+		result.normals = new float[count * 3];
+		result.tangents = new float[count * 3];
+		result.indices = new int[count];
+
+		int side = (int) Math.ceil(Math.sqrt(IBiome.Biomes.values().length));
+		int pointer = 0;
+
+		for (int j = 0; j < cells; j++) {
+			for (int i = 0; i < cells; i++) {
+				IBiome.Biomes biome = KosmosChunks.getBiomeMap(world, originX + ((i + 0.5f) * cellSize), originZ + ((j + 0.5f) * cellSize));
+				float u = (topU + (biome.getId() % side)) / side;
+				float v = (topV + (biome.getId() / side)) / side;
+
+				float x0 = originX + (i * cellSize);
+				float z0 = originZ + (j * cellSize);
+				float x1 = x0 + cellSize;
+				float z1 = z0 + cellSize;
+				float h00 = heights[(j * (cells + 1)) + i];
+				float h10 = heights[(j * (cells + 1)) + i + 1];
+				float h01 = heights[((j + 1) * (cells + 1)) + i];
+				float h11 = heights[((j + 1) * (cells + 1)) + i + 1];
+
+				// Two triangles facing up, split along the same diagonal as the water.
+				pointer = storeTriangle(result, pointer, x0, h00, z0, x0, h01, z1, x1, h10, z0, u, v);
+				pointer = storeTriangle(result, pointer, x1, h10, z0, x0, h01, z1, x1, h11, z1, u, v);
+			}
+		}
+
+		return result;
+	}
+
+	private static int storeTriangle(HorizonAssembly result, int pointer, float ax, float ay, float az, float bx, float by, float bz, float cx, float cy, float cz, float u, float v) {
+		// The flat normal of the triangle.
+		Vector3f normal = Vector3f.cross(new Vector3f(bx - ax, by - ay, bz - az), new Vector3f(cx - ax, cy - ay, cz - az), null).normalize();
+
+		pointer = storeVertex(result, pointer, ax, ay, az, normal, u, v);
+		pointer = storeVertex(result, pointer, bx, by, bz, normal, u, v);
+		pointer = storeVertex(result, pointer, cx, cy, cz, normal, u, v);
+		return pointer;
+	}
+
+	private static int storeVertex(HorizonAssembly result, int pointer, float x, float y, float z, Vector3f normal, float u, float v) {
+		result.vertices[pointer * 3] = x;
+		result.vertices[pointer * 3 + 1] = y;
+		result.vertices[pointer * 3 + 2] = z;
+
+		result.textures[pointer * 2] = u;
+		result.textures[pointer * 2 + 1] = v;
+
+		result.normals[pointer * 3] = normal.x;
+		result.normals[pointer * 3 + 1] = normal.y;
+		result.normals[pointer * 3 + 2] = normal.z;
+
+		result.tangents[pointer * 3] = 1.0f;
+
+		result.indices[pointer] = pointer;
+		return pointer + 1;
+	}
+
+	/**
+	 * Gets the height of the top of the terrain at a position, as the top of a tile would be.
+	 *
+	 * @param world The world to sample.
+	 * @param positionX The world x position.
+	 * @param positionZ The world z position.
+	 *
+	 * @return The height.
+	 */
+	public static float getHeight(WorldDefinition world, float positionX, float positionZ) {
+		float height = KosmosChunks.getWorldHeight(world, positionX, positionZ);
+
+		// Tiles below the world are not drawn, the ocean covers them.
+		if (!(height >= 0.0f) || Float.isInfinite(height)) {
+			return SEA_FLOOR;
+		}
+
+		return (height * 0.5f) + TILE_TOP_OFFSET - SINK;
+	}
+
+	public float[] getVertices() {
+		return vertices;
+	}
+
+	public float[] getTextures() {
+		return textures;
+	}
+
+	public float[] getNormals() {
+		return normals;
+	}
+
+	public float[] getTangents() {
+		return tangents;
+	}
+
+	public int[] getIndices() {
+		return indices;
+	}
+
+	public float getMinY() {
+		return minY;
+	}
+
+	public float getMaxY() {
+		return maxY;
+	}
+}
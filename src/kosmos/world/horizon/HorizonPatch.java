@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.horizon;
+
+import flounder.maths.vectors.*;
+import flounder.models.*;
+import flounder.physics.*;
+import flounder.physics.bounding.*;
+import flounder.processing.*;
+import flounder.processing.resource.*;
+import kosmos.world.*;
+import kosmos.world.chunks.*;
+
+/**
+ * A square patch of the horizon, built on a worker the first time it comes into range.
+ */
+public class HorizonPatch {
+	private final int patchX;
+	private final int patchZ;
+	private final Sphere sphere;
+
+	private volatile ModelObject model;
+	private volatile boolean deleted;
+
+	/**
+	 * Creates a new horizon patch and requests it to be built.
+	 *
+	 * @param world The world to sample.
+	 * @param patchX The patches x position on the patch grid.
+	 * @param patchZ The patches z position on the patch grid.
+	 */
+	public HorizonPatch(WorldDefinition world, int patchX, int patchZ) {
+		this.patchX = patchX;
+		this.patchZ = patchZ;
+		this.sphere = new Sphere(1.0f);
+		this.sphere.update(new Vector3f((patchX + 0.5f) * KosmosHorizon.PATCH_SIZE, 0.0f, (patchZ + 0.5f) * KosmosHorizon.PATCH_SIZE), null, KosmosHorizon.PATCH_SIZE * (float) Math.sqrt(0.5), sphere);
+
+		this.model = null;
+		this.deleted = false;
+
+		FlounderProcessors.get().sendRequest((RequestResource) () -> build(world));
+	}
+
+	private void build(WorldDefinition world) {
+		if (deleted) {
+			return;
+		}
+
+		// The top of the hexagon model is where every tile samples the biome texture.
+		float[] textures = KosmosChunks.get().getHexagons()[0].getTextures();
+		float topU = 0.0f;
+		float topV = 0.0f;
+
+		for (int i = 0; i < textures.length; i += 2) {
+			topU += textures[i];
+			topV += textures[i + 1];
+		}
+
+		topU /= textures.length / 2;
+		topV /= textures.length / 2;
+
+		HorizonAssembly assembly = HorizonAssembly.assemble(world, patchX * KosmosHorizon.PATCH_SIZE, patchZ * KosmosHorizon.PATCH_SIZE, KosmosHorizon.PATCH_CELLS, KosmosHorizon.CELL_SIZE, topU, topV);
+		Vector3f min = new Vector3f(patchX * KosmosHorizon.PATCH_SIZE, assembly.getMinY(), patchZ * KosmosHorizon.PATCH_SIZE);
+		Vector3f max = new Vector3f((patchX + 1) * KosmosHorizon.PATCH_SIZE, assembly.getMaxY(), (patchZ + 1) * KosmosHorizon.PATCH_SIZE);
+
+		ModelObject built = ModelFactory.newBuilder().setManual(new ModelLoadManual("horizon" + patchX + "u" + patchZ) {
+			@Override
+			public float[] getVertices() {
+				return assembly.getVertices();
+			}
+
+			@Override
+			public float[] getTextures() {
+				return assembly.getTextures();
+			}
+
+			@Override
+			public float[] getNormals() {
+				return assembly.getNormals();
+			}
+
+			@Override
+			public float[] getTangents() {
+				return assembly.getTangents();
+			}
+
+			@Override
+			public int[] getIndices() {
+				return assembly.getIndices();
+			}
+
+			@Override
+			public boolean isSmoothShading() {
+				return false;
+			}
+
+			@Override
+			public AABB getAABB() {
+				return new AABB(min, max);
+			}
+		}).create();
+
+		// The patch may have left the range while it was being built.
+		synchronized (this) {
+			if (deleted) {
+				built.delete();
+			} else {
+				model = built;
+			}
+		}
+	}
+
+	public int getPatchX() {
+		return patchX;
+	}
+
+	public int getPatchZ() {
+		return patchZ;
+	}
+
+	public Sphere getSphere() {
+		return sphere;
+	}
+
+	/**
+	 * Gets the patches model.
+	 *
+	 * @return The model, or null if it has not been built yet.
+	 */
+	public ModelObject getModel() {
+		return model;
+	}
+
+	public synchronized void delete() {
+		deleted = true;
+
+		if (model != null) {
+			model.delete();
+			model = null;
+		}
+	}
+}
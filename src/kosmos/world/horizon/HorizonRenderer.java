@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.horizon;
+
+import flounder.camera.*;
+import flounder.devices.*;
+import flounder.maths.vectors.*;
+import flounder.models.*;
+import flounder.renderer.*;
+import flounder.resources.*;
+import flounder.shaders.*;
+import flounder.textures.*;
+import kosmos.world.chunks.*;
+
+import static flounder.platform.Constants.*;
+
+/**
+ * Renders the horizon patches in view with the biome texture the chunks use.
+ */
+public class HorizonRenderer extends Renderer {
+	private static final MyFile VERTEX_SHADER = new MyFile(FlounderShaders.SHADERS_LOC, "horizon", "horizonVertex.glsl");
+	private static final MyFile FRAGMENT_SHADER = new MyFile(FlounderShaders.SHADERS_LOC, "horizon", "horizonFragment.glsl");
+
+	private ShaderObject shader;
+
+	public HorizonRenderer() {
+		this.shader = ShaderFactory.newBuilder().setName("horizon").addType(new ShaderType(GL_VERTEX_SHADER, VERTEX_SHADER)).addType(new ShaderType(GL_FRAGMENT_SHADER, FRAGMENT_SHADER)).create();
+	}
+
+	@Override
+	public void render(Vector4f clipPlane, Camera camera) {
+		TextureObject texture = KosmosChunks.get().getTextureBiome();
+
+		if (!shader.isLoaded() || texture == null || !texture.isLoaded() || KosmosHorizon.get().getPatches().isEmpty()) {
+			return;
+		}
+
+		prepareRendering(clipPlane, camera);
+		FlounderOpenGL.get().bindTexture(texture, 0);
+
+		for (HorizonPatch patch : KosmosHorizon.get().getPatches()) {
+			ModelObject model = patch.getModel();
+
+			if (model != null && model.isLoaded() && patch.getSphere().inFrustum(camera.getViewFrustum())) {
+				FlounderOpenGL.get().bindVAO(model.getVaoID(), 0, 1, 2);
+				FlounderOpenGL.get().renderElements(GL_TRIANGLES, GL_UNSIGNED_INT, model.getVaoLength());
+				FlounderOpenGL.get().unbindVAO(0, 1, 2);
+			}
+		}
+
+		endRendering();
+	}
+
+	private void prepareRendering(Vector4f clipPlane, Camera camera) {
+		shader.start();
+		shader.getUniformMat4("projectionMatrix").loadMat4(camera.getProjectionMatrix());
+		shader.getUniformMat4("viewMatrix").loadMat4(camera.getViewMatrix());
+		shader.getUniformVec4("clipPlane").loadVec4(clipPlane);
+
+		FlounderOpenGL.get().antialias(FlounderDisplay.get().isAntialiasing());
+		FlounderOpenGL.get().enableDepthTesting();
+		FlounderOpenGL.get().cullBackFaces(true);
+	}
+
+	private void endRendering() {
+		shader.stop();
+	}
+
+	@Override
+	public void dispose() {
+		shader.delete();
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.horizon;
+
+import flounder.camera.*;
+import flounder.framework.*;
+import flounder.maths.vectors.*;
+import kosmos.*;
+import kosmos.network.*;
+import kosmos.profiling.*;
+import kosmos.world.*;
+import kosmos.world.chunks.*;
+
+import java.util.*;
+
+/**
+ * Draws the terrain past the loaded chunks as low resolution patches, so the view distance does not depend on the chunk distance.
+ * Patches are kept on a square grid around the player, only patches that come into range are built and patches that leave it are deleted.
+ */
+public class KosmosHorizon extends Module {
+	// The world size of a horizon cell, four tiles across.
+	public static final float CELL_SIZE = (float) (4.0 * (Math.sqrt(3.0) / 2.0) * KosmosChunks.HEXAGON_SIDE_LENGTH);
+
+	// The cells along each side of a patch.
+	public static final int PATCH_CELLS = 8;
+
+	// The world size of a patch.
+	public static final float PATCH_SIZE = PATCH_CELLS * CELL_SIZE;
+
+	// The distance between the centres of neighbouring chunks, the horizon distance is counted in these.
+	public static final float CHUNK_SPACING = (float) (((2 * KosmosChunks.CHUNK_RADIUS) - 1) * (Math.sqrt(3.0) / 2.0) * KosmosChunks.HEXAGON_SIDE_LENGTH);
+
+	private Map<Long, HorizonPatch> patches;
+	private WorldDefinition world;
+
+	private int horizonDistance;
+
+	private int lastPatchX;
+	private int lastPatchZ;
+	private int lastChunkDistance;
+	private int lastHorizonDistance;
+
+	public KosmosHorizon() {
+		super(KosmosChunks.class, KosmosProfiling.class);
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		this.patches = new HashMap<>();
+		this.world = null;
+
+		this.horizonDistance = KosmosConfigs.HORIZON_DISTANCE.getInteger();
+
+		this.lastPatchX = Integer.MIN_VALUE;
+		this.lastPatchZ = Integer.MIN_VALUE;
+		this.lastChunkDistance = -1;
+		this.lastHorizonDistance = -1;
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+		// Patches from the last world are deleted when the world changes.
+		WorldDefinition current = KosmosWorld.get() == null ? null : KosmosWorld.get().getWorld();
+
+		if (current != world) {
+			clear();
+			this.world = current;
+		}
+
+		if (world == null || KosmosNetwork.get().getServer() != null || FlounderCamera.get().getPlayer() == null || !KosmosChunks.get().getHexagonsLoaded()) {
+			return;
+		}
+
+		KosmosProfiling.get().begin(KosmosHorizon.class);
+
+		Vector3f position = FlounderCamera.get().getPlayer().getPosition();
+		int patchX = (int) Math.floor(position.x / PATCH_SIZE);
+		int patchZ = (int) Math.floor(position.z / PATCH_SIZE);
+
+		// The patches in range only change when the player crosses into another patch.
+		if (patchX != lastPatchX || patchZ != lastPatchZ || KosmosChunks.get().getChunkDistance() != lastChunkDistance || horizonDistance != lastHorizonDistance) {
+			updatePatches(patchX, patchZ);
+
+			this.lastPatchX = patchX;
+			this.lastPatchZ = patchZ;
+			this.lastChunkDistance = KosmosChunks.get().getChunkDistance();
+			this.lastHorizonDistance = horizonDistance;
+		}
+
+		KosmosProfiling.get().end(KosmosHorizon.class);
+	}
+
+	private void updatePatches(int patchX, int patchZ) {
+		// Removes patches that have left the range.
+		Iterator<HorizonPatch> iterator = patches.values().iterator();
+
+		while (iterator.hasNext()) {
+			HorizonPatch patch = iterator.next();
+
+			if (!isInRange(patch.getPatchX() - patchX, patch.getPatchZ() - patchZ)) {
+				patch.delete();
+				iterator.remove();
+			}
+		}
+
+		// Builds patches that have come into range.
+		int range = (int) Math.ceil(getHorizonRadius() / PATCH_SIZE) + 1;
+
+		for (int x = -range; x <= range; x++) {
+			for (int z = -range; z <= range; z++) {
+				long key = getKey(patchX + x, patchZ + z);
+
+				if (isInRange(x, z) && !patches.containsKey(key)) {
+					patches.put(key, new HorizonPatch(world, patchX + x, patchZ + z));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets if a patch is needed, between the chunks that are always loaded and the horizon distance.
+	 *
+	 * @param x The patches x offset from the players patch.
+	 * @param z The patches z offset from the players patch.
+	 *
+	 * @return If the patch is in range.
+	 */
+	private boolean isInRange(int x, int z) {
+		// The player can be anywhere in their patch, so both patches are padded by half of their diagonal.
+		float distance = (float) Math.sqrt((x * x) + (z * z)) * PATCH_SIZE;
+		float padding = PATCH_SIZE * (float) Math.sqrt(2.0);
+		float inner = KosmosChunks.get().getChunkDistance() * KosmosChunks.CHUNK_WORLD_SIZE;
+		return distance - padding < getHorizonRadius() && distance + padding > inner;
+	}
+
+	private static long getKey(int x, int z) {
+		return ((long) x << 32) | (z & 0xffffffffL);
+	}
+
+	/**
+	 * Gets the patches in range, some may not be built yet.
+	 *
+	 * @return The horizon patches.
+	 */
+	public Collection<HorizonPatch> getPatches() {
+		return patches.values();
+	}
+
+	/**
+	 * Gets how far the horizon reaches.
+	 *
+	 * @return The horizon radius, in world units.
+	 */
+	public float getHorizonRadius() {
+		return horizonDistance * CHUNK_SPACING;
+	}
+
+	/**
+	 * Gets the distance that can be seen, the larger of the chunk and horizon distances.
+	 *
+	 * @return The view distance, in chunks.
+	 */
+	public int getViewDistance() {
+		return Math.max(KosmosChunks.get().getChunkDistance(), horizonDistance);
+	}
+
+	public int getHorizonDistance() {
+		return horizonDistance;
+	}
+
+	public void setHorizonDistance(int horizonDistance) {
+		this.horizonDistance = horizonDistance;
+	}
+
+	/**
+	 * Deletes every patch.
+	 */
+	public void clear() {
+		for (HorizonPatch patch : patches.values()) {
+			patch.delete();
+		}
+
+		patches.clear();
+		this.lastPatchX = Integer.MIN_VALUE;
+		this.lastPatchZ = Integer.MIN_VALUE;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		clear();
+	}
+
+	@Module.Instance
+	public static KosmosHorizon get() {
+		return (KosmosHorizon) Framework.get().getInstance(KosmosHorizon.class);
+	}
+}
@@ -14,9 +14,14 @@ import flounder.loaders.*;
 import flounder.maths.vectors.*;
 import flounder.physics.bounding.*;
 import kosmos.*;
+import kosmos.profiling.*;
+import kosmos.world.chunks.*;
+import kosmos.world.horizon.*;
 
 public class KosmosWater extends Module {
 	private Water water;
+	private WaveSampler sampler;
+	private WaterClipmap clipmap;
 
 	private float colourIntensity; // 0 being 100% reflective, 1 disables reflections.
 	private boolean enableReflections;
@@ -24,7 +29,7 @@ public class KosmosWater extends Module {
 	private boolean reflectionShadows;
 
 	public KosmosWater() {
-		super(FlounderBounding.class, FlounderLoader.class);
+		super(FlounderBounding.class, FlounderLoader.class, KosmosProfiling.class, KosmosHorizon.class);
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
@@ -33,32 +38,57 @@ public class KosmosWater extends Module {
 		this.enableReflections = KosmosConfigs.WATER_REFLECTION_ENABLED.getBoolean();
 		this.reflectionQuality = KosmosConfigs.WATER_REFLECTION_QUALITY.getFloat();
 		this.reflectionShadows = KosmosConfigs.WATER_REFLECTION_SHADOWS.getBoolean();
+		this.sampler = new WaveSampler(256);
+		this.clipmap = new WaterClipmap();
 	}
 
 	@Handler.Function(Handler.FLAG_UPDATE_PRE)
 	public void update() {
-		if (water == null) {
-			return;
+		KosmosProfiling.get().begin(KosmosWater.class);
+
+		if (water != null) {
+			water.update();
+
+			// Samples the waves for every bobbing entity at once, before the entities update.
+			sampler.update(water.getPosition().y, Water.getWaveTime());
+
+			// Rebuilds the ocean rings if they no longer reach past the chunks and horizon.
+			clipmap.update(KosmosChunks.get().getChunkDistance(), KosmosHorizon.get().getHorizonRadius());
 		}
 
-		water.update();
+		KosmosProfiling.get().end(KosmosWater.class);
 	}
 
 	public void generateWater() {
-		this.water = new Water(new Vector3f(), new Vector3f(), 1.0f);
+		this.water = new Water(new Vector3f(0.0f, Water.SEA_LEVEL, 0.0f), new Vector3f(), 1.0f);
 	}
 
 	public void deleteWater() {
-		if (water != null) {
-			this.water.delete();
-			this.water = null;
-		}
+		this.water = null;
 	}
 
 	public Water getWater() {
 		return this.water;
 	}
 
+	/**
+	 * Gets the sampler bobbing entities register with to read the wave height at their position.
+	 *
+	 * @return The wave sampler.
+	 */
+	public WaveSampler getSampler() {
+		return this.sampler;
+	}
+
+	/**
+	 * Gets the rings of water past the loaded chunks.
+	 *
+	 * @return The water clipmap.
+	 */
+	public WaterClipmap getClipmap() {
+		return this.clipmap;
+	}
+
 	public float getColourIntensity() {
 		return this.colourIntensity;
 	}
@@ -93,9 +123,8 @@ public class KosmosWater extends Module {
 
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
-		if (water != null) {
-			water.delete();
-		}
+		clipmap.delete();
+		this.water = null;
 	}
 
 	@Module.Instance
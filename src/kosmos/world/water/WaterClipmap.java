@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.water;
+
+import flounder.loaders.*;
+import flounder.maths.vectors.*;
+import flounder.processing.*;
+import flounder.processing.opengl.*;
+import flounder.processing.resource.*;
+import kosmos.world.chunks.*;
+
+/**
+ * The open ocean past the loaded chunks, as nested rings of cells that double in size with each level.
+ * The mesh is built once for a chunk distance and moved with the player, snapped to the largest cells so every vertex stays on its levels grid.
+ * It is only drawn outside of the radius the loaded chunks always cover, the chunk water meshes are only drawn inside of it.
+ */
+public class WaterClipmap {
+	// The cells across each level, a ring leaves out the middle half that the level inside it covers.
+	public static final int RING_CELLS = 32;
+
+	// The highest level the vertex encoding can hold.
+	public static final int MAX_LEVEL = 15;
+
+	// How far the ocean reaches, in chunk ranges.
+	public static final float OCEAN_EXTENT = 6.0f;
+
+	private int vao;
+	private int vertexCount;
+	private float coverRadius;
+	private boolean loaded;
+
+	private int chunkDistance;
+	private float horizonRadius;
+	private int firstLevel;
+	private int lastLevel;
+
+	/**
+	 * Creates a new clipmap with no mesh, the mesh is built on the first update.
+	 */
+	public WaterClipmap() {
+		this.vao = 0;
+		this.vertexCount = 0;
+		this.coverRadius = 0.0f;
+		this.loaded = false;
+
+		this.chunkDistance = -1;
+		this.horizonRadius = 0.0f;
+		this.firstLevel = 1;
+		this.lastLevel = 1;
+	}
+
+	/**
+	 * Rebuilds the mesh on a worker if the chunk distance or horizon has changed.
+	 *
+	 * @param chunkDistance The chunk distance the ocean should reach past.
+	 * @param horizonRadius The distance the horizon reaches, the ocean reaches at least as far.
+	 */
+	public void update(int chunkDistance, float horizonRadius) {
+		if (this.chunkDistance == chunkDistance && this.horizonRadius == horizonRadius) {
+			return;
+		}
+
+		int last = getLastLevel(chunkDistance, horizonRadius);
+		int first = getFirstLevel(chunkDistance, last);
+		this.chunkDistance = chunkDistance;
+		this.horizonRadius = horizonRadius;
+		this.firstLevel = first;
+		this.lastLevel = last;
+
+		FlounderProcessors.get().sendRequest((RequestResource) () -> {
+			float[] vertices = generate(first, last);
+
+			FlounderProcessors.get().sendRequest((RequestOpenGL) () -> {
+				if (loaded) {
+					FlounderLoader.get().deleteVAOFromCache(vao);
+				}
+
+				vao = FlounderLoader.get().createInterleavedVAO(vertices, WaterMesh.VERTEX_SIZE);
+				vertexCount = vertices.length / WaterMesh.VERTEX_SIZE;
+				coverRadius = getCoverRadius(chunkDistance);
+				loaded = true;
+			});
+		});
+	}
+
+	/**
+	 * Builds the rings for a range of levels, this only works on plain arrays so it is safe to call off the main thread.
+	 * The first level is a full grid if it is level one, otherwise it is a ring with the hole left for the chunk water.
+	 *
+	 * @param first The first level to build.
+	 * @param last The last level to build.
+	 *
+	 * @return The vertices, relative to the snapped centre.
+	 */
+	public static float[] generate(int first, int last) {
+		int ringCells = (RING_CELLS * RING_CELLS) - ((RING_CELLS / 2) * (RING_CELLS / 2));
+		int cells = (first == 1 ? RING_CELLS * RING_CELLS : ringCells) + ((last - first) * ringCells);
+		float[] vertices = new float[cells * 6 * WaterMesh.VERTEX_SIZE];
+		int pointer = 0;
+
+		for (int level = first; level <= last; level++) {
+			double cellX = getCellX(level);
+			double cellZ = getCellZ(level);
+			boolean hollow = level != 1;
+
+			for (int i = -RING_CELLS / 2; i < RING_CELLS / 2; i++) {
+				for (int j = -RING_CELLS / 2; j < RING_CELLS / 2; j++) {
+					if (hollow && i >= -RING_CELLS / 4 && i < RING_CELLS / 4 && j >= -RING_CELLS / 4 && j < RING_CELLS / 4) {
+						continue;
+					}
+
+					// Two triangles facing up, a cell is one unit on x and two on z.
+					pointer = storeVertex(vertices, pointer, level, last, i, j, 0, 1, 1, 0, cellX, cellZ);
+					pointer = storeVertex(vertices, pointer, level, last, i, j + 1, 1, -1, 0, -1, cellX, cellZ);
+					pointer = storeVertex(vertices, pointer, level, last, i + 1, j, -1, 0, -1, 1, cellX, cellZ);
+
+					pointer = storeVertex(vertices, pointer, level, last, i + 1, j, -1, 1, 0, 1, cellX, cellZ);
+					pointer = storeVertex(vertices, pointer, level, last, i, j + 1, 1, 0, 1, -1, cellX, cellZ);
+					pointer = storeVertex(vertices, pointer, level, last, i + 1, j + 1, 0, -1, -1, 0, cellX, cellZ);
+				}
+			}
+		}
+
+		return vertices;
+	}
+
+	private static int storeVertex(float[] vertices, int pointer, int level, int last, int i, int j, int x1, int j1, int x2, int j2, double cellX, double cellZ) {
+		// Vertices on the outer edge between the larger cells of the next level are stitched to its edge by the shader, so there are no cracks.
+		int stitch = 0;
+
+		if (level != last) {
+			if (Math.abs(j) == RING_CELLS / 2 && (i & 1) != 0) {
+				stitch = 1;
+			} else if (Math.abs(i) == RING_CELLS / 2 && (j & 1) != 0) {
+				stitch = 2;
+			}
+		}
+
+		vertices[pointer++] = (float) (i * cellX);
+		vertices[pointer++] = (float) (j * cellZ);
+		vertices[pointer++] = WaterMesh.encode(level, stitch, x1, 2 * j1, x2, 2 * j2);
+		return pointer;
+	}
+
+	/**
+	 * Gets the width of the cells in a level.
+	 *
+	 * @param level The level.
+	 *
+	 * @return The cell width.
+	 */
+	public static double getCellX(int level) {
+		return (Water.SQUARE_SIZE / 2.0) * (1 << level);
+	}
+
+	/**
+	 * Gets the depth of the cells in a level.
+	 *
+	 * @param level The level.
+	 *
+	 * @return The cell depth.
+	 */
+	public static double getCellZ(int level) {
+		return (KosmosChunks.HEXAGON_SIDE_LENGTH / 2.0) * (1 << level);
+	}
+
+	/**
+	 * Gets the level that reaches past the chunks by {@link #OCEAN_EXTENT} chunk ranges, and past the horizon.
+	 *
+	 * @param chunkDistance The chunk distance.
+	 * @param horizonRadius The distance the horizon reaches.
+	 *
+	 * @return The last level.
+	 */
+	public static int getLastLevel(int chunkDistance, float horizonRadius) {
+		double extent = Math.max(OCEAN_EXTENT * (10.0f + ((1 + chunkDistance) * KosmosChunks.CHUNK_WORLD_SIZE)), horizonRadius);
+		int level = 1;
+
+		while (level < MAX_LEVEL && (RING_CELLS / 2) * getCellX(level) < extent) {
+			level++;
+		}
+
+		return level;
+	}
+
+	/**
+	 * Gets the first level to build, the levels inside of it are left out as the chunk water always covers them.
+	 *
+	 * @param chunkDistance The chunk distance.
+	 * @param last The last level, the rings can move by half of its cells.
+	 *
+	 * @return The first level.
+	 */
+	public static int getFirstLevel(int chunkDistance, int last) {
+		double radius = getCoverRadius(chunkDistance);
+		double slackX = getCellX(last) / 2.0;
+		double slackZ = getCellZ(last) / 2.0;
+		int first = 1;
+
+		// The hole in a ring is the size of the level inside it.
+		while (first < last) {
+			double holeX = ((RING_CELLS / 2) * getCellX(first)) + slackX;
+			double holeZ = ((RING_CELLS / 2) * getCellZ(first)) + slackZ;
+
+			if ((holeX * holeX) + (holeZ * holeZ) > radius * radius) {
+				break;
+			}
+
+			first++;
+		}
+
+		return first;
+	}
+
+	/**
+	 * Gets a radius around the player the loaded chunks always cover, the chunk range less a chunk.
+	 *
+	 * @param chunkDistance The chunk distance.
+	 *
+	 * @return The cover radius.
+	 */
+	public static float getCoverRadius(int chunkDistance) {
+		return chunkDistance * KosmosChunks.CHUNK_WORLD_SIZE;
+	}
+
+	/**
+	 * Gets where the rings are drawn around a position, snapped to the cells of the last level.
+	 *
+	 * @param centre The position to centre on.
+	 * @param destination The vector to store the offset in, can be null.
+	 *
+	 * @return The destination.
+	 */
+	public Vector3f getOffset(Vector3f centre, Vector3f destination) {
+		if (destination == null) {
+			destination = new Vector3f();
+		}
+
+		double cellX = getCellX(lastLevel);
+		double cellZ = getCellZ(lastLevel);
+		return destination.set((float) (cellX * Math.round(centre.x / cellX)), 0.0f, (float) (cellZ * Math.round(centre.z / cellZ)));
+	}
+
+	/**
+	 * @return The VAOs ID.
+	 */
+	protected int getVao() {
+		return vao;
+	}
+
+	/**
+	 * @return The number of vertices stored in the VAO.
+	 */
+	protected int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * @return The radius the mesh was built to be drawn outside of.
+	 */
+	public float getCoverRadius() {
+		return coverRadius;
+	}
+
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	public int getFirstLevel() {
+		return firstLevel;
+	}
+
+	public int getLastLevel() {
+		return lastLevel;
+	}
+
+	public void delete() {
+		FlounderProcessors.get().sendRequest((RequestOpenGL) () -> {
+			if (loaded) {
+				FlounderLoader.get().deleteVAOFromCache(vao);
+				loaded = false;
+			}
+		});
+
+		this.chunkDistance = -1;
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.water;
+
+import flounder.loaders.*;
+import flounder.maths.vectors.*;
+import flounder.processing.*;
+import flounder.processing.opengl.*;
+import kosmos.world.chunks.*;
+
+/**
+ * The water mesh for a chunk, a hexagon for each tile whose top is below the highest waves.
+ * Vertices are the world x and z position and an encoded indication of where the other two corners of its triangle are, so the shader can find the waves normal.
+ */
+public class WaterMesh {
+	// The floats stored for each vertex.
+	public static final int VERTEX_SIZE = 3;
+
+	// The floats stored for a tile, six triangles fanned around its centre.
+	public static final int TILE_SIZE = 6 * 3 * VERTEX_SIZE;
+
+	// How far the top of a tile model is above half of its height.
+	private static final float TILE_TOP_OFFSET = (float) (Math.sqrt(2.0) * 0.25);
+
+	// The corners of a tile counter clockwise from the x axis, in units of half the tile spacing on x and a quarter of the side length on z.
+	private static final int[][] CORNERS = new int[][]{{1, 1}, {0, 2}, {-1, 1}, {-1, -1}, {0, -2}, {1, -1}};
+
+	private int vao;
+	private int vertexCount;
+	private boolean loaded;
+
+	/**
+	 * Creates a new empty water mesh.
+	 */
+	public WaterMesh() {
+		this.vao = 0;
+		this.vertexCount = 0;
+		this.loaded = false;
+	}
+
+	/**
+	 * Builds the water vertices for a chunk from its tile heights, this only works on plain arrays so it is safe to call off the main thread.
+	 *
+	 * @param chunkPosition The position of the chunk.
+	 * @param heights The heightfield of the chunks top tiles by tile index, NaN for tiles outside the chunk.
+	 * @param waterLevel The height of the water plane.
+	 *
+	 * @return The vertices, or null if no tile is under water.
+	 */
+	public static float[] generate(Vector3f chunkPosition, float[] heights, float waterLevel) {
+		if (heights == null) {
+			return null;
+		}
+
+		int tiles = 0;
+
+		for (float height : heights) {
+			if (isUnderWater(height, waterLevel)) {
+				tiles++;
+			}
+		}
+
+		if (tiles == 0) {
+			return null;
+		}
+
+		float[] vertices = new float[tiles * TILE_SIZE];
+		double unitX = Water.SQUARE_SIZE / 2.0;
+		double unitZ = KosmosChunks.HEXAGON_SIDE_LENGTH / 4.0;
+		int pointer = 0;
+
+		for (int index = 0; index < heights.length; index++) {
+			if (!isUnderWater(heights[index], waterLevel)) {
+				continue;
+			}
+
+			int x = (index % KosmosChunks.CHUNK_TILE_WIDTH) - KosmosChunks.CHUNK_RADIUS + 1;
+			int z = (index / KosmosChunks.CHUNK_TILE_WIDTH) - KosmosChunks.CHUNK_RADIUS + 1;
+			double centreX = chunkPosition.x + (Water.SQUARE_SIZE * ((z / 2.0) + x));
+			double centreZ = chunkPosition.z + ((3.0 / 4.0) * KosmosChunks.HEXAGON_SIDE_LENGTH * z);
+
+			// Each triangle is the centre, the next corner, then this corner, so it faces up.
+			for (int c = 0; c < 6; c++) {
+				int[] corner = CORNERS[c];
+				int[] next = CORNERS[(c + 1) % 6];
+				pointer = storeVertex(vertices, pointer, centreX, centreZ, 0, 0, next, corner, unitX, unitZ);
+				pointer = storeVertex(vertices, pointer, centreX, centreZ, next[0], next[1], corner, null, unitX, unitZ);
+				pointer = storeVertex(vertices, pointer, centreX, centreZ, corner[0], corner[1], null, next, unitX, unitZ);
+			}
+		}
+
+		return vertices;
+	}
+
+	/**
+	 * Gets if a tile needs water, tiles below the world are not drawn and so are always under water.
+	 *
+	 * @param height The tiles height, NaN if the tile is outside of the chunk.
+	 * @param waterLevel The height of the water plane.
+	 *
+	 * @return If the tile needs water.
+	 */
+	public static boolean isUnderWater(float height, float waterLevel) {
+		if (Float.isNaN(height)) {
+			return false;
+		}
+
+		return height < 0.0f || (height * 0.5f) + TILE_TOP_OFFSET < waterLevel + Water.AMPLITUDE;
+	}
+
+	private static int storeVertex(float[] vertices, int pointer, double centreX, double centreZ, int x, int z, int[] other1, int[] other2, double unitX, double unitZ) {
+		// A null corner is the tiles centre.
+		int x1 = (other1 == null ? 0 : other1[0]) - x;
+		int z1 = (other1 == null ? 0 : other1[1]) - z;
+		int x2 = (other2 == null ? 0 : other2[0]) - x;
+		int z2 = (other2 == null ? 0 : other2[1]) - z;
+
+		vertices[pointer++] = (float) (centreX + (x * unitX));
+		vertices[pointer++] = (float) (centreZ + (z * unitZ));
+		vertices[pointer++] = encode(x1, z1, x2, z2);
+		return pointer;
+	}
+
+	/**
+	 * Encodes the position of the other 2 vertices in a triangle, relative to this vertex, into a single float.
+	 * The x offsets are from -1 to 1 and the z offsets are from -2 to 2.
+	 *
+	 * @param x Relative x position of first other vertex.
+	 * @param z Relative z position of first other vertex.
+	 * @param x2 Relative x position of second other vertex.
+	 * @param z2 Relative z position of second other vertex.
+	 *
+	 * @return The encoded float.
+	 */
+	public static float encode(int x, int z, int x2, int z2) {
+		return encode(0, 0, x, z, x2, z2);
+	}
+
+	/**
+	 * Encodes the position of the other 2 vertices in a triangle, and the scale of the offsets, into a single float.
+	 * The offsets are scaled by two to the power of the level, and a stitch of 1 or 2 has the shader average the waves one offset each way along x or z.
+	 *
+	 * @param level The level the offsets are scaled by, from 0 to 15.
+	 * @param stitch The axis to stitch along, 0 for none.
+	 * @param x Relative x position of first other vertex.
+	 * @param z Relative z position of first other vertex.
+	 * @param x2 Relative x position of second other vertex.
+	 * @param z2 Relative z position of second other vertex.
+	 *
+	 * @return The encoded float.
+	 */
+	public static float encode(int level, int stitch, int x, int z, int x2, int z2) {
+		int first = ((x + 1) * 5) + (z + 2);
+		int second = ((x2 + 1) * 5) + (z2 + 2);
+		return (((stitch * 16) + level) * 225) + (first * 15) + second;
+	}
+
+	/**
+	 * Loads vertices from {@link #generate(Vector3f, float[], float)} into this mesh, replacing the last mesh.
+	 *
+	 * @param vertices The vertices to load, null to leave the mesh empty.
+	 */
+	public void load(float[] vertices) {
+		if (vertices == null && !loaded) {
+			return;
+		}
+
+		FlounderProcessors.get().sendRequest((RequestOpenGL) () -> {
+			if (loaded) {
+				FlounderLoader.get().deleteVAOFromCache(vao);
+				loaded = false;
+			}
+
+			if (vertices != null) {
+				vao = FlounderLoader.get().createInterleavedVAO(vertices, VERTEX_SIZE);
+				vertexCount = vertices.length / VERTEX_SIZE;
+				loaded = true;
+			}
+		});
+	}
+
+	/**
+	 * @return The VAOs ID.
+	 */
+	protected int getVao() {
+		return vao;
+	}
+
+	/**
+	 * @return The number of vertices stored in the VAO.
+	 */
+	protected int getVertexCount() {
+		return vertexCount;
+	}
+
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	public void delete() {
+		FlounderProcessors.get().sendRequest((RequestOpenGL) () -> {
+			if (loaded) {
+				FlounderLoader.get().deleteVAOFromCache(vao);
+				loaded = false;
+			}
+		});
+	}
+}
@@ -30,24 +30,57 @@ public class WaterRenderer extends Renderer {
 	private FBO reflectionFBO;
 	private FilterMRT pipelineMRT;
 	private ShaderObject shader;
+	private Vector3f offset;
 
 	public WaterRenderer() {
 		this.reflectionFBO = FBO.newFBO(KosmosWater.get().getReflectionQuality()).attachments(3).withAlphaChannel(true).depthBuffer(DepthBufferType.TEXTURE).create();
 		this.pipelineMRT = new FilterMRT(FBO.newFBO(1.0f).disableTextureWrap().create());
 		this.shader = ShaderFactory.newBuilder().setName("water").addType(new ShaderType(GL_VERTEX_SHADER, VERTEX_SHADER)).addType(new ShaderType(GL_FRAGMENT_SHADER, FRAGMENT_SHADER)).create();
+		this.offset = new Vector3f();
 	}
 
 	@Override
 	public void render(Vector4f clipPlane, Camera camera) {
-		if (!shader.isLoaded() || KosmosWater.get().getWater() == null || !KosmosWater.get().getWater().isLoaded()) {
+		if (!shader.isLoaded() || KosmosWater.get().getWater() == null) {
 			return;
 		}
 
-		//if (KosmosWater.getWater().getCollider().inFrustum(camera.getViewFrustum())) {
 		prepareRendering(clipPlane, camera);
 		renderWater(KosmosWater.get().getWater());
+
+		WaterClipmap clipmap = KosmosWater.get().getClipmap();
+		Vector3f centre = FlounderCamera.get().getPlayer() == null ? null : FlounderCamera.get().getPlayer().getPosition();
+		boolean ocean = clipmap.isLoaded() && centre != null;
+
+		// The chunk water is drawn inside the radius the loaded chunks always cover and the ocean rings outside of it, without the rings it is drawn everywhere.
+		if (ocean) {
+			shader.getUniformVec3("coverCentre").loadVec3(centre.x, centre.y, centre.z);
+			shader.getUniformFloat("coverRadius").loadFloat(clipmap.getCoverRadius());
+		} else {
+			shader.getUniformFloat("coverRadius").loadFloat(-1.0f);
+		}
+
+		// Only chunks with tiles under water have a mesh, in world space.
+		shader.getUniformVec3("waterOffset").loadVec3(0.0f, 0.0f, 0.0f);
+		shader.getUniformBool("coverInside").loadBoolean(true);
+
+		for (Chunk chunk : KosmosChunks.get().getStructure().getChunks()) {
+			WaterMesh mesh = chunk.getWaterMesh();
+
+			if (mesh.isLoaded() && chunk.getSphere().inFrustum(camera.getViewFrustum())) {
+				renderMesh(mesh.getVao(), mesh.getVertexCount());
+			}
+		}
+
+		// The ocean rings are drawn around the player, at the same height as the chunk water.
+		if (ocean) {
+			clipmap.getOffset(centre, offset);
+			shader.getUniformVec3("waterOffset").loadVec3(offset.x, offset.y, offset.z);
+			shader.getUniformBool("coverInside").loadBoolean(false);
+			renderMesh(clipmap.getVao(), clipmap.getVertexCount());
+		}
+
 		endRendering();
-		//}
 	}
 
 	private void prepareRendering(Vector4f clipPlane, Camera camera) {
@@ -56,17 +89,6 @@ public class WaterRenderer extends Renderer {
 		shader.getUniformMat4("viewMatrix").loadMat4(camera.getViewMatrix());
 		shader.getUniformVec4("clipPlane").loadVec4(clipPlane);
 
-		Chunk chunk = KosmosChunks.get().getCurrent();
-
-		if (chunk != null) {
-			// Vector3f position = chunk.getPosition();
-			Vector3f position = FlounderCamera.get().getPlayer().getPosition();
-			shader.getUniformVec3("waterOffset").loadVec3(
-					(float) (2.0f * Water.SQUARE_SIZE) * Math.round(position.x / (2.0f * Water.SQUARE_SIZE)),
-					0.0f,
-					(float) (2.0f * Water.SQUARE_SIZE) * Math.round(position.z / (2.0f * Water.SQUARE_SIZE)));
-		}
-
 		if (KosmosWater.get().reflectionsEnabled() && KosmosWater.get().getColourIntensity() != 1.0f) {
 			// Update the quality scalar.
 			if (reflectionFBO.getSizeScalar() != KosmosWater.get().getReflectionQuality()) {
@@ -87,8 +109,6 @@ public class WaterRenderer extends Renderer {
 	}
 
 	private void renderWater(Water water) {
-		FlounderOpenGL.get().bindVAO(water.getVao(), 0);
-
 		shader.getUniformMat4("modelMatrix").loadMat4(water.getModelMatrix());
 
 		shader.getUniformVec4("diffuseColour").loadVec4(water.getColour());
@@ -103,14 +123,16 @@ public class WaterRenderer extends Renderer {
 		shader.getUniformFloat("reflectivity").loadFloat(Water.REFLECTIVITY);
 
 		shader.getUniformBool("ignoreReflections").loadBoolean(!KosmosWater.get().reflectionsEnabled());
+	}
 
-		FlounderOpenGL.get().renderArrays(GL_TRIANGLES, water.getVertexCount());
-
-		FlounderOpenGL.get().disableBlending();
+	private void renderMesh(int vao, int vertexCount) {
+		FlounderOpenGL.get().bindVAO(vao, 0);
+		FlounderOpenGL.get().renderArrays(GL_TRIANGLES, vertexCount);
 		FlounderOpenGL.get().unbindVAO(0);
 	}
 
 	private void endRendering() {
+		FlounderOpenGL.get().disableBlending();
 		shader.stop();
 	}
 
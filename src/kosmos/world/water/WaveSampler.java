@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2017, Equilibrium Games - All Rights Reserved.
+ *
+ * This source file is part of New Kosmos.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * Proprietary and confidential.
+ */
+
+package kosmos.world.water;
+
+import java.util.*;
+
+/**
+ * Samples the wave height at many registered positions once per frame, so bobbing entities read a height instead of each evaluating the waves.
+ * The position only part of each wave is turned into a sine and cosine when a position is registered, so a frame only needs the sines of the two time terms and a few multiplies per position.
+ * Positions are kept as parallel arrays so the per frame loop runs over tightly packed floats.
+ */
+public class WaveSampler {
+	private float[] positionsX;
+	private float[] positionsZ;
+	private float[] sinX;
+	private float[] cosX;
+	private float[] sinZ;
+	private float[] cosZ;
+	private float[] heights;
+	private boolean[] used;
+
+	private int[] free;
+	private int freeCount;
+	private int size;
+	private int count;
+
+	/**
+	 * Creates a new empty wave sampler.
+	 *
+	 * @param capacity The number of positions to make room for, the sampler grows as needed.
+	 */
+	public WaveSampler(int capacity) {
+		capacity = Math.max(capacity, 1);
+		this.positionsX = new float[capacity];
+		this.positionsZ = new float[capacity];
+		this.sinX = new float[capacity];
+		this.cosX = new float[capacity];
+		this.sinZ = new float[capacity];
+		this.cosZ = new float[capacity];
+		this.heights = new float[capacity];
+		this.used = new boolean[capacity];
+
+		this.free = new int[capacity];
+		this.freeCount = 0;
+		this.size = 0;
+		this.count = 0;
+	}
+
+	/**
+	 * Registers a position to be sampled, its height can be read after the next {@link #update(float, float)}.
+	 *
+	 * @param x The world x position.
+	 * @param z The world z position.
+	 *
+	 * @return The handle to read the height with.
+	 */
+	public int add(float x, float z) {
+		int handle;
+
+		if (freeCount > 0) {
+			handle = free[--freeCount];
+		} else {
+			if (size == heights.length) {
+				grow(size * 2);
+			}
+
+			handle = size++;
+		}
+
+		used[handle] = true;
+		count++;
+		move(handle, x, z);
+		return handle;
+	}
+
+	/**
+	 * Moves a registered position, recomputing its position only wave terms.
+	 *
+	 * @param handle The handle from {@link #add(float, float)}.
+	 * @param x The world x position.
+	 * @param z The world z position.
+	 */
+	public void move(int handle, float x, float z) {
+		positionsX[handle] = x;
+		positionsZ[handle] = z;
+
+		double radiansX = Water.getWavePhaseX(x, z) * 2.0 * Math.PI;
+		double radiansZ = Water.getWavePhaseZ(x, z) * 2.0 * Math.PI;
+		sinX[handle] = (float) Math.sin(radiansX);
+		cosX[handle] = (float) Math.cos(radiansX);
+		sinZ[handle] = (float) Math.sin(radiansZ);
+		cosZ[handle] = (float) Math.cos(radiansZ);
+	}
+
+	/**
+	 * Unregisters a position, the handle may be given out again.
+	 *
+	 * @param handle The handle from {@link #add(float, float)}.
+	 */
+	public void remove(int handle) {
+		if (handle < 0 || handle >= size || !used[handle]) {
+			return;
+		}
+
+		// Unused slots sample to the water plane, so the update loop does not need to skip them.
+		used[handle] = false;
+		sinX[handle] = 0.0f;
+		cosX[handle] = 0.0f;
+		sinZ[handle] = 0.0f;
+		cosZ[handle] = 0.0f;
+
+		if (freeCount == free.length) {
+			free = Arrays.copyOf(free, free.length * 2);
+		}
+
+		free[freeCount++] = handle;
+		count--;
+	}
+
+	/**
+	 * Samples the waves at every registered position.
+	 *
+	 * @param waterY The height of the water plane.
+	 * @param waveTime The wave time, from {@link Water#getWaveTime()}.
+	 */
+	public void update(float waterY, float waveTime) {
+		// sin(a + b) = sin(a)cos(b) + cos(a)sin(b), with a from the position and b from the time.
+		double timeX = waveTime * 2.0 * Math.PI;
+		double timeZ = waveTime * 2.0 * 2.0 * Math.PI;
+		float sinTimeX = (float) Math.sin(timeX);
+		float cosTimeX = (float) Math.cos(timeX);
+		float sinTimeZ = (float) Math.sin(timeZ);
+		float cosTimeZ = (float) Math.cos(timeZ);
+		float amplitude = Water.AMPLITUDE * 0.5f;
+
+		for (int i = 0; i < size; i++) {
+			float waveX = (sinX[i] * cosTimeX) + (cosX[i] * sinTimeX);
+			float waveZ = (sinZ[i] * cosTimeZ) + (cosZ[i] * sinTimeZ);
+			heights[i] = waterY + (amplitude * (waveZ + waveX));
+		}
+	}
+
+	private void grow(int capacity) {
+		positionsX = Arrays.copyOf(positionsX, capacity);
+		positionsZ = Arrays.copyOf(positionsZ, capacity);
+		sinX = Arrays.copyOf(sinX, capacity);
+		cosX = Arrays.copyOf(cosX, capacity);
+		sinZ = Arrays.copyOf(sinZ, capacity);
+		cosZ = Arrays.copyOf(cosZ, capacity);
+		heights = Arrays.copyOf(heights, capacity);
+		used = Arrays.copyOf(used, capacity);
+	}
+
+	/**
+	 * Gets the height sampled at a registered position on the last update.
+	 *
+	 * @param handle The handle from {@link #add(float, float)}.
+	 *
+	 * @return The water height.
+	 */
+	public float getHeight(int handle) {
+		return heights[handle];
+	}
+
+	public float getPositionX(int handle) {
+		return positionsX[handle];
+	}
+
+	public float getPositionZ(int handle) {
+		return positionsZ[handle];
+	}
+
+	/**
+	 * Gets the number of registered positions.
+	 *
+	 * @return The registered positions.
+	 */
+	public int getCount() {
+		return count;
+	}
+}